@@ -0,0 +1,78 @@
+package com.maya_steph.virusdefense;
+
+import javax.sound.sampled.AudioFormat;
+import java.awt.GraphicsEnvironment;
+import java.util.Map;
+
+/**
+ * Plays the sound effects SoundManager has generated and decided to play (after throttling and the
+ * concurrent sound limit).
+ *
+ * Chosen with the heartattack.audio property: "javasound" plays through Java Sound clips, "null"
+ * discards everything and "capture" records what was played, for tests and benchmarks. Without the
+ * property, headless runs use "null" so they never try to open audio lines.
+ */
+public interface AudioBackend extends AutoCloseable {
+    String PROPERTY = "heartattack.audio";
+
+    /**
+     * Prepare the sounds that play() will be asked for; called once, before any play()
+     * @param sounds PCM data by sound name, all in the given format
+     */
+    void load(Map<String, byte[]> sounds, AudioFormat format);
+
+    /**
+     * Start a sound without blocking
+     * @param tick game tick that triggered the sound, or -1 outside a game
+     * @param requestNanos System.nanoTime() when the sound was asked for
+     */
+    void play(String soundName, long tick, long requestNanos);
+
+    /**
+     * Sounds playing right now
+     */
+    int getActiveSoundCount();
+
+    String getName();
+
+    /**
+     * Stream music from the synthesizer until stopMusic(); replaces any music already playing
+     */
+    default void startMusic(MusicSynth music) {
+    }
+
+    default void setMusicPaused(boolean paused) {
+    }
+
+    default void stopMusic() {
+    }
+
+    /**
+     * Whether sounds are heard; background music only plays on backends that are
+     */
+    default boolean isAudible() {
+        return false;
+    }
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * The backend selected by the heartattack.audio property
+     */
+    static AudioBackend fromSystemProperties() {
+        String name = System.getProperty(PROPERTY, GraphicsEnvironment.isHeadless() ? "null" : "javasound");
+        switch (name) {
+            case "javasound":
+                return new JavaSoundBackend();
+            case "null":
+                return new NullAudioBackend();
+            case "capture":
+                return new CaptureAudioBackend();
+            default:
+                System.err.println("Unknown audio backend '" + name + "', using javasound");
+                return new JavaSoundBackend();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.maya_steph.virusdefense;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records every sound it is asked to play instead of playing it: which sound, the game tick that
+ * triggered it and how long it took to reach the backend. A recorded sound counts as playing for
+ * as long as the real sound would last, so the concurrent sound limit behaves as with real audio.
+ */
+public class CaptureAudioBackend implements AudioBackend {
+    /**
+     * One sound that was played
+     */
+    public static class Played {
+        private final String soundName;
+        private final long tick;
+        private final long latencyNanos;
+        private final long startNanos;
+        private final long endNanos;
+
+        Played(String soundName, long tick, long latencyNanos, long startNanos, long endNanos) {
+            this.soundName = soundName;
+            this.tick = tick;
+            this.latencyNanos = latencyNanos;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+
+        public String getSoundName() {
+            return soundName;
+        }
+
+        /**
+         * Game tick that triggered the sound, or -1 outside a game
+         */
+        public long getTick() {
+            return tick;
+        }
+
+        /**
+         * Time from the sound being asked for to the backend starting it
+         */
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        @Override
+        public String toString() {
+            return soundName + "@" + tick;
+        }
+    }
+
+    private final Map<String, Long> durationNanos = new HashMap<>();
+    private long longestNanos;
+    private final List<Played> played = new ArrayList<>();
+
+    @Override
+    public void load(Map<String, byte[]> sounds, AudioFormat format) {
+        double bytesPerSecond = format.getFrameRate() * format.getFrameSize();
+        for (Map.Entry<String, byte[]> sound : sounds.entrySet()) {
+            long duration = (long) (sound.getValue().length / bytesPerSecond * 1e9);
+            durationNanos.put(sound.getKey(), duration);
+            longestNanos = Math.max(longestNanos, duration);
+        }
+    }
+
+    @Override
+    public synchronized void play(String soundName, long tick, long requestNanos) {
+        long now = System.nanoTime();
+        played.add(new Played(soundName, tick, now - requestNanos, now, now + durationNanos.getOrDefault(soundName, 0L)));
+    }
+
+    @Override
+    public synchronized int getActiveSoundCount() {
+        long now = System.nanoTime();
+        int active = 0;
+        // Only sounds started within the longest sound's length can still be playing
+        for (int i = played.size() - 1; i >= 0 && now - played.get(i).startNanos <= longestNanos; i--) {
+            if (played.get(i).endNanos - now > 0) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Every sound played so far, oldest first
+     */
+    public synchronized List<Played> getPlayed() {
+        return new ArrayList<>(played);
+    }
+
+    /**
+     * Names of the sounds played so far, oldest first
+     */
+    public synchronized List<String> getSoundNames() {
+        List<String> names = new ArrayList<>();
+        for (Played sound : played) {
+            names.add(sound.getSoundName());
+        }
+        return names;
+    }
+
+    public synchronized void clear() {
+        played.clear();
+    }
+
+    @Override
+    public String getName() {
+        return "capture";
+    }
+}
@@ -0,0 +1,198 @@
+package com.maya_steph.virusdefense;
+
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineEvent;
+import javax.sound.sampled.LineListener;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-opened clips of one sound, handed out to play and taken back when they stop. Clips come back
+ * through their STOP event, so no thread waits for a sound to finish. The pool grows with demand:
+ * when every clip is playing, one more is opened on the loader thread and played there, so after a
+ * short warm-up the pool holds as many clips as the sound is ever played at once.
+ */
+public class ClipPool {
+    private static final long LOST_STOP_GRACE_NANOS = 100_000_000L; // Reclaim a clip whose STOP event never came
+
+    /**
+     * Opens a new clip of the pool's sound
+     */
+    public interface Opener {
+        Clip open() throws Exception;
+    }
+
+    private final String name;
+    private final Opener opener;
+    private final int maxSize;
+    private final Executor loader;
+    private final Queue<Clip> idle = new ConcurrentLinkedQueue<>();
+    private final Map<Clip, Long> playing = new ConcurrentHashMap<>(); // Clip -> time it should have stopped by
+    private final LineListener stopListener = this::onLineEvent;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger opening = new AtomicInteger();
+    private final AtomicInteger peakPlaying = new AtomicInteger();
+    private final AtomicInteger grown = new AtomicInteger();
+    private volatile boolean broken; // Opening failed once; no audio device, so stop trying
+
+    /**
+     * @param loader runs clip opening when the pool grows; a single thread keeps the thread count fixed
+     */
+    public ClipPool(String name, Opener opener, int initialSize, int maxSize, Executor loader) {
+        this.name = name;
+        this.opener = opener;
+        this.maxSize = maxSize;
+        this.loader = loader;
+        for (int i = 0; i < initialSize && !broken; i++) {
+            Clip clip = openClip();
+            if (clip != null) {
+                idle.offer(clip);
+            }
+        }
+    }
+
+    /**
+     * Start the sound on a free clip without blocking
+     * @return false if no clip could be started now (the pool may be growing for next time)
+     */
+    public boolean play() {
+        Clip clip = idle.poll();
+        if (clip == null) {
+            reclaimLostClips();
+            clip = idle.poll();
+        }
+        if (clip == null) {
+            grow();
+            return false;
+        }
+        start(clip);
+        return true;
+    }
+
+    /**
+     * Clips currently playing
+     */
+    public int getPlaying() {
+        return playing.size();
+    }
+
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * Most clips that have played at once
+     */
+    public int getPeakPlaying() {
+        return peakPlaying.get();
+    }
+
+    /**
+     * Clips opened because the pool ran dry
+     */
+    public int getGrown() {
+        return grown.get();
+    }
+
+    public void close() {
+        Clip clip;
+        while ((clip = idle.poll()) != null) {
+            closeClip(clip);
+        }
+        for (Clip playingClip : playing.keySet()) {
+            closeClip(playingClip);
+        }
+        playing.clear();
+    }
+
+    private void start(Clip clip) {
+        long lengthNanos = Math.max(0, clip.getMicrosecondLength()) * 1000;
+        playing.put(clip, System.nanoTime() + lengthNanos + LOST_STOP_GRACE_NANOS);
+        peakPlaying.accumulateAndGet(playing.size(), Math::max);
+        try {
+            clip.setFramePosition(0);
+            clip.start();
+        } catch (Exception e) {
+            playing.remove(clip);
+            discard(clip);
+        }
+    }
+
+    private void onLineEvent(LineEvent event) {
+        if (event.getType() == LineEvent.Type.STOP) {
+            giveBack((Clip) event.getLine());
+        }
+    }
+
+    private void giveBack(Clip clip) {
+        if (playing.remove(clip) == null) {
+            return; // Already back, e.g. reclaimed before a late STOP
+        }
+        try {
+            clip.stop();
+            clip.setFramePosition(0);
+            idle.offer(clip);
+        } catch (Exception e) {
+            discard(clip);
+        }
+    }
+
+    /**
+     * Some mixers drop STOP events for very short clips; take back any clip well past its end
+     */
+    private void reclaimLostClips() {
+        long now = System.nanoTime();
+        for (Map.Entry<Clip, Long> entry : playing.entrySet()) {
+            if (now - entry.getValue() > 0 && !entry.getKey().isRunning()) {
+                giveBack(entry.getKey());
+            }
+        }
+    }
+
+    private void grow() {
+        if (broken || size.get() + opening.get() >= maxSize) {
+            return;
+        }
+        opening.incrementAndGet();
+        loader.execute(() -> {
+            try {
+                Clip clip = openClip();
+                if (clip != null) {
+                    grown.incrementAndGet();
+                    start(clip); // Play the sound that found the pool empty, a little late
+                }
+            } finally {
+                opening.decrementAndGet();
+            }
+        });
+    }
+
+    private Clip openClip() {
+        try {
+            Clip clip = opener.open();
+            clip.addLineListener(stopListener);
+            size.incrementAndGet();
+            return clip;
+        } catch (Exception e) {
+            broken = true;
+            System.err.println("Could not open clip for " + name + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void discard(Clip clip) {
+        size.decrementAndGet();
+        closeClip(clip);
+    }
+
+    private void closeClip(Clip clip) {
+        try {
+            clip.removeLineListener(stopListener);
+            clip.close();
+        } catch (Exception ignored) {}
+    }
+}
@@ -0,0 +1,193 @@
+package com.maya_steph.virusdefense;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.SourceDataLine;
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plays sounds through Java Sound. Every sound plays from a pool of pre-opened clips (see
+ * ClipPool); clips return to their pool when they stop, and a pool that runs dry grows on the one
+ * loader thread, so the number of threads stays the same however fast sounds are played.
+ */
+public class JavaSoundBackend implements AudioBackend {
+    private static final int CLIP_POOL_SIZE = 5; // Clips pre-opened for frequent sounds
+    private static final int WEAPON_SWITCH_POOL_SIZE = 10; // Larger pool for weapon_switch to prevent delays
+    private static final int OTHER_POOL_SIZE = 2; // Clips pre-opened for the other sounds; pools grow as needed
+    private static final int MAX_POOL_SIZE = 16; // Most clips of one sound
+
+    private final Map<String, ClipPool> clipPools = new HashMap<>(); // Pools of pre-opened clips for immediate playback
+    private final ExecutorService clipLoader; // Opens clips when a pool grows
+    private AudioFormat format;
+    private MusicStream music;
+
+    public JavaSoundBackend() {
+        clipLoader = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "sound-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pre-open a pool of clips for every sound, larger for the sounds played most often
+     */
+    @Override
+    public void load(Map<String, byte[]> sounds, AudioFormat format) {
+        this.format = format;
+        for (Map.Entry<String, byte[]> sound : sounds.entrySet()) {
+            String soundName = sound.getKey();
+            byte[] audioData = sound.getValue();
+            int poolSize;
+            if ("weapon_switch".equals(soundName)) {
+                poolSize = WEAPON_SWITCH_POOL_SIZE;
+            } else if ("shoot".equals(soundName) || "move".equals(soundName)) {
+                poolSize = CLIP_POOL_SIZE;
+            } else {
+                poolSize = OTHER_POOL_SIZE;
+            }
+            ClipPool.Opener opener = () -> {
+                // A fresh stream over the audio data for each clip
+                ByteArrayInputStream bais = new ByteArrayInputStream(audioData);
+                AudioInputStream audioInputStream = new AudioInputStream(bais, format, audioData.length / format.getFrameSize());
+                Clip clip = AudioSystem.getClip();
+                clip.open(audioInputStream);
+                return clip;
+            };
+            clipPools.put(soundName, new ClipPool(soundName, opener, poolSize, MAX_POOL_SIZE, clipLoader));
+        }
+    }
+
+    /**
+     * Starts immediately on a free clip; the clip goes back to its pool when it stops
+     */
+    @Override
+    public void play(String soundName, long tick, long requestNanos) {
+        ClipPool clipPool = clipPools.get(soundName);
+        if (clipPool != null) {
+            clipPool.play();
+        }
+    }
+
+    @Override
+    public int getActiveSoundCount() {
+        int active = 0;
+        for (ClipPool clipPool : clipPools.values()) {
+            active += clipPool.getPlaying();
+        }
+        return active;
+    }
+
+    @Override
+    public String getName() {
+        return "javasound";
+    }
+
+    @Override
+    public synchronized void startMusic(MusicSynth synth) {
+        stopMusic();
+        try {
+            SourceDataLine line = AudioSystem.getSourceDataLine(format);
+            line.open(format, MusicStream.BUFFER_BLOCKS * MusicSynth.BLOCK_FRAMES * format.getFrameSize());
+            music = new MusicStream(synth, line);
+            music.start();
+        } catch (Exception e) {
+            System.err.println("Error starting background music: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void setMusicPaused(boolean paused) {
+        if (music != null) {
+            music.setPaused(paused);
+        }
+    }
+
+    @Override
+    public synchronized void stopMusic() {
+        if (music != null) {
+            music.stop();
+            music = null;
+        }
+    }
+
+    @Override
+    public boolean isAudible() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        stopMusic();
+        clipLoader.shutdown();
+        for (ClipPool clipPool : clipPools.values()) {
+            clipPool.close();
+        }
+        clipPools.clear();
+    }
+
+    /**
+     * Feeds a line from the synthesizer one block at a time on its own thread. Writing blocks while
+     * the line's small buffer is full, which paces the synthesizer to the sound card.
+     */
+    private static class MusicStream implements Runnable {
+        static final int BUFFER_BLOCKS = 4; // About 50 ms of music queued ahead
+
+        private final MusicSynth synth;
+        private final SourceDataLine line;
+        private final byte[] block;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        MusicStream(MusicSynth synth, SourceDataLine line) {
+            this.synth = synth;
+            this.line = line;
+            this.block = new byte[MusicSynth.BLOCK_FRAMES * line.getFormat().getFrameSize()];
+            this.thread = new Thread(this, "music");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+        }
+
+        void start() {
+            synth.restart();
+            line.start();
+            thread.start();
+        }
+
+        void setPaused(boolean paused) {
+            // A stopped line stops draining, so the writer waits on a full buffer
+            if (paused) {
+                line.stop();
+            } else {
+                line.start();
+            }
+        }
+
+        void stop() {
+            running = false;
+            line.stop();
+            line.flush(); // Releases a write waiting on a full buffer
+            line.close();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    int bytes = synth.fill(block, MusicSynth.BLOCK_FRAMES);
+                    line.write(block, 0, bytes);
+                }
+            } catch (Exception e) {
+                if (running) {
+                    System.err.println("Background music stopped: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.maya_steph.virusdefense;
+
+/**
+ * Background music synthesized a block at a time as it plays, instead of a precomputed loop.
+ * The theme is the tense heartbeat of the old 8-second loop: a low 60 Hz beat, a pulsing A minor
+ * chord and a faint 440 Hz line that swells in and out. It speeds up and grows more intense as
+ * the rounds go by.
+ *
+ * Every voice reads one shared sine wavetable, and each sample costs the same fixed handful of
+ * table lookups, so a block's cost is bounded by its length. All state is a few phase counters
+ * and the 4 KB table.
+ */
+public class MusicSynth {
+    public static final int BLOCK_FRAMES = 512; // About 12 ms at 44.1 kHz
+
+    private static final int TABLE_BITS = 10;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final float[] SINE = new float[TABLE_SIZE];
+    private static final int PHASE_FRACTION_BITS = 32 - TABLE_BITS; // Phases are 32-bit fractions of a cycle
+
+    // Voices: frequency in Hz and level, as in the original theme
+    private static final double HEARTBEAT_HZ = 60;
+    private static final double[] CHORD_HZ = {220, 262, 311}; // A3, C4, D#4
+    private static final float[] CHORD_LEVEL = {0.10f, 0.10f, 0.08f};
+    private static final double URGENCY_HZ = 440;
+    private static final double URGENCY_SWELL_HZ = 0.25;
+
+    private static final double BASE_PULSES_PER_SECOND = 2.0;
+    private static final double MAX_TEMPO = 2.0; // Twice the first round's pace at most
+    private static final double FADE_IN_SECONDS = 0.2;
+    private static final double SMOOTHING_SECONDS = 0.5; // How quickly tempo and intensity follow the round
+
+    static {
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            SINE[i] = (float) Math.sin(2.0 * Math.PI * i / TABLE_SIZE);
+        }
+    }
+
+    private final int sampleRate;
+    private final int heartbeatStep;
+    private final int[] chordSteps = new int[CHORD_HZ.length];
+    private final int urgencyStep;
+    private final int swellStep;
+    private final int pulseStep;
+    private final float fadeInPerFrame;
+    private final float smoothing;
+
+    private int heartbeatPhase;
+    private final int[] chordPhases = new int[CHORD_HZ.length];
+    private int urgencyPhase;
+    private int swellPhase;
+    private int pulsePhase;
+    private float fade;
+    private float tempo = 1;
+    private float intensity;
+    private volatile int round = 1;
+
+    private long blocks;
+    private long lastBlockNanos;
+    private long maxBlockNanos;
+    private long totalBlockNanos;
+
+    public MusicSynth(int sampleRate) {
+        this.sampleRate = sampleRate;
+        heartbeatStep = step(HEARTBEAT_HZ);
+        for (int i = 0; i < CHORD_HZ.length; i++) {
+            chordSteps[i] = step(CHORD_HZ[i]);
+        }
+        urgencyStep = step(URGENCY_HZ);
+        swellStep = step(URGENCY_SWELL_HZ);
+        pulseStep = step(BASE_PULSES_PER_SECOND);
+        fadeInPerFrame = (float) (1.0 / (FADE_IN_SECONDS * sampleRate));
+        smoothing = (float) (1.0 / (SMOOTHING_SECONDS * sampleRate));
+        intensity = targetIntensity(round);
+    }
+
+    /**
+     * Make the music follow the game's round; safe to call from any thread
+     */
+    public void setRound(int round) {
+        this.round = Math.max(1, round);
+    }
+
+    /**
+     * Start again from silence, fading in
+     */
+    public void restart() {
+        fade = 0;
+    }
+
+    /**
+     * Fill the buffer with 16-bit little-endian mono samples
+     * @return number of bytes written
+     */
+    public int fill(byte[] buffer, int frames) {
+        long start = System.nanoTime();
+        int currentRound = round;
+        float targetTempo = targetTempo(currentRound);
+        float targetIntensity = targetIntensity(currentRound);
+        for (int i = 0; i < frames; i++) {
+            // Glide towards the round's tempo and intensity so a new round does not click
+            tempo += (targetTempo - tempo) * smoothing;
+            intensity += (targetIntensity - intensity) * smoothing;
+            if (fade < 1) {
+                fade = Math.min(1, fade + fadeInPerFrame);
+            }
+
+            float heartbeat = sine(heartbeatPhase) * 0.08f;
+            float pulse = 1.0f + 0.15f * sine(pulsePhase);
+            float chord = 0;
+            for (int v = 0; v < chordPhases.length; v++) {
+                chord += sine(chordPhases[v]) * CHORD_LEVEL[v];
+                chordPhases[v] += chordSteps[v];
+            }
+            float swell = 0.5f + 0.5f * sine(swellPhase);
+            float urgency = sine(urgencyPhase) * 0.06f * swell * intensity;
+
+            float sample = (heartbeat + chord * pulse + urgency) * fade * (0.8f + 0.2f * intensity);
+            heartbeatPhase += heartbeatStep;
+            urgencyPhase += urgencyStep;
+            swellPhase += swellStep;
+            pulsePhase += (int) (pulseStep * tempo);
+
+            short value = (short) (Math.max(-1f, Math.min(1f, sample)) * Short.MAX_VALUE);
+            buffer[i * 2] = (byte) value;
+            buffer[i * 2 + 1] = (byte) (value >> 8);
+        }
+        long elapsed = System.nanoTime() - start;
+        blocks++;
+        lastBlockNanos = elapsed;
+        maxBlockNanos = Math.max(maxBlockNanos, elapsed);
+        totalBlockNanos += elapsed;
+        return frames * 2;
+    }
+
+    /**
+     * Heart pulses per minute at the current tempo
+     */
+    public double getPulsesPerMinute() {
+        return BASE_PULSES_PER_SECOND * tempo * 60;
+    }
+
+    public double getIntensity() {
+        return intensity;
+    }
+
+    public long getBlocks() {
+        return blocks;
+    }
+
+    public long getLastBlockNanos() {
+        return lastBlockNanos;
+    }
+
+    public long getMaxBlockNanos() {
+        return maxBlockNanos;
+    }
+
+    public double getAverageBlockNanos() {
+        return blocks == 0 ? 0 : (double) totalBlockNanos / blocks;
+    }
+
+    /**
+     * Pace of the pulse: 1 in round 1, rising 5% a round up to MAX_TEMPO
+     */
+    static float targetTempo(int round) {
+        return (float) Math.min(MAX_TEMPO, 1.0 + 0.05 * (round - 1));
+    }
+
+    /**
+     * How loud the urgent layer is: from 0.5 in round 1 to 1 by round 11
+     */
+    static float targetIntensity(int round) {
+        return (float) Math.min(1.0, 0.5 + 0.05 * (round - 1));
+    }
+
+    private int step(double hz) {
+        return (int) Math.round(hz / sampleRate * 4294967296.0);
+    }
+
+    private static float sine(int phase) {
+        return SINE[phase >>> PHASE_FRACTION_BITS];
+    }
+}
@@ -0,0 +1,27 @@
+package com.maya_steph.virusdefense;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Map;
+
+/**
+ * Plays nothing and opens nothing; for headless runs
+ */
+public class NullAudioBackend implements AudioBackend {
+    @Override
+    public void load(Map<String, byte[]> sounds, AudioFormat format) {
+    }
+
+    @Override
+    public void play(String soundName, long tick, long requestNanos) {
+    }
+
+    @Override
+    public int getActiveSoundCount() {
+        return 0;
+    }
+
+    @Override
+    public String getName() {
+        return "null";
+    }
+}
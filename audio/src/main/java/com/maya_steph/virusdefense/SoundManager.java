@@ -0,0 +1,270 @@
+package com.maya_steph.virusdefense;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Manages sound effects and background music for the game.
+ *
+ * Effects are generated here and played by an AudioBackend (Java Sound, nothing at all, or a
+ * recording for tests); this class decides which sounds play, throttling and limiting them.
+ */
+public class SoundManager {
+    private static final int SAMPLE_RATE = 44100;
+    private static final int SAMPLE_SIZE = 16;
+    private static final int CHANNELS = 1;
+    private static final boolean SIGNED = true;
+    private static final boolean BIG_ENDIAN = false;
+    private static final int MAX_CONCURRENT_SOUNDS = 3; // Limit concurrent sounds
+    public static final String MUSIC_PROPERTY = "heartattack.music";
+    
+    private final MusicSynth music = new MusicSynth(SAMPLE_RATE);
+    private boolean musicPlaying;
+    private boolean musicEnabled = !"false".equals(System.getProperty(MUSIC_PROPERTY));
+    private boolean soundEnabled = true;
+    private Map<String, byte[]> soundCache;
+    private static final int SOUND_GENERATOR_VERSION = 1; // Bump when the synthesis below changes
+    
+    private final AudioBackend backend;
+    private final AssetCache assets;
+    private volatile LatencyTracker latencyTracker; // null unless measuring input latency
+    private final Metrics.Counter soundsPlayed = Metrics.getDefault().counter("heartattack_sounds_total", "Sound effects started");
+    private final Metrics.Counter soundsSkipped = Metrics.getDefault().counter("heartattack_sounds_skipped_total", "Sound effects skipped because too many were playing");
+    private final GameClock clock;
+    private long lastMoveSoundTime = Long.MIN_VALUE / 2; // Long ago, so the first move sound plays
+    private static final long MOVE_SOUND_THROTTLE_MS = 100; // Throttle move sounds
+    
+    public SoundManager() {
+        this(AudioBackend.fromSystemProperties());
+    }
+    
+    public SoundManager(AudioBackend backend) {
+        this(backend, GameClock.SYSTEM);
+    }
+    
+    /**
+     * @param clock times the throttling of repeated sounds
+     */
+    public SoundManager(AudioBackend backend, GameClock clock) {
+        this(backend, AssetCache.getDefault(), clock);
+    }
+    
+    /**
+     * @param assets where synthesized sounds are kept between launches
+     */
+    public SoundManager(AudioBackend backend, AssetCache assets) {
+        this(backend, assets, GameClock.SYSTEM);
+    }
+    
+    public SoundManager(AudioBackend backend, AssetCache assets, GameClock clock) {
+        this.backend = backend;
+        this.assets = assets;
+        this.clock = clock;
+        soundCache = new HashMap<>();
+        initializeSounds();
+        backend.load(soundCache, new AudioFormat(SAMPLE_RATE, SAMPLE_SIZE, CHANNELS, SIGNED, BIG_ENDIAN));
+    }
+    
+    private void initializeSounds() {
+        // Pre-generate sound effects - optimized for immediate response; read from the asset cache after the first launch
+        soundCache.put("move", tone(400, 30, 0.25)); // Shorter, quieter move sound
+        soundCache.put("shoot", tone(700, 40, 0.5)); // Quick, sharp shoot sound for immediate feedback
+        soundCache.put("weapon_switch", tone(550, 50, 0.35)); // Quick switch sound
+        soundCache.put("effective_hit", tone(850, 80, 0.4)); // Satisfying hit sound
+        soundCache.put("virus_destroyed", toneSequence(new int[]{600, 800, 1000}, new int[]{60, 60, 100}, 0.4)); // Victory sound
+        soundCache.put("ineffective_hit", tone(250, 120, 0.25)); // Low thud for ineffective
+        soundCache.put("life_lost", tone(180, 180, 0.5)); // Warning sound
+        soundCache.put("round_complete", toneSequence(new int[]{400, 600, 800, 1000}, new int[]{80, 80, 80, 150}, 0.5)); // Success fanfare
+        soundCache.put("game_over", toneSequence(new int[]{200, 150, 100}, new int[]{200, 200, 300}, 0.6)); // Game over sound - descending tones
+    }
+    
+    private byte[] tone(int frequency, int durationMs, double volume) {
+        String key = AssetCache.key("tone", SOUND_GENERATOR_VERSION, SAMPLE_RATE, frequency, durationMs, volume);
+        return assets.getBytes(key, () -> generateTone(frequency, durationMs, volume));
+    }
+    
+    private byte[] toneSequence(int[] frequencies, int[] durations, double volume) {
+        String key = AssetCache.key("tones", SOUND_GENERATOR_VERSION, SAMPLE_RATE,
+                Arrays.toString(frequencies), Arrays.toString(durations), volume);
+        return assets.getBytes(key, () -> generateToneSequence(frequencies, durations, volume));
+    }
+    
+    /**
+     * Generate a simple tone
+     */
+    private byte[] generateTone(int frequency, int durationMs, double volume) {
+        int samples = (int) (SAMPLE_RATE * durationMs / 1000.0);
+        byte[] audioData = new byte[samples * 2];
+        
+        for (int i = 0; i < samples; i++) {
+            double angle = 2.0 * Math.PI * i * frequency / SAMPLE_RATE;
+            short sample = (short) (Math.sin(angle) * Short.MAX_VALUE * volume);
+            audioData[i * 2] = (byte) (sample & 0xFF);
+            audioData[i * 2 + 1] = (byte) ((sample >> 8) & 0xFF);
+        }
+        
+        return audioData;
+    }
+    
+    /**
+     * Generate a sequence of tones
+     */
+    private byte[] generateToneSequence(int[] frequencies, int[] durations, double volume) {
+        int totalSamples = 0;
+        for (int duration : durations) {
+            totalSamples += (int) (SAMPLE_RATE * duration / 1000.0);
+        }
+        
+        byte[] audioData = new byte[totalSamples * 2];
+        int offset = 0;
+        
+        for (int tone = 0; tone < frequencies.length; tone++) {
+            int samples = (int) (SAMPLE_RATE * durations[tone] / 1000.0);
+            for (int i = 0; i < samples; i++) {
+                double angle = 2.0 * Math.PI * (offset + i) * frequencies[tone] / SAMPLE_RATE;
+                short sample = (short) (Math.sin(angle) * Short.MAX_VALUE * volume);
+                audioData[(offset + i) * 2] = (byte) (sample & 0xFF);
+                audioData[(offset + i) * 2 + 1] = (byte) ((sample >> 8) & 0xFF);
+            }
+            offset += samples;
+        }
+        
+        return audioData;
+    }
+    
+    /**
+     * Play a sound effect (non-blocking, thread-safe, immediate response)
+     */
+    public void playSound(String soundName) {
+        playSound(soundName, -1);
+    }
+    
+    /**
+     * Play a sound effect triggered by a game tick
+     */
+    public void playSound(String soundName, long tick) {
+        long requestNanos = System.nanoTime();
+        if (!soundEnabled) return;
+        
+        // Throttle move sounds to prevent rapid-fire sounds
+        if ("move".equals(soundName)) {
+            long currentTime = clock.currentTimeMillis();
+            if (currentTime - lastMoveSoundTime < MOVE_SOUND_THROTTLE_MS) {
+                return; // Skip if too soon since last move sound
+            }
+            lastMoveSoundTime = currentTime;
+        }
+        
+        // For critical sounds (shoot, weapon_switch), always allow playback - no limit
+        boolean isCritical = "shoot".equals(soundName) || "weapon_switch".equals(soundName);
+        if (!isCritical && backend.getActiveSoundCount() >= MAX_CONCURRENT_SOUNDS) {
+            soundsSkipped.increment();
+            return; // Skip if too many sounds playing (except for critical sounds)
+        }
+        
+        if (soundCache.containsKey(soundName)) {
+            backend.play(soundName, tick, requestNanos);
+            soundsPlayed.increment();
+            GameEvents.sound(soundName, tick);
+            LatencyTracker tracker = latencyTracker;
+            if (tracker != null && tick >= 0) {
+                tracker.soundTriggered(tick);
+            }
+        }
+    }
+    
+    /**
+     * Report each sound a tick triggers to the tracker, or stop with null
+     */
+    public void setLatencyTracker(LatencyTracker latencyTracker) {
+        this.latencyTracker = latencyTracker;
+    }
+    
+    public AudioBackend getBackend() {
+        return backend;
+    }
+    
+    public MusicSynth getMusic() {
+        return music;
+    }
+    
+    /**
+     * Start playing background music, synthesized as it plays
+     */
+    public void startBackgroundMusic() {
+        if (!musicEnabled || !backend.isAudible()) return;
+        
+        backend.startMusic(music); // Replaces any music already playing
+        musicPlaying = true;
+    }
+    
+    /**
+     * Make the music's tempo and intensity follow the game's round
+     */
+    public void setMusicRound(int round) {
+        music.setRound(round);
+    }
+    
+    /**
+     * Stop background music
+     */
+    public void stopBackgroundMusic() {
+        if (musicPlaying) {
+            backend.stopMusic();
+            musicPlaying = false;
+        }
+    }
+    
+    /**
+     * Pause background music (can be resumed)
+     */
+    public void pauseBackgroundMusic() {
+        if (musicPlaying) {
+            backend.setMusicPaused(true);
+        }
+    }
+    
+    /**
+     * Resume background music if it was paused
+     */
+    public void resumeBackgroundMusic() {
+        if (musicPlaying) {
+            backend.setMusicPaused(false);
+        } else if (musicEnabled) {
+            // Music was stopped, restart it
+            startBackgroundMusic();
+        }
+    }
+    
+    /**
+     * Set music enabled/disabled
+     */
+    public void setMusicEnabled(boolean enabled) {
+        this.musicEnabled = enabled;
+        if (!enabled) {
+            stopBackgroundMusic();
+        } else if (!musicPlaying) {
+            startBackgroundMusic();
+        }
+    }
+    
+    /**
+     * Set sound effects enabled/disabled
+     */
+    public void setSoundEnabled(boolean enabled) {
+        this.soundEnabled = enabled;
+    }
+    
+    /**
+     * Clean up resources
+     */
+    public void cleanup() {
+        stopBackgroundMusic();
+        
+        backend.close();
+        soundCache.clear();
+    }
+}
+
@@ -0,0 +1,150 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineEvent;
+import javax.sound.sampled.LineListener;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for ClipPool, with stand-in clips so no audio device is needed
+ */
+public class ClipPoolTest {
+    /**
+     * A clip that plays until stopEvent() is called, as if the sound had reached its end
+     */
+    private static class FakeClip {
+        final List<LineListener> listeners = new ArrayList<>();
+        boolean running;
+        int starts;
+        final long lengthMicros;
+        Clip clip;
+
+        FakeClip(long lengthMicros) {
+            this.lengthMicros = lengthMicros;
+            clip = (Clip) Proxy.newProxyInstance(Clip.class.getClassLoader(), new Class<?>[]{Clip.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "addLineListener":
+                        listeners.add((LineListener) args[0]);
+                        return null;
+                    case "removeLineListener":
+                        listeners.remove(args[0]);
+                        return null;
+                    case "start":
+                        running = true;
+                        starts++;
+                        return null;
+                    case "stop":
+                        running = false;
+                        return null;
+                    case "isRunning":
+                        return running;
+                    case "getMicrosecondLength":
+                        return lengthMicros;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "FakeClip";
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        void stopEvent() {
+            running = false;
+            for (LineListener listener : new ArrayList<>(listeners)) {
+                listener.update(new LineEvent(clip, LineEvent.Type.STOP, 0));
+            }
+        }
+    }
+
+    private final List<FakeClip> opened = new ArrayList<>();
+
+    private ClipPool pool(int initialSize, int maxSize, long lengthMicros) {
+        // Growth runs straight away on the calling thread
+        return new ClipPool("test", () -> {
+            FakeClip fake = new FakeClip(lengthMicros);
+            opened.add(fake);
+            return fake.clip;
+        }, initialSize, maxSize, Runnable::run);
+    }
+
+    @Test
+    void testClipGoesBackToThePoolWhenItStops() {
+        ClipPool pool = pool(1, 4, 50_000);
+        assertTrue(pool.play());
+        assertEquals(1, pool.getPlaying());
+
+        opened.get(0).stopEvent();
+        assertEquals(0, pool.getPlaying());
+        assertTrue(pool.play());
+        assertEquals(2, opened.get(0).starts, "The same clip is reused");
+        assertEquals(1, pool.getSize());
+    }
+
+    @Test
+    void testPoolGrowsToDemandAndThenStopsOpening() {
+        ClipPool pool = pool(1, 8, 50_000);
+        // Three sounds at once: the pool grows twice, and each grown clip plays the sound that asked for it
+        pool.play();
+        assertFalse(pool.play());
+        assertFalse(pool.play());
+        assertEquals(3, pool.getSize());
+        assertEquals(2, pool.getGrown());
+        assertEquals(3, pool.getPlaying());
+        assertEquals(3, pool.getPeakPlaying());
+
+        // The same demand again is served from the pool
+        for (int round = 0; round < 10; round++) {
+            for (FakeClip fake : opened) {
+                fake.stopEvent();
+            }
+            for (int i = 0; i < 3; i++) {
+                assertTrue(pool.play());
+            }
+        }
+        assertEquals(3, pool.getSize());
+        assertEquals(2, pool.getGrown());
+    }
+
+    @Test
+    void testGrowthIsCapped() {
+        ClipPool pool = pool(1, 2, 50_000);
+        for (int i = 0; i < 5; i++) {
+            pool.play();
+        }
+        assertEquals(2, pool.getSize());
+        assertEquals(2, opened.size());
+    }
+
+    @Test
+    void testClipWithLostStopEventIsReclaimed() throws InterruptedException {
+        ClipPool pool = pool(1, 1, 0);
+        assertTrue(pool.play());
+        opened.get(0).running = false; // Finished, but the mixer never sent STOP
+        Thread.sleep(150);
+        assertTrue(pool.play());
+        assertEquals(1, opened.size());
+    }
+
+    @Test
+    void testGivesUpWhenClipsCannotBeOpened() {
+        AtomicInteger attempts = new AtomicInteger();
+        ClipPool pool = new ClipPool("broken", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("No line matching interface Clip");
+        }, 5, 16, Runnable::run);
+        assertFalse(pool.play());
+        assertFalse(pool.play());
+        assertEquals(0, pool.getSize());
+        assertEquals(1, attempts.get());
+    }
+}
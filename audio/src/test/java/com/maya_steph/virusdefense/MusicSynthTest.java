@@ -0,0 +1,103 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MusicSynth
+ */
+public class MusicSynthTest {
+    private static final int SAMPLE_RATE = 44100;
+
+    private static short sample(byte[] block, int frame) {
+        return (short) ((block[frame * 2] & 0xFF) | (block[frame * 2 + 1] << 8));
+    }
+
+    @Test
+    void testFadesInFromSilence() {
+        MusicSynth synth = new MusicSynth(SAMPLE_RATE);
+        byte[] block = new byte[MusicSynth.BLOCK_FRAMES * 2];
+        assertEquals(block.length, synth.fill(block, MusicSynth.BLOCK_FRAMES));
+        assertTrue(Math.abs(sample(block, 0)) < 50, "Starts silent");
+
+        int loudest = 0;
+        for (int i = 0; i < 40; i++) {
+            synth.fill(block, MusicSynth.BLOCK_FRAMES);
+            for (int frame = 0; frame < MusicSynth.BLOCK_FRAMES; frame++) {
+                loudest = Math.max(loudest, Math.abs(sample(block, frame)));
+            }
+        }
+        assertTrue(loudest > 5000, "Audible once faded in: " + loudest);
+    }
+
+    @Test
+    void testSameRoundsGiveTheSameMusic() {
+        MusicSynth first = new MusicSynth(SAMPLE_RATE);
+        MusicSynth second = new MusicSynth(SAMPLE_RATE);
+        byte[] a = new byte[MusicSynth.BLOCK_FRAMES * 2];
+        byte[] b = new byte[MusicSynth.BLOCK_FRAMES * 2];
+        for (int i = 0; i < 20; i++) {
+            if (i == 10) {
+                first.setRound(4);
+                second.setRound(4);
+            }
+            first.fill(a, MusicSynth.BLOCK_FRAMES);
+            second.fill(b, MusicSynth.BLOCK_FRAMES);
+            assertArrayEquals(a, b);
+        }
+    }
+
+    @Test
+    void testTempoAndIntensityFollowTheRound() {
+        MusicSynth synth = new MusicSynth(SAMPLE_RATE);
+        byte[] block = new byte[MusicSynth.BLOCK_FRAMES * 2];
+        synth.fill(block, MusicSynth.BLOCK_FRAMES);
+        assertEquals(120, synth.getPulsesPerMinute(), 0.5);
+        double startIntensity = synth.getIntensity();
+
+        synth.setRound(11);
+        // A few seconds to glide to the new pace
+        for (int i = 0; i < 5 * SAMPLE_RATE / MusicSynth.BLOCK_FRAMES; i++) {
+            synth.fill(block, MusicSynth.BLOCK_FRAMES);
+        }
+        assertEquals(180, synth.getPulsesPerMinute(), 1);
+        assertTrue(synth.getIntensity() > startIntensity);
+        assertEquals(2.0f, MusicSynth.targetTempo(100), "Tempo is capped");
+    }
+
+    @Test
+    void testNewRoundDoesNotClick() {
+        MusicSynth synth = new MusicSynth(SAMPLE_RATE);
+        byte[] block = new byte[MusicSynth.BLOCK_FRAMES * 2];
+        for (int i = 0; i < 40; i++) {
+            synth.fill(block, MusicSynth.BLOCK_FRAMES);
+        }
+        short previous = sample(block, MusicSynth.BLOCK_FRAMES - 1);
+        synth.setRound(30);
+        int biggestJump = 0;
+        for (int i = 0; i < 10; i++) {
+            synth.fill(block, MusicSynth.BLOCK_FRAMES);
+            for (int frame = 0; frame < MusicSynth.BLOCK_FRAMES; frame++) {
+                short current = sample(block, frame);
+                biggestJump = Math.max(biggestJump, Math.abs(current - previous));
+                previous = current;
+            }
+        }
+        // The loudest voice (440 Hz at about 0.1) moves at most ~2000 per sample
+        assertTrue(biggestJump < 4000, "Largest step between samples: " + biggestJump);
+    }
+
+    @Test
+    void testBlockCostIsMeasured() {
+        MusicSynth synth = new MusicSynth(SAMPLE_RATE);
+        byte[] block = new byte[MusicSynth.BLOCK_FRAMES * 2];
+        for (int i = 0; i < 200; i++) {
+            synth.fill(block, MusicSynth.BLOCK_FRAMES);
+        }
+        assertEquals(200, synth.getBlocks());
+        assertTrue(synth.getMaxBlockNanos() >= synth.getLastBlockNanos());
+        // A block lasts about 11.6 ms; making it must take a small fraction of that
+        long blockNanos = 1_000_000_000L * MusicSynth.BLOCK_FRAMES / SAMPLE_RATE;
+        assertTrue(synth.getAverageBlockNanos() < blockNanos / 4, "Average block cost " + synth.getAverageBlockNanos() + " ns");
+    }
+}
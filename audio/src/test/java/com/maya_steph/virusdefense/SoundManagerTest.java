@@ -0,0 +1,124 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.sound.sampled.AudioFormat;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for SoundManager, using the capture and null audio backends
+ */
+public class SoundManagerTest {
+    @Test
+    void testGameSoundsAreCapturedWithTheirTick() {
+        CaptureAudioBackend capture = new CaptureAudioBackend();
+        SoundManager soundManager = new SoundManager(capture);
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLogging(false);
+        simulation.setListener(new GameSimulation.Listener() {
+            @Override
+            public void onSound(String soundName) {
+                soundManager.playSound(soundName, simulation.getTick());
+            }
+        });
+        simulation.startNewGame(3L);
+        for (int i = 0; i < 10; i++) {
+            simulation.update();
+        }
+        simulation.applyInput(GameInput.SHOOT);
+
+        List<CaptureAudioBackend.Played> played = capture.getPlayed();
+        assertEquals(1, played.size());
+        assertEquals("shoot", played.get(0).getSoundName());
+        assertEquals(10, played.get(0).getTick());
+        assertTrue(played.get(0).getLatencyNanos() >= 0);
+    }
+
+    @Test
+    void testMoveSoundsAreThrottled() {
+        CaptureAudioBackend capture = new CaptureAudioBackend();
+        SoundManager soundManager = new SoundManager(capture);
+        soundManager.playSound("move");
+        soundManager.playSound("move");
+        soundManager.playSound("shoot");
+        assertEquals(List.of("move", "shoot"), capture.getSoundNames());
+    }
+
+    @Test
+    void testMoveSoundsPlayAgainOnceTheThrottleHasPassed() {
+        CaptureAudioBackend capture = new CaptureAudioBackend();
+        VirtualClock clock = new VirtualClock();
+        SoundManager soundManager = new SoundManager(capture, clock);
+        soundManager.playSound("move");
+        clock.advance(99);
+        soundManager.playSound("move"); // Throttled
+        clock.advance(1);
+        soundManager.playSound("move");
+        assertEquals(List.of("move", "move"), capture.getSoundNames());
+    }
+
+    @Test
+    void testNonCriticalSoundsAreLimited() {
+        CaptureAudioBackend capture = new CaptureAudioBackend();
+        SoundManager soundManager = new SoundManager(capture);
+        // game_over lasts 700 ms, so all of these are still playing when the next is asked for
+        for (int i = 0; i < 5; i++) {
+            soundManager.playSound("game_over");
+        }
+        soundManager.playSound("shoot"); // Always plays
+        assertEquals(List.of("game_over", "game_over", "game_over", "shoot"), capture.getSoundNames());
+        assertEquals(4, capture.getActiveSoundCount());
+    }
+
+    @Test
+    void testDisabledAndUnknownSoundsDoNotPlay() {
+        CaptureAudioBackend capture = new CaptureAudioBackend();
+        SoundManager soundManager = new SoundManager(capture);
+        soundManager.playSound("no_such_sound");
+        soundManager.setSoundEnabled(false);
+        soundManager.playSound("shoot");
+        assertTrue(capture.getPlayed().isEmpty());
+    }
+
+    @Test
+    void testNullBackendPlaysNothing() {
+        SoundManager soundManager = new SoundManager(new NullAudioBackend());
+        soundManager.playSound("shoot");
+        soundManager.startBackgroundMusic();
+        assertEquals(0, soundManager.getBackend().getActiveSoundCount());
+        soundManager.cleanup();
+    }
+
+    @Test
+    void testSecondStartReadsSoundsFromTheAssetCache(@TempDir Path directory) {
+        Map<String, byte[]> cold = new HashMap<>();
+        Map<String, byte[]> warm = new HashMap<>();
+        AssetCache first = new AssetCache(directory);
+        new SoundManager(loadingInto(cold), first);
+        first.flush();
+        assertEquals(0, first.getHits());
+
+        AssetCache second = new AssetCache(directory);
+        new SoundManager(loadingInto(warm), second);
+        assertEquals(0, second.getMisses());
+        assertEquals(cold.keySet(), warm.keySet());
+        for (String name : cold.keySet()) {
+            assertArrayEquals(cold.get(name), warm.get(name), name);
+        }
+    }
+
+    private static AudioBackend loadingInto(Map<String, byte[]> loaded) {
+        return new CaptureAudioBackend() {
+            @Override
+            public void load(Map<String, byte[]> sounds, AudioFormat format) {
+                loaded.putAll(sounds);
+                super.load(sounds, format);
+            }
+        };
+    }
+}
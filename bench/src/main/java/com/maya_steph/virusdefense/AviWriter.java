@@ -0,0 +1,186 @@
+package com.maya_steph.virusdefense;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes Motion-JPEG frames into an AVI file, which common players and editors open directly.
+ * Frames must already be JPEG-encoded and are written in the order given. The header sizes and the
+ * frame index are filled in by finish().
+ *
+ * Plain RIFF AVI is limited to 4 GB (about an hour of 600x800 footage at 30 FPS); larger
+ * recordings fail rather than produce a file players cannot read.
+ */
+final class AviWriter implements AutoCloseable {
+    private static final long MAX_FILE_SIZE = 0xFFFFFFFFL - 1024 * 1024; // Room for the index
+    private static final int AVIF_HASINDEX = 0x10;
+    private static final int AVIIF_KEYFRAME = 0x10;
+
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+    private final int fps;
+    private final long moviListStart; // Offset of the 'movi' list's size field
+    private ByteBuffer index = ByteBuffer.allocate(16 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    private int frames;
+    private int largestFrame;
+    private boolean finished;
+
+    AviWriter(Path file, int width, int height, int fps) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        this.width = width;
+        this.height = height;
+        this.fps = fps;
+        channel.write(header());
+        moviListStart = channel.position() - 8;
+    }
+
+    /**
+     * RIFF header, main AVI header and the video stream's headers, followed by the start of the
+     * 'movi' list; sizes and counts are placeholders until finish()
+     */
+    private ByteBuffer header() {
+        ByteBuffer buffer = ByteBuffer.allocate(224).order(ByteOrder.LITTLE_ENDIAN);
+        fourCc(buffer, "RIFF");
+        buffer.putInt(0); // File size - 8
+        fourCc(buffer, "AVI ");
+
+        fourCc(buffer, "LIST");
+        buffer.putInt(192);
+        fourCc(buffer, "hdrl");
+        fourCc(buffer, "avih");
+        buffer.putInt(56);
+        buffer.putInt(1_000_000 / fps); // Microseconds per frame
+        buffer.putInt(0);               // Max bytes per second
+        buffer.putInt(0);               // Padding granularity
+        buffer.putInt(AVIF_HASINDEX);
+        buffer.putInt(0);               // Total frames
+        buffer.putInt(0);               // Initial frames
+        buffer.putInt(1);               // Streams
+        buffer.putInt(0);               // Suggested buffer size
+        buffer.putInt(width);
+        buffer.putInt(height);
+        buffer.put(new byte[16]);       // Reserved
+
+        fourCc(buffer, "LIST");
+        buffer.putInt(116);
+        fourCc(buffer, "strl");
+        fourCc(buffer, "strh");
+        buffer.putInt(56);
+        fourCc(buffer, "vids");
+        fourCc(buffer, "MJPG");
+        buffer.putInt(0);               // Flags
+        buffer.putShort((short) 0);     // Priority
+        buffer.putShort((short) 0);     // Language
+        buffer.putInt(0);               // Initial frames
+        buffer.putInt(1);               // Scale
+        buffer.putInt(fps);             // Rate; frames per second is rate / scale
+        buffer.putInt(0);               // Start
+        buffer.putInt(0);               // Length in frames
+        buffer.putInt(0);               // Suggested buffer size
+        buffer.putInt(-1);              // Quality
+        buffer.putInt(0);               // Sample size
+        buffer.putShort((short) 0).putShort((short) 0).putShort((short) width).putShort((short) height);
+
+        fourCc(buffer, "strf");
+        buffer.putInt(40);              // BITMAPINFOHEADER
+        buffer.putInt(40);
+        buffer.putInt(width);
+        buffer.putInt(height);
+        buffer.putShort((short) 1);     // Planes
+        buffer.putShort((short) 24);    // Bits per pixel
+        fourCc(buffer, "MJPG");
+        buffer.putInt(width * height * 3);
+        buffer.putInt(0).putInt(0).putInt(0).putInt(0);
+
+        fourCc(buffer, "LIST");
+        buffer.putInt(0);               // 'movi' list size
+        fourCc(buffer, "movi");
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void fourCc(ByteBuffer buffer, String code) {
+        buffer.put(code.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    void writeFrame(byte[] jpeg) throws IOException {
+        long chunkStart = channel.position();
+        int padded = jpeg.length + (jpeg.length & 1); // Chunks are word-aligned
+        if (chunkStart + 8 + padded + (frames + 1) * 16L + 8 > MAX_FILE_SIZE) {
+            throw new IOException("Recording is too long for an AVI file; use a lower resolution or frame rate");
+        }
+
+        ByteBuffer chunkHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        fourCc(chunkHeader, "00dc");
+        chunkHeader.putInt(jpeg.length);
+        chunkHeader.flip();
+        channel.write(chunkHeader);
+        channel.write(ByteBuffer.wrap(jpeg));
+        if (padded != jpeg.length) {
+            channel.write(ByteBuffer.allocate(1));
+        }
+
+        if (index.remaining() < 16) {
+            ByteBuffer larger = ByteBuffer.allocate(index.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+            index.flip();
+            larger.put(index);
+            index = larger;
+        }
+        fourCc(index, "00dc");
+        index.putInt(AVIIF_KEYFRAME);
+        index.putInt((int) (chunkStart - (moviListStart + 4))); // Relative to the 'movi' fourcc
+        index.putInt(jpeg.length);
+
+        frames++;
+        largestFrame = Math.max(largestFrame, jpeg.length);
+    }
+
+    /**
+     * Write the frame index and fill in the header's sizes and counts
+     */
+    void finish() throws IOException {
+        if (finished) return;
+        finished = true;
+
+        long moviEnd = channel.position();
+        ByteBuffer indexHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        fourCc(indexHeader, "idx1");
+        indexHeader.putInt(index.position());
+        indexHeader.flip();
+        channel.write(indexHeader);
+        index.flip();
+        channel.write(index);
+        long fileEnd = channel.position();
+
+        putInt(4, fileEnd - 8);
+        putInt(48, frames);             // avih total frames
+        putInt(60, largestFrame + 8);   // avih suggested buffer size
+        putInt(140, frames);            // strh length
+        putInt(144, largestFrame + 8);  // strh suggested buffer size
+        putInt(moviListStart, moviEnd - moviListStart - 4);
+        channel.force(false);
+    }
+
+    private void putInt(long position, long value) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt((int) value);
+        buffer.flip();
+        channel.write(buffer, position);
+    }
+
+    int getFrameCount() {
+        return frames;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
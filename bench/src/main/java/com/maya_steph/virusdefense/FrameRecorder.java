@@ -0,0 +1,286 @@
+package com.maya_steph.virusdefense;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders a replay into video frames without a window, for training material and trailers.
+ *
+ * The replay is played back on the calling thread and drawn into offscreen images at a fixed frame
+ * rate; encoding (PNG or JPEG) runs on a pool of worker threads, so recording is usually much faster
+ * than real time. Frames are drawn into a fixed set of reusable buffers: when every buffer is still
+ * being encoded, rendering waits, which keeps memory bounded however long the recording is.
+ *
+ * Live games are recorded as replays anyway, so a run is captured by recording its replay.
+ */
+public class FrameRecorder {
+    public enum Format {
+        PNG, // Numbered PNG files in a directory
+        AVI  // One Motion-JPEG AVI file
+    }
+
+    public static final int DEFAULT_FPS = 30;
+    private static final float JPEG_QUALITY = 0.9f;
+
+    private final Format format;
+    private final int fps;
+    private final int width;
+    private final int height;
+    private final int threads;
+    private final int bufferCount;
+    private final Font captionFont = new Font("Arial", Font.BOLD, 14);
+    private final RenderSnapshot snapshot = new RenderSnapshot();
+    private final OverlayPainter overlayPainter = new OverlayPainter();
+    private final EntitySprites entitySprites = new EntitySprites();
+    private int buffersAllocated;
+
+    /**
+     * @param width frame width; the height keeps the game's 3:4 shape
+     */
+    public FrameRecorder(Format format, int fps, int width, int threads) {
+        if (fps < 1 || fps > 1000 / GameSimulation.TICK_MILLIS || width < 60 || threads < 1) {
+            throw new IllegalArgumentException("Invalid recording settings");
+        }
+        this.format = format;
+        this.fps = fps;
+        this.width = width;
+        this.height = width * GameSimulation.HEIGHT / GameSimulation.WIDTH;
+        this.threads = threads;
+        this.bufferCount = threads * 2; // Enough to keep every worker busy while the next frame is drawn
+    }
+
+    /**
+     * Summary of a finished recording
+     */
+    public static final class Stats {
+        private final int frames;
+        private final int fps;
+        private final long elapsedNanos;
+
+        Stats(int frames, int fps, long elapsedNanos) {
+            this.frames = frames;
+            this.fps = fps;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getFrames() {
+            return frames;
+        }
+
+        public double getFootageSeconds() {
+            return frames / (double) fps;
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        /**
+         * How many times faster than real time the recording was made
+         */
+        public double getSpeed() {
+            return getFootageSeconds() / Math.max(getElapsedSeconds(), 1e-9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d frames (%.1f s of footage) in %.1f s, %.1fx real time",
+                frames, getFootageSeconds(), getElapsedSeconds(), getSpeed());
+        }
+    }
+
+    /**
+     * Record the whole replay
+     * @param output a directory for PNG frames, or the AVI file
+     */
+    public Stats record(Replay replay, Path output) throws IOException {
+        long started = System.nanoTime();
+        ReplayPlayer player = new ReplayPlayer(replay);
+        GameSimulation simulation = player.getSimulation();
+        simulation.setLogging(false);
+
+        long startTick = replay.getStartTick();
+        int frameCount = (int) (replay.getDurationTicks() * fps * GameSimulation.TICK_MILLIS / 1000) + 1;
+
+        BlockingQueue<BufferedImage> freeBuffers = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            freeBuffers.add(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB));
+        }
+        buffersAllocated = bufferCount;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService encoders = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "frame-encoder-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+        AviWriter avi = null;
+        try {
+            if (format == Format.AVI) {
+                avi = new AviWriter(output, width, height, fps);
+            } else {
+                Files.createDirectories(output);
+            }
+
+            for (int frame = 0; frame < frameCount; frame++) {
+                long tick = startTick + frame * 1000L / (fps * GameSimulation.TICK_MILLIS);
+                while (simulation.getTick() < tick && player.step()) {
+                    // Simulate up to the frame's tick
+                }
+
+                BufferedImage buffer = freeBuffers.take();
+                render(buffer, simulation, tick - startTick);
+                int frameNumber = frame;
+                pending.add(encoders.submit(() -> {
+                    try {
+                        return encode(buffer, frameNumber, output);
+                    } finally {
+                        freeBuffers.add(buffer);
+                    }
+                }));
+
+                // Write finished frames in order; waiting here also bounds the encoded frames held in memory
+                while (!pending.isEmpty() && (pending.peek().isDone() || pending.size() > bufferCount)) {
+                    write(pending.poll().get(), avi);
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.poll().get(), avi);
+            }
+            if (avi != null) {
+                avi.finish();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Recording interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not encode frame: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            encoders.shutdownNow();
+            if (avi != null) {
+                avi.close();
+            }
+        }
+        return new Stats(frameCount, fps, System.nanoTime() - started);
+    }
+
+    private void render(BufferedImage buffer, GameSimulation simulation, long elapsedTicks) {
+        Graphics2D g2d = buffer.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(Color.BLACK);
+            g2d.fillRect(0, 0, width, height);
+            snapshot.capture(simulation);
+            GamePanel.drawWorld(g2d, snapshot, width, height, overlayPainter, entitySprites);
+
+            // Caption so viewers can tell where in the run a clip comes from
+            long seconds = elapsedTicks * GameSimulation.TICK_MILLIS / 1000;
+            String caption = String.format("Round %d   Score %d   Lives %d   %d:%02d",
+                simulation.getRoundManager().getCurrentRound(), simulation.getScore(), simulation.getLives(),
+                seconds / 60, seconds % 60);
+            g2d.setFont(captionFont);
+            g2d.setColor(new Color(0, 0, 0, 150));
+            g2d.fillRect(0, height - 24, width, 24);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString(caption, 8, height - 7);
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    /**
+     * Runs on an encoder thread
+     * @return the JPEG for an AVI frame; PNG frames are written straight to their file
+     */
+    private byte[] encode(BufferedImage buffer, int frame, Path output) throws IOException {
+        if (format == Format.PNG) {
+            Path file = output.resolve(String.format("frame-%06d.png", frame));
+            if (!ImageIO.write(buffer, "png", file.toFile())) {
+                throw new IOException("No PNG encoder available");
+            }
+            return null;
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(buffer, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void write(byte[] encoded, AviWriter avi) throws IOException {
+        if (avi != null) {
+            avi.writeFrame(encoded);
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Frame buffers created by the last recording; fixed however many frames it had
+     */
+    int getBuffersAllocated() {
+        return buffersAllocated;
+    }
+
+    /**
+     * Usage: FrameRecorder [replay file] [output] [png|avi] [fps] [width]
+     * Defaults to the last replay, recorded as last-replay.avi at 30 FPS and 600 pixels wide.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Path replayFile = args.length > 0 ? Paths.get(args[0])
+            : SaveGameStore.defaultDirectory().resolve(SaveGameStore.LAST_REPLAY_FILE_NAME);
+        Format format = args.length > 2 ? Format.valueOf(args[2].toUpperCase()) : Format.AVI;
+        Path output = args.length > 1 ? Paths.get(args[1])
+            : Paths.get(format == Format.AVI ? "last-replay.avi" : "last-replay-frames");
+        int fps = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_FPS;
+        int width = args.length > 4 ? Integer.parseInt(args[4]) : GameSimulation.WIDTH;
+
+        try {
+            Replay replay = Replay.fromBytes(Files.readAllBytes(replayFile));
+            FrameRecorder recorder = new FrameRecorder(format, fps, width, Runtime.getRuntime().availableProcessors());
+            System.out.println("Recording " + replayFile + " to " + output + " (" + recorder.getWidth() + "x"
+                + recorder.getHeight() + ", " + fps + " FPS)");
+            System.out.println("Recorded " + recorder.record(replay, output));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not record replay: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.maya_steph.virusdefense;
+
+import javax.swing.*;
+import java.awt.AWTException;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Robot;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Scripted input latency test: starts a game, presses the same keys at the same intervals on every
+ * run (shoot, left, shoot, right, each held briefly) and prints LatencyTracker's report.
+ *
+ * heartattack.latency.mode picks how keys are pressed and frames shown:
+ * - robot (the default with a display): the game window, with key presses made by java.awt.Robot,
+ *   so the measurement includes the system's keyboard event path
+ * - synthetic (the default when headless): key events posted to the event dispatch thread, frames
+ *   painted offscreen every 16 ms like a 60 Hz display
+ * heartattack.latency.presses sets the number of presses (default 100, which ends before the first
+ * quiz). An argument saves the report to that file.
+ */
+public class LatencyTest {
+    public static final String MODE_PROPERTY = "heartattack.latency.mode";
+    public static final String PRESSES_PROPERTY = "heartattack.latency.presses";
+    private static final long SCRIPT_SEED = 44;
+    private static final int[] SCRIPT_KEYS = {KeyEvent.VK_SPACE, KeyEvent.VK_LEFT, KeyEvent.VK_SPACE, KeyEvent.VK_RIGHT};
+    private static final int HOLD_MILLIS = 40;
+    private static final int MIN_GAP_MILLIS = 110;
+    private static final int GAP_SPREAD_MILLIS = 150;
+    private static final int DISPLAY_REFRESH_MILLIS = 16;
+
+    /**
+     * Presses and releases keys on the game
+     */
+    private interface Keyboard {
+        void press(int keyCode);
+        void release(int keyCode);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty(LatencyTracker.PROPERTY, "true");
+        String mode = System.getProperty(MODE_PROPERTY, GraphicsEnvironment.isHeadless() ? "synthetic" : "robot");
+        int presses = Integer.getInteger(PRESSES_PROPERTY, 100);
+        if (!mode.equals("robot") && !mode.equals("synthetic")) {
+            System.err.println("Unknown latency test mode " + mode + " (use robot or synthetic)");
+            System.exit(1);
+        }
+
+        GamePanel panel = onEventThread(GamePanel::new);
+        Keyboard keyboard = mode.equals("robot") ? showWindow(panel) : paintOffscreen(panel);
+        onEventThread(() -> {
+            panel.startGame();
+            return null;
+        });
+        Thread.sleep(500); // Let the first frames settle
+
+        Random script = new Random(SCRIPT_SEED);
+        int pressed = 0;
+        for (; pressed < presses && onEventThread(panel::isTakingGameKeys); pressed++) {
+            int keyCode = SCRIPT_KEYS[pressed % SCRIPT_KEYS.length];
+            keyboard.press(keyCode);
+            Thread.sleep(HOLD_MILLIS);
+            keyboard.release(keyCode);
+            Thread.sleep(MIN_GAP_MILLIS + script.nextInt(GAP_SPREAD_MILLIS));
+        }
+        Thread.sleep(500); // The last presses reach the screen
+
+        LatencyTracker tracker = panel.getLatencyTracker();
+        String report = tracker.report(mode + " keys, " + pressed + " presses, " + panel.describeOutput());
+        System.out.print(report);
+        if (args.length > 0) {
+            try {
+                Files.write(Paths.get(args[0]), report.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                System.err.println("Could not save latency report: " + e.getMessage());
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Keyboard showWindow(GamePanel panel) throws Exception {
+        onEventThread(() -> {
+            JFrame frame = new JFrame("HeartAttack latency test");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.setResizable(false);
+            frame.add(panel);
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+            panel.requestFocus();
+            return null;
+        });
+        Thread.sleep(1000); // The window has to be shown and focused for Robot's keys to reach it
+        Robot robot;
+        try {
+            robot = new Robot();
+        } catch (AWTException e) {
+            throw new IllegalStateException("Robot is not available here; use -D" + MODE_PROPERTY + "=synthetic", e);
+        }
+        return new Keyboard() {
+            @Override
+            public void press(int keyCode) {
+                robot.keyPress(keyCode);
+            }
+
+            @Override
+            public void release(int keyCode) {
+                robot.keyRelease(keyCode);
+            }
+        };
+    }
+
+    private static Keyboard paintOffscreen(GamePanel panel) throws Exception {
+        BufferedImage screen = new BufferedImage(GameSimulation.WIDTH, GameSimulation.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        onEventThread(() -> {
+            panel.setSize(GameSimulation.WIDTH, GameSimulation.HEIGHT);
+            new Timer(DISPLAY_REFRESH_MILLIS, e -> {
+                Graphics2D g2d = screen.createGraphics();
+                panel.paint(g2d);
+                g2d.dispose();
+            }).start();
+            return null;
+        });
+        return new Keyboard() {
+            @Override
+            public void press(int keyCode) {
+                KeyEvent event = new KeyEvent(panel, KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0, keyCode, KeyEvent.CHAR_UNDEFINED);
+                SwingUtilities.invokeLater(() -> panel.keyPressed(event));
+            }
+
+            @Override
+            public void release(int keyCode) {
+                KeyEvent event = new KeyEvent(panel, KeyEvent.KEY_RELEASED, System.currentTimeMillis(), 0, keyCode, KeyEvent.CHAR_UNDEFINED);
+                SwingUtilities.invokeLater(() -> panel.keyReleased(event));
+            }
+        };
+    }
+
+    private static <T> T onEventThread(Supplier<T> action) throws InvocationTargetException, InterruptedException {
+        AtomicReference<T> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> result.set(action.get()));
+        return result.get();
+    }
+}
@@ -0,0 +1,98 @@
+package com.maya_steph.virusdefense;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first frame, before and after the fast-start image: launches each command several times,
+ * alternating so both see the same machine load, and times each launch from starting the process to
+ * the "first-frame" line StartupProbe prints once the home screen is painted. Prints the report and
+ * saves it, so it can be collected from each kiosk.
+ *
+ * Usage: StartupBenchmark runs report-file --before command... --after command...
+ */
+public class StartupBenchmark {
+    private static final long LAUNCH_TIMEOUT_SECONDS = 120;
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.parseInt(args[0]);
+        Path report = Paths.get(args[1]);
+        List<String> argList = Arrays.asList(args);
+        int before = argList.indexOf("--before");
+        int after = argList.indexOf("--after");
+        if (before != 2 || after < before + 2 || after == args.length - 1) {
+            System.err.println("Usage: StartupBenchmark runs report-file --before command... --after command...");
+            System.exit(2);
+        }
+        List<String> beforeCommand = argList.subList(before + 1, after);
+        List<String> afterCommand = argList.subList(after + 1, args.length);
+
+        launch(beforeCommand); // Warms the OS file cache, so the first measured run is not the slowest
+        long[] beforeMillis = new long[runs];
+        long[] afterMillis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            beforeMillis[run] = launch(beforeCommand);
+            afterMillis[run] = launch(afterCommand);
+        }
+
+        String text = String.join(System.lineSeparator(),
+            "Time to first frame over " + runs + " launches (ms)",
+            line("Before", beforeMillis),
+            line("After", afterMillis),
+            String.format("Median saved: %d ms (%.0f%%)", median(beforeMillis) - median(afterMillis),
+                100.0 * (median(beforeMillis) - median(afterMillis)) / median(beforeMillis)),
+            "");
+        System.out.print(text);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.write(report, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return milliseconds from starting the process to its first-frame line
+     */
+    private static long launch(List<String> command) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectErrorStream(true);
+        long start = System.nanoTime();
+        Process process = builder.start();
+        long elapsed = -1;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (elapsed < 0 && line.equals(StartupProbe.FIRST_FRAME)) {
+                    elapsed = System.nanoTime() - start;
+                }
+                output.add(line);
+            }
+        }
+        if (!process.waitFor(LAUNCH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+        if (elapsed < 0) {
+            throw new IOException("No first frame from " + String.join(" ", command) + ":\n" + String.join("\n", output));
+        }
+        return TimeUnit.NANOSECONDS.toMillis(elapsed);
+    }
+
+    private static String line(String label, long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return String.format("%-6s  median %5d  min %5d  max %5d", label, median(millis), sorted[0], sorted[sorted.length - 1]);
+    }
+
+    private static long median(long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
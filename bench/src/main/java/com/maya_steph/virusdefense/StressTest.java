@@ -0,0 +1,68 @@
+package com.maya_steph.virusdefense;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Headless version of the endless swarm stress test: simulates and draws every frame offscreen as
+ * fast as possible and treats the time a frame took as its frame time. Useful on kiosks without a
+ * keyboard and in CI; the on-screen swarm mode (E on the home screen) also includes the display.
+ *
+ * Uses the heartattack.swarm.* properties of SwarmMode, plus heartattack.swarm.maxSeconds
+ * (game time to give up after, default 300). The renderer is picked like the game's, with
+ * heartattack.renderer and heartattack.renderer.threads.
+ */
+public class StressTest {
+    private static final int TICKS_PER_SECOND = 1000 / GameSimulation.TICK_MILLIS;
+
+    public static void main(String[] args) {
+        SwarmMode swarmMode;
+        try {
+            swarmMode = SwarmMode.fromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid swarm settings: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        long maxTicks = Integer.getInteger(SwarmMode.PROPERTY_PREFIX + "maxSeconds", 300) * (long) TICKS_PER_SECOND;
+        System.out.println("Stress test: " + swarmMode.describe());
+
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLogging(false);
+        swarmMode.start(simulation, 1L);
+
+        BufferedImage frame = new BufferedImage(GameSimulation.WIDTH, GameSimulation.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = frame.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        WorldRenderer renderer = WorldRenderer.fromSystemProperties();
+        RenderSnapshot snapshot = new RenderSnapshot();
+        StressMonitor monitor = new StressMonitor();
+        long busyNanos = 0;
+        for (long tick = 0; tick < maxTicks; tick++) {
+            long start = System.nanoTime();
+            swarmMode.beforeTick(simulation);
+            simulation.update();
+            snapshot.capture(simulation);
+            renderer.render(g2d, snapshot, GameSimulation.WIDTH, GameSimulation.HEIGHT);
+            busyNanos += System.nanoTime() - start;
+
+            int entities = snapshot.getEntityCount();
+            int round = simulation.getRoundManager().getCurrentRound();
+            if (monitor.frameFinished(busyNanos, entities, round)) {
+                break;
+            }
+            if (tick % (5 * TICKS_PER_SECOND) == 0) {
+                System.out.println(String.format("%4ds  round %3d  %6d viruses  %6d projectiles  %7.1f FPS",
+                    tick / TICKS_PER_SECOND, round, simulation.getViruses().size(),
+                    simulation.getWeapons().getProjectiles().size(), monitor.getLastFps()));
+            }
+        }
+        g2d.dispose();
+        renderer.close();
+
+        System.out.println();
+        System.out.print(monitor.report("headless (simulation and offscreen drawing), " + renderer.getName() + " renderer, " + swarmMode.describe()));
+    }
+}
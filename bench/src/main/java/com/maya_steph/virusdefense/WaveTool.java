@@ -0,0 +1,57 @@
+package com.maya_steph.virusdefense;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Command-line check for wave files: validates them, prints what each round compiles to and
+ * measures how long compiling takes.
+ *
+ * Usage: WaveTool [waves.json] [rounds] (defaults to the game's own waves and 30 rounds)
+ */
+public class WaveTool {
+    private static final int BENCHMARK_ITERATIONS = 20000;
+
+    public static void main(String[] args) {
+        WaveDefinitions definitions;
+        try {
+            definitions = args.length > 0 ? WaveDefinitions.load(Paths.get(args[0])) : WaveDefinitions.current();
+        } catch (IOException e) {
+            System.err.println("Invalid wave file: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        List<String> problems = definitions.validate(GameSimulation.LANE_COUNT);
+        for (String problem : problems) {
+            System.out.println("PROBLEM: " + problem);
+        }
+
+        WaveSchedule schedule = new WaveSchedule();
+        System.out.println("Round  Viruses  Speed  Last spawn (s)  Types (S/R/St/A)");
+        for (int round = 1; round <= rounds; round++) {
+            schedule.compile(definitions, round, GameSimulation.LANE_COUNT, round);
+            int[] typeCounts = new int[Virus.VirusType.values().length];
+            for (int i = 0; i < schedule.size(); i++) {
+                typeCounts[schedule.getType(i).ordinal()]++;
+            }
+            System.out.println(String.format("%5d  %7d  %5.1f  %14.1f  %d/%d/%d/%d", round, schedule.size(),
+                schedule.getRoundSpeed(), schedule.getLastSpawnTick() * GameSimulation.TICK_MILLIS / 1000.0,
+                typeCounts[0], typeCounts[1], typeCounts[2], typeCounts[3]));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            schedule.compile(definitions, 1 + i % rounds, GameSimulation.LANE_COUNT, i);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("Compiled %d schedules in %.1f ms (%.2f us each)",
+            BENCHMARK_ITERATIONS, elapsed / 1e6, elapsed / 1e3 / BENCHMARK_ITERATIONS));
+
+        if (!problems.isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Tests for FrameRecorder and AviWriter
+ */
+public class FrameRecorderTest {
+    private static final int TICKS = 300;
+
+    @TempDir
+    Path tempDir;
+
+    private static Replay recordBotRun() {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLogging(false);
+        simulation.startNewGame(11L);
+        ReplayRecorder recorder = new ReplayRecorder(simulation);
+        while (!simulation.isGameOver() && simulation.getTick() < TICKS) {
+            for (GameInput input : TestBot.inputs(simulation)) {
+                recorder.recordInput(simulation, input);
+                simulation.applyInput(input);
+            }
+            simulation.update();
+            recorder.afterTick(simulation);
+        }
+        return recorder.finish(simulation);
+    }
+
+    private static int expectedFrames(Replay replay, int fps) {
+        return (int) (replay.getDurationTicks() * fps * GameSimulation.TICK_MILLIS / 1000) + 1;
+    }
+
+    @Test
+    void testPngSequence() throws IOException {
+        Replay replay = recordBotRun();
+        FrameRecorder recorder = new FrameRecorder(FrameRecorder.Format.PNG, 10, 150, 2);
+        Path frames = tempDir.resolve("frames");
+
+        FrameRecorder.Stats stats = recorder.record(replay, frames);
+
+        assertEquals(expectedFrames(replay, 10), stats.getFrames());
+        try (Stream<Path> files = Files.list(frames)) {
+            assertEquals(stats.getFrames(), files.count());
+        }
+        BufferedImage last = ImageIO.read(frames.resolve(String.format("frame-%06d.png", stats.getFrames() - 1)).toFile());
+        assertEquals(150, last.getWidth());
+        assertEquals(200, last.getHeight());
+    }
+
+    @Test
+    void testAviContainer() throws IOException {
+        Replay replay = recordBotRun();
+        FrameRecorder recorder = new FrameRecorder(FrameRecorder.Format.AVI, 15, 120, 3);
+        Path video = tempDir.resolve("run.avi");
+
+        FrameRecorder.Stats stats = recorder.record(replay, video);
+        byte[] data = Files.readAllBytes(video);
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals("RIFF", fourCc(data, 0));
+        assertEquals(data.length - 8, buffer.getInt(4));
+        assertEquals("AVI ", fourCc(data, 8));
+        assertEquals(stats.getFrames(), buffer.getInt(48), "avih frame count");
+        assertEquals(120, buffer.getInt(64));
+        assertEquals(160, buffer.getInt(68));
+        assertEquals(stats.getFrames(), buffer.getInt(140), "strh length");
+
+        // The index sits at the end and points at every frame, each a decodable JPEG
+        int indexSize = stats.getFrames() * 16;
+        int indexStart = data.length - indexSize - 8;
+        assertEquals("idx1", fourCc(data, indexStart));
+        assertEquals(indexSize, buffer.getInt(indexStart + 4));
+        int moviFourCc = 220;
+        assertEquals("movi", fourCc(data, moviFourCc));
+        for (int frame = 0; frame < stats.getFrames(); frame++) {
+            int entry = indexStart + 8 + frame * 16;
+            int chunk = moviFourCc + buffer.getInt(entry + 8);
+            assertEquals("00dc", fourCc(data, chunk));
+            assertEquals(buffer.getInt(entry + 12), buffer.getInt(chunk + 4));
+            if (frame == 0 || frame == stats.getFrames() - 1) {
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(data, chunk + 8, buffer.getInt(chunk + 4)));
+                assertEquals(120, image.getWidth());
+            }
+        }
+    }
+
+    @Test
+    void testBuffersAreReused() throws IOException {
+        Replay replay = recordBotRun();
+        FrameRecorder recorder = new FrameRecorder(FrameRecorder.Format.AVI, 30, 90, 2);
+
+        FrameRecorder.Stats stats = recorder.record(replay, tempDir.resolve("reuse.avi"));
+
+        assertTrue(stats.getFrames() > 100);
+        assertEquals(4, recorder.getBuffersAllocated());
+    }
+
+    @Test
+    void testInvalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new FrameRecorder(FrameRecorder.Format.PNG, 0, 600, 1));
+        assertThrows(IllegalArgumentException.class, () -> new FrameRecorder(FrameRecorder.Format.PNG, 30, 600, 0));
+        assertThrows(IllegalArgumentException.class, () -> new FrameRecorder(FrameRecorder.Format.AVI, 120, 600, 1));
+    }
+
+    private static String fourCc(byte[] data, int offset) {
+        return new String(data, offset, 4, StandardCharsets.US_ASCII);
+    }
+}
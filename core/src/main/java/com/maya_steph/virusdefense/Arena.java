@@ -0,0 +1,60 @@
+package com.maya_steph.virusdefense;
+
+/**
+ * Size of the playing field and how it is divided into lanes.
+ * The normal game is 600x800 with 3 lanes; the endless swarm mode can use much larger arenas.
+ */
+public final class Arena {
+    public static final Arena STANDARD = new Arena(GameSimulation.WIDTH, GameSimulation.HEIGHT, GameSimulation.LANE_COUNT);
+
+    private final int width;
+    private final int height;
+    private final int laneCount;
+    private final int laneWidth;
+
+    public Arena(int width, int height, int laneCount) {
+        if (laneCount < 1 || width < laneCount || height < 200) {
+            throw new IllegalArgumentException("Invalid arena " + width + "x" + height + " with " + laneCount + " lanes");
+        }
+        this.width = width;
+        this.height = height;
+        this.laneCount = laneCount;
+        this.laneWidth = width / laneCount;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getLaneCount() {
+        return laneCount;
+    }
+
+    public int getLaneWidth() {
+        return laneWidth;
+    }
+
+    /**
+     * X coordinate of the middle of a lane
+     */
+    public int laneCenter(int lane) {
+        return lane * laneWidth + laneWidth / 2;
+    }
+
+    /**
+     * Lane containing an x coordinate; positions outside the arena belong to the outermost lanes
+     */
+    public int laneOf(double x) {
+        int lane = (int) Math.floor(x / laneWidth);
+        return Math.max(0, Math.min(laneCount - 1, lane));
+    }
+
+    @Override
+    public String toString() {
+        return width + "x" + height + ", " + laneCount + " lanes";
+    }
+}
@@ -0,0 +1,245 @@
+package com.maya_steph.virusdefense;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Generated assets (synthesized sound effects, rasterized sprites) kept on disk between launches, so
+ * a slow machine does not generate them again on every start. Each asset is stored under a key
+ * listing everything that went into generating it; change any parameter and the key changes, so the
+ * asset is generated afresh. Files are read whole into memory and checked before use, and a
+ * damaged or foreign file is treated as missing. Nothing is left mapped or open, so a stored asset
+ * can be replaced while an earlier copy is still in use; Windows refuses to replace a mapped file.
+ *
+ * Lives in the user's cache directory, or heartattack.cacheDir; heartattack.cacheDir=off disables it.
+ * Writes go through one background thread, so generating an asset never waits for the disk.
+ */
+public class AssetCache {
+    public static final String DIRECTORY_PROPERTY = "heartattack.cacheDir";
+    static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x48414143; // "HAAC"
+
+    private static AssetCache defaultCache;
+
+    private final Path directory; // null when disabled
+    private final ExecutorService writer;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * @param directory where to keep assets, or null to keep nothing
+     */
+    public AssetCache(Path directory) {
+        this.directory = directory == null ? null : directory.resolve("v" + FORMAT_VERSION);
+        this.writer = directory == null ? null : Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "asset-cache-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The cache shared by the game, in the directory chosen by the heartattack.cacheDir property
+     */
+    public static synchronized AssetCache getDefault() {
+        if (defaultCache == null) {
+            defaultCache = new AssetCache(defaultDirectory());
+        }
+        return defaultCache;
+    }
+
+    static Path defaultDirectory() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        if ("off".equals(configured)) {
+            return null;
+        }
+        if (configured != null && !configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        String os = System.getProperty("os.name", "").toLowerCase();
+        String home = System.getProperty("user.home");
+        if (os.contains("win") && System.getenv("LOCALAPPDATA") != null) {
+            return Paths.get(System.getenv("LOCALAPPDATA"), "HeartAttack", "cache");
+        }
+        if (os.contains("mac")) {
+            return Paths.get(home, "Library", "Caches", "HeartAttack");
+        }
+        String xdg = System.getenv("XDG_CACHE_HOME");
+        return xdg != null && !xdg.isEmpty() ? Paths.get(xdg, "heartattack") : Paths.get(home, ".cache", "heartattack");
+    }
+
+    /**
+     * A key made of the generation parameters, e.g. key("tone", 44100, 400, 30, 0.25)
+     */
+    public static String key(Object... parameters) {
+        StringBuilder key = new StringBuilder();
+        for (Object parameter : parameters) {
+            if (key.length() > 0) {
+                key.append('|');
+            }
+            key.append(parameter);
+        }
+        return key.toString();
+    }
+
+    /**
+     * The stored asset, or one newly generated (and stored for next time)
+     */
+    public byte[] getBytes(String key, Supplier<byte[]> generator) {
+        ByteBuffer stored = read(key);
+        if (stored != null) {
+            byte[] data = new byte[stored.remaining()];
+            stored.get(data);
+            return data;
+        }
+        byte[] data = generator.get();
+        writeAsync(key, data);
+        return data;
+    }
+
+    /**
+     * The stored asset as a read-only buffer, or null if there is none
+     */
+    public ByteBuffer read(String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = fileFor(key);
+        if (!Files.isRegularFile(file)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try {
+            ByteBuffer payload = checkedPayload(ByteBuffer.wrap(Files.readAllBytes(file)), key);
+            if (payload == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return payload;
+        } catch (IOException e) {
+            System.err.println("Could not read cached asset " + file.getFileName() + ": " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Queue the asset to be stored; the data array must not be modified afterwards
+     */
+    public void writeAsync(String key, byte[] data) {
+        if (writer == null) {
+            return;
+        }
+        writer.execute(() -> {
+            try {
+                write(key, data);
+            } catch (IOException e) {
+                System.err.println("Could not cache asset: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Wait until queued writes have reached the disk
+     */
+    public void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("Timed out waiting for asset cache writes: " + e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    private void write(String key, byte[] data) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        ByteBuffer file = ByteBuffer.allocate(20 + keyBytes.length + data.length);
+        file.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(keyBytes.length).put(keyBytes);
+        file.putInt(data.length).putInt((int) crc.getValue()).put(data);
+
+        Files.createDirectories(directory);
+        Path target = fileFor(key);
+        Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(tempFile, file.array());
+        try {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * The payload if the header matches this key and the checksum is right, otherwise null
+     */
+    private static ByteBuffer checkedPayload(ByteBuffer file, String key) {
+        byte[] expectedKey = key.getBytes(StandardCharsets.UTF_8);
+        if (file.remaining() < 20 + expectedKey.length || file.getInt() != MAGIC || file.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        int keyLength = file.getInt();
+        if (keyLength != expectedKey.length) {
+            return null;
+        }
+        for (byte expected : expectedKey) {
+            if (file.get() != expected) {
+                return null; // A different key with the same file name
+            }
+        }
+        int length = file.getInt();
+        int checksum = file.getInt();
+        if (length < 0 || length != file.remaining()) {
+            return null;
+        }
+        ByteBuffer payload = file.slice();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        return payload.asReadOnlyBuffer();
+    }
+
+    private Path fileFor(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                name.append(String.format("%02x", hash[i]));
+            }
+            return directory.resolve(name + ".asset");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.maya_steph.virusdefense;
+
+/**
+ * Where the game outside the simulation reads the time and schedules delayed work: the quiz timers,
+ * the game timer, shot cooldowns and sound throttling. The simulation keeps its own time in ticks.
+ *
+ * SYSTEM uses the real time and a timer thread of its own; the game panel uses a SwingClock, whose
+ * timers run on the event dispatch thread. A VirtualClock only moves when it is advanced, so tests
+ * can cover a minute of quiz timing without waiting for it.
+ */
+public interface GameClock {
+    GameClock SYSTEM = new SystemClock();
+
+    long currentTimeMillis();
+
+    /**
+     * For measuring intervals, like System.nanoTime()
+     */
+    long nanoTime();
+
+    /**
+     * A stopped timer that runs the action once the delay has passed after start(), and every
+     * delay after that if it repeats. Like javax.swing.Timer, whose place it takes.
+     */
+    Timer createTimer(int delayMillis, boolean repeats, Runnable action);
+
+    interface Timer {
+        /**
+         * Start counting the delay; does nothing if already running
+         */
+        void start();
+
+        void stop();
+
+        boolean isRunning();
+
+        boolean isRepeats();
+
+        int getDelay();
+    }
+}
@@ -0,0 +1,258 @@
+package com.maya_steph.virusdefense;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the game's phases, so a recording shows ticks, collision passes,
+ * spawns, rounds, quizzes, paint phases and sounds next to GC pauses and thread activity in JDK
+ * Mission Control. Record with the bundled settings:
+ * java -XX:StartFlightRecording=settings=core/src/main/resources/heartattack.jfc,filename=game.jfr ...
+ *
+ * The begin methods return null unless a recording has the event enabled, so when nobody is
+ * recording an event costs one check and allocates nothing.
+ */
+public final class GameEvents {
+    private static final EventType TICK = EventType.getEventType(Tick.class);
+    private static final EventType COLLISION_PASS = EventType.getEventType(CollisionPass.class);
+    private static final EventType SPAWN = EventType.getEventType(Spawn.class);
+    private static final EventType ROUND_ADVANCED = EventType.getEventType(RoundAdvanced.class);
+    private static final EventType QUIZ_SHOWN = EventType.getEventType(QuizShown.class);
+    private static final EventType QUIZ_ANSWERED = EventType.getEventType(QuizAnswered.class);
+    private static final EventType PAINT_PHASE = EventType.getEventType(PaintPhase.class);
+    private static final EventType SOUND = EventType.getEventType(Sound.class);
+
+    private GameEvents() {}
+
+    @Name("heartattack.Tick")
+    @Label("Simulation Tick")
+    @Category({"HeartAttack", "Simulation"})
+    @Description("One update of the game simulation, with the entity counts after it")
+    @StackTrace(false)
+    public static class Tick extends Event {
+        @Label("Tick")
+        long tick;
+        @Label("Round")
+        int round;
+        @Label("Viruses")
+        int viruses;
+        @Label("Projectiles")
+        int projectiles;
+        @Label("Particles")
+        int particles;
+    }
+
+    @Name("heartattack.CollisionPass")
+    @Label("Collision Pass")
+    @Category({"HeartAttack", "Simulation"})
+    @Description("Projectiles checked against viruses in one tick")
+    @StackTrace(false)
+    public static class CollisionPass extends Event {
+        @Label("Viruses")
+        int viruses;
+        @Label("Projectiles")
+        int projectiles;
+        @Label("Hits")
+        int hits;
+    }
+
+    @Name("heartattack.Spawn")
+    @Label("Virus Spawned")
+    @Category({"HeartAttack", "Simulation"})
+    @StackTrace(false)
+    public static class Spawn extends Event {
+        @Label("Virus Type")
+        String virusType;
+        @Label("X")
+        int x;
+        @Label("Round")
+        int round;
+    }
+
+    @Name("heartattack.RoundAdvanced")
+    @Label("Round Advanced")
+    @Category({"HeartAttack", "Simulation"})
+    @StackTrace(false)
+    public static class RoundAdvanced extends Event {
+        @Label("Round")
+        int round;
+        @Label("Tick")
+        long tick;
+    }
+
+    @Name("heartattack.QuizShown")
+    @Label("Quiz Shown")
+    @Category({"HeartAttack", "Quiz"})
+    @StackTrace(false)
+    public static class QuizShown extends Event {
+        @Label("Question")
+        String questionId;
+    }
+
+    @Name("heartattack.QuizAnswered")
+    @Label("Quiz Answered")
+    @Category({"HeartAttack", "Quiz"})
+    @Description("From the question appearing to its answer")
+    @StackTrace(false)
+    public static class QuizAnswered extends Event {
+        @Label("Question")
+        String questionId;
+        @Label("Correct")
+        boolean correct;
+    }
+
+    @Name("heartattack.PaintPhase")
+    @Label("Paint Phase")
+    @Category({"HeartAttack", "Rendering"})
+    @Description("One part of painting a frame: world, ui, quiz, game over or home screen")
+    @StackTrace(false)
+    public static class PaintPhase extends Event {
+        @Label("Phase")
+        String phase;
+        @Label("Tick")
+        long tick;
+        @Label("Entities")
+        int entities;
+    }
+
+    @Name("heartattack.Sound")
+    @Label("Sound Triggered")
+    @Category({"HeartAttack", "Audio"})
+    @StackTrace(false)
+    public static class Sound extends Event {
+        @Label("Sound")
+        String sound;
+        @Label("Tick")
+        long tick;
+    }
+
+    public static Tick beginTick() {
+        if (!TICK.isEnabled()) {
+            return null;
+        }
+        Tick event = new Tick();
+        event.begin();
+        return event;
+    }
+
+    public static void endTick(Tick event, GameSimulation simulation) {
+        if (event == null) {
+            return;
+        }
+        event.tick = simulation.getTick();
+        event.round = simulation.getRoundManager().getCurrentRound();
+        event.viruses = simulation.getViruses().size();
+        event.projectiles = simulation.getWeapons().getProjectiles().size();
+        event.particles = simulation.getParticles().getCount();
+        event.commit();
+    }
+
+    public static CollisionPass beginCollisionPass(int viruses, int projectiles) {
+        if (!COLLISION_PASS.isEnabled()) {
+            return null;
+        }
+        CollisionPass event = new CollisionPass();
+        event.viruses = viruses;
+        event.projectiles = projectiles;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param projectilesLeft projectiles after the pass; each one removed hit a virus
+     */
+    public static void endCollisionPass(CollisionPass event, int projectilesLeft) {
+        if (event == null) {
+            return;
+        }
+        event.hits = event.projectiles - projectilesLeft;
+        event.commit();
+    }
+
+    public static void spawn(Virus.VirusType virusType, int x, int round) {
+        if (!SPAWN.isEnabled()) {
+            return;
+        }
+        Spawn event = new Spawn();
+        event.virusType = virusType.name();
+        event.x = x;
+        event.round = round;
+        event.commit();
+    }
+
+    public static void roundAdvanced(int round, long tick) {
+        if (!ROUND_ADVANCED.isEnabled()) {
+            return;
+        }
+        RoundAdvanced event = new RoundAdvanced();
+        event.round = round;
+        event.tick = tick;
+        event.commit();
+    }
+
+    /**
+     * Record the question appearing and start timing its answer
+     * @return the answer event to end with quizAnswered, or null
+     */
+    public static QuizAnswered quizShown(String questionId) {
+        if (QUIZ_SHOWN.isEnabled()) {
+            QuizShown shown = new QuizShown();
+            shown.questionId = questionId;
+            shown.commit();
+        }
+        if (!QUIZ_ANSWERED.isEnabled()) {
+            return null;
+        }
+        QuizAnswered event = new QuizAnswered();
+        event.questionId = questionId;
+        event.begin();
+        return event;
+    }
+
+    public static void quizAnswered(QuizAnswered event, boolean correct) {
+        if (event == null) {
+            return;
+        }
+        event.correct = correct;
+        event.commit();
+    }
+
+    /**
+     * @param phase a constant name, so naming the phase allocates nothing
+     */
+    public static PaintPhase beginPaint(String phase) {
+        if (!PAINT_PHASE.isEnabled()) {
+            return null;
+        }
+        PaintPhase event = new PaintPhase();
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    public static void endPaint(PaintPhase event, RenderSnapshot frame) {
+        if (event == null) {
+            return;
+        }
+        if (frame != null) {
+            event.tick = frame.getTick();
+            event.entities = frame.getEntityCount();
+        }
+        event.commit();
+    }
+
+    public static void sound(String soundName, long tick) {
+        if (!SOUND.isEnabled()) {
+            return;
+        }
+        Sound event = new Sound();
+        event.sound = soundName;
+        event.tick = tick;
+        event.commit();
+    }
+}
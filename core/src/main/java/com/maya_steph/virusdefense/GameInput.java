@@ -0,0 +1,42 @@
+package com.maya_steph.virusdefense;
+
+/**
+ * Player actions that change the game world.
+ * Replays store these by ordinal, so new actions must only ever be appended.
+ */
+public enum GameInput {
+    MOVE_LEFT,
+    MOVE_RIGHT,
+    SHOOT,
+    SWITCH_WEAPON,
+    SELECT_SPIKY_BALL,
+    SELECT_BALL,
+    SELECT_STAR,
+    SELECT_ARROW,
+    QUIZ_WRONG_ANSWER;
+
+    private static final GameInput[] VALUES = values();
+
+    /**
+     * The input that selects the given weapon directly
+     */
+    public static GameInput selectWeapon(Weapons.WeaponType weaponType) {
+        switch (weaponType) {
+            case SPIKY_BALL:
+                return SELECT_SPIKY_BALL;
+            case BALL:
+                return SELECT_BALL;
+            case STAR:
+                return SELECT_STAR;
+            default:
+                return SELECT_ARROW;
+        }
+    }
+
+    public static GameInput fromOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown input " + ordinal);
+        }
+        return VALUES[ordinal];
+    }
+}
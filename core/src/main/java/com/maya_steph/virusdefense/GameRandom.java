@@ -0,0 +1,40 @@
+package com.maya_steph.virusdefense;
+
+/**
+ * Small seedable random number generator (SplitMix64) whose whole state is a single long,
+ * so it can be saved and restored together with the rest of the game state
+ */
+public class GameRandom {
+    private long state;
+
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        // Use the high bits and a multiply instead of modulo to avoid bias for small bounds
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+}
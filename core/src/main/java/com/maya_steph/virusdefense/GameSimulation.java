@@ -0,0 +1,630 @@
+package com.maya_steph.virusdefense;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Owns the game world (player, viruses, weapons, rounds, overlay and lives) and advances it one tick at a time.
+ * GamePanel drives it from its timer and draws it; it has no Swing dependencies of its own.
+ * Given the same starting state and the same inputs at the same ticks, it always produces the same world,
+ * which is what replays rely on.
+ */
+public class GameSimulation {
+    public static final int WIDTH = 600;
+    public static final int HEIGHT = 800;
+    public static final int LANE_COUNT = 3;
+    public static final int LANE_WIDTH = WIDTH / LANE_COUNT;
+    public static final int STARTING_LIVES = 3;
+    public static final int TICK_MILLIS = 16; // One tick per GamePanel timer event (~60 FPS)
+    // What writeState writes besides the viruses' and projectiles' own state: its counters, seeds and
+    // list lengths, then each part's fixed state
+    static final int FIXED_STATE_BYTES = 52 + Player.STATE_BYTES + RoundManager.STATE_BYTES + Weapons.STATE_BYTES
+            + OverlayEffect.STATE_BYTES;
+
+    /**
+     * Receives notifications about things that happen inside the simulation
+     */
+    public interface Listener {
+        default void onSound(String soundName) {}
+        default void onRoundAdvanced(int round) {}
+        default void onLifeLost(boolean fromQuiz) {}
+        default void onGameOver() {}
+    }
+
+    private Player player;
+    private final ArrayList<Virus> viruses;
+    private final ArrayList<Virus> spareViruses = new ArrayList<>(); // Viruses that left the arena, reused for new spawns
+    private RoundManager roundManager;
+    private final OverlayEffect overlay;
+    private final ParticleSystem particles;
+    private Weapons weapons;
+    private final GameRandom random;
+    private final WaveSchedule waveSchedule;
+    private WaveDefinitions waves;
+    private Arena arena = Arena.STANDARD;
+    private boolean endless;
+    private Listener listener;
+    private boolean logging = true;
+    private CollisionProbe collisionProbe; // null outside tests
+
+    // Per-lane virus lists for collision checks, rebuilt every tick: laneHeads[lane] is the first virus
+    // index in the lane and nextInLane[i] the one after virus i (-1 ends a list)
+    private int[] laneHeads = new int[0];
+    private int[] nextInLane = new int[0];
+    private boolean[] removedViruses = new boolean[0];
+    private boolean[] removedProjectiles = new boolean[0];
+
+    private long seed;              // Seed the current game was started with
+    private long tick;
+    private int lives;
+    private int virusesDestroyed;
+    private int virusesLeaked;      // Endless mode: viruses that got through without costing a life
+    private int roundTick;          // Ticks since the current round started
+    private long waveScheduleSeed;  // Rebuilds the round's schedule when a snapshot is restored
+
+    public GameSimulation() {
+        this(System.nanoTime());
+    }
+
+    public GameSimulation(long seed) {
+        viruses = new ArrayList<>();
+        overlay = new OverlayEffect();
+        particles = new ParticleSystem();
+        random = new GameRandom(seed);
+        waveSchedule = new WaveSchedule();
+        waves = WaveDefinitions.current();
+        listener = new Listener() {};
+        reset();
+    }
+
+    /**
+     * Start a new game whose random events are fully determined by the seed
+     */
+    public void reset(long seed) {
+        random.setState(seed);
+        reset();
+    }
+
+    /**
+     * Set up the world exactly as a newly started game, with the moving background running
+     */
+    public void startNewGame(long seed) {
+        reset(seed);
+        overlay.startMovingBackground(); // Forward movement illusion
+    }
+
+    /**
+     * Put the world back into its initial state (round 1, full lives, no viruses)
+     */
+    public void reset() {
+        seed = random.getState();
+        player = new Player(arena.laneCenter(arena.getLaneCount() / 2), arena.getHeight() - 100);
+        spareViruses.addAll(viruses);
+        viruses.clear();
+        roundManager = new RoundManager();
+        roundManager.setLogging(logging);
+        weapons = new Weapons();
+        overlay.reset();
+        particles.clear();
+        tick = 0;
+        lives = STARTING_LIVES;
+        virusesDestroyed = 0;
+        virusesLeaked = 0;
+        startRoundSpawns();
+    }
+
+    /**
+     * Wave definitions used from the next round (or reset) on
+     */
+    public void setWaves(WaveDefinitions waves) {
+        this.waves = waves;
+    }
+
+    public WaveDefinitions getWaves() {
+        return waves;
+    }
+
+    /**
+     * Arena used from the next reset on
+     */
+    public void setArena(Arena arena) {
+        this.arena = arena;
+    }
+
+    /**
+     * Endless mode: viruses that get through are only counted, and a round ends as soon as all its
+     * viruses have spawned instead of waiting for the screen to clear
+     */
+    public void setEndless(boolean endless) {
+        this.endless = endless;
+    }
+
+    /**
+     * Compile the current round's spawns; called whenever a round starts
+     */
+    private void startRoundSpawns() {
+        roundTick = 0;
+        waveScheduleSeed = random.nextLong();
+        compileWaveSchedule();
+    }
+
+    private void compileWaveSchedule() {
+        waveSchedule.compile(waves, roundManager.getCurrentRound(), arena.getLaneCount(), waveScheduleSeed);
+        roundManager.setVirusesPerRound(waveSchedule.size());
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : new Listener() {};
+    }
+
+    /**
+     * Console output is useful while playing but only slows down headless re-simulation
+     */
+    public void setLogging(boolean logging) {
+        this.logging = logging;
+        roundManager.setLogging(logging);
+    }
+
+    private void log(String message) {
+        if (logging) {
+            System.out.println(message);
+        }
+    }
+
+    /**
+     * Called around the collision pass of every update, so tests can measure the pass on its own
+     */
+    interface CollisionProbe {
+        void beforeCollisions();
+
+        void afterCollisions();
+    }
+
+    void setCollisionProbe(CollisionProbe collisionProbe) {
+        this.collisionProbe = collisionProbe;
+    }
+
+    /**
+     * Advance the world by one frame
+     */
+    public void update() {
+        GameEvents.Tick tickEvent = GameEvents.beginTick(); // null unless Flight Recorder is recording it
+        tick++;
+
+        // Spawn whatever the round's schedule has due; counted in ticks so spawning pauses with the game
+        roundTick++;
+        while (waveSchedule.hasDue(roundTick)) {
+            spawnVirus();
+        }
+
+        // Update player
+        player.update();
+
+        // Update weapons
+        weapons.update();
+
+        // Update viruses, compacting the list in place so thousands of them stay cheap
+        int kept = 0;
+        for (int i = 0; i < viruses.size(); i++) {
+            Virus virus = viruses.get(i);
+            virus.update();
+
+            // Check if virus reached bottom
+            if (virus.getY() > arena.getHeight()) {
+                particles.lifeLost(virus.getX(), arena.getHeight());
+                spareViruses.add(virus);
+                if (endless) {
+                    virusesLeaked++;
+                } else {
+                    loseLife(false);
+                }
+            } else {
+                viruses.set(kept++, virus);
+            }
+        }
+        truncate(viruses, kept);
+
+        // Check collisions between projectiles and viruses
+        GameEvents.CollisionPass collisionEvent = GameEvents.beginCollisionPass(viruses.size(), weapons.getProjectiles().size());
+        if (collisionProbe != null) {
+            collisionProbe.beforeCollisions();
+        }
+        checkProjectileCollisions();
+        if (collisionProbe != null) {
+            collisionProbe.afterCollisions();
+        }
+        GameEvents.endCollisionPass(collisionEvent, weapons.getProjectiles().size());
+
+        // Update overlay fade effect and particles
+        overlay.update();
+        particles.update();
+
+        // Check if round is complete (all viruses spawned AND no viruses left on screen)
+        checkRoundComplete();
+        GameEvents.endTick(tickEvent, this);
+    }
+
+    /**
+     * Spawn the next virus of the current round's schedule now.
+     * @return false if every virus of this round has already been spawned
+     */
+    public boolean spawnVirus() {
+        // Check if we've already spawned enough viruses for this round
+        if (roundManager.checkRoundComplete() || waveSchedule.isExhausted()) {
+            return false;
+        }
+
+        int spawn = waveSchedule.next();
+        int x = arena.laneCenter(waveSchedule.getLane(spawn));
+        Virus.VirusType virusType = waveSchedule.getType(spawn);
+
+        Virus virus;
+        if (spareViruses.isEmpty()) {
+            virus = new Virus(x, 0, waveSchedule.getSpeed(spawn), virusType);
+        } else {
+            virus = spareViruses.remove(spareViruses.size() - 1);
+            virus.reset(x, 0, waveSchedule.getSpeed(spawn), virusType);
+        }
+        viruses.add(virus);
+        roundManager.virusSpawned();
+        GameEvents.spawn(virusType, x, roundManager.getCurrentRound());
+        if (logging) {
+            log("Spawned " + virusType.getDisplayName() + " virus (weak to " + virusType.getWeakness().getDisplayName() + ") - " + roundManager.getVirusesSpawnedThisRound() + "/" + roundManager.getVirusesPerRound());
+        }
+        return true;
+    }
+
+    private void checkRoundComplete() {
+        // Round is complete when all viruses have been spawned AND no viruses remain on screen
+        if (roundManager.checkRoundComplete() && (endless || viruses.isEmpty())) {
+            // Advance to next round
+            roundManager.advanceToNextRound();
+
+            // Trigger flash effect
+            overlay.triggerNewRoundFlash();
+            log("ROUND COMPLETE! NEW ROUND FLASH TRIGGERED!");
+
+            // Restart virus spawning for the new round
+            startRoundSpawns();
+
+            GameEvents.roundAdvanced(roundManager.getCurrentRound(), tick);
+            listener.onRoundAdvanced(roundManager.getCurrentRound());
+        }
+    }
+
+    /**
+     * Lose a life; shake and red overlay are only shown for viruses that got through, not for quiz answers
+     */
+    public void loseLife(boolean fromQuiz) {
+        if (isGameOver()) return;
+        lives--;
+
+        // Only trigger shake and red overlay if NOT from quiz wrong answer
+        if (!fromQuiz) {
+            overlay.triggerLifeLossShakeAndRedOverlay(); // Shake and red overlay for 1 second
+        }
+        listener.onLifeLost(fromQuiz);
+
+        if (lives <= 0) {
+            listener.onGameOver();
+        }
+    }
+
+    /**
+     * Hit each projectile against the first virus in the list it touches, like checking every pair but
+     * only looking at viruses in the lanes the projectile can reach
+     */
+    void checkProjectileCollisions() {
+        ArrayList<Weapons.ProjectileBall> projectiles = weapons.getProjectiles();
+        if (projectiles.isEmpty() || viruses.isEmpty()) {
+            return;
+        }
+        int virusCount = viruses.size();
+        int projectileCount = projectiles.size();
+        if (laneHeads.length != arena.getLaneCount()) {
+            laneHeads = new int[arena.getLaneCount()];
+        }
+        if (nextInLane.length < virusCount) {
+            nextInLane = new int[Math.max(virusCount, nextInLane.length * 2)];
+            removedViruses = new boolean[nextInLane.length];
+        }
+        if (removedProjectiles.length < projectileCount) {
+            removedProjectiles = new boolean[Math.max(projectileCount, removedProjectiles.length * 2)];
+        }
+
+        // Build the lane lists back to front so each one is in list order
+        Arrays.fill(laneHeads, -1);
+        int maxVirusSize = 0;
+        for (int i = virusCount - 1; i >= 0; i--) {
+            Virus virus = viruses.get(i);
+            int lane = arena.laneOf(virus.getX());
+            nextInLane[i] = laneHeads[lane];
+            laneHeads[lane] = i;
+            removedViruses[i] = false;
+            maxVirusSize = Math.max(maxVirusSize, virus.getSize());
+        }
+
+        boolean anyVirusRemoved = false;
+        boolean anyProjectileRemoved = false;
+        for (int p = 0; p < projectileCount; p++) {
+            Weapons.ProjectileBall projectile = projectiles.get(p);
+            removedProjectiles[p] = false;
+            double reach = projectile.getSize() / 2 + maxVirusSize / 2;
+            int firstLane = arena.laneOf(projectile.getX() - reach);
+            int lastLane = arena.laneOf(projectile.getX() + reach);
+
+            int hit = -1;
+            for (int lane = firstLane; lane <= lastLane; lane++) {
+                for (int i = laneHeads[lane]; i >= 0 && (hit < 0 || i < hit); i = nextInLane[i]) {
+                    if (!removedViruses[i] && projectile.collidesWith(viruses.get(i))) {
+                        hit = i;
+                        break;
+                    }
+                }
+            }
+            if (hit < 0) {
+                continue;
+            }
+
+            Virus virus = viruses.get(hit);
+            // Check if weapon is effective against this virus type
+            boolean effectiveHit = virus.hitWithWeapon(projectile.getWeaponType());
+            removedProjectiles[p] = true; // Projectile can only hit one virus
+            anyProjectileRemoved = true;
+
+            if (effectiveHit) {
+                particles.effectiveHit(projectile.getX(), projectile.getY());
+                if (logging) {
+                    log("Effective hit! " + projectile.getWeaponType().getDisplayName() + " vs " + virus.getVirusType().getDisplayName());
+                }
+
+                // Check if virus is dead
+                if (virus.isDead()) {
+                    particles.virusDestroyed(virus);
+                    removedViruses[hit] = true;
+                    anyVirusRemoved = true;
+                    virusesDestroyed++;
+                }
+            } else {
+                particles.ineffectiveHit(projectile.getX(), projectile.getY());
+                if (logging) {
+                    log("Ineffective hit! " + projectile.getWeaponType().getDisplayName() + " vs " + virus.getVirusType().getDisplayName() + " (need " + virus.getWeakness().getDisplayName() + ")");
+                }
+            }
+        }
+
+        // Removed entities are kept for reuse, so steady play creates no garbage
+        if (anyVirusRemoved) {
+            for (int i = 0; i < virusCount; i++) {
+                if (removedViruses[i]) {
+                    spareViruses.add(viruses.get(i));
+                }
+            }
+            removeMarked(viruses, removedViruses);
+        }
+        if (anyProjectileRemoved) {
+            for (int p = 0; p < projectileCount; p++) {
+                if (removedProjectiles[p]) {
+                    weapons.recycle(projectiles.get(p));
+                }
+            }
+            removeMarked(projectiles, removedProjectiles);
+        }
+    }
+
+    /**
+     * Remove the marked elements while keeping the others in order
+     */
+    private static <T> void removeMarked(ArrayList<T> list, boolean[] removed) {
+        int kept = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if (!removed[i]) {
+                list.set(kept++, list.get(i));
+            }
+        }
+        truncate(list, kept);
+    }
+
+    /**
+     * Drop the elements from size on; removing from the end, unlike clearing a subList view, allocates nothing
+     */
+    static void truncate(ArrayList<?> list, int size) {
+        for (int i = list.size() - 1; i >= size; i--) {
+            list.remove(i);
+        }
+    }
+
+    /**
+     * Apply a recorded or live player action
+     */
+    public void applyInput(GameInput input) {
+        switch (input) {
+            case MOVE_LEFT:
+                movePlayerLeft();
+                break;
+            case MOVE_RIGHT:
+                movePlayerRight();
+                break;
+            case SHOOT:
+                shoot();
+                break;
+            case SWITCH_WEAPON:
+                switchWeapon();
+                break;
+            case SELECT_SPIKY_BALL:
+                selectWeapon(Weapons.WeaponType.SPIKY_BALL);
+                break;
+            case SELECT_BALL:
+                selectWeapon(Weapons.WeaponType.BALL);
+                break;
+            case SELECT_STAR:
+                selectWeapon(Weapons.WeaponType.STAR);
+                break;
+            case SELECT_ARROW:
+                selectWeapon(Weapons.WeaponType.ARROW);
+                break;
+            case QUIZ_WRONG_ANSWER:
+                loseLife(true);
+                break;
+        }
+    }
+
+    public void movePlayerLeft() {
+        player.moveLeft(arena.getLaneWidth());
+        listener.onSound("move");
+    }
+
+    public void movePlayerRight() {
+        player.moveRight(arena.getLaneWidth(), arena.getLaneWidth() * arena.getLaneCount());
+        listener.onSound("move");
+    }
+
+    public void shoot() {
+        // Play sound first, then shoot - ensures sound executes immediately
+        listener.onSound("shoot");
+        weapons.shoot(player.getX(), player.getY(), getTimeMillis());
+    }
+
+    public void switchWeapon() {
+        weapons.switchWeapon();
+    }
+
+    public void selectWeapon(Weapons.WeaponType weaponType) {
+        weapons.setWeapon(weaponType);
+    }
+
+    void writeState(ByteBuffer buffer) {
+        buffer.putLong(seed);
+        buffer.putLong(tick);
+        buffer.putLong(random.getState());
+        buffer.putInt(lives);
+        buffer.putInt(virusesDestroyed);
+        player.writeState(buffer);
+        roundManager.writeState(buffer);
+        buffer.putInt(roundTick);
+        buffer.putLong(waveScheduleSeed);
+        buffer.putInt(waveSchedule.getCursor());
+        weapons.writeState(buffer);
+        buffer.putInt(viruses.size());
+        for (Virus virus : viruses) {
+            virus.writeState(buffer);
+        }
+        overlay.writeState(buffer);
+    }
+
+    void readState(ByteBuffer buffer) {
+        seed = buffer.getLong();
+        tick = buffer.getLong();
+        random.setState(buffer.getLong());
+        lives = buffer.getInt();
+        virusesDestroyed = buffer.getInt();
+        player.readState(buffer);
+        roundManager.readState(buffer);
+        roundTick = buffer.getInt();
+        waveScheduleSeed = buffer.getLong();
+        int spawnCursor = buffer.getInt();
+        compileWaveSchedule();
+        waveSchedule.setCursor(spawnCursor);
+        weapons.readState(buffer);
+        int virusCount = buffer.getInt();
+        if (virusCount < 0 || virusCount > buffer.remaining()) {
+            throw new IllegalStateException("Invalid virus count: " + virusCount);
+        }
+        viruses.clear();
+        for (int i = 0; i < virusCount; i++) {
+            viruses.add(Virus.readState(buffer));
+        }
+        overlay.readState(buffer);
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public ArrayList<Virus> getViruses() {
+        return viruses;
+    }
+
+    public RoundManager getRoundManager() {
+        return roundManager;
+    }
+
+    public OverlayEffect getOverlay() {
+        return overlay;
+    }
+
+    /**
+     * Cosmetic particles; not part of the saved state
+     */
+    public ParticleSystem getParticles() {
+        return particles;
+    }
+
+    public Weapons getWeapons() {
+        return weapons;
+    }
+
+    public Arena getArena() {
+        return arena;
+    }
+
+    public boolean isEndless() {
+        return endless;
+    }
+
+    /**
+     * Endless mode: viruses that reached the bottom
+     */
+    public int getVirusesLeaked() {
+        return virusesLeaked;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Game time; stands still while the game is paused
+     */
+    public long getTimeMillis() {
+        return tick * TICK_MILLIS;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public boolean isGameOver() {
+        return lives <= 0;
+    }
+
+    public int getVirusesDestroyed() {
+        return virusesDestroyed;
+    }
+
+    /**
+     * Leaderboard score: one point per virus destroyed
+     */
+    public int getScore() {
+        return virusesDestroyed;
+    }
+
+    /**
+     * Seed this game was started with; a new game with the same seed plays out identically
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public WaveSchedule getWaveSchedule() {
+        return waveSchedule;
+    }
+
+    /**
+     * Ticks until the next scheduled spawn; 0 once the round has spawned all its viruses
+     */
+    public int getSpawnCountdownTicks() {
+        return waveSchedule.ticksUntilNext(roundTick);
+    }
+}
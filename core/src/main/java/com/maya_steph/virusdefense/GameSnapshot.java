@@ -0,0 +1,91 @@
+package com.maya_steph.virusdefense;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Versioned binary codec for the complete simulation state.
+ * Every class writes its own fields in a fixed order, so encoding needs no reflection and
+ * no allocation beyond the target buffer.
+ *
+ * Layout: magic (int), version (short), hash of the simulation's wave definitions (long), then
+ * GameSimulation.writeState(). A snapshot only restores into a simulation with the same waves,
+ * since the rounds after it would play out differently.
+ */
+public final class GameSnapshot {
+    static final int MAGIC = 0x48415356; // "HASV"
+    static final short VERSION = 5; // 2: weapon cooldown stored as game time, 3: spawn countdown, 4: wave schedule, 5: waves hash
+
+    private static final int HEADER_BYTES = 14;
+
+    private GameSnapshot() {
+    }
+
+    /**
+     * Upper bound on the encoded size of the given simulation; currently the exact size
+     */
+    public static int maxEncodedSize(GameSimulation simulation) {
+        return HEADER_BYTES + GameSimulation.FIXED_STATE_BYTES
+                + simulation.getViruses().size() * Virus.STATE_BYTES
+                + simulation.getWeapons().getProjectiles().size() * Weapons.ProjectileBall.STATE_BYTES;
+    }
+
+    /**
+     * Write a snapshot of the simulation at the buffer's current position
+     */
+    public static void write(GameSimulation simulation, ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putLong(simulation.getWaves().getHash());
+        simulation.writeState(buffer);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the encoded state, used to check that two simulations ended up identical
+     */
+    public static long stateHash(GameSimulation simulation) {
+        byte[] data = toBytes(simulation);
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : data) {
+            hash ^= (b & 0xFF);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    public static byte[] toBytes(GameSimulation simulation) {
+        ByteBuffer buffer = ByteBuffer.allocate(maxEncodedSize(simulation));
+        write(simulation, buffer);
+        byte[] data = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(data);
+        return data;
+    }
+
+    /**
+     * Replace the simulation's state with the snapshot at the buffer's current position
+     */
+    public static void read(ByteBuffer buffer, GameSimulation simulation) throws IOException {
+        try {
+            int magic = buffer.getInt();
+            if (magic != MAGIC) {
+                throw new IOException("Not a HeartAttack snapshot");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " (expected " + VERSION + ")");
+            }
+            if (buffer.getLong() != simulation.getWaves().getHash()) {
+                throw new IOException("Snapshot was made with different wave definitions");
+            }
+            simulation.readState(buffer);
+        } catch (BufferUnderflowException | IllegalStateException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt snapshot: " + e, e);
+        }
+    }
+
+    public static void fromBytes(byte[] data, GameSimulation simulation) throws IOException {
+        read(ByteBuffer.wrap(data), simulation);
+    }
+}
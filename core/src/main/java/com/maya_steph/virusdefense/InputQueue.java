@@ -0,0 +1,159 @@
+package com.maya_steph.virusdefense;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Keyboard input between the event dispatch thread and the simulation. Key events only record
+ * what happened: presses go into a lock-free queue, and moving and shooting also set a bit while
+ * their key is held. Once per tick the simulation takes the queued presses and turns held keys
+ * into repeats on a fixed schedule of ticks, so holding a key fires and moves at the same rate on
+ * every machine whatever the system's key repeat settings. What comes out are ordinary GameInputs,
+ * so replays record held keys like any other input.
+ *
+ * The system's own key repeats are ignored while a key is held. On X11 a repeat arrives as a
+ * release and a press at the same instant; the release only takes effect at the next tick, so the
+ * press that follows cancels it.
+ */
+public class InputQueue {
+    static final int MOVE_REPEAT_DELAY_TICKS = 12; // About 200 ms before a held move repeats
+    static final int MOVE_REPEAT_TICKS = 6; // Then about ten lanes a second
+    // The first tick at which the weapon is ready again after a shot
+    static final int SHOOT_REPEAT_TICKS = (int) ((Weapons.SHOT_COOLDOWN + GameSimulation.TICK_MILLIS - 1) / GameSimulation.TICK_MILLIS);
+    private static final GameInput[] HOLDABLE = {GameInput.MOVE_LEFT, GameInput.MOVE_RIGHT, GameInput.SHOOT};
+
+    private final Queue<Press> presses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger held = new AtomicInteger(); // Bits by GameInput ordinal
+    private final AtomicInteger released = new AtomicInteger(); // Released since the last tick
+
+    // Only touched by the thread that samples
+    private final int[] heldTicks = new int[GameInput.values().length];
+    private int sampledHeld;
+
+    /**
+     * Told about each queued press as it is applied, with the time it arrived; LatencyTracker uses it
+     */
+    public interface PressListener {
+        void pressApplied(GameInput input, long arrivalNanos);
+    }
+
+    private static final class Press {
+        final GameInput input;
+        final long arrivalNanos;
+
+        Press(GameInput input, long arrivalNanos) {
+            this.input = input;
+            this.arrivalNanos = arrivalNanos;
+        }
+    }
+
+    public boolean press(GameInput input) {
+        return press(input, System.nanoTime());
+    }
+
+    /**
+     * A key was pressed; safe to call from any thread
+     * @param arrivalNanos when the key event arrived, by System.nanoTime()
+     * @return true if the press was queued, false for a repeat of a key already held
+     */
+    public boolean press(GameInput input, long arrivalNanos) {
+        if (!isHoldable(input)) {
+            presses.offer(new Press(input, arrivalNanos));
+            return true;
+        }
+        int bit = bit(input);
+        released.getAndUpdate(bits -> bits & ~bit);
+        if ((held.getAndUpdate(bits -> bits | bit) & bit) == 0) {
+            presses.offer(new Press(input, arrivalNanos)); // A new press acts at once; repeats come from holding it
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * A key was released; safe to call from any thread
+     */
+    public void release(GameInput input) {
+        if (isHoldable(input)) {
+            released.getAndUpdate(bits -> bits | bit(input));
+        }
+    }
+
+    /**
+     * Forget held keys, e.g. when the window loses focus and their releases will never arrive
+     */
+    public void releaseAll() {
+        released.set(-1);
+    }
+
+    /**
+     * Drop queued presses and held keys, so nothing carries over into a new game
+     */
+    public void clear() {
+        presses.clear();
+        releaseAll();
+    }
+
+    /**
+     * Hand this tick's inputs to the simulation: queued presses in order, then repeats of held keys.
+     * Call once per tick, always from the same thread.
+     */
+    public void sample(Consumer<GameInput> apply) {
+        sample(apply, null);
+    }
+
+    /**
+     * Like sample(apply), telling the listener (if any) about each press just before it is applied
+     */
+    public void sample(Consumer<GameInput> apply, PressListener listener) {
+        Press press;
+        while ((press = presses.poll()) != null) {
+            if (listener != null) {
+                listener.pressApplied(press.input, press.arrivalNanos);
+            }
+            apply.accept(press.input);
+        }
+
+        int releasedBits = released.getAndSet(0);
+        int heldBits = held.updateAndGet(bits -> bits & ~releasedBits);
+        for (GameInput holdable : HOLDABLE) {
+            int bit = bit(holdable);
+            if ((heldBits & bit) == 0) {
+                continue;
+            }
+            int ticks = (sampledHeld & bit) == 0 ? 0 : heldTicks[holdable.ordinal()] + 1;
+            heldTicks[holdable.ordinal()] = ticks;
+            if (repeatsAt(holdable, ticks)) {
+                apply.accept(holdable);
+            }
+        }
+        sampledHeld = heldBits;
+    }
+
+    public boolean isHeld(GameInput input) {
+        return (held.get() & bit(input)) != 0;
+    }
+
+    /**
+     * Whether a key held for this many ticks since its press repeats now
+     */
+    static boolean repeatsAt(GameInput input, int ticks) {
+        if (ticks == 0) {
+            return false; // The press itself was queued
+        }
+        if (input == GameInput.SHOOT) {
+            return ticks % SHOOT_REPEAT_TICKS == 0;
+        }
+        return ticks >= MOVE_REPEAT_DELAY_TICKS && (ticks - MOVE_REPEAT_DELAY_TICKS) % MOVE_REPEAT_TICKS == 0;
+    }
+
+    static boolean isHoldable(GameInput input) {
+        return input == GameInput.MOVE_LEFT || input == GameInput.MOVE_RIGHT || input == GameInput.SHOOT;
+    }
+
+    private static int bit(GameInput input) {
+        return 1 << input.ordinal();
+    }
+}
@@ -0,0 +1,90 @@
+package com.maya_steph.virusdefense;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one stage of the input pipeline. Every sample is kept (key presses are rare), so
+ * percentiles are exact; the printed histogram groups them into power-of-two millisecond buckets.
+ * Not thread-safe; LatencyTracker guards it.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 10; // <1, 1-2, 2-4, ... 128-256, 256+ ms
+    private static final int BAR_WIDTH = 40;
+
+    private final String name;
+    private long[] samples = new long[64];
+    private int count;
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = Math.max(0, nanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * The latency below which the given fraction of samples fall, or 0 without samples
+     */
+    public long percentileNanos(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(fraction * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    public long maxNanos() {
+        return percentileNanos(1);
+    }
+
+    /**
+     * Counts per bucket; bucket 0 is under 1 ms, bucket i covers 2^(i-1) to 2^i ms, the last is open-ended
+     */
+    int[] bucketCounts() {
+        int[] buckets = new int[BUCKETS];
+        for (int i = 0; i < count; i++) {
+            buckets[bucket(samples[i])]++;
+        }
+        return buckets;
+    }
+
+    static int bucket(long nanos) {
+        long millis = nanos / 1_000_000;
+        int bucket = millis == 0 ? 0 : 64 - Long.numberOfLeadingZeros(millis);
+        return Math.min(BUCKETS - 1, bucket);
+    }
+
+    /**
+     * Summary line and histogram bars
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%s: %d samples, p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms%n", name, count,
+            percentileNanos(0.5) / 1e6, percentileNanos(0.9) / 1e6, percentileNanos(0.99) / 1e6, maxNanos() / 1e6));
+        if (count == 0) {
+            return report.toString();
+        }
+        int[] buckets = bucketCounts();
+        int largest = Arrays.stream(buckets).max().orElse(1);
+        for (int i = 0; i < BUCKETS; i++) {
+            String range = i == 0 ? "<1" : i == BUCKETS - 1 ? (1 << (i - 1)) + "+" : (1 << (i - 1)) + "-" + (1 << i);
+            int bar = (int) Math.round(buckets[i] * (double) BAR_WIDTH / largest);
+            report.append(String.format("  %8s ms %5d %s%n", range, buckets[i], "#".repeat(bar)));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,132 @@
+package com.maya_steph.virusdefense;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Follows key presses through the game to measure how long they take to be seen and heard:
+ * - event to arrival: from the system's time stamp on the KeyEvent to the listener (ms resolution)
+ * - arrival to tick: until the tick that applies the press starts
+ * - arrival to sound: until SoundManager hands the press's sound to the audio backend
+ * - arrival to frame: until the first frame showing the press's tick has been drawn and flushed
+ * The frame stage ends when Java hands the frame to the display; the display's own delay is not included.
+ *
+ * Enable it in the game with heartattack.latency=true (the report is printed and saved when
+ * leaving to the home screen), or run the scripted LatencyTest. Safe to call from any thread.
+ */
+public class LatencyTracker {
+    public static final String PROPERTY = "heartattack.latency";
+    private static final int MAX_PENDING = 64; // Presses still waiting for a frame, e.g. while minimized
+
+    private final LatencyHistogram eventToArrival = new LatencyHistogram("event to arrival");
+    private final LatencyHistogram arrivalToTick = new LatencyHistogram("arrival to tick");
+    private final LatencyHistogram arrivalToSound = new LatencyHistogram("arrival to sound");
+    private final LatencyHistogram arrivalToFrame = new LatencyHistogram("arrival to frame");
+
+    private final List<Pending> pending = new ArrayList<>();
+
+    /**
+     * A press applied by the simulation, waiting for its sound and its first frame
+     */
+    private static final class Pending {
+        final long arrivalNanos;
+        final long tick;
+        boolean soundHeard;
+
+        Pending(long arrivalNanos, long tick) {
+            this.arrivalNanos = arrivalNanos;
+            this.tick = tick;
+        }
+    }
+
+    public static LatencyTracker fromSystemProperties() {
+        return Boolean.getBoolean(PROPERTY) ? new LatencyTracker() : null;
+    }
+
+    /**
+     * A key event reached the listener
+     * @param eventWhenMillis the event's own time stamp (KeyEvent.getWhen())
+     */
+    public synchronized void keyArrived(long eventWhenMillis) {
+        long delayMillis = System.currentTimeMillis() - eventWhenMillis;
+        if (delayMillis >= 0) {
+            eventToArrival.record(delayMillis * 1_000_000);
+        }
+    }
+
+    /**
+     * The simulation is applying a press at the start of this tick; called before the press takes effect
+     */
+    public synchronized void pressApplied(long arrivalNanos, long tick) {
+        arrivalToTick.record(System.nanoTime() - arrivalNanos);
+        if (pending.size() == MAX_PENDING) {
+            pending.remove(0);
+        }
+        pending.add(new Pending(arrivalNanos, tick));
+    }
+
+    /**
+     * A sound triggered at this tick has gone to the audio backend
+     */
+    public synchronized void soundTriggered(long tick) {
+        long now = System.nanoTime();
+        for (Pending press : pending) {
+            if (press.tick == tick && !press.soundHeard) {
+                press.soundHeard = true;
+                arrivalToSound.record(now - press.arrivalNanos);
+            }
+        }
+    }
+
+    /**
+     * A frame of this tick's world has been drawn and flushed to the display
+     */
+    public synchronized void framePresented(long tick) {
+        long now = System.nanoTime();
+        Iterator<Pending> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Pending press = iterator.next();
+            // Presses are applied before their tick's update, so they show from the next tick's frame
+            if (press.tick < tick) {
+                arrivalToFrame.record(now - press.arrivalNanos);
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    LatencyHistogram getArrivalToTick() {
+        return arrivalToTick;
+    }
+
+    LatencyHistogram getArrivalToSound() {
+        return arrivalToSound;
+    }
+
+    LatencyHistogram getArrivalToFrame() {
+        return arrivalToFrame;
+    }
+
+    /**
+     * Plain-text report to compare across builds and kiosks
+     * @param setup how the presses were made and shown (script, renderer, audio backend)
+     */
+    public synchronized String report(String setup) {
+        Runtime runtime = Runtime.getRuntime();
+        StringBuilder report = new StringBuilder();
+        report.append("HeartAttack input latency report\n");
+        report.append("Kiosk: ").append(StressMonitor.kioskName()).append('\n');
+        report.append("Machine: ").append(System.getProperty("os.name")).append(' ').append(System.getProperty("os.version"))
+            .append(" (").append(System.getProperty("os.arch")).append("), ").append(runtime.availableProcessors())
+            .append(" cores, Java ").append(System.getProperty("java.version")).append('\n');
+        report.append("Setup: ").append(setup).append('\n');
+        for (LatencyHistogram histogram : new LatencyHistogram[]{eventToArrival, arrivalToTick, arrivalToSound, arrivalToFrame}) {
+            report.append(histogram.report());
+        }
+        return report.toString();
+    }
+}
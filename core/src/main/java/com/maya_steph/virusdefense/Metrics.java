@@ -0,0 +1,277 @@
+package com.maya_steph.virusdefense;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.DoubleSupplier;
+
+/**
+ * In-process runtime telemetry: counters, gauges and latency histograms, read by MetricsExporter
+ * (JMX and a local Prometheus endpoint). Metrics are created once, up front; recording into them
+ * is lock-free and allocates nothing, so the simulation and paint threads can record every tick.
+ *
+ * Names follow Prometheus conventions (heartattack_tick_seconds, heartattack_sounds_total).
+ * Asking for a name that exists returns the existing metric, so every GamePanel of a test run
+ * shares them.
+ */
+public class Metrics {
+    private static Metrics defaultMetrics;
+
+    private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+    private final List<Metric> ordered = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * The registry the game records into
+     */
+    public static synchronized Metrics getDefault() {
+        if (defaultMetrics == null) {
+            defaultMetrics = new Metrics();
+        }
+        return defaultMetrics;
+    }
+
+    public Counter counter(String name, String help) {
+        return register(new Counter(name, help));
+    }
+
+    /**
+     * A gauge the game sets, e.g. the number of viruses after each tick
+     */
+    public Gauge gauge(String name, String help) {
+        return register(new Gauge(name, help, null));
+    }
+
+    /**
+     * A gauge read from the supplier when exported; the supplier runs on the exporter's thread
+     */
+    public Gauge gauge(String name, String help, DoubleSupplier supplier) {
+        return register(new Gauge(name, help, supplier));
+    }
+
+    public Histogram histogram(String name, String help) {
+        return register(new Histogram(name, help));
+    }
+
+    /**
+     * All metrics in the order they were created
+     */
+    public List<Metric> getMetrics() {
+        synchronized (ordered) {
+            return new ArrayList<>(ordered);
+        }
+    }
+
+    public Metric get(String name) {
+        return metrics.get(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <M extends Metric> M register(M metric) {
+        Metric existing = metrics.putIfAbsent(metric.getName(), metric);
+        if (existing == null) {
+            ordered.add(metric);
+            return metric;
+        }
+        if (existing.getClass() != metric.getClass()) {
+            throw new IllegalArgumentException("Metric " + metric.getName() + " already exists as a " + existing.getType());
+        }
+        return (M) existing;
+    }
+
+    /**
+     * A named value with a help text
+     */
+    public abstract static class Metric {
+        private final String name;
+        private final String help;
+
+        Metric(String name, String help) {
+            if (!name.matches("[a-zA-Z_:][a-zA-Z0-9_:]*")) {
+                throw new IllegalArgumentException("Invalid metric name " + name);
+            }
+            this.name = name;
+            this.help = help;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getHelp() {
+            return help;
+        }
+
+        /**
+         * Prometheus type: counter, gauge or histogram
+         */
+        public abstract String getType();
+    }
+
+    /**
+     * A count that only goes up
+     */
+    public static final class Counter extends Metric {
+        private final AtomicLong value = new AtomicLong();
+
+        Counter(String name, String help) {
+            super(name, help);
+        }
+
+        public void increment() {
+            value.incrementAndGet();
+        }
+
+        public void add(long amount) {
+            value.addAndGet(amount);
+        }
+
+        public long get() {
+            return value.get();
+        }
+
+        @Override
+        public String getType() {
+            return "counter";
+        }
+    }
+
+    /**
+     * A value that goes up and down
+     */
+    public static final class Gauge extends Metric {
+        private final DoubleSupplier supplier; // null when set by the game
+        private volatile double value;
+
+        Gauge(String name, String help, DoubleSupplier supplier) {
+            super(name, help);
+            this.supplier = supplier;
+        }
+
+        public void set(double value) {
+            this.value = value;
+        }
+
+        public double get() {
+            return supplier != null ? supplier.getAsDouble() : value;
+        }
+
+        @Override
+        public String getType() {
+            return "gauge";
+        }
+    }
+
+    /**
+     * Durations in nanoseconds, counted in log-linear buckets like an HDR histogram: each power of
+     * two is split into 8 buckets, so any recorded value is known to within 12.5%. The buckets are
+     * one fixed array of counters, so recording is a few atomic increments.
+     */
+    public static final class Histogram extends Metric {
+        static final int SUB_BUCKET_BITS = 3;
+        static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sumNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        Histogram(String name, String help) {
+            super(name, help);
+        }
+
+        public void record(long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            counts.incrementAndGet(bucket(nanos));
+            count.incrementAndGet();
+            sumNanos.addAndGet(nanos);
+            long max;
+            while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+                // Another thread raised the maximum; check again
+            }
+        }
+
+        /**
+         * Record the time since start, a System.nanoTime() reading
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getSumNanos() {
+            return sumNanos.get();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Upper bound of the bucket holding the given fraction of values, or 0 when empty
+         */
+        public long percentileNanos(double fraction) {
+            long total = count.get();
+            if (total == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= target) {
+                    return Math.min(maxNanos.get(), lowerBound(i + 1) - 1);
+                }
+            }
+            return maxNanos.get();
+        }
+
+        /**
+         * Values in the buckets wholly below the given bound; exact when the bound is a power of two
+         */
+        public long countBelow(long nanos) {
+            long seen = 0;
+            for (int i = 0; i < BUCKETS && lowerBound(i + 1) <= nanos; i++) {
+                seen += counts.get(i);
+            }
+            return seen;
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        /**
+         * Smallest value in the bucket
+         */
+        static long lowerBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            if (bucket >= BUCKETS) {
+                return Long.MAX_VALUE;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        }
+
+        @Override
+        public String getType() {
+            return "histogram";
+        }
+    }
+}
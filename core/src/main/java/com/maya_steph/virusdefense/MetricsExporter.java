@@ -0,0 +1,250 @@
+package com.maya_steph.virusdefense;
+
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Makes a Metrics registry readable from outside the game:
+ * - as JMX attributes of com.maya_steph.virusdefense:type=Metrics (jconsole, or any JMX agent);
+ *   histograms appear as _count, _p50_ms, _p99_ms and _max_ms attributes
+ * - in Prometheus text format at http://127.0.0.1:port/metrics, when heartattack.metrics.port is set.
+ *   The server only listens on the loopback interface; a kiosk's agent scrapes it locally.
+ * Also adds the JVM's garbage collection counts and times as gauges.
+ */
+public class MetricsExporter implements AutoCloseable {
+    public static final String PORT_PROPERTY = "heartattack.metrics.port";
+    static final String OBJECT_NAME = "com.maya_steph.virusdefense:type=Metrics";
+    // Histogram buckets exported to Prometheus: powers of two from about 1 microsecond to 8.6 seconds
+    private static final int FIRST_EXPORTED_POWER = 10;
+    private static final int LAST_EXPORTED_POWER = 33;
+
+    private static MetricsExporter started;
+
+    private final Metrics metrics;
+    private ObjectName objectName;
+    private HttpServer server;
+
+    public MetricsExporter(Metrics metrics) {
+        this.metrics = metrics;
+        addGcGauges(metrics);
+    }
+
+    /**
+     * Export the default registry once per process: JMX always, HTTP if the port property is set
+     */
+    public static synchronized void startDefault() {
+        if (started != null) {
+            return;
+        }
+        started = new MetricsExporter(Metrics.getDefault());
+        started.registerMBean(OBJECT_NAME);
+        Integer port = Integer.getInteger(PORT_PROPERTY);
+        if (port != null) {
+            try {
+                started.startServer(port);
+                System.out.println("Metrics at http://127.0.0.1:" + started.getPort() + "/metrics");
+            } catch (IOException e) {
+                System.err.println("Could not start metrics endpoint on port " + port + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public void registerMBean(String name) {
+        try {
+            MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!mbeanServer.isRegistered(objectName)) {
+                mbeanServer.registerMBean(new MetricsMBean(), objectName);
+                this.objectName = objectName;
+            }
+        } catch (Exception e) {
+            System.err.println("Could not register metrics MBean: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Serve /metrics on the loopback interface; port 0 picks a free port
+     */
+    public void startServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = prometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start(); // Runs on the server's own dispatcher thread
+    }
+
+    public int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    /**
+     * Every metric in Prometheus text exposition format; durations in seconds
+     */
+    public String prometheusText() {
+        StringBuilder text = new StringBuilder();
+        for (Metrics.Metric metric : metrics.getMetrics()) {
+            String name = metric.getName();
+            text.append("# HELP ").append(name).append(' ').append(metric.getHelp()).append('\n');
+            text.append("# TYPE ").append(name).append(' ').append(metric.getType()).append('\n');
+            if (metric instanceof Metrics.Counter) {
+                text.append(name).append(' ').append(((Metrics.Counter) metric).get()).append('\n');
+            } else if (metric instanceof Metrics.Gauge) {
+                text.append(name).append(' ').append(number(((Metrics.Gauge) metric).get())).append('\n');
+            } else if (metric instanceof Metrics.Histogram) {
+                Metrics.Histogram histogram = (Metrics.Histogram) metric;
+                for (int power = FIRST_EXPORTED_POWER; power <= LAST_EXPORTED_POWER; power++) {
+                    long bound = 1L << power;
+                    text.append(name).append("_bucket{le=\"").append(number(bound / 1e9)).append("\"} ")
+                        .append(histogram.countBelow(bound)).append('\n');
+                }
+                text.append(name).append("_bucket{le=\"+Inf\"} ").append(histogram.getCount()).append('\n');
+                text.append(name).append("_sum ").append(number(histogram.getSumNanos() / 1e9)).append('\n');
+                text.append(name).append("_count ").append(histogram.getCount()).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Exception ignored) {}
+        }
+    }
+
+    private static void addGcGauges(Metrics metrics) {
+        metrics.gauge("heartattack_gc_collections", "Garbage collections since the game started", () -> {
+            long total = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                total += Math.max(0, gc.getCollectionCount());
+            }
+            return total;
+        });
+        metrics.gauge("heartattack_gc_seconds", "Time spent in garbage collection since the game started", () -> {
+            long totalMillis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                totalMillis += Math.max(0, gc.getCollectionTime());
+            }
+            return totalMillis / 1000.0;
+        });
+    }
+
+    private static String number(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.9g", value).replaceAll("0+$", "").replaceAll("\\.$", "");
+    }
+
+    /**
+     * The registry as read-only JMX attributes, listed afresh each time so new metrics show up
+     */
+    private class MetricsMBean implements DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            for (Metrics.Metric metric : metrics.getMetrics()) {
+                String name = metric.getName();
+                if (metric instanceof Metrics.Counter && attribute.equals(name)) {
+                    return ((Metrics.Counter) metric).get();
+                }
+                if (metric instanceof Metrics.Gauge && attribute.equals(name)) {
+                    return ((Metrics.Gauge) metric).get();
+                }
+                if (metric instanceof Metrics.Histogram && attribute.startsWith(name + "_")) {
+                    Metrics.Histogram histogram = (Metrics.Histogram) metric;
+                    switch (attribute.substring(name.length() + 1)) {
+                        case "count":
+                            return histogram.getCount();
+                        case "p50_ms":
+                            return histogram.percentileNanos(0.5) / 1e6;
+                        case "p99_ms":
+                            return histogram.percentileNanos(0.99) / 1e6;
+                        case "max_ms":
+                            return histogram.getMaxNanos() / 1e6;
+                        default:
+                            break;
+                    }
+                }
+            }
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException ignored) {}
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName)); // Metrics have no operations
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (Metrics.Metric metric : metrics.getMetrics()) {
+                if (metric instanceof Metrics.Counter) {
+                    attributes.add(attribute(metric.getName(), "long", metric.getHelp()));
+                } else if (metric instanceof Metrics.Gauge) {
+                    attributes.add(attribute(metric.getName(), "double", metric.getHelp()));
+                } else if (metric instanceof Metrics.Histogram) {
+                    attributes.add(attribute(metric.getName() + "_count", "long", metric.getHelp() + " (count)"));
+                    attributes.add(attribute(metric.getName() + "_p50_ms", "double", metric.getHelp() + " (median, ms)"));
+                    attributes.add(attribute(metric.getName() + "_p99_ms", "double", metric.getHelp() + " (99th percentile, ms)"));
+                    attributes.add(attribute(metric.getName() + "_max_ms", "double", metric.getHelp() + " (maximum, ms)"));
+                }
+            }
+            return new MBeanInfo(Metrics.class.getName(), "HeartAttack runtime metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+        }
+
+        private MBeanAttributeInfo attribute(String name, String type, String description) {
+            return new MBeanAttributeInfo(name, type, description, true, false, false);
+        }
+    }
+}
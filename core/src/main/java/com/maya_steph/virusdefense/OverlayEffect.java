@@ -0,0 +1,333 @@
+package com.maya_steph.virusdefense;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Manages screen overlay effects like darkening when player loses a life.
+ *
+ * Every active overlay (darkness, red, flash) composites into a single color, so painters draw at
+ * most two full-screen passes: the background and one overlay fill. Fade and shake curves come from
+ * tables computed once.
+ */
+public class OverlayEffect {
+    private float darknessLevel;
+    private final float targetDarkness;
+    private final float fadeSpeed;
+    private boolean fading;
+    private boolean isDarkening;
+    
+    // New round flash effect
+    private float flashLevel;
+    private int flashRgb; // 0xRRGGBB
+    private boolean flashActive;
+    private int flashFramesRemaining;
+    
+    // Moving background effect (forward movement illusion)
+    private boolean movingBackgroundActive;
+    private float backgroundScrollOffset;
+    private static final float BACKGROUND_SCROLL_SPEED = 3.0f; // Speed of scrolling lines
+    
+    // Life loss shake and red overlay effect
+    private boolean shakeActive;
+    private int shakeFramesRemaining;
+    private float shakeOffsetX;
+    private float shakeOffsetY;
+    private boolean redOverlayActive;
+    private int redOverlayFramesRemaining;
+    private static final int SHAKE_DURATION = 60; // 1 second at 60fps
+    private static final float SHAKE_INTENSITY = 10.0f; // Maximum shake distance in pixels
+    private static final int FLASH_FADE_FRAMES = 20;
+    
+    // Curves indexed by frames remaining
+    private static final int[] RED_OVERLAY_ALPHA = new int[SHAKE_DURATION + 1];
+    private static final float[] FLASH_FADE = new float[FLASH_FADE_FRAMES + 1];
+    private static final float[] SHAKE_X = new float[SHAKE_DURATION + 1];
+    private static final float[] SHAKE_Y = new float[SHAKE_DURATION + 1];
+    static {
+        GameRandom jitter = new GameRandom(0x5AA4EL);
+        for (int frames = 0; frames <= SHAKE_DURATION; frames++) {
+            RED_OVERLAY_ALPHA[frames] = (int) (frames / (float) SHAKE_DURATION * 180); // Red with fading alpha
+            // Random offsets that decrease over time
+            float intensity = SHAKE_INTENSITY * (frames / (float) SHAKE_DURATION);
+            SHAKE_X[frames] = (float) (jitter.nextDouble() * intensity * 2 - intensity);
+            SHAKE_Y[frames] = (float) (jitter.nextDouble() * intensity * 2 - intensity);
+        }
+        for (int frames = 0; frames < FLASH_FADE.length; frames++) {
+            FLASH_FADE[frames] = (float) frames / FLASH_FADE_FRAMES * 0.6f; // Max 0.6 alpha
+        }
+    }
+    
+    // Moving background: painters repeat one band per this many pixels, at the scroll offset
+    static final int BACKGROUND_TILE_HEIGHT = 40; // Spacing of the horizontal lines
+    static final int STATE_BYTES = 23; // What writeState writes
+    private static final int GREEN = 0x00FF00;
+    private static final int RED = 0xFF0000;
+
+    public OverlayEffect() {
+        darknessLevel = 0.0f;
+        targetDarkness = 0.6f; //target darkness when triggered
+        fadeSpeed = 0.05f;
+        isDarkening = false;
+        fading = false;
+        
+        // Initialize flash effect
+        flashLevel = 0.0f;
+        flashRgb = GREEN;
+        flashActive = false;
+        flashFramesRemaining = 0;
+        
+        // Initialize moving background effect
+        movingBackgroundActive = false;
+        backgroundScrollOffset = 0.0f;
+        
+        // Initialize shake and red overlay effect
+        shakeActive = false;
+        shakeFramesRemaining = 0;
+        shakeOffsetX = 0.0f;
+        shakeOffsetY = 0.0f;
+        redOverlayActive = false;
+        redOverlayFramesRemaining = 0;
+    }
+    public void darkerAfterLoss(){
+        darknessLevel += 0.2f;
+    }
+    
+    public void triggerDarken() {
+        isDarkening = true;
+        fading = false;
+    }
+    
+    public void triggerLifeLossFlash() {
+        flashActive = true;
+        flashLevel = 0.7f; // Strong flash
+        flashRgb = RED; // Red for life loss
+        flashFramesRemaining = 15; // Flash for about 1/4 second at 60fps
+    }
+    
+    public void triggerLifeLossShakeAndRedOverlay() {
+        // Trigger shake effect
+        shakeActive = true;
+        shakeFramesRemaining = SHAKE_DURATION;
+        shakeOffsetX = 0.0f;
+        shakeOffsetY = 0.0f;
+        
+        // Trigger red overlay for 1 second
+        redOverlayActive = true;
+        redOverlayFramesRemaining = SHAKE_DURATION; // 60 frames = 1 second at 60fps
+    }
+    
+    public void triggerNewRoundFlash() {
+        flashActive = true;
+        flashLevel = 0.8f; // Bright flash
+        flashRgb = GREEN; // Green for positive/new round
+        flashFramesRemaining = 20; // Flash for about 1/3 second at 60fps
+    }
+    
+    public void startMovingBackground() {
+        movingBackgroundActive = true;
+        backgroundScrollOffset = 0.0f;
+    }
+    
+    public void stopMovingBackground() {
+        movingBackgroundActive = false;
+    }
+
+    public void update() {
+        // Update darkness effect (life loss)
+        if (isDarkening) {
+            darknessLevel = Math.min(darknessLevel + fadeSpeed, targetDarkness);
+            if (darknessLevel >= targetDarkness) {
+                isDarkening = false;
+                fading = true;
+            }
+        } else if (fading) {
+            darknessLevel = Math.max(darknessLevel - fadeSpeed, 0.0f);
+            if (darknessLevel <= 0.0f) {
+                fading = false;
+            }
+        }
+        
+        // Update flash effect (new round)
+        if (flashActive) {
+            flashFramesRemaining--;
+            if (flashFramesRemaining <= 0) {
+                flashActive = false;
+                flashLevel = 0.0f;
+            } else {
+                // Fade out flash over remaining frames
+                flashLevel = FLASH_FADE[Math.min(flashFramesRemaining, FLASH_FADE.length - 1)];
+            }
+        }
+        
+        // Update moving background effect (forward movement)
+        if (movingBackgroundActive) {
+            backgroundScrollOffset += BACKGROUND_SCROLL_SPEED;
+            // Reset offset when it gets too large to prevent overflow
+            if (backgroundScrollOffset > 40) {
+                backgroundScrollOffset = 0.0f;
+            }
+        }
+        
+        // Update shake effect
+        if (shakeActive) {
+            shakeFramesRemaining--;
+            if (shakeFramesRemaining <= 0) {
+                shakeActive = false;
+                shakeOffsetX = 0.0f;
+                shakeOffsetY = 0.0f;
+            } else {
+                // Shake with precomputed random offsets that decrease over time
+                shakeOffsetX = SHAKE_X[Math.min(shakeFramesRemaining, SHAKE_DURATION)];
+                shakeOffsetY = SHAKE_Y[Math.min(shakeFramesRemaining, SHAKE_DURATION)];
+            }
+        }
+        
+        // Update red overlay effect
+        if (redOverlayActive) {
+            redOverlayFramesRemaining--;
+            if (redOverlayFramesRemaining <= 0) {
+                redOverlayActive = false;
+            }
+        }
+    }
+
+    
+    /**
+     * The active overlays in drawing order (darkness, red, flash), composited with the "over" operator
+     * into one non-premultiplied ARGB color; 0 when none is active
+     */
+    int overlayArgb() {
+        float alpha = 0;
+        float red = 0;
+        float green = 0;
+        float blue = 0; // Premultiplied
+        
+        if (darknessLevel > 0.0f) {
+            alpha = darknessLevel; // Black, so it only adds coverage
+        }
+        if (redOverlayActive) {
+            float a = RED_OVERLAY_ALPHA[Math.max(0, Math.min(redOverlayFramesRemaining, SHAKE_DURATION))] / 255f;
+            red = a + red * (1 - a);
+            green *= 1 - a;
+            blue *= 1 - a;
+            alpha = a + alpha * (1 - a);
+        }
+        if (flashActive && flashLevel > 0.0f) {
+            float a = Math.min(1.0f, flashLevel);
+            red = (flashRgb >> 16 & 0xFF) / 255f * a + red * (1 - a);
+            green = (flashRgb >> 8 & 0xFF) / 255f * a + green * (1 - a);
+            blue = (flashRgb & 0xFF) / 255f * a + blue * (1 - a);
+            alpha = a + alpha * (1 - a);
+        }
+        
+        int a = Math.round(alpha * 255);
+        if (a == 0) {
+            return 0;
+        }
+        return a << 24 | channel(red, alpha) << 16 | channel(green, alpha) << 8 | channel(blue, alpha);
+    }
+    
+    private static int channel(float premultiplied, float alpha) {
+        return Math.min(255, Math.round(premultiplied / alpha * 255));
+    }
+    
+    public void reset() {
+        darknessLevel = 0.0f;
+        fading = false;
+        isDarkening = false;
+        flashActive = false;
+        flashLevel = 0.0f;
+        flashFramesRemaining = 0;
+        movingBackgroundActive = false;
+        backgroundScrollOffset = 0.0f;
+        shakeActive = false;
+        shakeFramesRemaining = 0;
+        shakeOffsetX = 0.0f;
+        shakeOffsetY = 0.0f;
+        redOverlayActive = false;
+        redOverlayFramesRemaining = 0;
+    }
+    
+    public float getDarknessLevel() {
+        return darknessLevel;
+    }
+    
+    public float getShakeOffsetX() {
+        return shakeActive ? shakeOffsetX : 0.0f;
+    }
+    
+    public float getShakeOffsetY() {
+        return shakeActive ? shakeOffsetY : 0.0f;
+    }
+    
+    public boolean isShaking() {
+        return shakeActive;
+    }
+    
+    boolean isMovingBackgroundActive() {
+        return movingBackgroundActive;
+    }
+    
+    /**
+     * How far the background bands have scrolled down, from 0 to BACKGROUND_TILE_HEIGHT - 1
+     */
+    int getBackgroundBandOffset() {
+        return (int) backgroundScrollOffset % BACKGROUND_TILE_HEIGHT;
+    }
+    
+    /**
+     * Take over another effect's current state, for render snapshots; the painters keep their own drawing resources
+     */
+    void copyFrom(OverlayEffect other) {
+        darknessLevel = other.darknessLevel;
+        fading = other.fading;
+        isDarkening = other.isDarkening;
+        flashLevel = other.flashLevel;
+        flashRgb = other.flashRgb;
+        flashActive = other.flashActive;
+        flashFramesRemaining = other.flashFramesRemaining;
+        movingBackgroundActive = other.movingBackgroundActive;
+        backgroundScrollOffset = other.backgroundScrollOffset;
+        shakeActive = other.shakeActive;
+        shakeFramesRemaining = other.shakeFramesRemaining;
+        shakeOffsetX = other.shakeOffsetX;
+        shakeOffsetY = other.shakeOffsetY;
+        redOverlayActive = other.redOverlayActive;
+        redOverlayFramesRemaining = other.redOverlayFramesRemaining;
+    }
+    
+    void writeState(ByteBuffer buffer) {
+        buffer.putFloat(darknessLevel);
+        buffer.put((byte) ((isDarkening ? 1 : 0) | (fading ? 2 : 0) | (flashActive ? 4 : 0)
+                | (movingBackgroundActive ? 8 : 0) | (shakeActive ? 16 : 0) | (redOverlayActive ? 32 : 0)));
+        buffer.putFloat(flashLevel);
+        buffer.putInt(0xFF000000 | flashRgb); // Opaque ARGB, as saves have always stored it
+        buffer.putShort((short) flashFramesRemaining);
+        buffer.putFloat(backgroundScrollOffset);
+        buffer.putShort((short) shakeFramesRemaining);
+        buffer.putShort((short) redOverlayFramesRemaining);
+    }
+    
+    void readState(ByteBuffer buffer) {
+        darknessLevel = buffer.getFloat();
+        int flags = buffer.get();
+        isDarkening = (flags & 1) != 0;
+        fading = (flags & 2) != 0;
+        flashActive = (flags & 4) != 0;
+        movingBackgroundActive = (flags & 8) != 0;
+        shakeActive = (flags & 16) != 0;
+        redOverlayActive = (flags & 32) != 0;
+        flashLevel = buffer.getFloat();
+        flashRgb = buffer.getInt() & 0xFFFFFF;
+        flashFramesRemaining = buffer.getShort();
+        backgroundScrollOffset = buffer.getFloat();
+        shakeFramesRemaining = buffer.getShort();
+        redOverlayFramesRemaining = buffer.getShort();
+        // Shake offsets come from the precomputed tables, so they follow from the frames remaining;
+        // a shake that has not been updated since it was triggered has none yet
+        boolean shakeStarted = shakeActive && shakeFramesRemaining < SHAKE_DURATION;
+        shakeOffsetX = shakeStarted ? SHAKE_X[shakeFramesRemaining] : 0.0f;
+        shakeOffsetY = shakeStarted ? SHAKE_Y[shakeFramesRemaining] : 0.0f;
+    }
+}
+
@@ -0,0 +1,294 @@
+package com.maya_steph.virusdefense;
+
+import java.util.Arrays;
+
+/**
+ * Small particles for hit, kill and life-loss feedback: fragments when a virus dies, sparks on
+ * effective hits, grey puffs on ineffective ones and a burst where a virus gets through.
+ *
+ * Particles live in parallel arrays allocated once, up to a hard budget; when the pool is full new
+ * particles are dropped. A dead particle is replaced by the last live one, so updating touches only
+ * live particles. Painters sort particles by color and fade level and set each color once per batch.
+ * Nothing is allocated after construction.
+ *
+ * Particles are cosmetic: they are not part of snapshots, replays or state hashes.
+ */
+public class ParticleSystem {
+    public static final int DEFAULT_BUDGET = 1024; // Fragments for about 80 kills per second
+
+    // Palette: the four virus colors (by VirusType ordinal), then the effect colors
+    private static final int SPARK_YELLOW = 4;
+    private static final int SPARK_WHITE = 5;
+    private static final int PUFF_GREY = 6;
+    private static final int BURST_RED = 7;
+    private static final int FADE_LEVELS = 4;
+    private static final int[] BATCH_RGB = createBatchColors();
+
+    private static final double GRAVITY = 0.12;
+
+    private final int budget;
+    private final double[] x;
+    private final double[] y;
+    private final double[] vx;
+    private final double[] vy;
+    private final float[] gravity;
+    private final short[] life;
+    private final short[] maxLife;
+    private final byte[] colorIndex;
+    private final byte[] size;
+    private int count;
+    private int dropped;
+    private boolean enabled = true;
+
+    private final GameRandom random = new GameRandom(0x5EED5EEDL);
+
+    // Scratch space for drawing in color batches
+    private final int[] batchCounts = new int[BATCH_RGB.length];
+    private final int[] batchStarts = new int[BATCH_RGB.length];
+    private final int[] drawOrder;
+
+    public ParticleSystem() {
+        this(DEFAULT_BUDGET);
+    }
+
+    public ParticleSystem(int budget) {
+        if (budget < 1) {
+            throw new IllegalArgumentException("Particle budget must be positive");
+        }
+        this.budget = budget;
+        x = new double[budget];
+        y = new double[budget];
+        vx = new double[budget];
+        vy = new double[budget];
+        gravity = new float[budget];
+        life = new short[budget];
+        maxLife = new short[budget];
+        colorIndex = new byte[budget];
+        size = new byte[budget];
+        drawOrder = new int[budget];
+    }
+
+    private static int[] createBatchColors() {
+        Virus.VirusType[] types = Virus.VirusType.values();
+        int[] base = new int[types.length + 4];
+        for (Virus.VirusType type : types) {
+            base[type.ordinal()] = type.getBaseRgb();
+        }
+        base[SPARK_YELLOW] = 0xFFFF00;
+        base[SPARK_WHITE] = 0xFFFFFF;
+        base[PUFF_GREY] = 0xC0C0C0;
+        base[BURST_RED] = 0x5A0000;
+
+        // Fading blends toward the red background with opaque colors: translucent fills are many times
+        // slower in Java2D's software pipeline
+        int background = 0xFF0000;
+        int[] colors = new int[base.length * FADE_LEVELS];
+        for (int c = 0; c < base.length; c++) {
+            for (int level = 0; level < FADE_LEVELS; level++) {
+                float strength = (level + 1) / (float) FADE_LEVELS;
+                colors[c * FADE_LEVELS + level] = blend(base[c] >> 16 & 0xFF, background >> 16 & 0xFF, strength) << 16
+                    | blend(base[c] >> 8 & 0xFF, background >> 8 & 0xFF, strength) << 8
+                    | blend(base[c] & 0xFF, background & 0xFF, strength);
+            }
+        }
+        return colors;
+    }
+
+    private static int blend(int color, int background, float strength) {
+        return Math.round(background + (color - background) * strength);
+    }
+
+    /**
+     * Fragments flying apart in the virus's color
+     */
+    public void virusDestroyed(Virus virus) {
+        emit(virus.getX(), virus.getY(), 12, virus.getVirusType().ordinal(), 1.5, 4.0, 30, 45, 4, GRAVITY);
+    }
+
+    /**
+     * Sparks where an effective projectile struck
+     */
+    public void effectiveHit(double hitX, double hitY) {
+        emit(hitX, hitY, 4, SPARK_YELLOW, 3.0, 6.0, 10, 18, 2, 0);
+        emit(hitX, hitY, 2, SPARK_WHITE, 3.0, 6.0, 8, 12, 2, 0);
+    }
+
+    /**
+     * A slow grey puff where a projectile bounced off the wrong virus
+     */
+    public void ineffectiveHit(double hitX, double hitY) {
+        emit(hitX, hitY, 5, PUFF_GREY, 0.3, 1.2, 20, 30, 5, 0);
+    }
+
+    /**
+     * A dark burst where a virus got through
+     */
+    public void lifeLost(double atX, double atY) {
+        emit(atX, atY, 16, BURST_RED, 2.0, 5.0, 25, 40, 5, -GRAVITY);
+    }
+
+    private void emit(double atX, double atY, int particles, int color, double minSpeed, double maxSpeed,
+                      int minLife, int maxLifeTicks, int particleSize, double particleGravity) {
+        if (!enabled) return;
+        for (int n = 0; n < particles; n++) {
+            if (count == budget) {
+                dropped += particles - n;
+                return;
+            }
+            int i = count++;
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double speed = minSpeed + random.nextDouble() * (maxSpeed - minSpeed);
+            x[i] = atX;
+            y[i] = atY;
+            vx[i] = Math.cos(angle) * speed;
+            vy[i] = Math.sin(angle) * speed;
+            gravity[i] = (float) particleGravity;
+            maxLife[i] = (short) (minLife + random.nextInt(maxLifeTicks - minLife + 1));
+            life[i] = maxLife[i];
+            colorIndex[i] = (byte) color;
+            size[i] = (byte) particleSize;
+        }
+    }
+
+    /**
+     * Move every particle one tick and remove the ones that have faded out
+     */
+    public void update() {
+        int i = 0;
+        while (i < count) {
+            if (--life[i] <= 0) {
+                remove(i); // The last particle moves into slot i and is updated next
+                continue;
+            }
+            x[i] += vx[i];
+            y[i] += vy[i];
+            vy[i] += gravity[i];
+            i++;
+        }
+    }
+
+    private void remove(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        gravity[i] = gravity[last];
+        life[i] = life[last];
+        maxLife[i] = maxLife[last];
+        colorIndex[i] = colorIndex[last];
+        size[i] = size[last];
+    }
+
+    private int batchOf(int i) {
+        int level = Math.min(FADE_LEVELS - 1, life[i] * FADE_LEVELS / maxLife[i]);
+        return colorIndex[i] * FADE_LEVELS + level;
+    }
+
+    /**
+     * Sort the particles by batch, so getBatch(i) and the batch sizes give the drawing order
+     */
+    void sortByBatch() {
+        Arrays.fill(batchCounts, 0);
+        if (count == 0) return;
+
+        // Counting sort of particle indices by batch
+        for (int i = 0; i < count; i++) {
+            batchCounts[batchOf(i)]++;
+        }
+        int start = 0;
+        for (int b = 0; b < batchCounts.length; b++) {
+            batchStarts[b] = start;
+            start += batchCounts[b];
+        }
+        for (int i = 0; i < count; i++) {
+            drawOrder[batchStarts[batchOf(i)]++] = i;
+        }
+    }
+
+    /**
+     * Particles in a batch after the last sortByBatch()
+     */
+    int getBatchSize(int batch) {
+        return batchCounts[batch];
+    }
+
+    /**
+     * The particle at a position in the sorted drawing order
+     */
+    int getSorted(int position) {
+        return drawOrder[position];
+    }
+
+    static int getBatchCount() {
+        return BATCH_RGB.length;
+    }
+
+    /**
+     * A batch's opaque color as 0xRRGGBB
+     */
+    static int getBatchRgb(int batch) {
+        return BATCH_RGB[batch];
+    }
+
+    int getBatch(int i) {
+        return batchOf(i);
+    }
+
+    double getX(int i) {
+        return x[i];
+    }
+
+    double getY(int i) {
+        return y[i];
+    }
+
+    int getSize(int i) {
+        return size[i];
+    }
+
+    /**
+     * Copy what drawing needs from a system with the same budget, for render snapshots
+     */
+    void copyFrom(ParticleSystem other) {
+        if (other.budget != budget) {
+            throw new IllegalArgumentException("Particle budgets differ");
+        }
+        count = other.count;
+        System.arraycopy(other.x, 0, x, 0, count);
+        System.arraycopy(other.y, 0, y, 0, count);
+        System.arraycopy(other.life, 0, life, 0, count);
+        System.arraycopy(other.maxLife, 0, maxLife, 0, count);
+        System.arraycopy(other.colorIndex, 0, colorIndex, 0, count);
+        System.arraycopy(other.size, 0, size, 0, count);
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Headless re-simulation has nobody to show particles to
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    /**
+     * Particles that did not fit in the budget since the system was created
+     */
+    public int getDropped() {
+        return dropped;
+    }
+}
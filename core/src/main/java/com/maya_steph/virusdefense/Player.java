@@ -1,11 +1,12 @@
 package com.maya_steph.virusdefense;
 
-import java.awt.*;
+import java.nio.ByteBuffer;
 
 /**
  * Represents the player (immune cell) that can move between lanes
  */
 public class Player {
+    static final int STATE_BYTES = 8; // What writeState writes
     private int x;
     private int y;
     private int size;
@@ -28,16 +29,6 @@ public class Player {
         x = Math.min(screenWidth - laneWidth / 2, x + laneWidth);
     }
     
-    public void draw(Graphics2D g2d) {
-        // Draw immune cell as a circle
-        g2d.setColor(Color.CYAN);
-        g2d.fillOval(x - size / 2, y - size / 2, size, size);
-        
-        // Draw inner circle for detail
-        g2d.setColor(Color.WHITE);
-        g2d.fillOval(x - size / 4, y - size / 4, size / 2, size / 2);
-    }
-    
     public int getX() {
         return x;
     }
@@ -49,5 +40,24 @@ public class Player {
     public int getSize() {
         return size;
     }
+    
+    /**
+     * Become a copy of another player, for render snapshots
+     */
+    void copyFrom(Player other) {
+        x = other.x;
+        y = other.y;
+        size = other.size;
+    }
+    
+    void writeState(ByteBuffer buffer) {
+        buffer.putInt(x);
+        buffer.putInt(y);
+    }
+    
+    void readState(ByteBuffer buffer) {
+        x = buffer.getInt();
+        y = buffer.getInt();
+    }
 }
 
@@ -10,6 +10,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -133,6 +135,10 @@ public class QuizManager {
         return questions.get(random.nextInt(questions.size()));
     }
     
+    public List<Question> getQuestions() {
+        return Collections.unmodifiableList(questions);
+    }
+    
     public int getQuestionCount() {
         return questions.size();
     }
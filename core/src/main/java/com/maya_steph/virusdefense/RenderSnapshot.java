@@ -0,0 +1,169 @@
+package com.maya_steph.virusdefense;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything drawing needs from one tick of a game: the entities, effects and HUD numbers, copied
+ * out of the simulation so the screen can be drawn while the simulation carries on.
+ *
+ * Snapshots are reused: capture() overwrites the previous contents, reusing the entity copies it
+ * already has, so steady play allocates nothing. A snapshot must not be captured into while it is
+ * being drawn; RenderSnapshotBuffer hands them between the two threads.
+ */
+public class RenderSnapshot {
+    private Arena arena = Arena.STANDARD;
+    private long tick;
+    private boolean gameOver;
+    private int lives;
+    private int score;
+    private int round;
+    private int virusesRemaining;
+    private int virusesPerRound;
+    private int virusesDestroyed;
+    private int virusesLeaked;
+    private double roundSpeed;
+    private Weapons.WeaponType currentWeapon = Weapons.WeaponType.BALL;
+
+    private final Player player = new Player(0, 0);
+    private final OverlayEffect overlay = new OverlayEffect();
+    private ParticleSystem particles = new ParticleSystem();
+
+    // Drawn entities, and every copy made so far for reuse
+    private final ArrayList<Virus> viruses = new ArrayList<>();
+    private final ArrayList<Virus> virusPool = new ArrayList<>();
+    private final ArrayList<Weapons.ProjectileBall> projectiles = new ArrayList<>();
+    private final ArrayList<Weapons.ProjectileBall> projectilePool = new ArrayList<>();
+
+    /**
+     * A new snapshot of the simulation's current state
+     */
+    public static RenderSnapshot of(GameSimulation simulation) {
+        RenderSnapshot snapshot = new RenderSnapshot();
+        snapshot.capture(simulation);
+        return snapshot;
+    }
+
+    /**
+     * Copy the simulation's current state; must run on the thread that updates the simulation
+     */
+    public void capture(GameSimulation simulation) {
+        arena = simulation.getArena();
+        tick = simulation.getTick();
+        gameOver = simulation.isGameOver();
+        lives = simulation.getLives();
+        score = simulation.getScore();
+        RoundManager roundManager = simulation.getRoundManager();
+        round = roundManager.getCurrentRound();
+        virusesRemaining = roundManager.getVirusesRemaining();
+        virusesPerRound = roundManager.getVirusesPerRound();
+        virusesDestroyed = simulation.getVirusesDestroyed();
+        virusesLeaked = simulation.getVirusesLeaked();
+        roundSpeed = simulation.getWaveSchedule().getRoundSpeed();
+        currentWeapon = simulation.getWeapons().getCurrentWeapon();
+
+        player.copyFrom(simulation.getPlayer());
+        overlay.copyFrom(simulation.getOverlay());
+        if (particles.getBudget() != simulation.getParticles().getBudget()) {
+            particles = new ParticleSystem(simulation.getParticles().getBudget());
+        }
+        particles.copyFrom(simulation.getParticles());
+
+        List<Virus> sourceViruses = simulation.getViruses();
+        viruses.clear();
+        for (int i = 0; i < sourceViruses.size(); i++) {
+            if (i == virusPool.size()) {
+                virusPool.add(new Virus(0, 0, 0));
+            }
+            Virus copy = virusPool.get(i);
+            copy.copyFrom(sourceViruses.get(i));
+            viruses.add(copy);
+        }
+
+        List<Weapons.ProjectileBall> sourceProjectiles = simulation.getWeapons().getProjectiles();
+        projectiles.clear();
+        for (int i = 0; i < sourceProjectiles.size(); i++) {
+            if (i == projectilePool.size()) {
+                projectilePool.add(new Weapons.ProjectileBall(0, 0));
+            }
+            Weapons.ProjectileBall copy = projectilePool.get(i);
+            copy.copyFrom(sourceProjectiles.get(i));
+            projectiles.add(copy);
+        }
+    }
+
+    public Arena getArena() {
+        return arena;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public int getVirusesRemaining() {
+        return virusesRemaining;
+    }
+
+    public int getVirusesPerRound() {
+        return virusesPerRound;
+    }
+
+    public int getVirusesDestroyed() {
+        return virusesDestroyed;
+    }
+
+    public int getVirusesLeaked() {
+        return virusesLeaked;
+    }
+
+    public double getRoundSpeed() {
+        return roundSpeed;
+    }
+
+    public Weapons.WeaponType getCurrentWeapon() {
+        return currentWeapon;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public OverlayEffect getOverlay() {
+        return overlay;
+    }
+
+    public ParticleSystem getParticles() {
+        return particles;
+    }
+
+    public List<Virus> getViruses() {
+        return viruses;
+    }
+
+    public List<Weapons.ProjectileBall> getProjectiles() {
+        return projectiles;
+    }
+
+    /**
+     * Viruses plus projectiles on screen
+     */
+    public int getEntityCount() {
+        return viruses.size() + projectiles.size();
+    }
+}
@@ -0,0 +1,48 @@
+package com.maya_steph.virusdefense;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triple buffer that hands render snapshots from the simulation thread to the painting thread
+ * without locks. The writer always has a snapshot of its own to capture into and the reader always
+ * has one to draw; the third is the most recently published one, swapped in with one atomic
+ * exchange on either side. A reader that is slower than the writer skips to the newest snapshot,
+ * and a faster reader keeps drawing the same one.
+ *
+ * Exactly one thread may publish and one thread may read.
+ */
+public class RenderSnapshotBuffer {
+    private static final int FRESH = 4; // Set on the shared index when it holds an unread snapshot
+
+    private final RenderSnapshot[] snapshots = {new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()};
+    private final AtomicInteger shared = new AtomicInteger(2);
+    private int writing = 0; // Owned by the writer
+    private int reading = 1; // Owned by the reader
+    private long published;
+
+    /**
+     * Capture the simulation into the writer's snapshot and make it the newest one
+     */
+    public void publish(GameSimulation simulation) {
+        snapshots[writing].capture(simulation);
+        writing = shared.getAndSet(writing | FRESH) & ~FRESH;
+        published++;
+    }
+
+    /**
+     * The newest published snapshot; it stays valid until the next call on this thread
+     */
+    public RenderSnapshot latest() {
+        if ((shared.get() & FRESH) != 0) {
+            reading = shared.getAndSet(reading) & ~FRESH;
+        }
+        return snapshots[reading];
+    }
+
+    /**
+     * Snapshots published so far; for the writer thread
+     */
+    long getPublished() {
+        return published;
+    }
+}
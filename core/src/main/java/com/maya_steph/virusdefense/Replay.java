@@ -0,0 +1,219 @@
+package com.maya_steph.virusdefense;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recorded run: the player's inputs plus periodic state keyframes.
+ *
+ * The simulation is deterministic, so the inputs alone reproduce the run; the keyframes exist so
+ * playback can jump anywhere by restoring the nearest earlier keyframe and simulating the few
+ * hundred ticks after it.
+ *
+ * Layout: magic (int), version (short), start tick, end tick, final state hash and wave definitions
+ * hash (longs),
+ * the seek index (keyframe count, then tick, input offset, input base tick, snapshot offset and
+ * snapshot length per keyframe), the input stream length and snapshot data length, the input
+ * stream, then the keyframe snapshots back to back.
+ *
+ * Each input is a varint tick delta from the previous input (or from the start tick) followed by
+ * the GameInput ordinal, so a held-down fire button costs two bytes per shot.
+ */
+public class Replay {
+    static final int MAGIC = 0x48415250; // "HARP"
+    static final short VERSION = 2; // 2: wave definitions hash
+    public static final int KEYFRAME_INTERVAL_TICKS = 600; // 10 seconds of play
+
+    /**
+     * Full state at a tick, and where the inputs after it start
+     */
+    static final class Keyframe {
+        final long tick;
+        final int inputOffset;
+        final long inputBaseTick; // Tick the first input delta after inputOffset is relative to
+        final byte[] snapshot;
+
+        Keyframe(long tick, int inputOffset, long inputBaseTick, byte[] snapshot) {
+            this.tick = tick;
+            this.inputOffset = inputOffset;
+            this.inputBaseTick = inputBaseTick;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private final long startTick;
+    private final long endTick;
+    private final long finalStateHash;
+    private final long wavesHash;
+    private final Keyframe[] keyframes;
+    private final byte[] inputs;
+
+    Replay(long startTick, long endTick, long finalStateHash, long wavesHash, List<Keyframe> keyframes, byte[] inputs) {
+        if (keyframes.isEmpty() || keyframes.get(0).tick != startTick) {
+            throw new IllegalArgumentException("A replay must start with a keyframe");
+        }
+        this.startTick = startTick;
+        this.endTick = endTick;
+        this.finalStateHash = finalStateHash;
+        this.wavesHash = wavesHash;
+        this.keyframes = keyframes.toArray(new Keyframe[0]);
+        this.inputs = inputs;
+    }
+
+    public byte[] toBytes() {
+        int snapshotBytes = 0;
+        for (Keyframe keyframe : keyframes) {
+            snapshotBytes += keyframe.snapshot.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(6 + 32 + 4 + keyframes.length * 28 + 8 + inputs.length + snapshotBytes);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putLong(startTick);
+        buffer.putLong(endTick);
+        buffer.putLong(finalStateHash);
+        buffer.putLong(wavesHash);
+
+        buffer.putInt(keyframes.length);
+        int snapshotOffset = 0;
+        for (Keyframe keyframe : keyframes) {
+            buffer.putLong(keyframe.tick);
+            buffer.putInt(keyframe.inputOffset);
+            buffer.putLong(keyframe.inputBaseTick);
+            buffer.putInt(snapshotOffset);
+            buffer.putInt(keyframe.snapshot.length);
+            snapshotOffset += keyframe.snapshot.length;
+        }
+
+        buffer.putInt(inputs.length);
+        buffer.putInt(snapshotBytes);
+        buffer.put(inputs);
+        for (Keyframe keyframe : keyframes) {
+            buffer.put(keyframe.snapshot);
+        }
+        return buffer.array();
+    }
+
+    public static Replay fromBytes(byte[] data) throws IOException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a HeartAttack replay");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported replay version " + version + " (expected " + VERSION + ")");
+            }
+            long startTick = buffer.getLong();
+            long endTick = buffer.getLong();
+            long finalStateHash = buffer.getLong();
+            long wavesHash = buffer.getLong();
+
+            int keyframeCount = buffer.getInt();
+            if (keyframeCount <= 0 || keyframeCount > buffer.remaining() / 28) {
+                throw new IOException("Invalid keyframe count " + keyframeCount);
+            }
+            long[] ticks = new long[keyframeCount];
+            int[] inputOffsets = new int[keyframeCount];
+            long[] inputBaseTicks = new long[keyframeCount];
+            int[] snapshotOffsets = new int[keyframeCount];
+            int[] snapshotLengths = new int[keyframeCount];
+            for (int i = 0; i < keyframeCount; i++) {
+                ticks[i] = buffer.getLong();
+                inputOffsets[i] = buffer.getInt();
+                inputBaseTicks[i] = buffer.getLong();
+                snapshotOffsets[i] = buffer.getInt();
+                snapshotLengths[i] = buffer.getInt();
+            }
+
+            int inputLength = buffer.getInt();
+            int snapshotBytes = buffer.getInt();
+            if (inputLength < 0 || snapshotBytes < 0 || (long) inputLength + snapshotBytes > buffer.remaining()) {
+                throw new IOException("Truncated replay");
+            }
+            byte[] inputs = new byte[inputLength];
+            buffer.get(inputs);
+            int snapshotStart = buffer.position();
+
+            List<Keyframe> keyframes = new ArrayList<>(keyframeCount);
+            for (int i = 0; i < keyframeCount; i++) {
+                if (snapshotOffsets[i] < 0 || snapshotLengths[i] < 0
+                        || (long) snapshotOffsets[i] + snapshotLengths[i] > snapshotBytes
+                        || inputOffsets[i] < 0 || inputOffsets[i] > inputLength
+                        || (i > 0 && ticks[i] <= ticks[i - 1])) {
+                    throw new IOException("Corrupt replay seek index");
+                }
+                byte[] snapshot = new byte[snapshotLengths[i]];
+                System.arraycopy(data, snapshotStart + snapshotOffsets[i], snapshot, 0, snapshot.length);
+                keyframes.add(new Keyframe(ticks[i], inputOffsets[i], inputBaseTicks[i], snapshot));
+            }
+            if (ticks[0] != startTick || endTick < startTick) {
+                throw new IOException("Corrupt replay header");
+            }
+            return new Replay(startTick, endTick, finalStateHash, wavesHash, keyframes, inputs);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated replay", e);
+        }
+    }
+
+    /**
+     * @return the newest keyframe at or before the given tick (the first one for earlier ticks)
+     */
+    Keyframe keyframeAtOrBefore(long tick) {
+        int low = 0;
+        int high = keyframes.length - 1;
+        int found = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keyframes[mid].tick <= tick) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return keyframes[found];
+    }
+
+    byte[] getInputs() {
+        return inputs;
+    }
+
+    public long getStartTick() {
+        return startTick;
+    }
+
+    public long getEndTick() {
+        return endTick;
+    }
+
+    public long getDurationTicks() {
+        return endTick - startTick;
+    }
+
+    public long getFinalStateHash() {
+        return finalStateHash;
+    }
+
+    /**
+     * Hash of the wave definitions the run was played with; see WaveDefinitions.getHash()
+     */
+    public long getWavesHash() {
+        return wavesHash;
+    }
+
+    public int getKeyframeCount() {
+        return keyframes.length;
+    }
+
+    static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
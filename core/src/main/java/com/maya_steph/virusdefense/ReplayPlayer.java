@@ -0,0 +1,169 @@
+package com.maya_steph.virusdefense;
+
+import java.io.IOException;
+
+/**
+ * Plays a Replay back on its own simulation.
+ *
+ * Speed is in ticks per displayed frame, so at 64x one frame runs 64 ticks and only the last one
+ * gets drawn. Seeking restores the nearest keyframe and simulates forward from it, which never
+ * takes more than Replay.KEYFRAME_INTERVAL_TICKS updates wherever the target is.
+ */
+public class ReplayPlayer {
+    public static final double MIN_SPEED = 0.25;
+    public static final double MAX_SPEED = 64;
+
+    private final Replay replay;
+    private final GameSimulation simulation;
+    private final byte[] inputs;
+
+    // Next unapplied input; nextInputTick is Long.MAX_VALUE when there are none left
+    private int inputPosition;
+    private long nextInputTick;
+    private GameInput nextInput;
+
+    private double speed = 1.0;
+    private double pendingTicks;
+    private boolean paused;
+
+    /**
+     * @throws IOException if the replay is unreadable or was recorded with other wave definitions
+     *         than the ones loaded now, which would play it out differently
+     */
+    public ReplayPlayer(Replay replay) throws IOException {
+        this.replay = replay;
+        this.simulation = new GameSimulation(0);
+        if (replay.getWavesHash() != simulation.getWaves().getHash()) {
+            throw new IOException("Replay was recorded with different wave definitions");
+        }
+        simulation.setLogging(false); // Playback repeats rounds on every seek, so it would log them over and over
+        this.inputs = replay.getInputs();
+        seek(replay.getStartTick());
+    }
+
+    /**
+     * Jump to the given tick (clamped to the recording)
+     */
+    public void seek(long tick) throws IOException {
+        long target = Math.max(replay.getStartTick(), Math.min(replay.getEndTick(), tick));
+        Replay.Keyframe keyframe = replay.keyframeAtOrBefore(target);
+        GameSnapshot.fromBytes(keyframe.snapshot, simulation);
+        inputPosition = keyframe.inputOffset;
+        readNextInput(keyframe.inputBaseTick);
+        pendingTicks = 0;
+        while (simulation.getTick() < target) {
+            step();
+        }
+        if (target == replay.getEndTick()) {
+            step(); // Apply the inputs that ended the run
+        }
+    }
+
+    /**
+     * Apply the inputs recorded at the current tick and advance one tick
+     * @return false once the end of the recording has been reached
+     */
+    public boolean step() {
+        long tick = simulation.getTick();
+        try {
+            while (nextInputTick <= tick) {
+                simulation.applyInput(nextInput);
+                readNextInput(nextInputTick);
+            }
+        } catch (IOException e) {
+            System.err.println("Corrupt replay input stream: " + e.getMessage());
+            nextInputTick = Long.MAX_VALUE;
+        }
+        if (tick >= replay.getEndTick()) {
+            return false;
+        }
+        simulation.update();
+        return true;
+    }
+
+    /**
+     * Run however many ticks one displayed frame covers at the current speed
+     * @return number of ticks simulated
+     */
+    public int advanceFrame() {
+        if (paused || isFinished()) {
+            return 0;
+        }
+        pendingTicks += speed;
+        int ticks = (int) pendingTicks;
+        pendingTicks -= ticks;
+        for (int i = 0; i < ticks; i++) {
+            if (!step()) {
+                return i;
+            }
+        }
+        return ticks;
+    }
+
+    public boolean isFinished() {
+        return simulation.getTick() >= replay.getEndTick() && nextInputTick > replay.getEndTick();
+    }
+
+    /**
+     * True when the playback state matches the state the recording ended in
+     */
+    public boolean matchesRecording() {
+        return isFinished() && GameSnapshot.stateHash(simulation) == replay.getFinalStateHash();
+    }
+
+    public void faster() {
+        speed = Math.min(MAX_SPEED, speed * 2);
+    }
+
+    public void slower() {
+        speed = Math.max(MIN_SPEED, speed / 2);
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public void togglePaused() {
+        paused = !paused;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public GameSimulation getSimulation() {
+        return simulation;
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    private void readNextInput(long previousTick) throws IOException {
+        if (inputPosition >= inputs.length) {
+            nextInputTick = Long.MAX_VALUE;
+            nextInput = null;
+            return;
+        }
+        int delta = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (inputPosition >= inputs.length || shift > 28) {
+                throw new IOException("Truncated input");
+            }
+            b = inputs[inputPosition++];
+            delta |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        if (inputPosition >= inputs.length) {
+            throw new IOException("Truncated input");
+        }
+        try {
+            nextInput = GameInput.fromOrdinal(inputs[inputPosition++]);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        nextInputTick = previousTick + delta;
+    }
+}
@@ -0,0 +1,57 @@
+package com.maya_steph.virusdefense;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+
+/**
+ * Records a run as it is played.
+ *
+ * Inputs are stamped with the tick they were applied after, so playback applies them between the
+ * same two updates. afterTick() must be called after every simulation update to take keyframes.
+ */
+public class ReplayRecorder {
+    private final long startTick;
+    private final ByteArrayOutputStream inputs;
+    private final ArrayList<Replay.Keyframe> keyframes;
+    private long lastInputTick;
+
+    /**
+     * Start recording from the simulation's current state
+     */
+    public ReplayRecorder(GameSimulation simulation) {
+        startTick = simulation.getTick();
+        inputs = new ByteArrayOutputStream();
+        keyframes = new ArrayList<>();
+        lastInputTick = startTick;
+        addKeyframe(simulation);
+    }
+
+    /**
+     * Record an input that was just applied to the simulation
+     */
+    public void recordInput(GameSimulation simulation, GameInput input) {
+        long tick = simulation.getTick();
+        Replay.writeVarInt(inputs, (int) (tick - lastInputTick));
+        inputs.write(input.ordinal());
+        lastInputTick = tick;
+    }
+
+    public void afterTick(GameSimulation simulation) {
+        if ((simulation.getTick() - startTick) % Replay.KEYFRAME_INTERVAL_TICKS == 0) {
+            addKeyframe(simulation);
+        }
+    }
+
+    /**
+     * @return a replay of everything recorded so far, ending at the simulation's current state
+     */
+    public Replay finish(GameSimulation simulation) {
+        return new Replay(startTick, simulation.getTick(), GameSnapshot.stateHash(simulation),
+            simulation.getWaves().getHash(), keyframes, inputs.toByteArray());
+    }
+
+    private void addKeyframe(GameSimulation simulation) {
+        keyframes.add(new Replay.Keyframe(simulation.getTick(), inputs.size(), lastInputTick,
+            GameSnapshot.toBytes(simulation)));
+    }
+}
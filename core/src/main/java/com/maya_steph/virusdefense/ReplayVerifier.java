@@ -0,0 +1,196 @@
+package com.maya_steph.virusdefense;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks submitted scores by re-simulating their replays.
+ *
+ * Only the replay's inputs are trusted: the run is rebuilt from a newly started game with the
+ * replay's seed and simulated tick by tick without rendering, so edited keyframes, a doctored
+ * starting state or a claimed score the inputs do not produce are all rejected. Quiz answers
+ * happen outside the simulation, so a replay can leave out a wrong answer; only life losses
+ * that are recorded can be checked.
+ *
+ * A verifier is safe to use from several threads; verifyAll() spreads a batch over its pool.
+ */
+public class ReplayVerifier implements AutoCloseable {
+    public static final long MAX_TICKS = 4L * 60 * 60 * RewindBuffer.TICKS_PER_SECOND; // Longer runs are rejected unchecked
+
+    public enum Status {
+        VALID,
+        CORRUPT,           // Not a readable replay
+        NOT_A_NEW_GAME,    // Does not start from a newly started game
+        TOO_LONG,
+        WAVES_MISMATCH,    // Recorded with other wave definitions than the ones loaded here
+        STATE_MISMATCH,    // Re-simulation ended in a different state than the recording
+        SCORE_MISMATCH     // The run is genuine but does not earn the claimed score
+    }
+
+    /**
+     * A score claimed for a recorded run
+     */
+    public static final class Submission {
+        private final byte[] replayData;
+        private final int claimedScore;
+
+        public Submission(byte[] replayData, int claimedScore) {
+            this.replayData = replayData;
+            this.claimedScore = claimedScore;
+        }
+    }
+
+    public static final class Result {
+        private final Status status;
+        private final int score;
+        private final int round;
+        private final long ticks;
+        private final String message;
+
+        Result(Status status, int score, int round, long ticks, String message) {
+            this.status = status;
+            this.score = score;
+            this.round = round;
+            this.ticks = ticks;
+            this.message = message;
+        }
+
+        public boolean isValid() {
+            return status == Status.VALID;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Score the re-simulated run actually reached (0 if it could not be simulated)
+         */
+        public int getScore() {
+            return score;
+        }
+
+        public int getRound() {
+            return round;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return status + " (score " + score + ", round " + round + ", " + ticks + " ticks): " + message;
+        }
+    }
+
+    private final ExecutorService pool;
+
+    public ReplayVerifier() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ReplayVerifier(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "replay-verifier-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Verify one submission on the calling thread
+     */
+    public Result verify(byte[] replayData, int claimedScore) {
+        Replay replay;
+        try {
+            replay = Replay.fromBytes(replayData);
+        } catch (IOException e) {
+            return new Result(Status.CORRUPT, 0, 0, 0, e.getMessage());
+        }
+        if (replay.getDurationTicks() > MAX_TICKS) {
+            return new Result(Status.TOO_LONG, 0, 0, replay.getDurationTicks(), "Replay is longer than " + MAX_TICKS + " ticks");
+        }
+
+        if (replay.getWavesHash() != WaveDefinitions.current().getHash()) {
+            return new Result(Status.WAVES_MISMATCH, 0, 0, 0, "Replay was recorded with different wave definitions");
+        }
+
+        ReplayPlayer player;
+        try {
+            player = new ReplayPlayer(replay);
+        } catch (IOException e) {
+            return new Result(Status.CORRUPT, 0, 0, 0, "Unreadable first keyframe: " + e.getMessage());
+        }
+        GameSimulation simulation = player.getSimulation();
+        simulation.getParticles().setEnabled(false); // Nobody is watching
+
+        // The first keyframe must be exactly what a new game with its seed looks like
+        GameSimulation newGame = new GameSimulation(0);
+        newGame.setLogging(false);
+        newGame.startNewGame(simulation.getSeed());
+        if (replay.getStartTick() != 0
+                || !Arrays.equals(GameSnapshot.toBytes(newGame), GameSnapshot.toBytes(simulation))) {
+            return new Result(Status.NOT_A_NEW_GAME, 0, 0, 0, "Replay does not start from a new game");
+        }
+
+        try {
+            while (player.step()) {
+                // Re-simulate every tick; nothing is drawn
+            }
+        } catch (RuntimeException e) {
+            // A replay that crashes the simulation cannot be a genuine run
+            return new Result(Status.CORRUPT, 0, 0, simulation.getTick(), "Simulation failed: " + e);
+        }
+
+        int score = simulation.getScore();
+        int round = simulation.getRoundManager().getCurrentRound();
+        long ticks = simulation.getTick();
+        if (!player.matchesRecording()) {
+            return new Result(Status.STATE_MISMATCH, score, round, ticks, "Final state does not match the recorded state hash");
+        }
+        if (score != claimedScore) {
+            return new Result(Status.SCORE_MISMATCH, score, round, ticks, "Claimed " + claimedScore + " but the run scores " + score);
+        }
+        return new Result(Status.VALID, score, round, ticks, "OK");
+    }
+
+    /**
+     * Verify a batch of submissions in parallel
+     * @return one result per submission, in the same order
+     */
+    public List<Result> verifyAll(List<Submission> submissions) throws InterruptedException {
+        List<Callable<Result>> tasks = new ArrayList<>(submissions.size());
+        for (Submission submission : submissions) {
+            tasks.add(() -> verify(submission.replayData, submission.claimedScore));
+        }
+
+        List<Result> results = new ArrayList<>(submissions.size());
+        for (Future<Result> future : pool.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                results.add(new Result(Status.CORRUPT, 0, 0, 0, "Simulation failed: " + e.getCause()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,334 @@
+package com.maya_steph.virusdefense;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps the last few seconds of game state so any recent tick can be restored.
+ *
+ * Frames are stored in a fixed-size circular byte arena. Every keyframeInterval ticks a full
+ * GameSnapshot is stored; the frames in between are XOR deltas against the previous frame,
+ * run-length encoded so unchanged bytes cost almost nothing. All memory is allocated up front,
+ * so the buffer never grows with the number of entities: when the world gets too big for a frame,
+ * or the arena fills up, the oldest frames are dropped instead.
+ */
+public class RewindBuffer {
+    public static final int TICKS_PER_SECOND = 60;
+
+    private final int capacityFrames;
+    private final int keyframeInterval;
+    private final int maxFrameBytes;
+
+    // Circular arena holding the encoded frames back to back
+    private final byte[] arena;
+    private int writePosition;
+
+    // Frame index ring, oldest frame at 'oldest'
+    private final long[] frameTicks;
+    private final int[] frameOffsets;
+    private final int[] frameLengths;
+    private final boolean[] frameIsKeyframe;
+    private int oldest;
+    private int count;
+    private int framesSinceKeyframe;
+
+    // Working buffers, each large enough for one full snapshot
+    private final byte[] current;
+    private final byte[] previous;
+    private int previousLength;
+    private final byte[] encoded;
+    private final ByteBuffer currentBuffer;
+    private int readPosition;
+
+    public RewindBuffer(int seconds) {
+        this(seconds * TICKS_PER_SECOND, 30, 2 * 1024 * 1024, 128 * 1024);
+    }
+
+    /**
+     * @param capacityFrames   number of ticks kept
+     * @param keyframeInterval a full snapshot is stored at least this often
+     * @param arenaBytes       total bytes available for encoded frames
+     * @param maxFrameBytes    largest snapshot that can be recorded
+     */
+    public RewindBuffer(int capacityFrames, int keyframeInterval, int arenaBytes, int maxFrameBytes) {
+        if (capacityFrames <= 0 || keyframeInterval <= 0 || maxFrameBytes <= 0 || arenaBytes < 2 * maxFrameBytes) {
+            throw new IllegalArgumentException("Invalid rewind buffer configuration");
+        }
+        this.capacityFrames = capacityFrames;
+        this.keyframeInterval = keyframeInterval;
+        this.maxFrameBytes = maxFrameBytes;
+        this.arena = new byte[arenaBytes];
+        this.frameTicks = new long[capacityFrames];
+        this.frameOffsets = new int[capacityFrames];
+        this.frameLengths = new int[capacityFrames];
+        this.frameIsKeyframe = new boolean[capacityFrames];
+        this.current = new byte[maxFrameBytes];
+        this.previous = new byte[maxFrameBytes];
+        this.encoded = new byte[maxDeltaBytes(maxFrameBytes)];
+        this.currentBuffer = ByteBuffer.wrap(current);
+    }
+
+    private static int maxDeltaBytes(int frameBytes) {
+        // Worst case: every byte differs, one run header (two varints) per byte
+        return 5 + frameBytes * 3;
+    }
+
+    /**
+     * Record the simulation's current state as the newest frame
+     */
+    public void record(GameSimulation simulation) {
+        if (GameSnapshot.maxEncodedSize(simulation) > maxFrameBytes) {
+            // The world is too large to record; the delta chain is broken, so start over
+            clear();
+            return;
+        }
+        currentBuffer.clear();
+        GameSnapshot.write(simulation, currentBuffer);
+        int currentLength = currentBuffer.position();
+
+        boolean keyframe = count == 0 || framesSinceKeyframe + 1 >= keyframeInterval;
+        int encodedLength = 0;
+        if (!keyframe) {
+            encodedLength = encodeDelta(currentLength);
+            // A delta that is no smaller than the frame itself is not worth keeping
+            keyframe = encodedLength >= currentLength;
+        }
+
+        if (!keyframe) {
+            reserve(encodedLength);
+            // Evicting may have dropped the frame this delta is based on
+            keyframe = count == 0;
+        }
+        if (keyframe) {
+            reserve(currentLength);
+            append(simulation.getTick(), current, currentLength, true);
+            framesSinceKeyframe = 0;
+        } else {
+            append(simulation.getTick(), encoded, encodedLength, false);
+            framesSinceKeyframe++;
+        }
+
+        System.arraycopy(current, 0, previous, 0, currentLength);
+        previousLength = currentLength;
+    }
+
+    /**
+     * Restore the simulation to the newest recorded frame at or before the given tick and forget
+     * every newer frame, so recording continues from the restored state
+     * @return the tick that was restored
+     */
+    public long restore(long tick, GameSimulation simulation) throws IOException {
+        int target = floorIndex(tick);
+        if (target < 0) {
+            throw new IOException("Tick " + tick + " is outside the rewind window");
+        }
+
+        // Walk back to the keyframe this frame depends on; the oldest frame is always a keyframe
+        int start = target;
+        while (!frameIsKeyframe[slot(start)]) {
+            start--;
+        }
+
+        int slot = slot(start);
+        System.arraycopy(arena, frameOffsets[slot], previous, 0, frameLengths[slot]);
+        previousLength = frameLengths[slot];
+        for (int i = start + 1; i <= target; i++) {
+            slot = slot(i);
+            previousLength = applyDelta(frameOffsets[slot], frameLengths[slot]);
+        }
+
+        GameSnapshot.read(ByteBuffer.wrap(previous, 0, previousLength), simulation);
+
+        // Drop the frames after the target; 'previous' already holds the target frame for the next delta
+        count = target + 1;
+        slot = slot(target);
+        writePosition = frameOffsets[slot] + frameLengths[slot];
+        framesSinceKeyframe = target - start;
+        return frameTicks[slot];
+    }
+
+    public void clear() {
+        count = 0;
+        oldest = 0;
+        writePosition = 0;
+        framesSinceKeyframe = 0;
+        previousLength = 0;
+    }
+
+    public boolean contains(long tick) {
+        int index = floorIndex(tick);
+        return index >= 0 && frameTicks[slot(index)] == tick;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long getOldestTick() {
+        return count == 0 ? -1 : frameTicks[oldest];
+    }
+
+    public long getNewestTick() {
+        return count == 0 ? -1 : frameTicks[slot(count - 1)];
+    }
+
+    public int getFrameCount() {
+        return count;
+    }
+
+    /**
+     * Bytes currently used by encoded frames
+     */
+    public int getStoredBytes() {
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += frameLengths[slot(i)];
+        }
+        return total;
+    }
+
+    public int getCapacityBytes() {
+        return arena.length;
+    }
+
+    private int slot(int index) {
+        return (oldest + index) % capacityFrames;
+    }
+
+    /**
+     * @return index of the newest frame whose tick is at or before the given tick, or -1
+     */
+    private int floorIndex(long tick) {
+        // Ticks are recorded in increasing order, so binary search the ring
+        int low = 0;
+        int high = count - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (frameTicks[slot(mid)] <= tick) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Make room for a frame of the given length at writePosition, evicting old frames as needed
+     */
+    private void reserve(int length) {
+        if (count == capacityFrames) {
+            evictOldest();
+        }
+        if (writePosition + length > arena.length) {
+            writePosition = 0; // Wrap; the unused tail is reclaimed when the frames before it are evicted
+        }
+        while (count > 0 && overlaps(frameOffsets[oldest], frameLengths[oldest], writePosition, length)) {
+            evictOldest();
+        }
+        if (count == 0) {
+            writePosition = 0;
+        }
+    }
+
+    private void append(long tick, byte[] data, int length, boolean keyframe) {
+        System.arraycopy(data, 0, arena, writePosition, length);
+        int slot = slot(count);
+        frameTicks[slot] = tick;
+        frameOffsets[slot] = writePosition;
+        frameLengths[slot] = length;
+        frameIsKeyframe[slot] = keyframe;
+        writePosition += length;
+        count++;
+    }
+
+    private void evictOldest() {
+        oldest = (oldest + 1) % capacityFrames;
+        count--;
+        // Deltas whose keyframe is gone can never be restored
+        while (count > 0 && !frameIsKeyframe[oldest]) {
+            oldest = (oldest + 1) % capacityFrames;
+            count--;
+        }
+        if (count == 0) {
+            oldest = 0;
+        }
+    }
+
+    private static boolean overlaps(int offsetA, int lengthA, int offsetB, int lengthB) {
+        return offsetA < offsetB + lengthB && offsetB < offsetA + lengthA;
+    }
+
+    /**
+     * Encode current XOR previous as runs of (unchanged byte count, changed byte count, changed bytes)
+     * @return encoded length in 'encoded'
+     */
+    private int encodeDelta(int currentLength) {
+        int position = writeVarInt(encoded, 0, currentLength);
+        int i = 0;
+        while (i < currentLength) {
+            int runStart = i;
+            while (i < currentLength && i < previousLength && current[i] == previous[i]) {
+                i++;
+            }
+            int same = i - runStart;
+            int changedStart = i;
+            while (i < currentLength && (i >= previousLength || current[i] != previous[i])) {
+                i++;
+            }
+            int changed = i - changedStart;
+            position = writeVarInt(encoded, position, same);
+            position = writeVarInt(encoded, position, changed);
+            for (int j = changedStart; j < i; j++) {
+                encoded[position++] = (byte) (current[j] ^ (j < previousLength ? previous[j] : 0));
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Apply the delta stored in the arena to 'previous' in place
+     * @return length of the resulting frame
+     */
+    private int applyDelta(int offset, int length) {
+        int end = offset + length;
+        readPosition = offset;
+        int frameLength = readVarInt();
+        // Bytes past the old length start from zero so XOR yields the new value
+        for (int j = previousLength; j < frameLength; j++) {
+            previous[j] = 0;
+        }
+        int i = 0;
+        while (readPosition < end) {
+            i += readVarInt();
+            int changed = readVarInt();
+            for (int j = 0; j < changed; j++) {
+                previous[i++] ^= arena[readPosition++];
+            }
+        }
+        return frameLength;
+    }
+
+    private static int writeVarInt(byte[] target, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+
+    private int readVarInt() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena[readPosition++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
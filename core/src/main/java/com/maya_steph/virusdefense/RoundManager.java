@@ -1,14 +1,18 @@
 package com.maya_steph.virusdefense;
 
+import java.nio.ByteBuffer;
+
 /**
  * Manages game rounds and difficulty progression
  */
 public class RoundManager {
+    static final int STATE_BYTES = 28; // What writeState writes
     private int currentRound;
     private double baseVirusSpeed;
     private double speedIncreasePerRound;
     private int virusesSpawnedThisRound;
     private int virusesPerRound;
+    private boolean logging = true;
     
     public RoundManager() {
         currentRound = 1;
@@ -48,7 +52,16 @@ public class RoundManager {
             virusesPerRound = 7 + (currentRound - 3) * 3; // 10, 13, 16, 19...
         }
         
-        System.out.println("Advanced to Round " + currentRound + " - " + virusesPerRound + " viruses, speed: " + String.format("%.1f", getVirusSpeed()));
+        if (logging) {
+            System.out.println("Advanced to Round " + currentRound + " - " + virusesPerRound + " viruses, speed: " + String.format("%.1f", getVirusSpeed()));
+        }
+    }
+    
+    /**
+     * Whether round changes are printed; GameSimulation.setLogging switches it for its round manager
+     */
+    public void setLogging(boolean logging) {
+        this.logging = logging;
     }
     
     public double getVirusSpeed() {
@@ -79,8 +92,31 @@ public class RoundManager {
         return virusesPerRound;
     }
     
+    /**
+     * Set by the round's wave schedule, which decides how many viruses it has
+     */
+    public void setVirusesPerRound(int virusesPerRound) {
+        this.virusesPerRound = virusesPerRound;
+    }
+    
     public int getVirusesSpawnedThisRound() {
         return virusesSpawnedThisRound;
     }
+    
+    void writeState(ByteBuffer buffer) {
+        buffer.putInt(currentRound);
+        buffer.putDouble(baseVirusSpeed);
+        buffer.putDouble(speedIncreasePerRound);
+        buffer.putInt(virusesSpawnedThisRound);
+        buffer.putInt(virusesPerRound);
+    }
+    
+    void readState(ByteBuffer buffer) {
+        currentRound = buffer.getInt();
+        baseVirusSpeed = buffer.getDouble();
+        speedIncreasePerRound = buffer.getDouble();
+        virusesSpawnedThisRound = buffer.getInt();
+        virusesPerRound = buffer.getInt();
+    }
 }
 
@@ -0,0 +1,143 @@
+package com.maya_steph.virusdefense;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores the saved game (also used for crash-recovery checkpoints) and the last replay on disk.
+ * Writes go through a single background thread so the game loop never waits on the file system,
+ * and each write replaces the file atomically so a crash mid-write never leaves a broken save.
+ */
+public class SaveGameStore {
+    private static final String SAVE_DIR_PROPERTY = "heartattack.saveDir";
+    private static final String SAVE_FILE_NAME = "savegame.bin";
+    public static final String LAST_REPLAY_FILE_NAME = "last.replay";
+
+    private final Path directory;
+    private final Path saveFile;
+    private final ExecutorService writer;
+
+    public SaveGameStore() {
+        this(defaultDirectory());
+    }
+
+    public SaveGameStore(Path directory) {
+        this.directory = directory;
+        this.saveFile = directory.resolve(SAVE_FILE_NAME);
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "save-game-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static Path defaultDirectory() {
+        String configured = System.getProperty(SAVE_DIR_PROPERTY);
+        if (configured != null && !configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".heartattack");
+    }
+
+    public boolean hasSave() {
+        return Files.isRegularFile(saveFile);
+    }
+
+    public boolean hasFile(String fileName) {
+        return Files.isRegularFile(directory.resolve(fileName));
+    }
+
+    /**
+     * Queue a save; the data array must not be modified afterwards
+     */
+    public void saveAsync(byte[] data) {
+        writeAsync(SAVE_FILE_NAME, data);
+    }
+
+    /**
+     * Queue a write of any file in the save directory; the data array must not be modified afterwards
+     */
+    public void writeAsync(String fileName, byte[] data) {
+        writer.execute(() -> {
+            try {
+                write(fileName, data);
+            } catch (IOException e) {
+                System.err.println("Could not write " + fileName + ": " + e.getMessage());
+            }
+        });
+    }
+
+    public void save(byte[] data) throws IOException {
+        write(SAVE_FILE_NAME, data);
+    }
+
+    public void write(String fileName, byte[] data) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(fileName);
+        Path tempFile = file.resolveSibling(fileName + ".tmp");
+        Files.write(tempFile, data);
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return the saved snapshot, or null if there is none or it cannot be read
+     */
+    public byte[] load() {
+        return read(SAVE_FILE_NAME);
+    }
+
+    /**
+     * @return the file's contents, or null if it does not exist or cannot be read
+     */
+    public byte[] read(String fileName) {
+        Path file = directory.resolve(fileName);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            System.err.println("Could not read " + fileName + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Delete the save; queued behind any pending writes so a late checkpoint cannot bring it back
+     */
+    public void deleteAsync() {
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(saveFile);
+            } catch (IOException e) {
+                System.err.println("Could not delete save game: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Wait until all queued writes have reached the disk
+     */
+    public void flush() {
+        try {
+            writer.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("Timed out waiting for save game writes: " + e.getMessage());
+        }
+    }
+
+    public Path getSaveFile() {
+        return saveFile;
+    }
+}
@@ -0,0 +1,103 @@
+package com.maya_steph.virusdefense;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * The thread that owns the game simulation. Ticks are handed over asynchronously, so the event
+ * dispatch thread only paces the game and paints; everything else that touches the simulation
+ * (inputs, starting, loading or resetting a game) runs here too, through run(), which waits for it.
+ * One thread doing all of it in order means the simulation needs no locks.
+ *
+ * With heartattack.simulationThread=false everything runs on the caller's thread instead, as before.
+ */
+public class SimulationThread implements AutoCloseable {
+    public static final String PROPERTY = "heartattack.simulationThread";
+
+    private final ExecutorService executor; // null when running on the caller's thread
+    private volatile Thread thread;
+    private final AtomicBoolean tickPending = new AtomicBoolean();
+
+    public SimulationThread(boolean separateThread) {
+        this.executor = !separateThread ? null : Executors.newSingleThreadExecutor(r -> {
+            Thread simulationThread = new Thread(r, "simulation");
+            simulationThread.setDaemon(true);
+            thread = simulationThread;
+            return simulationThread;
+        });
+    }
+
+    public static SimulationThread fromSystemProperties() {
+        return new SimulationThread(!"false".equals(System.getProperty(PROPERTY)));
+    }
+
+    /**
+     * Run a tick without waiting for it. If the previous tick has not finished yet this one is
+     * dropped, so a slow tick delays the game instead of piling up ticks behind it.
+     * @return false if the tick was dropped
+     */
+    public boolean tick(Runnable tick) {
+        if (executor == null) {
+            tick.run();
+            return true;
+        }
+        if (!tickPending.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                tick.run();
+            } finally {
+                tickPending.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Run an action on the simulation thread after any tick in progress, and wait for it.
+     * Exceptions thrown by the action are rethrown here.
+     */
+    public void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Like run(), returning the action's result
+     */
+    public <T> T call(Supplier<T> action) {
+        if (executor == null || Thread.currentThread() == thread) {
+            return action.get();
+        }
+        Future<T> result = executor.submit(action::get);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the simulation thread", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public boolean isSeparateThread() {
+        return executor != null;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
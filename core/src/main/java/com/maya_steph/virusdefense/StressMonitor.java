@@ -0,0 +1,129 @@
+package com.maya_steph.virusdefense;
+
+/**
+ * Measures frames per second against the number of entities on screen and finds where the frame
+ * rate first stays below 60 FPS, so each kiosk model can be given an entity budget.
+ *
+ * Frames are counted in one-second windows; a drop only counts once it lasts SUSTAINED_WINDOWS windows
+ * in a row, so a single garbage collection or window move does not end the test.
+ */
+public class StressMonitor {
+    public static final double TARGET_FPS = 60;
+    public static final String KIOSK_PROPERTY = "heartattack.kiosk";
+
+    private static final double TOLERANCE_FPS = 3; // A 16 ms timer gives 62.5 FPS; timer jitter is not a drop
+    private static final int SUSTAINED_WINDOWS = 3;
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private long windowStart = -1;
+    private int windowFrames;
+    private int windowStartEntities;
+    private int slowWindows;
+    private int firstSlowEntities;
+    private int firstSlowRound;
+    private int dropEntities = -1;
+    private int dropRound;
+    private int peakEntities;
+    private double lastFps;
+    private double bestFps;
+
+    /**
+     * Count a finished frame
+     * @param nowNanos time the frame finished, from any steadily increasing clock
+     * @return true on the frame where a sustained drop below 60 FPS is first detected
+     */
+    public boolean frameFinished(long nowNanos, int entities, int round) {
+        peakEntities = Math.max(peakEntities, entities);
+        if (windowStart < 0) {
+            startWindow(nowNanos, entities);
+            return false;
+        }
+        windowFrames++;
+        long elapsed = nowNanos - windowStart;
+        if (elapsed < WINDOW_NANOS) {
+            return false;
+        }
+
+        lastFps = windowFrames * 1e9 / elapsed;
+        bestFps = Math.max(bestFps, lastFps);
+        if (lastFps < TARGET_FPS - TOLERANCE_FPS) {
+            if (slowWindows == 0) {
+                firstSlowEntities = windowStartEntities;
+                firstSlowRound = round;
+            }
+            slowWindows++;
+        } else {
+            slowWindows = 0;
+        }
+        startWindow(nowNanos, entities);
+
+        if (slowWindows == SUSTAINED_WINDOWS && dropEntities < 0) {
+            dropEntities = firstSlowEntities;
+            dropRound = firstSlowRound;
+            return true;
+        }
+        return false;
+    }
+
+    private void startWindow(long nowNanos, int entities) {
+        windowStart = nowNanos;
+        windowFrames = 0;
+        windowStartEntities = entities;
+    }
+
+    public boolean hasDropped() {
+        return dropEntities >= 0;
+    }
+
+    /**
+     * Entities on screen when the frame rate started to stay below 60 FPS; -1 if it never did
+     */
+    public int getDropEntities() {
+        return dropEntities;
+    }
+
+    public int getPeakEntities() {
+        return peakEntities;
+    }
+
+    /**
+     * Frame rate of the last complete one-second window
+     */
+    public double getLastFps() {
+        return lastFps;
+    }
+
+    /**
+     * Name of the machine in reports: the heartattack.kiosk property, else the host name
+     */
+    public static String kioskName() {
+        String name = System.getProperty(KIOSK_PROPERTY);
+        if (name == null || name.isEmpty()) {
+            name = System.getenv("COMPUTERNAME") != null ? System.getenv("COMPUTERNAME") : System.getenv("HOSTNAME");
+        }
+        return name != null && !name.isEmpty() ? name : "unknown";
+    }
+
+    /**
+     * Plain-text summary to keep per kiosk model
+     * @param setup how the test was run (mode, arena, spawn rates)
+     */
+    public String report(String setup) {
+        Runtime runtime = Runtime.getRuntime();
+        StringBuilder report = new StringBuilder();
+        report.append("HeartAttack stress report\n");
+        report.append("Kiosk: ").append(kioskName()).append('\n');
+        report.append("Machine: ").append(System.getProperty("os.name")).append(' ').append(System.getProperty("os.version"))
+            .append(" (").append(System.getProperty("os.arch")).append("), ").append(runtime.availableProcessors())
+            .append(" cores, ").append(runtime.maxMemory() / (1024 * 1024)).append(" MB heap, Java ")
+            .append(System.getProperty("java.version")).append('\n');
+        report.append("Setup: ").append(setup).append('\n');
+        report.append(String.format("Best FPS: %.1f, peak entities: %d%n", bestFps, peakEntities));
+        if (hasDropped()) {
+            report.append(String.format("Below %.0f FPS from: %d entities (round %d)%n", TARGET_FPS, dropEntities, dropRound));
+        } else {
+            report.append(String.format("Never stayed below %.0f FPS%n", TARGET_FPS));
+        }
+        return report.toString();
+    }
+}
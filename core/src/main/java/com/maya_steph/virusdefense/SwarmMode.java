@@ -0,0 +1,126 @@
+package com.maya_steph.virusdefense;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Endless swarm mode, also our built-in stress test: a configurable arena where viruses pour in
+ * at a rate that rises every round while a turret in every lane keeps firing.
+ *
+ * Configured with system properties (all optional):
+ * heartattack.swarm.lanes, .width, .height (arena), .spawnRate (viruses per second in round 1),
+ * .spawnRamp (extra viruses per second every round), .speed (virus speed) and
+ * .fireTicks (ticks between turret volleys; 0 turns the turrets off).
+ */
+public class SwarmMode {
+    public static final String PROPERTY_PREFIX = "heartattack.swarm.";
+    public static final int ROUND_SECONDS = 10;
+
+    private static final int TICKS_PER_SECOND = 1000 / GameSimulation.TICK_MILLIS;
+    private static final int TURRET_OFFSET = 130; // Turrets fire from just above the player
+    private static final Weapons.WeaponType[] WEAPON_TYPES = Weapons.WeaponType.values(); // values() copies the array on every call
+
+    private final Arena arena;
+    private final double spawnRate;
+    private final double spawnRamp;
+    private final double virusSpeed;
+    private final int fireIntervalTicks;
+    private int volley;
+
+    public SwarmMode(Arena arena, double spawnRate, double spawnRamp, double virusSpeed, int fireIntervalTicks) {
+        if (spawnRate <= 0 || spawnRamp < 0 || virusSpeed <= 0 || fireIntervalTicks < 0) {
+            throw new IllegalArgumentException("Invalid swarm settings");
+        }
+        this.arena = arena;
+        this.spawnRate = spawnRate;
+        this.spawnRamp = spawnRamp;
+        this.virusSpeed = virusSpeed;
+        this.fireIntervalTicks = fireIntervalTicks;
+    }
+
+    public static SwarmMode fromSystemProperties() {
+        int lanes = Integer.getInteger(PROPERTY_PREFIX + "lanes", 16);
+        int width = Integer.getInteger(PROPERTY_PREFIX + "width", lanes * 60);
+        int height = Integer.getInteger(PROPERTY_PREFIX + "height", 1200);
+        return new SwarmMode(new Arena(width, height, lanes),
+            doubleProperty("spawnRate", TICKS_PER_SECOND),
+            doubleProperty("spawnRamp", TICKS_PER_SECOND),
+            doubleProperty("speed", 2.0),
+            Integer.getInteger(PROPERTY_PREFIX + "fireTicks", 4));
+    }
+
+    private static double doubleProperty(String name, double fallback) {
+        String value = System.getProperty(PROPERTY_PREFIX + name);
+        if (value == null || value.isEmpty()) {
+            return fallback;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid " + PROPERTY_PREFIX + name + ": " + value);
+            return fallback;
+        }
+    }
+
+    /**
+     * One open-ended wave: a burst every tick, each round ROUND_SECONDS long and spawnRamp per second busier
+     * than the one before. Rates are rounded to whole viruses per tick, so the lowest rate is one per tick.
+     */
+    public WaveDefinitions waves() {
+        double perTick = GameSimulation.TICK_MILLIS / 1000.0;
+        int[] uniform = {1, 1, 1, 1};
+        List<WaveDefinitions.Wave> waves = new ArrayList<>();
+        waves.add(new WaveDefinitions.Wave(1, Integer.MAX_VALUE,
+            new WaveDefinitions.Curve(spawnRate * ROUND_SECONDS, spawnRamp * ROUND_SECONDS, 1, Double.POSITIVE_INFINITY),
+            WaveDefinitions.Curve.constant(GameSimulation.TICK_MILLIS),
+            WaveDefinitions.Curve.constant(virusSpeed),
+            uniform, WaveDefinitions.LanePattern.RANDOM, new int[0],
+            new WaveDefinitions.Curve(spawnRate * perTick, spawnRamp * perTick, 1, Double.POSITIVE_INFINITY), 0));
+        return new WaveDefinitions(0, waves);
+    }
+
+    /**
+     * Set the simulation up for a new swarm run
+     */
+    public void start(GameSimulation simulation, long seed) {
+        simulation.setArena(arena);
+        simulation.setEndless(true);
+        simulation.setWaves(waves());
+        simulation.startNewGame(seed);
+        volley = 0;
+    }
+
+    /**
+     * Fire the turrets when a volley is due; call before each simulation update
+     */
+    public void beforeTick(GameSimulation simulation) {
+        if (fireIntervalTicks == 0 || simulation.getTick() % fireIntervalTicks != 0) {
+            return;
+        }
+        int y = arena.getHeight() - TURRET_OFFSET;
+        for (int lane = 0; lane < arena.getLaneCount(); lane++) {
+            // Rotate weapons so every lane gets each type in turn
+            simulation.getWeapons().fire(arena.laneCenter(lane), y, WEAPON_TYPES[(lane + volley) % WEAPON_TYPES.length]);
+        }
+        volley++;
+    }
+
+    /**
+     * Viruses per second the given round spawns
+     */
+    public double spawnRateInRound(int round) {
+        return spawnRate + spawnRamp * (round - 1);
+    }
+
+    public Arena getArena() {
+        return arena;
+    }
+
+    /**
+     * One-line summary for reports
+     */
+    public String describe() {
+        return String.format("arena %s, %.0f viruses/s rising %.0f/s every %d s, speed %.1f, turret volley every %d ticks",
+            arena, spawnRate, spawnRamp, ROUND_SECONDS, virusSpeed, fireIntervalTicks);
+    }
+}
@@ -0,0 +1,96 @@
+package com.maya_steph.virusdefense;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The real time, with timers that run their actions on one shared daemon thread. Needs nothing from
+ * AWT, so headless tools can use it; the game panel uses a SwingClock instead.
+ */
+public class SystemClock implements GameClock {
+    private ScheduledExecutorService scheduler; // Started by the first timer
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public Timer createTimer(int delayMillis, boolean repeats, Runnable action) {
+        return new ScheduledTimer(delayMillis, repeats, action);
+    }
+
+    private synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "game-clock");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    private final class ScheduledTimer implements Timer {
+        private final int delayMillis;
+        private final boolean repeats;
+        private final Runnable action;
+        private ScheduledFuture<?> future;
+
+        ScheduledTimer(int delayMillis, boolean repeats, Runnable action) {
+            this.delayMillis = delayMillis;
+            this.repeats = repeats;
+            this.action = action;
+        }
+
+        @Override
+        public synchronized void start() {
+            if (isRunning()) {
+                return;
+            }
+            long delay = Math.max(1, delayMillis);
+            future = repeats
+                ? scheduler().scheduleAtFixedRate(this::fire, delay, delay, TimeUnit.MILLISECONDS)
+                : scheduler().schedule(this::fire, delay, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public synchronized void stop() {
+            if (future != null) {
+                future.cancel(false);
+                future = null;
+            }
+        }
+
+        @Override
+        public synchronized boolean isRunning() {
+            return future != null && !future.isDone();
+        }
+
+        @Override
+        public boolean isRepeats() {
+            return repeats;
+        }
+
+        @Override
+        public int getDelay() {
+            return delayMillis;
+        }
+
+        private void fire() {
+            try {
+                action.run();
+            } catch (Exception e) {
+                // A repeating timer would stop for good if the exception reached the executor
+                System.err.println("Timer action failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.maya_steph.virusdefense;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A clock that stands still until advance() moves it, for tests and headless runs. Timers that
+ * become due while advancing run on the advancing thread, in the order they are due, with the
+ * clock set to their due time; a timer's action may start or stop timers, including itself.
+ */
+public class VirtualClock implements GameClock {
+    private long nanos;
+    private long startOrder; // Breaks ties between timers due at the same time
+    private final List<VirtualTimer> running = new ArrayList<>();
+
+    @Override
+    public synchronized long currentTimeMillis() {
+        return nanos / 1_000_000;
+    }
+
+    @Override
+    public synchronized long nanoTime() {
+        return nanos;
+    }
+
+    @Override
+    public Timer createTimer(int delayMillis, boolean repeats, Runnable action) {
+        return new VirtualTimer(delayMillis, repeats, action);
+    }
+
+    /**
+     * Move the clock forward, running every timer that becomes due on the way
+     */
+    public void advance(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Cannot go back in time: " + millis);
+        }
+        long target;
+        synchronized (this) {
+            target = nanos + millis * 1_000_000;
+        }
+        VirtualTimer due;
+        while ((due = nextDue(target)) != null) {
+            due.action.run(); // Outside the lock, so the action can use the clock
+        }
+        synchronized (this) {
+            nanos = target;
+        }
+    }
+
+    public synchronized int getRunningTimerCount() {
+        return running.size();
+    }
+
+    /**
+     * Take the first timer due by the target, moving the clock to its due time
+     */
+    private synchronized VirtualTimer nextDue(long target) {
+        VirtualTimer first = null;
+        for (VirtualTimer timer : running) {
+            if (timer.dueNanos <= target && (first == null || timer.dueNanos < first.dueNanos
+                || (timer.dueNanos == first.dueNanos && timer.order < first.order))) {
+                first = timer;
+            }
+        }
+        if (first == null) {
+            return null;
+        }
+        nanos = first.dueNanos;
+        if (first.repeats) {
+            first.dueNanos += first.delayMillis * 1_000_000L;
+        } else {
+            running.remove(first);
+        }
+        return first;
+    }
+
+    private final class VirtualTimer implements Timer {
+        private final int delayMillis;
+        private final boolean repeats;
+        private final Runnable action;
+        private long dueNanos;
+        private long order;
+
+        VirtualTimer(int delayMillis, boolean repeats, Runnable action) {
+            this.delayMillis = delayMillis;
+            this.repeats = repeats;
+            this.action = action;
+        }
+
+        @Override
+        public void start() {
+            synchronized (VirtualClock.this) {
+                if (running.contains(this)) {
+                    return;
+                }
+                dueNanos = nanos + Math.max(1, delayMillis) * 1_000_000L; // A timer never fires at the time it starts
+                order = startOrder++;
+                running.add(this);
+            }
+        }
+
+        @Override
+        public void stop() {
+            synchronized (VirtualClock.this) {
+                running.remove(this);
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            synchronized (VirtualClock.this) {
+                return running.contains(this);
+            }
+        }
+
+        @Override
+        public boolean isRepeats() {
+            return repeats;
+        }
+
+        @Override
+        public int getDelay() {
+            return delayMillis;
+        }
+    }
+}
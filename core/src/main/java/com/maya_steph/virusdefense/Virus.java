@@ -0,0 +1,156 @@
+package com.maya_steph.virusdefense;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a virus that falls from the top
+ */
+public class Virus {
+    static final int SIZE = 30;
+    static final int DAMAGE_LEVELS = 3; // Undamaged, hit once, dead or dying
+    static final int STATE_BYTES = 22; // What writeState writes
+    
+    public enum VirusType {
+        SPIKY_VIRUS("Spiky", 0x8B4513, Weapons.WeaponType.SPIKY_BALL), // Brown color (SaddleBrown)
+        ROUND_VIRUS("Round", 0x00FF00, Weapons.WeaponType.BALL), // Green
+        STAR_VIRUS("Star", 0x0000FF, Weapons.WeaponType.STAR), // Blue
+        ARROW_VIRUS("Arrow", 0xFFC800, Weapons.WeaponType.ARROW); // Orange
+        
+        private final String displayName;
+        private final int baseRgb;
+        private final Weapons.WeaponType weakness;
+        
+        VirusType(String displayName, int baseRgb, Weapons.WeaponType weakness) {
+            this.displayName = displayName;
+            this.baseRgb = baseRgb;
+            this.weakness = weakness;
+        }
+        
+        public String getDisplayName() { return displayName; }
+        /**
+         * Undamaged color as 0xRRGGBB; painters lighten it with each hit
+         */
+        public int getBaseRgb() { return baseRgb; }
+        public Weapons.WeaponType getWeakness() { return weakness; }
+    }
+    
+    private int x;
+    private double y;
+    private double speed;
+    private int size;
+    private int hitCount;
+    private VirusType virusType;
+    
+    public Virus(int x, int y, double speed) {
+        this(x, y, speed, VirusType.SPIKY_VIRUS); // Default to spiky for backwards compatibility
+    }
+    
+    public Virus(int x, int y, double speed, VirusType virusType) {
+        reset(x, y, speed, virusType);
+    }
+    
+    /**
+     * Start over as a new, undamaged virus; the simulation reuses viruses that have left the arena
+     */
+    void reset(int x, int y, double speed, VirusType virusType) {
+        this.x = x;
+        this.y = y;
+        this.speed = speed;
+        this.size = SIZE;
+        this.virusType = virusType;
+        this.hitCount = 0;
+    }
+    
+    public void update() {
+        y += speed;
+    }
+    
+    public int getX() {
+        return x;
+    }
+    
+    public double getY() {
+        return y;
+    }
+    
+    public double getSpeed() {
+        return speed;
+    }
+    
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+    
+    // Claude implemented function
+    public int getSize() {
+        return size;
+    }
+    
+    public void hit() {
+        hitCount++;
+    }
+    
+    /**
+     * How damaged the virus looks, from 0 (undamaged) to DAMAGE_LEVELS - 1
+     */
+    int getDamageLevel() {
+        return Math.max(0, Math.min(hitCount, DAMAGE_LEVELS - 1));
+    }
+    
+    public boolean hitWithWeapon(Weapons.WeaponType weaponType) {
+        // Only effective if weapon matches virus weakness
+        if (weaponType == virusType.getWeakness()) {
+            hit();
+            return true; // Effective hit
+        }
+        return false; // Ineffective hit
+    }
+    
+    public boolean isDead() {
+        return hitCount >= 2;
+    }
+    
+    public int getHitCount() {
+        return hitCount;
+    }
+    
+    public VirusType getVirusType() {
+        return virusType;
+    }
+    
+    public Weapons.WeaponType getWeakness() {
+        return virusType.getWeakness();
+    }
+    
+    /**
+     * Become a copy of another virus, for render snapshots
+     */
+    void copyFrom(Virus other) {
+        x = other.x;
+        y = other.y;
+        speed = other.speed;
+        size = other.size;
+        hitCount = other.hitCount;
+        virusType = other.virusType;
+    }
+    
+    void writeState(ByteBuffer buffer) {
+        buffer.putInt(x);
+        buffer.putDouble(y);
+        buffer.putDouble(speed);
+        buffer.put((byte) virusType.ordinal());
+        buffer.put((byte) hitCount);
+    }
+    
+    static Virus readState(ByteBuffer buffer) {
+        int x = buffer.getInt();
+        double y = buffer.getDouble();
+        double speed = buffer.getDouble();
+        VirusType type = VirusType.values()[buffer.get()];
+        Virus virus = new Virus(x, 0, speed, type);
+        virus.y = y;
+        virus.hitCount = buffer.get();
+        return virus;
+    }
+}
+
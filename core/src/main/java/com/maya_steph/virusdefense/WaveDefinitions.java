@@ -0,0 +1,419 @@
+package com.maya_steph.virusdefense;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Wave design data: how many viruses each round has, which types, in which lanes, how fast and how often.
+ *
+ * Loaded from waves.json, so rounds can be tuned without recompiling. The file given by the
+ * heartattack.waves system property wins over the copy on the classpath; if neither can be read the
+ * built-in defaults are used. Each wave covers a range of rounds and its numbers change linearly
+ * from round to round within that range. WaveSchedule compiles a wave into the spawns of one round.
+ */
+public class WaveDefinitions {
+    public static final String WAVES_FILE_PROPERTY = "heartattack.waves";
+    private static final String RESOURCE_NAME = "waves.json";
+
+    private static volatile WaveDefinitions current;
+
+    public enum LanePattern {
+        RANDOM, // Any lane
+        SWEEP,  // Lane after lane, starting in a random one
+        FIXED   // The wave's lane list, repeated
+    }
+
+    /**
+     * A number that changes by perRound every round after the wave's first one, kept within [min, max]
+     */
+    public static final class Curve {
+        final double base;
+        final double perRound;
+        final double min;
+        final double max;
+
+        Curve(double base, double perRound, double min, double max) {
+            this.base = base;
+            this.perRound = perRound;
+            this.min = min;
+            this.max = max;
+        }
+
+        static Curve constant(double value) {
+            return new Curve(value, 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        }
+
+        double valueAt(int roundsIntoWave) {
+            return Math.max(min, Math.min(max, base + perRound * roundsIntoWave));
+        }
+    }
+
+    public static final class Wave {
+        final int fromRound;
+        final int toRound;
+        final Curve count;
+        final Curve intervalMs;
+        final Curve speed;
+        final int[] typeWeights; // Indexed by Virus.VirusType ordinal
+        final LanePattern lanePattern;
+        final int[] lanes;
+        final Curve burstSize;   // Viruses per burst; bursts are intervalMs apart
+        final int burstGapMs;    // Time between the viruses of one burst
+
+        Wave(int fromRound, int toRound, Curve count, Curve intervalMs, Curve speed, int[] typeWeights,
+             LanePattern lanePattern, int[] lanes, Curve burstSize, int burstGapMs) {
+            this.fromRound = fromRound;
+            this.toRound = toRound;
+            this.count = count;
+            this.intervalMs = intervalMs;
+            this.speed = speed;
+            this.typeWeights = typeWeights;
+            this.lanePattern = lanePattern;
+            this.lanes = lanes;
+            this.burstSize = burstSize;
+            this.burstGapMs = burstGapMs;
+        }
+
+        boolean covers(int round) {
+            return round >= fromRound && round <= toRound;
+        }
+
+        int totalTypeWeight() {
+            int total = 0;
+            for (int weight : typeWeights) {
+                total += weight;
+            }
+            return total;
+        }
+    }
+
+    private final int startDelayMs;
+    private final List<Wave> waves;
+    private final long hash;
+
+    WaveDefinitions(int startDelayMs, List<Wave> waves) {
+        if (waves.isEmpty()) {
+            throw new IllegalArgumentException("At least one wave is required");
+        }
+        this.startDelayMs = startDelayMs;
+        this.waves = Collections.unmodifiableList(new ArrayList<>(waves));
+        this.hash = computeHash();
+    }
+
+    /**
+     * The definitions new games use; loaded on first use
+     */
+    public static WaveDefinitions current() {
+        WaveDefinitions definitions = current;
+        if (definitions == null) {
+            definitions = reload();
+        }
+        return definitions;
+    }
+
+    /**
+     * Read the wave file again, so edits show up in the next game
+     */
+    public static WaveDefinitions reload() {
+        WaveDefinitions definitions = load();
+        current = definitions;
+        return definitions;
+    }
+
+    static WaveDefinitions load() {
+        String configured = System.getProperty(WAVES_FILE_PROPERTY);
+        if (configured != null && !configured.isEmpty()) {
+            try {
+                return load(Paths.get(configured));
+            } catch (IOException e) {
+                System.err.println("Could not load waves from " + configured + ": " + e.getMessage());
+            }
+        }
+
+        try (InputStream resourceStream = WaveDefinitions.class.getClassLoader().getResourceAsStream(RESOURCE_NAME)) {
+            if (resourceStream != null) {
+                return parse(new InputStreamReader(resourceStream, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            System.err.println("Could not load waves from resources: " + e.getMessage());
+        }
+
+        System.out.println("Using built-in wave definitions");
+        return defaults();
+    }
+
+    public static WaveDefinitions load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    public static WaveDefinitions parse(Reader reader) throws IOException {
+        try {
+            JSONObject root = (JSONObject) new JSONParser().parse(reader);
+            int startDelayMs = (int) number(root, "startDelayMs", 4000);
+            JSONArray waveArray = (JSONArray) root.get("waves");
+            if (waveArray == null || waveArray.isEmpty()) {
+                throw new IOException("No waves defined");
+            }
+
+            List<Wave> waves = new ArrayList<>();
+            for (Object waveObject : waveArray) {
+                waves.add(parseWave((JSONObject) waveObject));
+            }
+            WaveDefinitions definitions = new WaveDefinitions(startDelayMs, waves);
+            // Lane numbers wrap to the arena's lane count when a schedule is compiled
+            List<String> problems = definitions.validate(Integer.MAX_VALUE);
+            if (!problems.isEmpty()) {
+                throw new IOException("Invalid waves: " + String.join("; ", problems));
+            }
+            return definitions;
+        } catch (ParseException e) {
+            throw new IOException("Malformed waves file: " + e, e);
+        } catch (ClassCastException | IllegalArgumentException e) {
+            throw new IOException("Invalid waves file: " + e.getMessage(), e);
+        }
+    }
+
+    private static Wave parseWave(JSONObject wave) throws IOException {
+        int fromRound = (int) number(wave, "fromRound", 1);
+        Object to = wave.get("toRound");
+        int toRound = to == null ? Integer.MAX_VALUE : ((Number) to).intValue();
+
+        int[] typeWeights = new int[Virus.VirusType.values().length];
+        JSONObject types = (JSONObject) wave.get("types");
+        if (types == null) {
+            Arrays.fill(typeWeights, 1);
+        } else {
+            for (Object key : types.keySet()) {
+                Virus.VirusType type = Virus.VirusType.valueOf((String) key);
+                typeWeights[type.ordinal()] = ((Number) types.get(key)).intValue();
+            }
+        }
+
+        LanePattern lanePattern;
+        int[] lanes = new int[0];
+        Object laneValue = wave.get("lanes");
+        if (laneValue == null) {
+            lanePattern = LanePattern.RANDOM;
+        } else if (laneValue instanceof JSONArray) {
+            JSONArray laneArray = (JSONArray) laneValue;
+            lanePattern = LanePattern.FIXED;
+            lanes = new int[laneArray.size()];
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = ((Number) laneArray.get(i)).intValue();
+            }
+        } else {
+            lanePattern = LanePattern.valueOf(((String) laneValue).toUpperCase());
+        }
+
+        Curve burstSize = Curve.constant(1);
+        int burstGapMs = 0;
+        JSONObject burst = (JSONObject) wave.get("burst");
+        if (burst != null) {
+            if (burst.get("size") != null) {
+                burstSize = curve(burst, "size");
+            }
+            burstGapMs = (int) number(burst, "gapMs", 0);
+        }
+
+        return new Wave(fromRound, toRound,
+            curve(wave, "count"), curve(wave, "intervalMs"), curve(wave, "speed"),
+            typeWeights, lanePattern, lanes, burstSize, burstGapMs);
+    }
+
+    /**
+     * A curve is either a plain number or {"base": .., "perRound": .., "min": .., "max": ..}
+     */
+    private static Curve curve(JSONObject object, String key) throws IOException {
+        Object value = object.get(key);
+        if (value == null) {
+            throw new IOException("Wave is missing \"" + key + "\"");
+        }
+        if (value instanceof Number) {
+            return Curve.constant(((Number) value).doubleValue());
+        }
+        JSONObject curve = (JSONObject) value;
+        return new Curve(number(curve, "base", 0), number(curve, "perRound", 0),
+            number(curve, "min", Double.NEGATIVE_INFINITY), number(curve, "max", Double.POSITIVE_INFINITY));
+    }
+
+    private static double number(JSONObject object, String key, double fallback) {
+        Object value = object.get(key);
+        return value == null ? fallback : ((Number) value).doubleValue();
+    }
+
+    /**
+     * The original hard-coded progression: 3/5/7 viruses in rounds 1-3 then 3 more per round,
+     * speed 1.0 rising 0.3 per round, and 4s/3s/2s between spawns speeding up after round 5
+     */
+    public static WaveDefinitions defaults() {
+        int[] uniform = {1, 1, 1, 1};
+        List<Wave> waves = new ArrayList<>();
+        waves.add(new Wave(1, 1, Curve.constant(3), Curve.constant(4000), Curve.constant(1.0),
+            uniform, LanePattern.RANDOM, new int[0], Curve.constant(1), 0));
+        waves.add(new Wave(2, 3, new Curve(5, 2, 0, Double.POSITIVE_INFINITY), Curve.constant(3000),
+            new Curve(1.3, 0.3, 0, Double.POSITIVE_INFINITY), uniform, LanePattern.RANDOM, new int[0], Curve.constant(1), 0));
+        waves.add(new Wave(4, 5, new Curve(10, 3, 0, Double.POSITIVE_INFINITY), Curve.constant(2000),
+            new Curve(1.9, 0.3, 0, Double.POSITIVE_INFINITY), uniform, LanePattern.RANDOM, new int[0], Curve.constant(1), 0));
+        waves.add(new Wave(6, Integer.MAX_VALUE, new Curve(16, 3, 0, Double.POSITIVE_INFINITY),
+            new Curve(1800, -200, 800, Double.POSITIVE_INFINITY), new Curve(2.5, 0.3, 0, Double.POSITIVE_INFINITY),
+            uniform, LanePattern.RANDOM, new int[0], Curve.constant(1), 0));
+        return new WaveDefinitions(4000, waves);
+    }
+
+    /**
+     * @return the wave for the round; rounds past the last wave keep using the last one
+     */
+    public Wave forRound(int round) {
+        for (Wave wave : waves) {
+            if (wave.covers(round)) {
+                return wave;
+            }
+        }
+        return waves.get(waves.size() - 1);
+    }
+
+    /**
+     * Check the definitions for mistakes a designer could make
+     * @param laneCount lanes of the arena the waves will be played in
+     * @return a description of every problem found; empty if there are none
+     */
+    public List<String> validate(int laneCount) {
+        List<String> problems = new ArrayList<>();
+        if (startDelayMs < 0) {
+            problems.add("startDelayMs must not be negative");
+        }
+        int expectedRound = 1;
+        for (int i = 0; i < waves.size(); i++) {
+            Wave wave = waves.get(i);
+            String name = "wave " + (i + 1) + " (rounds " + wave.fromRound + "-"
+                + (wave.toRound == Integer.MAX_VALUE ? "" : String.valueOf(wave.toRound)) + ")";
+            if (wave.fromRound != expectedRound) {
+                problems.add(name + " should start at round " + expectedRound);
+            }
+            if (wave.toRound < wave.fromRound) {
+                problems.add(name + " ends before it starts");
+            }
+            if (wave.count.valueAt(0) < 1) {
+                problems.add(name + " spawns no viruses");
+            }
+            if (wave.intervalMs.valueAt(0) < 0 || wave.speed.valueAt(0) <= 0) {
+                problems.add(name + " needs a positive interval and speed");
+            }
+            if (wave.totalTypeWeight() <= 0) {
+                problems.add(name + " has no virus types");
+            }
+            for (int weight : wave.typeWeights) {
+                if (weight < 0) {
+                    problems.add(name + " has a negative type weight");
+                    break;
+                }
+            }
+            if (wave.lanePattern == LanePattern.FIXED) {
+                if (wave.lanes.length == 0) {
+                    problems.add(name + " has an empty lane list");
+                }
+                for (int lane : wave.lanes) {
+                    if (lane < 0 || lane >= laneCount) {
+                        problems.add(name + " uses lane " + lane + " but there are only " + laneCount);
+                        break;
+                    }
+                }
+            }
+            if (wave.burstSize.valueAt(0) < 1 || wave.burstGapMs < 0) {
+                problems.add(name + " has an invalid burst");
+            }
+            // The last wave also plays every round after its toRound, so it is checked as if open-ended
+            boolean openEnded = wave.toRound == Integer.MAX_VALUE || i == waves.size() - 1;
+            checkDecrease(problems, name, "count", wave, openEnded, wave.count, 1);
+            checkDecrease(problems, name, "interval", wave, openEnded, wave.intervalMs, 0);
+            checkDecrease(problems, name, "speed", wave, openEnded, wave.speed, Double.MIN_VALUE); // Any positive speed
+            checkDecrease(problems, name, "burst size", wave, openEnded, wave.burstSize, 1);
+            expectedRound = wave.toRound == Integer.MAX_VALUE ? Integer.MAX_VALUE : wave.toRound + 1;
+        }
+        return problems;
+    }
+
+    /**
+     * A curve that starts valid but decreases must stay at or above lowestAllowed for the whole wave;
+     * an open-ended wave needs a minimum for that
+     */
+    private static void checkDecrease(List<String> problems, String name, String what, Wave wave, boolean openEnded,
+                                      Curve curve, double lowestAllowed) {
+        if (curve.perRound >= 0 || curve.valueAt(0) < lowestAllowed) {
+            return; // Either it never decreases or the first-round checks already reported it
+        }
+        if (openEnded) {
+            if (curve.min < lowestAllowed) {
+                problems.add(name + " " + what + " decreases without a minimum");
+            }
+        } else if (curve.valueAt(wave.toRound - wave.fromRound) < lowestAllowed) {
+            problems.add(name + " " + what + " drops too low by round " + wave.toRound);
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash of every number in the definitions. Snapshots and replays store it, since the
+     * same inputs play out differently under other waves.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    private long computeHash() {
+        long h = mix(0xCBF29CE484222325L, startDelayMs);
+        for (Wave wave : waves) {
+            h = mix(h, wave.fromRound);
+            h = mix(h, wave.toRound);
+            for (Curve curve : new Curve[] {wave.count, wave.intervalMs, wave.speed, wave.burstSize}) {
+                h = mix(h, Double.doubleToLongBits(curve.base));
+                h = mix(h, Double.doubleToLongBits(curve.perRound));
+                h = mix(h, Double.doubleToLongBits(curve.min));
+                h = mix(h, Double.doubleToLongBits(curve.max));
+            }
+            h = mix(h, wave.typeWeights.length);
+            for (int weight : wave.typeWeights) {
+                h = mix(h, weight);
+            }
+            h = mix(h, wave.lanePattern.ordinal());
+            h = mix(h, wave.lanes.length);
+            for (int lane : wave.lanes) {
+                h = mix(h, lane);
+            }
+            h = mix(h, wave.burstGapMs);
+        }
+        return h;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    public int getStartDelayMs() {
+        return startDelayMs;
+    }
+
+    public int getWaveCount() {
+        return waves.size();
+    }
+}
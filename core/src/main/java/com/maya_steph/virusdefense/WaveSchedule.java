@@ -0,0 +1,159 @@
+package com.maya_steph.virusdefense;
+
+/**
+ * The spawns of one round, compiled from its wave definition when the round starts.
+ *
+ * Every spawn's tick, lane, type and speed is decided up front and stored in parallel arrays that
+ * are reused from round to round, so spawning during play is just comparing the next entry's tick
+ * with the round's tick. Compiling draws from its own GameRandom seeded per round, so a saved game
+ * only needs the round and seed to rebuild the exact same schedule.
+ */
+public class WaveSchedule {
+    private static final Virus.VirusType[] VIRUS_TYPES = Virus.VirusType.values(); // values() copies the array on every call
+
+    private int[] spawnTicks;
+    private int[] lanes;
+    private byte[] types;
+    private double[] speeds;
+    private int size;
+    private int cursor;
+    private double roundSpeed;
+
+    public WaveSchedule() {
+        this(64);
+    }
+
+    public WaveSchedule(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    private void allocate(int capacity) {
+        spawnTicks = new int[capacity];
+        lanes = new int[capacity];
+        types = new byte[capacity];
+        speeds = new double[capacity];
+    }
+
+    /**
+     * Replace the schedule with the spawns of the given round
+     * @param seed decides lanes and types; the same seed always gives the same schedule
+     */
+    public void compile(WaveDefinitions definitions, int round, int laneCount, long seed) {
+        WaveDefinitions.Wave wave = definitions.forRound(round);
+        int roundsIntoWave = round - wave.fromRound;
+
+        int count = (int) Math.max(0, Math.round(wave.count.valueAt(roundsIntoWave)));
+        if (count > spawnTicks.length) {
+            allocate(Math.max(count, spawnTicks.length * 2));
+        }
+        int intervalTicks = Math.max(1, (int) (wave.intervalMs.valueAt(roundsIntoWave) / GameSimulation.TICK_MILLIS));
+        int burstGapTicks = wave.burstGapMs / GameSimulation.TICK_MILLIS;
+        int burstSize = Math.max(1, (int) Math.round(wave.burstSize.valueAt(roundsIntoWave)));
+        roundSpeed = wave.speed.valueAt(roundsIntoWave);
+
+        GameRandom random = new GameRandom(seed);
+        int totalWeight = wave.totalTypeWeight();
+        int sweepStart = random.nextInt(laneCount);
+        int tick = Math.max(1, definitions.getStartDelayMs() / GameSimulation.TICK_MILLIS);
+
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                tick += i % burstSize == 0 ? intervalTicks : burstGapTicks;
+            }
+            spawnTicks[i] = tick;
+
+            switch (wave.lanePattern) {
+                case SWEEP:
+                    lanes[i] = (sweepStart + i) % laneCount;
+                    break;
+                case FIXED:
+                    lanes[i] = Math.floorMod(wave.lanes[i % wave.lanes.length], laneCount);
+                    break;
+                default:
+                    lanes[i] = random.nextInt(laneCount);
+                    break;
+            }
+
+            int pick = random.nextInt(totalWeight);
+            int type = 0;
+            while (pick >= wave.typeWeights[type]) {
+                pick -= wave.typeWeights[type];
+                type++;
+            }
+            types[i] = (byte) type;
+            speeds[i] = roundSpeed;
+        }
+        size = count;
+        cursor = 0;
+    }
+
+    /**
+     * True if the next spawn is due at or before the given tick of the round
+     */
+    public boolean hasDue(int roundTick) {
+        return cursor < size && spawnTicks[cursor] <= roundTick;
+    }
+
+    /**
+     * @return the index of the next spawn, which is then consumed
+     */
+    public int next() {
+        return cursor++;
+    }
+
+    public boolean isExhausted() {
+        return cursor >= size;
+    }
+
+    /**
+     * @return ticks until the next spawn, or 0 when every spawn of the round is done
+     */
+    public int ticksUntilNext(int roundTick) {
+        return isExhausted() ? 0 : Math.max(0, spawnTicks[cursor] - roundTick);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+
+    void setCursor(int cursor) {
+        if (cursor < 0 || cursor > size) {
+            throw new IllegalStateException("Invalid schedule position: " + cursor);
+        }
+        this.cursor = cursor;
+    }
+
+    public int getSpawnTick(int index) {
+        return spawnTicks[index];
+    }
+
+    public int getLane(int index) {
+        return lanes[index];
+    }
+
+    public Virus.VirusType getType(int index) {
+        return VIRUS_TYPES[types[index]];
+    }
+
+    public double getSpeed(int index) {
+        return speeds[index];
+    }
+
+    /**
+     * Base speed of this round's viruses
+     */
+    public double getRoundSpeed() {
+        return roundSpeed;
+    }
+
+    /**
+     * Tick of the round's last spawn
+     */
+    public int getLastSpawnTick() {
+        return size == 0 ? 0 : spawnTicks[size - 1];
+    }
+}
@@ -0,0 +1,242 @@
+package com.maya_steph.virusdefense;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+public class Weapons {
+    //declaring WeaponType enumeration
+    public enum WeaponType {
+        BALL("Ball"),
+        STAR("Star"),
+        SPIKY_BALL("Spiky Ball"),
+        ARROW("Arrow");
+
+        private final String displayName;
+
+        WeaponType(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    //variable declarations
+    private ArrayList<ProjectileBall> projectiles;
+    private final ArrayList<ProjectileBall> spareProjectiles = new ArrayList<>(); // Spent projectiles, reused for new shots
+    private long lastShotTime;
+    static final long SHOT_COOLDOWN = 250; // milliseconds between shots
+    static final int STATE_BYTES = 13; // What writeState writes before the projectiles
+    private WeaponType currentWeapon;
+
+    //constructor
+    public Weapons() {
+        this.projectiles = new ArrayList<>(); //stores the bullets/projectiles that are currently on screen, and they are removed or addeded in update()
+        this.lastShotTime = -SHOT_COOLDOWN; // First shot is always allowed
+        this.currentWeapon = WeaponType.BALL;
+    }
+
+    public void shoot(int playerX, int playerY) {
+        shoot(playerX, playerY, System.currentTimeMillis());
+    }
+
+    /**
+     * Shoot using the caller's clock, so the cooldown follows game time rather than wall-clock time
+     */
+    public void shoot(int playerX, int playerY, long currentTime) {
+        if (currentTime - lastShotTime >= SHOT_COOLDOWN) {
+            // Use current weapon at time of shooting (thread-safe for single-threaded game)
+            projectiles.add(obtainProjectile(playerX, playerY - 30, currentWeapon));
+            lastShotTime = currentTime;
+        }
+    }
+
+    /**
+     * Fire a projectile of the given type without a cooldown; used by the endless swarm mode's turrets
+     */
+    void fire(int x, int y, WeaponType weaponType) {
+        projectiles.add(obtainProjectile(x, y, weaponType));
+    }
+
+    private ProjectileBall obtainProjectile(int x, int y, WeaponType weaponType) {
+        if (spareProjectiles.isEmpty()) {
+            return new ProjectileBall(x, y, weaponType);
+        }
+        ProjectileBall projectile = spareProjectiles.remove(spareProjectiles.size() - 1);
+        projectile.reset(x, y, weaponType);
+        return projectile;
+    }
+
+    /**
+     * Keep a projectile that has left the game for a later shot; it must no longer be in the list
+     */
+    void recycle(ProjectileBall projectile) {
+        spareProjectiles.add(projectile);
+    }
+
+    public void switchWeapon() {
+        // Fast weapon switching - no synchronization needed (single-threaded game loop)
+        WeaponType[] weapons = WeaponType.values();
+        int currentIndex = currentWeapon.ordinal();
+        currentWeapon = weapons[(currentIndex + 1) % weapons.length];
+    }
+
+    public WeaponType getCurrentWeapon() {
+        return currentWeapon;
+    }
+    
+    public void setWeapon(WeaponType weaponType) {
+        this.currentWeapon = weaponType;
+    }
+
+    public void update() {
+        int kept = 0;
+        for (int i = 0; i < projectiles.size(); i++) {
+            ProjectileBall projectile = projectiles.get(i);
+            projectile.update();
+
+            // Remove projectiles that are off screen (compacting in place, which stays cheap with thousands)
+            if (projectile.getY() >= 0) {
+                projectiles.set(kept++, projectile);
+            } else {
+                recycle(projectile);
+            }
+        }
+        GameSimulation.truncate(projectiles, kept);
+    }
+
+    public ArrayList<ProjectileBall> getProjectiles() {
+        return projectiles;
+    }
+
+    public void removeProjectile(ProjectileBall projectile) {
+        projectiles.remove(projectile);
+    }
+
+    void writeState(ByteBuffer buffer) {
+        buffer.put((byte) currentWeapon.ordinal());
+        buffer.putLong(lastShotTime);
+        buffer.putInt(projectiles.size());
+        for (ProjectileBall projectile : projectiles) {
+            projectile.writeState(buffer);
+        }
+    }
+
+    void readState(ByteBuffer buffer) {
+        currentWeapon = WeaponType.values()[buffer.get()];
+        lastShotTime = buffer.getLong();
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalStateException("Invalid projectile count: " + count);
+        }
+        projectiles.clear();
+        for (int i = 0; i < count; i++) {
+            projectiles.add(ProjectileBall.readState(buffer));
+        }
+    }
+
+    //CLASS PROJECTILEBALL
+    public static class ProjectileBall {
+        static final int STAR_SIZE = 16;
+        static final int ARROW_SIZE = 18;
+        static final int STATE_BYTES = 17; // What writeState writes
+
+        private double x;
+        private double y;
+        private double speed;
+        private int size;
+        private WeaponType weaponType;
+
+        public ProjectileBall(int startX, int startY, WeaponType weaponType) {
+            reset(startX, startY, weaponType);
+        }
+
+        /**
+         * Start over as a newly fired projectile
+         */
+        void reset(int startX, int startY, WeaponType weaponType) {
+            this.x = startX;
+            this.y = startY;
+            this.speed = 8.0;
+            this.weaponType = weaponType;
+
+            switch (weaponType) {
+                case BALL:
+                    this.size = 12;
+                    break;
+                case STAR:
+                    this.size = STAR_SIZE;
+                    break;
+                case SPIKY_BALL:
+                    this.size = 14;
+                    break;
+                case ARROW:
+                    this.size = ARROW_SIZE;
+                    break;
+            }
+        }
+
+        // Backward compatibility constructor
+        public ProjectileBall(int startX, int startY) {
+            this(startX, startY, WeaponType.BALL);
+        }
+
+        public void update() {
+            y -= speed;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public int getSize() {
+            return size;
+        }
+        
+        public WeaponType getWeaponType() {
+            return weaponType;
+        }
+
+        /**
+         * Become a copy of another projectile, for render snapshots
+         */
+        void copyFrom(ProjectileBall other) {
+            x = other.x;
+            y = other.y;
+            speed = other.speed;
+            size = other.size;
+            weaponType = other.weaponType;
+        }
+
+        void writeState(ByteBuffer buffer) {
+            buffer.putDouble(x);
+            buffer.putDouble(y);
+            buffer.put((byte) weaponType.ordinal());
+        }
+
+        static ProjectileBall readState(ByteBuffer buffer) {
+            double x = buffer.getDouble();
+            double y = buffer.getDouble();
+            ProjectileBall projectile = new ProjectileBall(0, 0, WeaponType.values()[buffer.get()]);
+            projectile.x = x;
+            projectile.y = y;
+            return projectile;
+        }
+
+        public boolean collidesWith(Virus virus) {
+            int reach = size / 2 + virus.getSize() / 2;
+            double dx = x - virus.getX();
+            double dy = y - virus.getY();
+            if (Math.abs(dx) >= reach || Math.abs(dy) >= reach) {
+                return false; // Too far apart on one axis; skips the square root for almost every pair
+            }
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            return distance < reach;
+        }
+    }
+}
\ No newline at end of file
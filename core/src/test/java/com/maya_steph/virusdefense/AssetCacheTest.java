@@ -0,0 +1,105 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Tests for AssetCache
+ */
+public class AssetCacheTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testStoredAssetIsReadBackInsteadOfGenerated() {
+        AtomicInteger generated = new AtomicInteger();
+        AssetCache first = new AssetCache(directory);
+        byte[] data = first.getBytes(AssetCache.key("tone", 400, 30), () -> {
+            generated.incrementAndGet();
+            return new byte[]{1, 2, 3, 4};
+        });
+        first.flush();
+
+        // A new cache over the same directory, as on the next launch
+        AssetCache second = new AssetCache(directory);
+        byte[] again = second.getBytes(AssetCache.key("tone", 400, 30), () -> {
+            generated.incrementAndGet();
+            return new byte[0];
+        });
+        assertArrayEquals(data, again);
+        assertEquals(1, generated.get());
+        assertEquals(1, second.getHits());
+    }
+
+    @Test
+    void testChangedParametersAreGeneratedAfresh() {
+        AssetCache cache = new AssetCache(directory);
+        cache.getBytes(AssetCache.key("tone", 400, 30), () -> new byte[]{1});
+        cache.flush();
+        byte[] other = cache.getBytes(AssetCache.key("tone", 400, 31), () -> new byte[]{2});
+        assertArrayEquals(new byte[]{2}, other);
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        cache.flush(); // Before the directory is deleted
+    }
+
+    @Test
+    void testReadIsReadOnly() {
+        AssetCache cache = new AssetCache(directory);
+        cache.writeAsync("key", new byte[]{5, 6});
+        cache.flush();
+        ByteBuffer stored = cache.read("key");
+        assertEquals(2, stored.remaining());
+        assertTrue(stored.isReadOnly());
+    }
+
+    @Test
+    void testAssetCanBeReplacedWhileAnEarlierReadIsInUse() {
+        AssetCache cache = new AssetCache(directory);
+        cache.writeAsync("key", new byte[]{1, 2});
+        cache.flush();
+        ByteBuffer earlier = cache.read("key");
+        assertFalse(earlier.isDirect(), "No file mapping is kept alive");
+
+        cache.writeAsync("key", new byte[]{3, 4, 5});
+        cache.flush();
+        ByteBuffer replaced = cache.read("key");
+        assertEquals(3, replaced.remaining());
+        assertEquals(3, replaced.get(0));
+        assertEquals(1, earlier.get(0));
+    }
+
+    @Test
+    void testDamagedFileIsTreatedAsMissing() throws IOException {
+        AssetCache cache = new AssetCache(directory);
+        cache.writeAsync("key", new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        cache.flush();
+        try (Stream<Path> files = Files.walk(directory)) {
+            Path file = files.filter(f -> f.toString().endsWith(".asset")).findFirst().orElseThrow();
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[bytes.length - 1] ^= 0x7F;
+            Files.write(file, bytes);
+        }
+        assertNull(cache.read("key"));
+        assertArrayEquals(new byte[]{9}, cache.getBytes("key", () -> new byte[]{9}));
+        cache.flush();
+    }
+
+    @Test
+    void testDisabledCacheAlwaysGenerates() {
+        AssetCache cache = new AssetCache(null);
+        assertFalse(cache.isEnabled());
+        cache.writeAsync("key", new byte[]{1});
+        cache.flush();
+        assertNull(cache.read("key"));
+        assertArrayEquals(new byte[]{2}, cache.getBytes("key", () -> new byte[]{2}));
+    }
+}
@@ -0,0 +1,81 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for GameEvents, with an in-process Flight Recorder recording
+ */
+public class GameEventsTest {
+    private static Configuration bundledSettings() throws Exception {
+        try (Reader reader = new InputStreamReader(GameEventsTest.class.getResourceAsStream("/heartattack.jfc"), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    @Test
+    void testNothingIsCreatedWithoutARecording() {
+        assertNull(GameEvents.beginTick());
+        assertNull(GameEvents.beginCollisionPass(1, 1));
+        assertNull(GameEvents.beginPaint("world"));
+        assertNull(GameEvents.quizShown("q1"));
+    }
+
+    @Test
+    void testBundledSettingsEnableTheGameEvents() throws Exception {
+        Configuration settings = bundledSettings();
+        assertEquals("HeartAttack", settings.getLabel());
+        for (String event : new String[]{"Tick", "CollisionPass", "Spawn", "RoundAdvanced", "QuizShown", "QuizAnswered", "PaintPhase", "Sound"}) {
+            assertEquals("true", settings.getSettings().get("heartattack." + event + "#enabled"), event);
+        }
+    }
+
+    @Test
+    void testSimulationEventsAreRecorded(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("game.jfr");
+        GameSimulation simulation = new GameSimulation();
+        try (Recording recording = new Recording(bundledSettings())) {
+            recording.start();
+            simulation.setLogging(false);
+            simulation.startNewGame(4L);
+            for (int tick = 0; tick < 600 && !simulation.isGameOver(); tick++) {
+                for (GameInput input : TestBot.inputs(simulation)) {
+                    simulation.applyInput(input);
+                }
+                simulation.update();
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> ticks = named(events, "heartattack.Tick");
+        assertEquals(simulation.getTick(), ticks.size());
+        // Events are not stored in order, so find the last tick by its number
+        RecordedEvent last = ticks.stream().max(Comparator.comparingLong(e -> e.getLong("tick"))).orElseThrow();
+        assertEquals(simulation.getTick(), last.getLong("tick"));
+        assertEquals(simulation.getViruses().size(), last.getInt("viruses"));
+        assertTrue(last.getInt("round") >= 1);
+        assertFalse(named(events, "heartattack.Spawn").isEmpty());
+        assertFalse(named(events, "heartattack.CollisionPass").isEmpty());
+        assertTrue(named(events, "heartattack.CollisionPass").stream().anyMatch(e -> e.getInt("hits") > 0));
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).collect(Collectors.toList());
+    }
+}
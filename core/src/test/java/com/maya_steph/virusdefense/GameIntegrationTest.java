@@ -4,6 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
 /**
  * Integration tests for game components working together
  */
@@ -128,5 +131,29 @@ public class GameIntegrationTest {
         }
         assertTrue(player.getX() <= screenWidth - laneWidth / 2);
     }
+    
+    @Test
+    void testSilentSimulationPrintsNothingAcrossRounds() {
+        GameSimulation simulation = new GameSimulation(7L);
+        simulation.setLogging(false);
+        PrintStream savedOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true));
+        try {
+            simulation.startNewGame(7L); // A new game gets a new round manager, which must stay quiet too
+            for (int i = 0; i < 20000 && simulation.getRoundManager().getCurrentRound() < 3; i++) {
+                if (simulation.isGameOver()) {
+                    simulation.startNewGame(simulation.getSeed() + 1);
+                }
+                for (GameInput input : TestBot.inputs(simulation)) {
+                    simulation.applyInput(input);
+                }
+                simulation.update();
+            }
+        } finally {
+            System.setOut(savedOut);
+        }
+        assertTrue(simulation.getRoundManager().getCurrentRound() >= 3, "The bot should reach round 3");
+        assertEquals("", out.toString());
+    }
 }
-
@@ -0,0 +1,136 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Tests for the binary game-state snapshot codec
+ */
+public class GameSnapshotTest {
+    private GameSimulation simulation;
+
+    @BeforeEach
+    void setUp() {
+        simulation = new GameSimulation(42L);
+        simulation.getOverlay().startMovingBackground();
+    }
+
+    private void playSomeTicks() {
+        for (int i = 0; i < 3; i++) {
+            simulation.spawnVirus();
+        }
+        simulation.selectWeapon(Weapons.WeaponType.STAR);
+        simulation.movePlayerLeft();
+        simulation.shoot();
+        for (int i = 0; i < 20; i++) {
+            simulation.update();
+        }
+        simulation.loseLife(false);
+    }
+
+    @Test
+    void testRoundTripRestoresWorld() throws IOException {
+        playSomeTicks();
+        byte[] data = GameSnapshot.toBytes(simulation);
+
+        GameSimulation restored = new GameSimulation(7L);
+        GameSnapshot.fromBytes(data, restored);
+
+        assertEquals(simulation.getTick(), restored.getTick());
+        assertEquals(simulation.getLives(), restored.getLives());
+        assertEquals(simulation.getPlayer().getX(), restored.getPlayer().getX());
+        assertEquals(simulation.getRoundManager().getVirusesSpawnedThisRound(), restored.getRoundManager().getVirusesSpawnedThisRound());
+        assertEquals(Weapons.WeaponType.STAR, restored.getWeapons().getCurrentWeapon());
+        assertEquals(simulation.getWeapons().getProjectiles().size(), restored.getWeapons().getProjectiles().size());
+        assertEquals(simulation.getViruses().size(), restored.getViruses().size());
+        for (int i = 0; i < simulation.getViruses().size(); i++) {
+            Virus expected = simulation.getViruses().get(i);
+            Virus actual = restored.getViruses().get(i);
+            assertEquals(expected.getX(), actual.getX());
+            assertEquals(expected.getY(), actual.getY(), 0.0);
+            assertEquals(expected.getVirusType(), actual.getVirusType());
+            assertEquals(expected.getHitCount(), actual.getHitCount());
+        }
+        assertTrue(restored.getOverlay().isShaking());
+
+        // Re-encoding the restored world must give identical bytes
+        assertArrayEquals(data, GameSnapshot.toBytes(restored));
+    }
+
+    @Test
+    void testRestoredWorldContinuesIdentically() throws IOException {
+        playSomeTicks();
+        GameSimulation restored = new GameSimulation(99L);
+        GameSnapshot.fromBytes(GameSnapshot.toBytes(simulation), restored);
+
+        // Random state is part of the snapshot, so future spawns must match as well
+        for (int i = 0; i < 5; i++) {
+            simulation.spawnVirus();
+            restored.spawnVirus();
+        }
+        for (int i = 0; i < 100; i++) {
+            simulation.update();
+            restored.update();
+        }
+        assertArrayEquals(GameSnapshot.toBytes(simulation), GameSnapshot.toBytes(restored));
+    }
+
+    @Test
+    void testEncodedSizeStaysWithinEstimate() {
+        playSomeTicks();
+        ByteBuffer buffer = ByteBuffer.allocate(GameSnapshot.maxEncodedSize(simulation));
+        GameSnapshot.write(simulation, buffer);
+        assertTrue(buffer.position() <= buffer.capacity());
+    }
+
+    @Test
+    void testEstimateIsTheWrittenSizeForEmptyAndFullWorlds() {
+        assertEquals(GameSnapshot.maxEncodedSize(simulation), GameSnapshot.toBytes(simulation).length);
+
+        for (int i = 0; i < 50; i++) {
+            simulation.getViruses().add(new Virus(100, i * 10, 2.0, Virus.VirusType.STAR_VIRUS));
+            simulation.getWeapons().shoot(300, 700, i * Weapons.SHOT_COOLDOWN);
+        }
+        simulation.getOverlay().triggerLifeLossShakeAndRedOverlay();
+        assertEquals(50, simulation.getViruses().size());
+        assertEquals(50, simulation.getWeapons().getProjectiles().size());
+        assertEquals(GameSnapshot.maxEncodedSize(simulation), GameSnapshot.toBytes(simulation).length);
+    }
+
+    @Test
+    void testRejectsWrongMagic() {
+        byte[] data = GameSnapshot.toBytes(simulation);
+        data[0] = 0;
+        assertThrows(IOException.class, () -> GameSnapshot.fromBytes(data, new GameSimulation()));
+    }
+
+    @Test
+    void testRejectsUnknownVersion() {
+        byte[] data = GameSnapshot.toBytes(simulation);
+        data[5] = 99;
+        assertThrows(IOException.class, () -> GameSnapshot.fromBytes(data, new GameSimulation()));
+    }
+
+    @Test
+    void testRejectsTruncatedData() {
+        playSomeTicks();
+        byte[] data = GameSnapshot.toBytes(simulation);
+        byte[] truncated = Arrays.copyOf(data, data.length - 10);
+        assertThrows(IOException.class, () -> GameSnapshot.fromBytes(truncated, new GameSimulation()));
+    }
+
+    @Test
+    void testRejectsOtherWaveDefinitions() throws IOException {
+        playSomeTicks();
+        byte[] data = GameSnapshot.toBytes(simulation);
+        GameSimulation other = new GameSimulation();
+        other.setWaves(WaveDefinitions.parse(new StringReader("{\"waves\": [{\"count\": 2, \"intervalMs\": 500, \"speed\": 3}]}")));
+        assertThrows(IOException.class, () -> GameSnapshot.fromBytes(data, other));
+    }
+}
@@ -0,0 +1,124 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for InputQueue
+ */
+public class InputQueueTest {
+    private final InputQueue queue = new InputQueue();
+
+    private List<GameInput> ticks(int count) {
+        List<GameInput> applied = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            queue.sample(applied::add);
+        }
+        return applied;
+    }
+
+    @Test
+    void testTapActsOnce() {
+        queue.press(GameInput.MOVE_LEFT);
+        queue.release(GameInput.MOVE_LEFT); // Released before the tick
+        assertEquals(List.of(GameInput.MOVE_LEFT), ticks(100));
+        assertFalse(queue.isHeld(GameInput.MOVE_LEFT));
+    }
+
+    @Test
+    void testPressesKeepTheirOrder() {
+        queue.press(GameInput.SELECT_STAR);
+        queue.press(GameInput.SHOOT);
+        queue.release(GameInput.SHOOT);
+        queue.press(GameInput.SWITCH_WEAPON);
+        assertEquals(List.of(GameInput.SELECT_STAR, GameInput.SHOOT, GameInput.SWITCH_WEAPON), ticks(1));
+    }
+
+    @Test
+    void testHeldFireFollowsTheCooldown() {
+        queue.press(GameInput.SHOOT);
+        List<GameInput> applied = ticks(InputQueue.SHOOT_REPEAT_TICKS * 10);
+        assertEquals(10, applied.size(), "The press and then one shot per repeat");
+
+        // Each repeat comes as soon as the weapon is ready, not before
+        assertTrue(InputQueue.SHOOT_REPEAT_TICKS * GameSimulation.TICK_MILLIS >= Weapons.SHOT_COOLDOWN);
+        assertTrue((InputQueue.SHOOT_REPEAT_TICKS - 1) * GameSimulation.TICK_MILLIS < Weapons.SHOT_COOLDOWN);
+    }
+
+    @Test
+    void testHeldMoveRepeatsAfterADelay() {
+        queue.press(GameInput.MOVE_RIGHT);
+        assertEquals(1, ticks(InputQueue.MOVE_REPEAT_DELAY_TICKS).size());
+        assertEquals(1, ticks(1).size());
+        assertEquals(0, ticks(InputQueue.MOVE_REPEAT_TICKS - 1).size());
+        assertEquals(1, ticks(1).size());
+
+        queue.release(GameInput.MOVE_RIGHT);
+        assertEquals(0, ticks(100).size());
+    }
+
+    @Test
+    void testSystemKeyRepeatsAreIgnored() {
+        queue.press(GameInput.SHOOT);
+        List<GameInput> applied = new ArrayList<>();
+        for (int tick = 0; tick <= InputQueue.SHOOT_REPEAT_TICKS; tick++) {
+            // Windows and macOS repeat presses; X11 repeats a release and a press together
+            queue.press(GameInput.SHOOT);
+            queue.release(GameInput.SHOOT);
+            queue.press(GameInput.SHOOT);
+            queue.sample(applied::add);
+        }
+        assertEquals(2, applied.size(), "The press and one repeat on the game's own schedule");
+        assertTrue(queue.isHeld(GameInput.SHOOT));
+    }
+
+    @Test
+    void testNewPressRestartsTheSchedule() {
+        queue.press(GameInput.SHOOT);
+        ticks(InputQueue.SHOOT_REPEAT_TICKS - 1);
+        queue.release(GameInput.SHOOT);
+        ticks(1);
+        queue.press(GameInput.SHOOT);
+        assertEquals(1, ticks(InputQueue.SHOOT_REPEAT_TICKS - 1).size());
+    }
+
+    @Test
+    void testReleaseAllAndClear() {
+        queue.press(GameInput.MOVE_LEFT);
+        queue.press(GameInput.SHOOT);
+        ticks(1);
+        queue.releaseAll();
+        assertEquals(0, ticks(100).size());
+
+        queue.press(GameInput.SHOOT);
+        queue.press(GameInput.SELECT_BALL);
+        queue.clear();
+        assertEquals(0, ticks(100).size());
+    }
+
+    @Test
+    void testHeldFireIsTheSameInEveryRun() {
+        // The same key timeline, as ticks, gives the same game
+        assertEquals(play(), play());
+    }
+
+    private static int play() {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLogging(false);
+        simulation.startNewGame(9L);
+        InputQueue queue = new InputQueue();
+        for (int tick = 0; tick < 600 && !simulation.isGameOver(); tick++) {
+            if (tick == 10) {
+                queue.press(GameInput.SHOOT);
+            } else if (tick == 400) {
+                queue.release(GameInput.SHOOT);
+            }
+            queue.sample(simulation::applyInput);
+            simulation.update();
+        }
+        return simulation.getVirusesDestroyed() * 1000 + simulation.getWeapons().getProjectiles().size();
+    }
+}
@@ -0,0 +1,85 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LatencyTracker and LatencyHistogram
+ */
+public class LatencyTrackerTest {
+    @Test
+    void testPressIsFollowedToItsSoundAndFrame() {
+        LatencyTracker tracker = new LatencyTracker();
+        long arrival = System.nanoTime();
+        tracker.pressApplied(arrival, 50);
+        tracker.soundTriggered(49); // An earlier tick's sound
+        assertEquals(0, tracker.getArrivalToSound().getCount());
+        tracker.soundTriggered(50);
+        tracker.soundTriggered(50); // Only the first sound counts
+        assertEquals(1, tracker.getArrivalToSound().getCount());
+
+        tracker.framePresented(50); // Drawn before the press's tick was simulated
+        assertEquals(0, tracker.getArrivalToFrame().getCount());
+        tracker.framePresented(51);
+        assertEquals(1, tracker.getArrivalToFrame().getCount());
+        assertEquals(0, tracker.getPendingCount());
+        assertEquals(1, tracker.getArrivalToTick().getCount());
+    }
+
+    @Test
+    void testInputQueueReportsPressesWithTheirArrival() {
+        LatencyTracker tracker = new LatencyTracker();
+        InputQueue queue = new InputQueue();
+        long arrival = System.nanoTime() - 5_000_000;
+        assertTrue(queue.press(GameInput.SHOOT, arrival));
+        assertFalse(queue.press(GameInput.SHOOT, arrival), "A key repeat is not a new press");
+        for (int tick = 0; tick < 40; tick++) {
+            long currentTick = tick;
+            queue.sample(input -> { }, (input, arrivalNanos) -> tracker.pressApplied(arrivalNanos, currentTick));
+        }
+        // Held repeats are not presses, so they are not measured
+        assertEquals(1, tracker.getArrivalToTick().getCount());
+        assertTrue(tracker.getArrivalToTick().percentileNanos(0.5) >= 5_000_000);
+    }
+
+    @Test
+    void testUnseenPressesAreBounded() {
+        LatencyTracker tracker = new LatencyTracker();
+        for (int i = 0; i < 1000; i++) {
+            tracker.pressApplied(System.nanoTime(), i); // Window minimized: no frames
+        }
+        assertTrue(tracker.getPendingCount() <= 64);
+    }
+
+    @Test
+    void testHistogramPercentilesAndBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(millis * 1_000_000L);
+        }
+        assertEquals(50_000_000L, histogram.percentileNanos(0.5));
+        assertEquals(99_000_000L, histogram.percentileNanos(0.99));
+        assertEquals(100_000_000L, histogram.maxNanos());
+
+        assertEquals(0, LatencyHistogram.bucket(500_000));
+        assertEquals(1, LatencyHistogram.bucket(1_000_000));
+        assertEquals(2, LatencyHistogram.bucket(3_000_000));
+        assertEquals(9, LatencyHistogram.bucket(10_000_000_000L));
+        int total = 0;
+        for (int count : histogram.bucketCounts()) {
+            total += count;
+        }
+        assertEquals(100, total);
+    }
+
+    @Test
+    void testReport() {
+        LatencyTracker tracker = new LatencyTracker();
+        tracker.pressApplied(System.nanoTime() - 2_000_000, 1);
+        String report = tracker.report("unit test");
+        assertTrue(report.startsWith("HeartAttack input latency report"));
+        assertTrue(report.contains("Setup: unit test"));
+        assertTrue(report.contains("arrival to tick: 1 samples"));
+        assertTrue(report.contains("arrival to frame: 0 samples"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for MetricsExporter
+ */
+public class MetricsExporterTest {
+    private static Metrics sampleMetrics() {
+        Metrics metrics = new Metrics();
+        metrics.counter("test_sounds_total", "Sounds played").add(3);
+        metrics.gauge("test_viruses", "Viruses").set(12);
+        Metrics.Histogram ticks = metrics.histogram("test_tick_seconds", "Tick time");
+        ticks.record(2_000_000);
+        ticks.record(3_000_000);
+        return metrics;
+    }
+
+    @Test
+    void testPrometheusText() {
+        try (MetricsExporter exporter = new MetricsExporter(sampleMetrics())) {
+            String text = exporter.prometheusText();
+            assertTrue(text.contains("# TYPE test_sounds_total counter\ntest_sounds_total 3\n"));
+            assertTrue(text.contains("# TYPE test_viruses gauge\ntest_viruses 12\n"));
+            assertTrue(text.contains("# TYPE test_tick_seconds histogram\n"));
+            assertTrue(text.contains("test_tick_seconds_bucket{le=\"+Inf\"} 2\n"));
+            assertTrue(text.contains("test_tick_seconds_count 2\n"));
+            assertTrue(text.contains("test_tick_seconds_sum 0.005\n"));
+            assertTrue(text.contains("heartattack_gc_collections "));
+            // 2 ms and 3 ms both fall below 2^22 ns (4.19 ms), neither below 2^20 ns
+            assertTrue(text.contains("test_tick_seconds_bucket{le=\"0.004194304\"} 2\n"), text);
+            assertTrue(text.contains("test_tick_seconds_bucket{le=\"0.001048576\"} 0\n"), text);
+        }
+    }
+
+    @Test
+    void testHttpEndpoint() throws Exception {
+        try (MetricsExporter exporter = new MetricsExporter(sampleMetrics())) {
+            exporter.startServer(0);
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + exporter.getPort() + "/metrics").openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain"));
+            try (InputStream in = connection.getInputStream()) {
+                String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(body.contains("test_sounds_total 3"));
+            }
+        }
+    }
+
+    @Test
+    void testJmxAttributes() throws Exception {
+        String name = "com.maya_steph.virusdefense:type=Metrics,name=test";
+        try (MetricsExporter exporter = new MetricsExporter(sampleMetrics())) {
+            exporter.registerMBean(name);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            assertEquals(3L, server.getAttribute(objectName, "test_sounds_total"));
+            assertEquals(12.0, server.getAttribute(objectName, "test_viruses"));
+            assertEquals(2L, server.getAttribute(objectName, "test_tick_seconds_count"));
+            assertTrue(server.getMBeanInfo(objectName).getAttributes().length >= 6);
+            ReflectionException e = assertThrows(ReflectionException.class,
+                () -> server.invoke(objectName, "reset", new Object[0], new String[0]));
+            assertTrue(e.getTargetException() instanceof NoSuchMethodException);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(name)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Tests for Metrics
+ */
+public class MetricsTest {
+    @Test
+    void testSameNameGivesTheSameMetric() {
+        Metrics metrics = new Metrics();
+        Metrics.Counter first = metrics.counter("test_total", "A test counter");
+        Metrics.Counter second = metrics.counter("test_total", "A test counter");
+        first.increment();
+        second.add(2);
+        assertSame(first, second);
+        assertEquals(3, first.get());
+        assertEquals(1, metrics.getMetrics().size());
+        assertThrows(IllegalArgumentException.class, () -> metrics.gauge("test_total", "Clash"));
+        assertThrows(IllegalArgumentException.class, () -> metrics.counter("not a name", "Bad"));
+    }
+
+    @Test
+    void testGauges() {
+        Metrics metrics = new Metrics();
+        Metrics.Gauge set = metrics.gauge("test_set", "Set by the game");
+        set.set(42);
+        assertEquals(42, set.get());
+        assertEquals(7, metrics.gauge("test_supplied", "Read when exported", () -> 7).get());
+    }
+
+    @Test
+    void testBucketsAreContiguous() {
+        for (int bucket = 0; bucket < Metrics.Histogram.BUCKETS - 1; bucket++) {
+            long lower = Metrics.Histogram.lowerBound(bucket);
+            long next = Metrics.Histogram.lowerBound(bucket + 1);
+            assertTrue(next > lower, "Bucket " + bucket);
+            assertEquals(bucket, Metrics.Histogram.bucket(lower));
+            assertEquals(bucket, Metrics.Histogram.bucket(next - 1));
+        }
+        assertEquals(Metrics.Histogram.BUCKETS - 1, Metrics.Histogram.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testHistogramPercentilesWithinABucket() {
+        Metrics.Histogram histogram = new Metrics().histogram("test_seconds", "Durations");
+        for (int micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1000L);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000L, histogram.getMaxNanos());
+        long median = histogram.percentileNanos(0.5);
+        assertTrue(Math.abs(median - 5_000_000L) <= 5_000_000L / 8, "Median " + median);
+        long p99 = histogram.percentileNanos(0.99);
+        assertTrue(Math.abs(p99 - 9_900_000L) <= 9_900_000L / 8, "p99 " + p99);
+        assertEquals(1048, histogram.countBelow(1L << 20)); // 1 to 1048 microseconds, exactly
+    }
+
+    @Test
+    void testRecordingDoesNotAllocate() {
+        Metrics metrics = new Metrics();
+        Metrics.Histogram histogram = metrics.histogram("test_seconds", "Durations");
+        Metrics.Counter counter = metrics.counter("test_total", "Count");
+        Metrics.Gauge gauge = metrics.gauge("test_gauge", "Value");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < 20_000; i++) { // Warm up, so the measured loop runs compiled code
+            histogram.record(i * 997L);
+            counter.increment();
+            gauge.set(i);
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100_000; i++) {
+            histogram.record(i * 997L);
+            counter.increment();
+            gauge.set(i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertTrue(allocated < 1024, allocated + " bytes allocated while recording");
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+
 /**
  * Tests for OverlayEffect class
  */
@@ -121,5 +123,47 @@ public class OverlayEffectTest {
             assertTrue(darkness >= 0.0f && darkness <= 1.0f);
         }
     }
+    
+    @Test
+    void testShakeFollowsCurve() {
+        OverlayEffect other = new OverlayEffect();
+        overlay.triggerLifeLossShakeAndRedOverlay();
+        other.triggerLifeLossShakeAndRedOverlay();
+        for (int i = 1; i < 60; i++) {
+            overlay.update();
+            other.update();
+            float intensity = 10.0f * (60 - i) / 60f;
+            assertTrue(Math.abs(overlay.getShakeOffsetX()) <= intensity && Math.abs(overlay.getShakeOffsetY()) <= intensity);
+            assertEquals(overlay.getShakeOffsetX(), other.getShakeOffsetX());
+        }
+        overlay.update();
+        assertFalse(overlay.isShaking());
+    }
+    
+    @Test
+    void testRestoredShakeMatchesTheSavedOne() {
+        overlay.triggerLifeLossShakeAndRedOverlay();
+        for (int i = 0; i < 60; i++) {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            overlay.writeState(buffer);
+            buffer.flip();
+            OverlayEffect restored = new OverlayEffect();
+            restored.readState(buffer);
+            assertEquals(overlay.getShakeOffsetX(), restored.getShakeOffsetX());
+            assertEquals(overlay.getShakeOffsetY(), restored.getShakeOffsetY());
+            overlay.update();
+        }
+    }
+    
+    @Test
+    void testFlashColors() {
+        overlay.triggerNewRoundFlash();
+        overlay.update();
+        assertEquals(0x00FF00, overlay.overlayArgb() & 0xFFFFFF);
+        
+        overlay.reset();
+        overlay.triggerLifeLossFlash();
+        overlay.update();
+        assertEquals(0xFF0000, overlay.overlayArgb() & 0xFFFFFF);
+    }
 }
-
@@ -0,0 +1,68 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ParticleSystem
+ */
+public class ParticleSystemTest {
+
+    @Test
+    void testBudgetIsHard() {
+        ParticleSystem particles = new ParticleSystem(100);
+        Virus virus = new Virus(300, 300, 1.0, Virus.VirusType.STAR_VIRUS);
+        for (int i = 0; i < 20; i++) {
+            particles.virusDestroyed(virus);
+        }
+        assertEquals(100, particles.getCount());
+        assertTrue(particles.getDropped() > 0);
+    }
+
+    @Test
+    void testParticlesFadeOut() {
+        ParticleSystem particles = new ParticleSystem();
+        particles.effectiveHit(100, 100);
+        particles.ineffectiveHit(200, 200);
+        particles.lifeLost(300, 800);
+        assertTrue(particles.getCount() > 0);
+
+        for (int i = 0; i < 100; i++) {
+            particles.update();
+        }
+        assertEquals(0, particles.getCount());
+    }
+
+    @Test
+    void testDisabledSystemEmitsNothing() {
+        ParticleSystem particles = new ParticleSystem();
+        particles.lifeLost(10, 10);
+        particles.setEnabled(false);
+        assertEquals(0, particles.getCount());
+        particles.lifeLost(10, 10);
+        assertEquals(0, particles.getCount());
+    }
+
+    @Test
+    void testSimulationEmitsOnHitsWithoutChangingItsState() {
+        GameSimulation simulation = new GameSimulation(1L);
+        simulation.setLogging(false);
+        simulation.getViruses().add(new Virus(GameSimulation.LANE_WIDTH * 3 / 2, 500, 0.0, Virus.VirusType.ROUND_VIRUS));
+        simulation.selectWeapon(Weapons.WeaponType.STAR);
+        simulation.shoot();
+
+        byte[] before = GameSnapshot.toBytes(simulation);
+        GameSimulation withoutParticles = new GameSimulation(1L);
+        withoutParticles.setLogging(false);
+        withoutParticles.getParticles().setEnabled(false);
+        assertDoesNotThrow(() -> GameSnapshot.fromBytes(before, withoutParticles));
+
+        while (simulation.getParticles().getCount() == 0 && simulation.getTick() < 100) {
+            simulation.update();
+            withoutParticles.update();
+        }
+        assertTrue(simulation.getParticles().getCount() > 0, "Ineffective hit should puff");
+        assertEquals(0, withoutParticles.getParticles().getCount());
+        assertArrayEquals(GameSnapshot.toBytes(withoutParticles), GameSnapshot.toBytes(simulation));
+    }
+}
@@ -0,0 +1,169 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for RenderSnapshot, RenderSnapshotBuffer and SimulationThread
+ */
+public class RenderSnapshotTest {
+    private static GameSimulation startedGame() {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLogging(false);
+        simulation.startNewGame(11L);
+        return simulation;
+    }
+
+    private static void play(GameSimulation simulation, int ticks) {
+        for (int i = 0; i < ticks && !simulation.isGameOver(); i++) {
+            for (GameInput input : TestBot.inputs(simulation)) {
+                simulation.applyInput(input);
+            }
+            simulation.update();
+        }
+    }
+
+    private static GameSimulation busyGame() {
+        GameSimulation simulation = startedGame();
+        // Play on until several viruses are on screen
+        while (simulation.getViruses().size() < 2 && !simulation.isGameOver()) {
+            play(simulation, 1);
+        }
+        return simulation;
+    }
+
+    @Test
+    void testCaptureCopiesTheSimulation() {
+        GameSimulation simulation = busyGame();
+        RenderSnapshot snapshot = RenderSnapshot.of(simulation);
+
+        assertEquals(simulation.getTick(), snapshot.getTick());
+        assertEquals(simulation.getLives(), snapshot.getLives());
+        assertEquals(simulation.getScore(), snapshot.getScore());
+        assertEquals(simulation.getRoundManager().getCurrentRound(), snapshot.getRound());
+        assertEquals(simulation.getPlayer().getX(), snapshot.getPlayer().getX());
+        assertEquals(simulation.getViruses().size(), snapshot.getViruses().size());
+        for (int i = 0; i < snapshot.getViruses().size(); i++) {
+            Virus original = simulation.getViruses().get(i);
+            Virus copy = snapshot.getViruses().get(i);
+            assertNotSame(original, copy);
+            assertEquals(original.getX(), copy.getX());
+            assertEquals(original.getY(), copy.getY());
+            assertEquals(original.getVirusType(), copy.getVirusType());
+        }
+        assertEquals(simulation.getWeapons().getProjectiles().size(), snapshot.getProjectiles().size());
+    }
+
+    @Test
+    void testSnapshotDoesNotFollowTheSimulation() {
+        GameSimulation simulation = busyGame();
+        RenderSnapshot snapshot = RenderSnapshot.of(simulation);
+        long tick = snapshot.getTick();
+        List<Double> heights = new ArrayList<>();
+        for (Virus virus : snapshot.getViruses()) {
+            heights.add(virus.getY());
+        }
+
+        play(simulation, 30);
+
+        assertEquals(tick, snapshot.getTick());
+        for (int i = 0; i < heights.size(); i++) {
+            assertEquals(heights.get(i), snapshot.getViruses().get(i).getY());
+        }
+    }
+
+    @Test
+    void testCaptureReusesEntityCopies() {
+        GameSimulation simulation = busyGame();
+        RenderSnapshot snapshot = RenderSnapshot.of(simulation);
+        assertFalse(snapshot.getViruses().isEmpty());
+        Virus first = snapshot.getViruses().get(0);
+
+        snapshot.capture(simulation);
+
+        assertSame(first, snapshot.getViruses().get(0));
+    }
+
+    @Test
+    void testBufferReturnsTheNewestSnapshot() {
+        GameSimulation simulation = startedGame();
+        RenderSnapshotBuffer buffer = new RenderSnapshotBuffer();
+        for (int i = 0; i < 5; i++) {
+            simulation.update();
+            buffer.publish(simulation);
+        }
+        assertEquals(simulation.getTick(), buffer.latest().getTick());
+        assertEquals(5, buffer.getPublished());
+    }
+
+    @Test
+    void testReaderKeepsItsSnapshotUntilItAsksAgain() {
+        GameSimulation simulation = startedGame();
+        RenderSnapshotBuffer buffer = new RenderSnapshotBuffer();
+        buffer.publish(simulation);
+        RenderSnapshot drawing = buffer.latest();
+        long tick = drawing.getTick();
+
+        // The writer cycles through the other two snapshots, never the one being drawn
+        for (int i = 0; i < 10; i++) {
+            simulation.update();
+            buffer.publish(simulation);
+            assertEquals(tick, drawing.getTick());
+        }
+
+        RenderSnapshot next = buffer.latest();
+        assertNotSame(drawing, next);
+        assertEquals(simulation.getTick(), next.getTick());
+        // Nothing new published, so the reader keeps the same one
+        assertSame(next, buffer.latest());
+    }
+
+    @Test
+    void testSimulationThreadRunsInOrderAndWaits() {
+        try (SimulationThread thread = new SimulationThread(true)) {
+            assertTrue(thread.isSeparateThread());
+            List<Integer> order = new ArrayList<>();
+            thread.tick(() -> order.add(1));
+            thread.run(() -> order.add(2));
+            assertEquals(List.of(1, 2), order);
+            assertEquals("simulation", thread.call(() -> Thread.currentThread().getName()));
+        }
+    }
+
+    @Test
+    void testSimulationThreadDropsTicksWhileOneIsPending() throws InterruptedException {
+        try (SimulationThread thread = new SimulationThread(true)) {
+            CountDownLatch release = new CountDownLatch(1);
+            assertTrue(thread.tick(() -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertFalse(thread.tick(() -> fail("Dropped tick should not run")));
+            release.countDown();
+            thread.run(() -> { });
+            assertTrue(thread.tick(() -> { }));
+        }
+    }
+
+    @Test
+    void testSimulationThreadRethrowsAndRunsInlineWhenDisabled() {
+        try (SimulationThread thread = new SimulationThread(true)) {
+            assertThrows(IllegalArgumentException.class, () -> thread.run(() -> {
+                throw new IllegalArgumentException("bad input");
+            }));
+        }
+        try (SimulationThread inline = new SimulationThread(false)) {
+            assertFalse(inline.isSeparateThread());
+            Thread caller = Thread.currentThread();
+            assertSame(caller, inline.call(Thread::currentThread));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests for Replay, ReplayRecorder and ReplayPlayer
+ */
+public class ReplayTest {
+    private GameSimulation simulation;
+    private ReplayRecorder recorder;
+    private Map<Long, byte[]> recordedStates;
+    private int inputCount;
+
+    @BeforeEach
+    void setUp() {
+        simulation = new GameSimulation();
+        simulation.setLogging(false);
+        simulation.startNewGame(42L);
+        recorder = new ReplayRecorder(simulation);
+        recordedStates = new HashMap<>();
+    }
+
+    private void input(GameInput input) {
+        recorder.recordInput(simulation, input);
+        simulation.applyInput(input);
+        inputCount++;
+    }
+
+    private void play(int ticks) {
+        for (int i = 0; i < ticks && !simulation.isGameOver(); i++) {
+            for (GameInput next : TestBot.inputs(simulation)) {
+                input(next);
+            }
+            simulation.update();
+            recorder.afterTick(simulation);
+            recordedStates.put(simulation.getTick(), GameSnapshot.toBytes(simulation));
+        }
+    }
+
+    @Test
+    void testPlaybackReproducesRun() throws IOException {
+        play(3000);
+        Replay replay = Replay.fromBytes(recorder.finish(simulation).toBytes());
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        while (player.step()) {
+            // Run to the end
+        }
+        assertTrue(player.isFinished());
+        assertTrue(player.matchesRecording(), "Replayed state should match the recorded final state");
+        assertArrayEquals(GameSnapshot.toBytes(simulation), GameSnapshot.toBytes(player.getSimulation()));
+    }
+
+    @Test
+    void testPlaybackPrintsNothing() throws IOException {
+        play(3000);
+        Replay replay = recorder.finish(simulation);
+        PrintStream savedOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true));
+        try {
+            ReplayPlayer player = new ReplayPlayer(replay);
+            player.seek(Long.MAX_VALUE);
+            player.seek(0);
+            while (player.step()) {
+                // Run to the end
+            }
+        } finally {
+            System.setOut(savedOut);
+        }
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    void testSeekMatchesRecordedStates() throws IOException {
+        play(3000);
+        Replay replay = Replay.fromBytes(recorder.finish(simulation).toBytes());
+        assertEquals(6, replay.getKeyframeCount());
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        // Forwards, backwards and onto keyframes
+        for (long tick : new long[] {2999, 17, 1200, 1201, 600, 2400, 1}) {
+            player.seek(tick);
+            assertEquals(tick, player.getSimulation().getTick());
+            assertArrayEquals(recordedStates.get(tick), GameSnapshot.toBytes(player.getSimulation()), "tick " + tick);
+        }
+
+        player.seek(Long.MAX_VALUE);
+        assertTrue(player.matchesRecording());
+    }
+
+    @Test
+    void testSpeedControlsTicksPerFrame() throws IOException {
+        play(1000);
+        ReplayPlayer player = new ReplayPlayer(recorder.finish(simulation));
+
+        assertEquals(1, player.advanceFrame());
+        for (int i = 0; i < 10; i++) {
+            player.faster();
+        }
+        assertEquals(ReplayPlayer.MAX_SPEED, player.getSpeed());
+        assertEquals(64, player.advanceFrame());
+
+        for (int i = 0; i < 20; i++) {
+            player.slower();
+        }
+        assertEquals(ReplayPlayer.MIN_SPEED, player.getSpeed());
+        int ticks = 0;
+        for (int i = 0; i < 8; i++) {
+            ticks += player.advanceFrame();
+        }
+        assertEquals(2, ticks);
+
+        player.togglePaused();
+        assertEquals(0, player.advanceFrame());
+    }
+
+    @Test
+    void testRunEndedByQuizAnswerIncludesFinalInput() throws IOException {
+        play(200);
+        while (!simulation.isGameOver()) {
+            input(GameInput.QUIZ_WRONG_ANSWER);
+        }
+        ReplayPlayer player = new ReplayPlayer(recorder.finish(simulation));
+
+        player.seek(Long.MAX_VALUE);
+        assertTrue(player.getSimulation().isGameOver());
+        assertTrue(player.matchesRecording());
+    }
+
+    @Test
+    void testInputsAreCompact() {
+        play(3000);
+        Replay replay = recorder.finish(simulation);
+
+        // Tick deltas under 128 fit in one byte, plus one byte for the action; only the rare
+        // longer pause between inputs needs a second delta byte
+        long longPauses = simulation.getTick() / 128;
+        assertTrue(replay.getInputs().length <= inputCount * 2 + longPauses,
+            inputCount + " inputs took " + replay.getInputs().length + " bytes");
+    }
+
+    @Test
+    void testCorruptReplayIsRejected() {
+        play(700);
+        byte[] data = recorder.finish(simulation).toBytes();
+
+        assertThrows(IOException.class, () -> Replay.fromBytes(Arrays.copyOf(data, data.length / 2)));
+
+        byte[] wrongMagic = data.clone();
+        wrongMagic[0] ^= 0x01;
+        assertThrows(IOException.class, () -> Replay.fromBytes(wrongMagic));
+    }
+}
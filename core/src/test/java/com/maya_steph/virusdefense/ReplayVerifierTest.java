@@ -0,0 +1,190 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for ReplayVerifier
+ */
+public class ReplayVerifierTest {
+    private static final int TARGET_ROUND = 21; // A full 20-round run
+    private static final long TICK_LIMIT = 200000;
+
+    private ReplayVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new ReplayVerifier(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifier.close();
+    }
+
+    /**
+     * Record a run played by a simple bot that chases the lowest virus with the right weapon
+     */
+    private static Replay recordBotRun(long seed, int targetRound) {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLogging(false);
+        simulation.startNewGame(seed);
+        ReplayRecorder recorder = new ReplayRecorder(simulation);
+
+        while (!simulation.isGameOver()
+                && simulation.getRoundManager().getCurrentRound() < targetRound
+                && simulation.getTick() < TICK_LIMIT) {
+            for (GameInput input : TestBot.inputs(simulation)) {
+                recorder.recordInput(simulation, input);
+                simulation.applyInput(input);
+            }
+            simulation.update();
+            recorder.afterTick(simulation);
+        }
+        return recorder.finish(simulation);
+    }
+
+    @Test
+    void testGenuineRunIsValid() {
+        Replay replay = recordBotRun(7L, 8);
+        byte[] data = replay.toBytes();
+
+        ReplayVerifier.Result result = verifier.verify(data, scoreOf(data));
+        assertTrue(result.isValid(), result.toString());
+        assertEquals(replay.getEndTick(), result.getTicks());
+        assertTrue(result.getScore() > 0);
+    }
+
+    @Test
+    void testTwentyRoundRunVerifiesQuickly() {
+        Replay replay = recordBotRun(11L, TARGET_ROUND);
+        byte[] data = replay.toBytes();
+        int score = scoreOf(data);
+
+        verifier.verify(data, score); // Warm up
+        long start = System.nanoTime();
+        ReplayVerifier.Result result = verifier.verify(data, score);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(result.isValid(), result.toString());
+        assertEquals(TARGET_ROUND, result.getRound(), "The bot should finish 20 rounds");
+        // Generous bound for slow CI machines; on a desktop this takes a few milliseconds
+        assertTrue(elapsedMs < 2000, "Verification took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void testInflatedScoreIsRejected() {
+        byte[] data = recordBotRun(3L, 4).toBytes();
+        int score = scoreOf(data);
+
+        ReplayVerifier.Result result = verifier.verify(data, score + 50);
+        assertEquals(ReplayVerifier.Status.SCORE_MISMATCH, result.getStatus());
+        assertEquals(score, result.getScore());
+    }
+
+    @Test
+    void testEditedInputIsRejected() {
+        Replay replay = recordBotRun(5L, 4);
+        byte[] data = replay.toBytes();
+        int score = scoreOf(data);
+
+        // The last byte of the input stream is the last input's action; turn it into a lost life
+        int inputEnd = 6 + 32 + 4 + replay.getKeyframeCount() * 28 + 8 + replay.getInputs().length;
+        data[inputEnd - 1] = (byte) GameInput.QUIZ_WRONG_ANSWER.ordinal();
+
+        assertEquals(ReplayVerifier.Status.STATE_MISMATCH, verifier.verify(data, score).getStatus());
+    }
+
+    @Test
+    void testEditedStateHashIsRejected() {
+        byte[] data = recordBotRun(5L, 4).toBytes();
+        int score = scoreOf(data);
+
+        data[6 + 16] ^= 0x40; // Final state hash follows the start and end ticks
+
+        assertEquals(ReplayVerifier.Status.STATE_MISMATCH, verifier.verify(data, score).getStatus());
+    }
+
+    @Test
+    void testDoctoredStartingStateIsRejected() {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLogging(false);
+        simulation.startNewGame(9L);
+        // Skip ahead a few rounds before the recording starts
+        for (int i = 0; i < 3; i++) {
+            simulation.getRoundManager().advanceToNextRound();
+        }
+        ReplayRecorder recorder = new ReplayRecorder(simulation);
+        for (int i = 0; i < 100; i++) {
+            simulation.update();
+            recorder.afterTick(simulation);
+        }
+        byte[] data = recorder.finish(simulation).toBytes();
+
+        assertEquals(ReplayVerifier.Status.NOT_A_NEW_GAME, verifier.verify(data, 0).getStatus());
+    }
+
+    @Test
+    void testRunWithOtherWavesIsRejected() throws IOException {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLogging(false);
+        simulation.setWaves(WaveDefinitions.parse(new StringReader(
+            "{\"waves\": [{\"count\": 2, \"intervalMs\": 500, \"speed\": 3}]}")));
+        simulation.startNewGame(13L);
+        ReplayRecorder recorder = new ReplayRecorder(simulation);
+        for (int i = 0; i < 100; i++) {
+            simulation.update();
+            recorder.afterTick(simulation);
+        }
+        byte[] data = recorder.finish(simulation).toBytes();
+
+        assertEquals(ReplayVerifier.Status.WAVES_MISMATCH, verifier.verify(data, simulation.getScore()).getStatus());
+        assertThrows(IOException.class, () -> new ReplayPlayer(Replay.fromBytes(data)));
+    }
+
+    @Test
+    void testCorruptDataIsRejected() {
+        assertEquals(ReplayVerifier.Status.CORRUPT, verifier.verify(new byte[] {1, 2, 3}, 0).getStatus());
+    }
+
+    @Test
+    void testBatchIsVerifiedInParallelInOrder() throws InterruptedException {
+        List<ReplayVerifier.Submission> submissions = new ArrayList<>();
+        List<Integer> scores = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            byte[] data = recordBotRun(100 + i, 6).toBytes();
+            int score = scoreOf(data);
+            scores.add(score);
+            // Every third submission claims one point too many
+            submissions.add(new ReplayVerifier.Submission(data, i % 3 == 0 ? score + 1 : score));
+        }
+
+        List<ReplayVerifier.Result> results = verifier.verifyAll(submissions);
+        assertEquals(submissions.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i % 3 != 0, results.get(i).isValid(), "submission " + i + ": " + results.get(i));
+            assertEquals((int) scores.get(i), results.get(i).getScore());
+        }
+    }
+
+    /**
+     * Score the run really reached, found by playing it back
+     */
+    private static int scoreOf(byte[] data) {
+        try {
+            ReplayPlayer player = new ReplayPlayer(Replay.fromBytes(data));
+            player.getSimulation().setLogging(false);
+            player.seek(Long.MAX_VALUE);
+            return player.getSimulation().getScore();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests for RewindBuffer
+ */
+public class RewindBufferTest {
+    private GameSimulation simulation;
+    private Map<Long, byte[]> expectedFrames;
+
+    @BeforeEach
+    void setUp() {
+        simulation = new GameSimulation(1234L);
+        simulation.getOverlay().startMovingBackground();
+        expectedFrames = new HashMap<>();
+    }
+
+    private void play(RewindBuffer buffer, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            if (simulation.getTick() % 40 == 0) {
+                simulation.spawnVirus();
+            }
+            if (simulation.getTick() % 25 == 0) {
+                simulation.selectWeapon(Weapons.WeaponType.values()[(int) (simulation.getTick() / 25 % 4)]);
+                simulation.shoot();
+            }
+            simulation.update();
+            buffer.record(simulation);
+            expectedFrames.put(simulation.getTick(), GameSnapshot.toBytes(simulation));
+        }
+    }
+
+    @Test
+    void testRestoresEveryTickInWindow() throws IOException {
+        RewindBuffer buffer = new RewindBuffer(120, 30, 256 * 1024, 16 * 1024);
+        play(buffer, 300);
+
+        assertEquals(120, buffer.getFrameCount());
+        assertEquals(300, buffer.getNewestTick());
+        // The window starts at the oldest keyframe that is still stored
+        assertTrue(buffer.getOldestTick() >= 181);
+
+        for (long tick = buffer.getOldestTick(); tick <= 300; tick++) {
+            assertTrue(buffer.contains(tick), "tick " + tick + " should be in the window");
+        }
+        assertFalse(buffer.contains(buffer.getOldestTick() - 1));
+
+        GameSimulation restored = new GameSimulation();
+        buffer.restore(250, restored);
+        assertArrayEquals(expectedFrames.get(250L), GameSnapshot.toBytes(restored));
+    }
+
+    @Test
+    void testRestoreMatchesRecordedStateAtDeltaFrames() throws IOException {
+        RewindBuffer buffer = new RewindBuffer(600, 30, 512 * 1024, 16 * 1024);
+        play(buffer, 400);
+
+        // Restoring truncates newer frames, so walk from newest to oldest
+        for (long tick = 400; tick >= buffer.getOldestTick(); tick -= 7) {
+            GameSimulation restored = new GameSimulation();
+            assertEquals(tick, buffer.restore(tick, restored));
+            assertArrayEquals(expectedFrames.get(tick), GameSnapshot.toBytes(restored), "tick " + tick);
+        }
+    }
+
+    @Test
+    void testRecordingContinuesAfterRestore() throws IOException {
+        RewindBuffer buffer = new RewindBuffer(600, 30, 512 * 1024, 16 * 1024);
+        play(buffer, 200);
+
+        buffer.restore(150, simulation);
+        assertEquals(150, buffer.getNewestTick());
+        play(buffer, 100);
+        assertEquals(250, buffer.getNewestTick());
+
+        GameSimulation restored = new GameSimulation();
+        buffer.restore(220, restored);
+        assertArrayEquals(expectedFrames.get(220L), GameSnapshot.toBytes(restored));
+    }
+
+    @Test
+    void testDeltaFramesAreSmallerThanKeyframes() {
+        RewindBuffer buffer = new RewindBuffer(300, 300, 512 * 1024, 16 * 1024);
+        play(buffer, 300);
+
+        int fullSize = GameSnapshot.toBytes(simulation).length;
+        assertTrue(buffer.getStoredBytes() < fullSize * 300 / 2,
+            "Deltas should store much less than full snapshots, stored " + buffer.getStoredBytes());
+    }
+
+    @Test
+    void testSmallArenaEvictsOldFramesInsteadOfGrowing() throws IOException {
+        RewindBuffer buffer = new RewindBuffer(600, 30, 8 * 1024, 2 * 1024);
+        play(buffer, 600);
+
+        assertTrue(buffer.getStoredBytes() <= buffer.getCapacityBytes());
+        assertTrue(buffer.getFrameCount() < 600);
+        assertEquals(600, buffer.getNewestTick());
+
+        GameSimulation restored = new GameSimulation();
+        long oldest = buffer.getOldestTick();
+        buffer.restore(oldest, restored);
+        assertArrayEquals(expectedFrames.get(oldest), GameSnapshot.toBytes(restored));
+    }
+
+    @Test
+    void testTickBeforeWindowIsRejected() {
+        RewindBuffer buffer = new RewindBuffer(60, 30, 256 * 1024, 16 * 1024);
+        play(buffer, 200);
+
+        assertThrows(IOException.class, () -> buffer.restore(10, new GameSimulation()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Tests for SaveGameStore
+ */
+public class SaveGameStoreTest {
+    @TempDir
+    Path tempDir;
+
+    private SaveGameStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new SaveGameStore(tempDir.resolve("saves"));
+    }
+
+    @Test
+    void testNoSaveInitially() {
+        assertFalse(store.hasSave());
+        assertNull(store.load());
+    }
+
+    @Test
+    void testAsyncSaveAndLoad() throws IOException {
+        GameSimulation simulation = new GameSimulation(1L);
+        simulation.spawnVirus();
+        simulation.update();
+        byte[] data = GameSnapshot.toBytes(simulation);
+
+        store.saveAsync(data);
+        store.flush();
+
+        assertTrue(store.hasSave());
+        GameSimulation restored = new GameSimulation();
+        GameSnapshot.fromBytes(store.load(), restored);
+        assertEquals(1, restored.getViruses().size());
+    }
+
+    @Test
+    void testDeleteRunsAfterPendingSaves() {
+        store.saveAsync(new byte[] {1, 2, 3});
+        store.deleteAsync();
+        store.flush();
+
+        assertFalse(store.hasSave());
+    }
+}
@@ -0,0 +1,74 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StressMonitor
+ */
+public class StressMonitorTest {
+    private long now;
+    private int entities;
+
+    /**
+     * Feed the monitor a number of seconds of frames at a steady rate, adding entities as it goes
+     * @return true if a drop was reported during that time
+     */
+    private boolean run(StressMonitor monitor, double fps, int seconds, int entitiesPerSecond) {
+        boolean reported = false;
+        long frameNanos = (long) (1e9 / fps);
+        int frames = (int) Math.round(fps * seconds);
+        for (int i = 0; i < frames; i++) {
+            now += frameNanos;
+            entities += (int) Math.round(entitiesPerSecond / fps);
+            reported |= monitor.frameFinished(now, entities, 1 + entities / 1000);
+        }
+        return reported;
+    }
+
+    @Test
+    void testSmoothRunDoesNotDrop() {
+        StressMonitor monitor = new StressMonitor();
+        assertFalse(run(monitor, 62.5, 10, 100));
+        assertFalse(monitor.hasDropped());
+        assertEquals(-1, monitor.getDropEntities());
+        assertEquals(62.5, monitor.getLastFps(), 0.5);
+        assertTrue(monitor.report("test").contains("Never stayed below 60 FPS"));
+    }
+
+    @Test
+    void testSustainedDropIsReportedOnceWithEntityCountWhereItStarted() {
+        StressMonitor monitor = new StressMonitor();
+        run(monitor, 62.5, 5, 200);
+        int entitiesAtDrop = entities;
+
+        assertTrue(run(monitor, 40, 4, 200));
+        assertTrue(monitor.hasDropped());
+        assertEquals(entitiesAtDrop, monitor.getDropEntities(), 20);
+
+        assertFalse(run(monitor, 30, 5, 200), "A drop is only reported once");
+        assertTrue(monitor.getPeakEntities() >= entities - 10);
+        assertTrue(monitor.report("test").contains("Below 60 FPS from: " + monitor.getDropEntities() + " entities"));
+    }
+
+    @Test
+    void testShortStutterIsNotADrop() {
+        StressMonitor monitor = new StressMonitor();
+        run(monitor, 62.5, 3, 0);
+        run(monitor, 30, 2, 0);
+        run(monitor, 62.5, 3, 0);
+        run(monitor, 30, 2, 0);
+        assertFalse(monitor.hasDropped());
+    }
+
+    @Test
+    void testKioskNameComesFromProperty() {
+        System.setProperty(StressMonitor.KIOSK_PROPERTY, "lobby-kiosk-2");
+        try {
+            assertEquals("lobby-kiosk-2", StressMonitor.kioskName());
+            assertTrue(new StressMonitor().report("test").contains("Kiosk: lobby-kiosk-2"));
+        } finally {
+            System.clearProperty(StressMonitor.KIOSK_PROPERTY);
+        }
+    }
+}
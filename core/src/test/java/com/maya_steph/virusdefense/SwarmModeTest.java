@@ -0,0 +1,159 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests for SwarmMode, configurable arenas and lane-based collisions
+ */
+public class SwarmModeTest {
+
+    private static GameSimulation start(SwarmMode swarmMode, long seed) {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLogging(false);
+        swarmMode.start(simulation, seed);
+        return simulation;
+    }
+
+    @Test
+    void testLargeArenaUsesEveryLane() {
+        SwarmMode swarmMode = new SwarmMode(new Arena(3840, 1200, 64), 250, 0, 2.0, 0);
+        GameSimulation simulation = start(swarmMode, 1L);
+        Arena arena = simulation.getArena();
+
+        assertEquals(arena.getHeight() - 100, simulation.getPlayer().getY());
+        for (int i = 0; i < 300; i++) {
+            simulation.update();
+        }
+        Set<Integer> lanes = new HashSet<>();
+        for (Virus virus : simulation.getViruses()) {
+            int lane = arena.laneOf(virus.getX());
+            assertEquals(arena.laneCenter(lane), virus.getX());
+            lanes.add(lane);
+        }
+        assertTrue(simulation.getViruses().size() > 1000, "250 viruses per second for ~5 seconds");
+        assertEquals(64, lanes.size());
+
+        for (int i = 0; i < 32; i++) {
+            simulation.movePlayerRight();
+        }
+        assertEquals(arena.laneCenter(63), simulation.getPlayer().getX());
+    }
+
+    @Test
+    void testEndlessModeNeverEnds() {
+        GameSimulation simulation = start(new SwarmMode(new Arena(600, 800, 3), 62.5, 62.5, 4.0, 0), 2L);
+        for (int i = 0; i < 3000; i++) {
+            simulation.update();
+        }
+        assertFalse(simulation.isGameOver());
+        assertEquals(GameSimulation.STARTING_LIVES, simulation.getLives());
+        assertTrue(simulation.getVirusesLeaked() > 0);
+        // Rounds roll over every ten seconds even though the screen never clears
+        assertTrue(simulation.getRoundManager().getCurrentRound() >= 4, "round " + simulation.getRoundManager().getCurrentRound());
+    }
+
+    @Test
+    void testSpawnRateRisesEveryRound() {
+        SwarmMode swarmMode = new SwarmMode(new Arena(1200, 800, 16), 125, 62.5, 2.0, 0);
+        WaveDefinitions waves = swarmMode.waves();
+        assertTrue(waves.validate(16).isEmpty(), waves.validate(16).toString());
+
+        WaveSchedule schedule = new WaveSchedule();
+        for (int round = 1; round <= 5; round++) {
+            schedule.compile(waves, round, 16, round);
+            double seconds = schedule.getLastSpawnTick() * GameSimulation.TICK_MILLIS / 1000.0;
+            assertEquals(swarmMode.spawnRateInRound(round) * SwarmMode.ROUND_SECONDS, schedule.size(), 1.0);
+            assertEquals(SwarmMode.ROUND_SECONDS, seconds, 0.5, "round " + round);
+        }
+    }
+
+    @Test
+    void testTurretsFireFromEveryLane() {
+        SwarmMode swarmMode = new SwarmMode(new Arena(640, 800, 8), 62.5, 0, 2.0, 5);
+        GameSimulation simulation = start(swarmMode, 3L);
+        swarmMode.beforeTick(simulation);
+        assertEquals(8, simulation.getWeapons().getProjectiles().size());
+        simulation.update();
+        swarmMode.beforeTick(simulation); // Not due yet
+        assertEquals(8, simulation.getWeapons().getProjectiles().size());
+    }
+
+    @Test
+    void testLaneCollisionsMatchCheckingEveryPair() throws IOException {
+        // Lanes narrower than a virus, so projectiles regularly hit viruses in neighbouring lanes
+        SwarmMode swarmMode = new SwarmMode(new Arena(640, 800, 64), 500, 0, 3.0, 2);
+        GameSimulation simulation = start(swarmMode, 4L);
+
+        int comparedProjectiles = 0;
+        for (int i = 0; i < 600; i++) {
+            swarmMode.beforeTick(simulation);
+            simulation.update();
+            if (i % 50 != 0) continue;
+
+            byte[] state = GameSnapshot.toBytes(simulation);
+            GameSimulation expected = start(swarmMode, 4L);
+            GameSnapshot.fromBytes(state, expected);
+            GameSimulation actual = start(swarmMode, 4L);
+            GameSnapshot.fromBytes(state, actual);
+
+            int kills = checkEveryPair(expected);
+            comparedProjectiles += expected.getWeapons().getProjectiles().size();
+            actual.checkProjectileCollisions();
+
+            assertEquals(expected.getVirusesDestroyed() + kills, actual.getVirusesDestroyed());
+            assertEquals(describe(expected), describe(actual), "tick " + simulation.getTick());
+        }
+        assertTrue(comparedProjectiles > 0);
+    }
+
+    /**
+     * The original collision check: every projectile against every virus, first virus in the list wins
+     */
+    private static int checkEveryPair(GameSimulation simulation) {
+        ArrayList<Virus> viruses = simulation.getViruses();
+        ArrayList<Weapons.ProjectileBall> projectiles = simulation.getWeapons().getProjectiles();
+        int kills = 0;
+        for (int p = 0; p < projectiles.size(); p++) {
+            Weapons.ProjectileBall projectile = projectiles.get(p);
+            for (int v = 0; v < viruses.size(); v++) {
+                Virus virus = viruses.get(v);
+                if (projectile.collidesWith(virus)) {
+                    projectiles.remove(p--);
+                    if (virus.hitWithWeapon(projectile.getWeaponType()) && virus.isDead()) {
+                        viruses.remove(v);
+                        kills++;
+                    }
+                    break;
+                }
+            }
+        }
+        return kills;
+    }
+
+    private static String describe(GameSimulation simulation) {
+        StringBuilder text = new StringBuilder();
+        for (Virus virus : simulation.getViruses()) {
+            text.append(virus.getX()).append(',').append(virus.getY()).append(',').append(virus.getHitCount()).append(' ');
+        }
+        text.append('|');
+        for (Weapons.ProjectileBall projectile : simulation.getWeapons().getProjectiles()) {
+            text.append(projectile.getX()).append(',').append(projectile.getY()).append(' ');
+        }
+        return text.toString();
+    }
+
+    @Test
+    void testInvalidArenaIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Arena(600, 800, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Arena(10, 800, 64));
+        assertEquals(0, Arena.STANDARD.laneOf(-50));
+        assertEquals(2, Arena.STANDARD.laneOf(5000));
+        assertEquals(300, Arena.STANDARD.laneCenter(1));
+    }
+}
@@ -0,0 +1,46 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for SystemClock's timers, which run without AWT
+ */
+public class SystemClockTest {
+
+    @Test
+    void testOneShotTimerFiresOnceAndStops() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        GameClock.Timer timer = new SystemClock().createTimer(10, false, fired::countDown);
+        assertFalse(timer.isRunning());
+
+        timer.start();
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        assertFalse(timer.isRunning());
+    }
+
+    @Test
+    void testRepeatingTimerKeepsFiringUntilStopped() throws InterruptedException {
+        CountDownLatch firedThreeTimes = new CountDownLatch(3);
+        AtomicInteger fires = new AtomicInteger();
+        GameClock.Timer timer = new SystemClock().createTimer(5, true, () -> {
+            fires.incrementAndGet();
+            firedThreeTimes.countDown();
+            throw new IllegalStateException("A failing action must not stop the timer");
+        });
+
+        timer.start();
+        assertTrue(firedThreeTimes.await(5, TimeUnit.SECONDS));
+        assertTrue(timer.isRunning());
+        timer.stop();
+        assertFalse(timer.isRunning());
+        int afterStop = fires.get();
+        Thread.sleep(50);
+        assertTrue(fires.get() <= afterStop + 1, "At most a fire already under way when stopped");
+    }
+}
@@ -0,0 +1,86 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for VirtualClock: time only moves when advanced, and timers fire when they are due
+ */
+public class VirtualClockTest {
+    @Test
+    void testTimeMovesOnlyWhenAdvanced() {
+        VirtualClock clock = new VirtualClock();
+        assertEquals(0, clock.currentTimeMillis());
+        clock.advance(1500);
+        assertEquals(1500, clock.currentTimeMillis());
+        assertEquals(1_500_000_000L, clock.nanoTime());
+        assertThrows(IllegalArgumentException.class, () -> clock.advance(-1));
+    }
+
+    @Test
+    void testOneShotTimerFiresOnceAtItsDueTime() {
+        VirtualClock clock = new VirtualClock();
+        List<Long> fired = new ArrayList<>();
+        GameClock.Timer timer = clock.createTimer(2000, false, () -> fired.add(clock.currentTimeMillis()));
+        clock.advance(1000); // Not started yet
+        timer.start();
+        clock.advance(1999);
+        assertTrue(fired.isEmpty());
+        assertTrue(timer.isRunning());
+
+        clock.advance(5000);
+        assertEquals(List.of(3000L), fired);
+        assertFalse(timer.isRunning());
+        assertEquals(7999, clock.currentTimeMillis());
+    }
+
+    @Test
+    void testRepeatingTimerFiresEveryDelay() {
+        VirtualClock clock = new VirtualClock();
+        List<Long> fired = new ArrayList<>();
+        GameClock.Timer timer = clock.createTimer(16, true, () -> fired.add(clock.currentTimeMillis()));
+        timer.start();
+        clock.advance(50);
+        assertEquals(List.of(16L, 32L, 48L), fired);
+
+        timer.stop();
+        clock.advance(100);
+        assertEquals(3, fired.size());
+    }
+
+    @Test
+    void testTimersFireInOrderAndCanStopEachOther() {
+        VirtualClock clock = new VirtualClock();
+        List<String> fired = new ArrayList<>();
+        GameClock.Timer late = clock.createTimer(300, false, () -> fired.add("late"));
+        GameClock.Timer ticking = clock.createTimer(100, true, () -> fired.add("tick"));
+        GameClock.Timer pause = clock.createTimer(250, false, () -> {
+            fired.add("pause");
+            ticking.stop();
+        });
+        late.start();
+        ticking.start();
+        pause.start();
+
+        clock.advance(1000);
+
+        assertEquals(List.of("tick", "tick", "pause", "late"), fired);
+        assertEquals(0, clock.getRunningTimerCount());
+    }
+
+    @Test
+    void testTimerStartedByAnActionFiresInTheSameAdvance() {
+        VirtualClock clock = new VirtualClock();
+        List<Long> fired = new ArrayList<>();
+        GameClock.Timer second = clock.createTimer(2000, false, () -> fired.add(clock.currentTimeMillis()));
+        GameClock.Timer first = clock.createTimer(1000, false, second::start);
+        first.start();
+
+        clock.advance(3000);
+
+        assertEquals(List.of(3000L), fired);
+    }
+}
@@ -2,7 +2,6 @@ package com.maya_steph.virusdefense;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import java.awt.Color;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
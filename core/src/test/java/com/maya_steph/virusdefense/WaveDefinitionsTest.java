@@ -0,0 +1,144 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Tests for WaveDefinitions
+ */
+public class WaveDefinitionsTest {
+
+    private static WaveDefinitions shippedWaves() throws IOException {
+        return WaveDefinitions.parse(new InputStreamReader(
+            WaveDefinitionsTest.class.getClassLoader().getResourceAsStream("waves.json"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testShippedFileMatchesBuiltInDefaults() throws IOException {
+        WaveDefinitions shipped = shippedWaves();
+        WaveDefinitions defaults = WaveDefinitions.defaults();
+        WaveSchedule fromFile = new WaveSchedule();
+        WaveSchedule fromDefaults = new WaveSchedule();
+
+        for (int round = 1; round <= 30; round++) {
+            fromFile.compile(shipped, round, GameSimulation.LANE_COUNT, round);
+            fromDefaults.compile(defaults, round, GameSimulation.LANE_COUNT, round);
+            assertEquals(fromDefaults.size(), fromFile.size(), "round " + round);
+            assertEquals(fromDefaults.getRoundSpeed(), fromFile.getRoundSpeed(), 0.0001, "round " + round);
+            for (int i = 0; i < fromFile.size(); i++) {
+                assertEquals(fromDefaults.getSpawnTick(i), fromFile.getSpawnTick(i));
+                assertEquals(fromDefaults.getLane(i), fromFile.getLane(i));
+                assertEquals(fromDefaults.getType(i), fromFile.getType(i));
+            }
+        }
+        assertTrue(shipped.validate(GameSimulation.LANE_COUNT).isEmpty());
+    }
+
+    @Test
+    void testDefaultsKeepOriginalProgression() {
+        WaveDefinitions defaults = WaveDefinitions.defaults();
+        WaveSchedule schedule = new WaveSchedule();
+        int[] expectedCounts = {3, 5, 7, 10, 13, 16, 19, 22};
+        int[] expectedIntervalsMs = {4000, 3000, 3000, 2000, 2000, 1800, 1600, 1400};
+
+        for (int round = 1; round <= expectedCounts.length; round++) {
+            schedule.compile(defaults, round, GameSimulation.LANE_COUNT, 1L);
+            assertEquals(expectedCounts[round - 1], schedule.size(), "round " + round);
+            assertEquals(1.0 + (round - 1) * 0.3, schedule.getRoundSpeed(), 0.0001, "round " + round);
+            assertEquals(4000 / GameSimulation.TICK_MILLIS, schedule.getSpawnTick(0));
+            assertEquals(expectedIntervalsMs[round - 1] / GameSimulation.TICK_MILLIS,
+                schedule.getSpawnTick(1) - schedule.getSpawnTick(0), "round " + round);
+        }
+
+        // Spawn interval never drops below 800 ms
+        schedule.compile(defaults, 40, GameSimulation.LANE_COUNT, 1L);
+        assertEquals(800 / GameSimulation.TICK_MILLIS, schedule.getSpawnTick(1) - schedule.getSpawnTick(0));
+    }
+
+    @Test
+    void testParsesAllWaveFeatures() throws IOException {
+        String json = "{\"startDelayMs\": 1600, \"waves\": ["
+            + "{\"fromRound\": 1, \"toRound\": 2, \"count\": 6, \"intervalMs\": 1600, \"speed\": 2.0,"
+            + " \"types\": {\"STAR_VIRUS\": 1}, \"lanes\": [2, 0], \"burst\": {\"size\": 3, \"gapMs\": 160}},"
+            + "{\"fromRound\": 3, \"count\": {\"base\": 4, \"perRound\": 1, \"max\": 5}, \"intervalMs\": 800,"
+            + " \"speed\": {\"base\": 1.0, \"perRound\": 0.5}, \"lanes\": \"sweep\"}]}";
+        WaveDefinitions definitions = WaveDefinitions.parse(new StringReader(json));
+
+        assertEquals(1600, definitions.getStartDelayMs());
+        assertEquals(2, definitions.getWaveCount());
+        assertEquals(WaveDefinitions.LanePattern.FIXED, definitions.forRound(2).lanePattern);
+        assertEquals(WaveDefinitions.LanePattern.SWEEP, definitions.forRound(3).lanePattern);
+        assertEquals(5, definitions.forRound(99).count.valueAt(99 - 3), 0.001);
+        assertEquals(2.0, definitions.forRound(3).speed.valueAt(2), 0.001);
+    }
+
+    @Test
+    void testMistakesAreRejected() {
+        String missingCount = "{\"waves\": [{\"fromRound\": 1, \"intervalMs\": 1000, \"speed\": 1}]}";
+        String unknownType = "{\"waves\": [{\"count\": 3, \"intervalMs\": 1000, \"speed\": 1, \"types\": {\"HUGE_VIRUS\": 1}}]}";
+        String roundGap = "{\"waves\": [{\"toRound\": 2, \"count\": 3, \"intervalMs\": 1000, \"speed\": 1},"
+            + "{\"fromRound\": 4, \"count\": 3, \"intervalMs\": 1000, \"speed\": 1}]}";
+        String notJson = "{\"waves\": [";
+
+        for (String json : new String[] {missingCount, unknownType, roundGap, notJson}) {
+            assertThrows(IOException.class, () -> WaveDefinitions.parse(new StringReader(json)), json);
+        }
+    }
+
+    @Test
+    void testValidateChecksLanesAgainstArena() throws IOException {
+        String json = "{\"waves\": [{\"count\": 3, \"intervalMs\": 1000, \"speed\": 1, \"lanes\": [0, 5]}]}";
+        WaveDefinitions definitions = WaveDefinitions.parse(new StringReader(json));
+
+        assertTrue(definitions.validate(8).isEmpty());
+        List<String> problems = definitions.validate(3);
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).contains("lane 5"), problems.get(0));
+    }
+
+    @Test
+    void testCurvesThatFallTooLowAreRejected() throws IOException {
+        String openEndedCount = "{\"waves\": [{\"count\": {\"base\": 5, \"perRound\": -1}, \"intervalMs\": 1000, \"speed\": 1}]}";
+        String openEndedSpeed = "{\"waves\": [{\"count\": 3, \"intervalMs\": 1000, \"speed\": {\"base\": 2, \"perRound\": -0.5, \"min\": 0}}]}";
+        String boundedBurst = "{\"waves\": [{\"toRound\": 4, \"count\": 3, \"intervalMs\": 1000, \"speed\": 1,"
+            + " \"burst\": {\"size\": {\"base\": 3, \"perRound\": -1}}},"
+            + "{\"fromRound\": 5, \"count\": 3, \"intervalMs\": 1000, \"speed\": 1}]}";
+
+        // Rounds after the last wave keep playing it, so its toRound does not bound the decrease
+        String lastWaveBounded = "{\"waves\": [{\"toRound\": 5, \"count\": {\"base\": 5, \"perRound\": -0.5}, \"intervalMs\": 1000, \"speed\": 1}]}";
+        String[] expected = {"count decreases without a minimum", "speed decreases without a minimum",
+            "burst size drops too low by round 4", "count decreases without a minimum"};
+        String[] jsons = {openEndedCount, openEndedSpeed, boundedBurst, lastWaveBounded};
+        for (int i = 0; i < jsons.length; i++) {
+            String json = jsons[i];
+            IOException e = assertThrows(IOException.class, () -> WaveDefinitions.parse(new StringReader(json)), json);
+            assertTrue(e.getMessage().contains(expected[i]), e.getMessage());
+        }
+
+        String flooredCount = "{\"waves\": [{\"count\": {\"base\": 5, \"perRound\": -1, \"min\": 2}, \"intervalMs\": 1000, \"speed\": 1}]}";
+        String shortDecrease = "{\"waves\": [{\"toRound\": 3, \"count\": {\"base\": 5, \"perRound\": -1}, \"intervalMs\": 1000, \"speed\": 1},"
+            + "{\"fromRound\": 4, \"count\": 3, \"intervalMs\": 1000, \"speed\": 1}]}";
+        assertTrue(WaveDefinitions.parse(new StringReader(flooredCount)).validate(8).isEmpty());
+        String boundedInterval = "{\"waves\": [{\"toRound\": 3, \"count\": 3, \"intervalMs\": {\"base\": 1000, \"perRound\": -200}, \"speed\": 1},"
+            + "{\"fromRound\": 4, \"count\": 3, \"intervalMs\": 1000, \"speed\": 1}]}";
+        assertTrue(WaveDefinitions.parse(new StringReader(boundedInterval)).validate(8).isEmpty());
+        assertTrue(WaveDefinitions.parse(new StringReader(shortDecrease)).validate(8).isEmpty());
+    }
+
+    @Test
+    void testHashChangesWithAnyNumber() throws IOException {
+        String json = "{\"waves\": [{\"count\": {\"base\": 4, \"perRound\": 1}, \"intervalMs\": 1000, \"speed\": 1.5}]}";
+        long hash = WaveDefinitions.parse(new StringReader(json)).getHash();
+
+        assertEquals(hash, WaveDefinitions.parse(new StringReader(json)).getHash());
+        assertNotEquals(hash, WaveDefinitions.parse(new StringReader(json.replace("1.5", "1.6"))).getHash());
+        assertNotEquals(hash, WaveDefinitions.parse(new StringReader(json.replace("\"perRound\": 1", "\"perRound\": 2"))).getHash());
+        assertNotEquals(hash, WaveDefinitions.defaults().getHash());
+    }
+}
@@ -0,0 +1,102 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Tests for WaveSchedule
+ */
+public class WaveScheduleTest {
+
+    private static WaveDefinitions waves(String wave) throws IOException {
+        return WaveDefinitions.parse(new StringReader("{\"startDelayMs\": 1600, \"waves\": [" + wave + "]}"));
+    }
+
+    @Test
+    void testBurstsAreSpacedByGapAndInterval() throws IOException {
+        WaveSchedule schedule = new WaveSchedule();
+        schedule.compile(waves("{\"count\": 7, \"intervalMs\": 1600, \"speed\": 1, \"burst\": {\"size\": 3, \"gapMs\": 160}}"),
+            1, 3, 1L);
+
+        int[] expected = {100, 110, 120, 220, 230, 240, 340};
+        assertEquals(expected.length, schedule.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], schedule.getSpawnTick(i), "spawn " + i);
+        }
+    }
+
+    @Test
+    void testLanePatterns() throws IOException {
+        WaveSchedule schedule = new WaveSchedule();
+
+        schedule.compile(waves("{\"count\": 5, \"intervalMs\": 100, \"speed\": 1, \"lanes\": [2, 0]}"), 1, 3, 1L);
+        int[] fixed = {2, 0, 2, 0, 2};
+        for (int i = 0; i < fixed.length; i++) {
+            assertEquals(fixed[i], schedule.getLane(i));
+        }
+
+        schedule.compile(waves("{\"count\": 8, \"intervalMs\": 100, \"speed\": 1, \"lanes\": \"sweep\"}"), 1, 4, 9L);
+        for (int i = 1; i < schedule.size(); i++) {
+            assertEquals((schedule.getLane(i - 1) + 1) % 4, schedule.getLane(i));
+        }
+
+        // Fixed lanes wrap around in a narrower arena
+        schedule.compile(waves("{\"count\": 2, \"intervalMs\": 100, \"speed\": 1, \"lanes\": [4, 5]}"), 1, 3, 1L);
+        assertEquals(1, schedule.getLane(0));
+        assertEquals(2, schedule.getLane(1));
+    }
+
+    @Test
+    void testTypeWeights() throws IOException {
+        WaveSchedule schedule = new WaveSchedule();
+        schedule.compile(waves("{\"count\": 200, \"intervalMs\": 100, \"speed\": 1,"
+            + " \"types\": {\"ARROW_VIRUS\": 3, \"ROUND_VIRUS\": 1}}"), 1, 3, 5L);
+
+        int arrows = 0;
+        for (int i = 0; i < schedule.size(); i++) {
+            Virus.VirusType type = schedule.getType(i);
+            assertTrue(type == Virus.VirusType.ARROW_VIRUS || type == Virus.VirusType.ROUND_VIRUS);
+            if (type == Virus.VirusType.ARROW_VIRUS) {
+                arrows++;
+            }
+        }
+        assertTrue(arrows > 120 && arrows < 180, "About three quarters should be arrows, got " + arrows);
+    }
+
+    @Test
+    void testSameSeedGivesSameSchedule() {
+        WaveDefinitions definitions = WaveDefinitions.defaults();
+        WaveSchedule first = new WaveSchedule();
+        WaveSchedule second = new WaveSchedule();
+        first.compile(definitions, 12, 3, 77L);
+        second.compile(definitions, 12, 3, 77L);
+
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.getLane(i), second.getLane(i));
+            assertEquals(first.getType(i), second.getType(i));
+        }
+    }
+
+    @Test
+    void testCursorFollowsRoundTicks() throws IOException {
+        WaveSchedule schedule = new WaveSchedule(1); // Grows to fit
+        schedule.compile(waves("{\"count\": 3, \"intervalMs\": 160, \"speed\": 1, \"burst\": {\"size\": 2, \"gapMs\": 0}}"),
+            1, 3, 1L);
+
+        assertFalse(schedule.hasDue(99));
+        assertEquals(1, schedule.ticksUntilNext(99));
+        // A burst with no gap spawns together
+        assertTrue(schedule.hasDue(100));
+        schedule.next();
+        assertTrue(schedule.hasDue(100));
+        schedule.next();
+        assertFalse(schedule.hasDue(100));
+        assertEquals(10, schedule.ticksUntilNext(100));
+        schedule.next();
+        assertTrue(schedule.isExhausted());
+        assertEquals(0, schedule.ticksUntilNext(200));
+    }
+}
@@ -0,0 +1,43 @@
+package com.maya_steph.virusdefense;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simple player for tests that need long runs: chases the lowest virus with the weapon it is weak to
+ */
+final class TestBot {
+    private TestBot() {
+    }
+
+    /**
+     * @return the inputs the bot applies before the simulation's next tick
+     */
+    static List<GameInput> inputs(GameSimulation simulation) {
+        List<GameInput> inputs = new ArrayList<>();
+        Virus target = null;
+        for (Virus virus : simulation.getViruses()) {
+            if (target == null || virus.getY() > target.getY()) {
+                target = virus;
+            }
+        }
+        if (target == null) {
+            return inputs;
+        }
+
+        int playerLane = simulation.getPlayer().getX() / GameSimulation.LANE_WIDTH;
+        int targetLane = target.getX() / GameSimulation.LANE_WIDTH;
+        if (targetLane < playerLane) {
+            inputs.add(GameInput.MOVE_LEFT);
+        } else if (targetLane > playerLane) {
+            inputs.add(GameInput.MOVE_RIGHT);
+        }
+        if (simulation.getWeapons().getCurrentWeapon() != target.getWeakness()) {
+            inputs.add(GameInput.selectWeapon(target.getWeakness()));
+        }
+        if (simulation.getTick() % 16 == 0) {
+            inputs.add(GameInput.SHOOT);
+        }
+        return inputs;
+    }
+}
@@ -0,0 +1,97 @@
+package com.maya_steph.virusdefense;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+/**
+ * A prerendered image of the parts of a screen that rarely change (menu text, the quiz card, the
+ * game over card). It is painted once and then copied onto the screen with a single drawImage,
+ * until its key changes, e.g. a different question or a menu option turned on.
+ *
+ * The image is rendered at the screen's scale, so it stays sharp on HiDPI displays.
+ */
+public class CachedLayer {
+    private final int width;
+    private final int height;
+    private final boolean opaque;
+    private BufferedImage image;
+    private Object key;
+    private double scale;
+    private int renders;
+
+    /**
+     * @param opaque true if the painter covers the whole area; translucent layers keep an alpha channel
+     */
+    public CachedLayer(int width, int height, boolean opaque) {
+        this.width = width;
+        this.height = height;
+        this.opaque = opaque;
+    }
+
+    /**
+     * Draw the layer at 0,0, painting it first if the key changed since last time
+     * @param painter draws the layer's contents in width x height coordinates
+     */
+    public void draw(Graphics2D g2d, Object key, Consumer<Graphics2D> painter) {
+        draw(g2d, 0, 0, key, painter);
+    }
+
+    /**
+     * Draw the layer with its top-left corner at x,y, painting it first if the key changed since last time
+     * @param painter draws the layer's contents in width x height coordinates
+     */
+    public void draw(Graphics2D g2d, int x, int y, Object key, Consumer<Graphics2D> painter) {
+        double screenScale = Math.max(1, Math.abs(g2d.getTransform().getScaleX()));
+        if (image == null || screenScale != scale || !key.equals(this.key)) {
+            render(screenScale, painter);
+            this.key = key;
+        }
+        if (scale == 1) {
+            g2d.drawImage(image, x, y, null);
+        } else {
+            g2d.drawImage(image, x, y, width, height, null);
+        }
+    }
+
+    /**
+     * Forget the current contents, e.g. when something the painter draws changed outside the key
+     */
+    public void invalidate() {
+        key = null;
+        image = null;
+    }
+
+    /**
+     * Times the layer has been painted
+     */
+    int getRenders() {
+        return renders;
+    }
+
+    private void render(double screenScale, Consumer<Graphics2D> painter) {
+        int imageWidth = (int) Math.ceil(width * screenScale);
+        int imageHeight = (int) Math.ceil(height * screenScale);
+        if (image == null || image.getWidth() != imageWidth || image.getHeight() != imageHeight) {
+            image = new BufferedImage(imageWidth, imageHeight,
+                    opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        scale = screenScale;
+        Graphics2D g = image.createGraphics();
+        try {
+            if (!opaque) {
+                g.setComposite(AlphaComposite.Clear);
+                g.fillRect(0, 0, imageWidth, imageHeight);
+                g.setComposite(AlphaComposite.SrcOver);
+            }
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.scale(screenScale, screenScale);
+            painter.accept(g);
+        } finally {
+            g.dispose();
+        }
+        renders++;
+    }
+}
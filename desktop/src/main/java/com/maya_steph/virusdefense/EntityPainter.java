@@ -0,0 +1,321 @@
+package com.maya_steph.virusdefense;
+
+import java.awt.*;
+
+/**
+ * Draws the player, viruses and projectiles with Java2D; the entities themselves only know where
+ * they are and what they are.
+ */
+final class EntityPainter {
+    private static final Color BALL_GLOW = new Color(255, 255, 0, 100);
+    private static final Color STAR_GLOW = new Color(0, 255, 255, 100);
+    private static final Color SPIKY_BALL_COLOR = Color.CYAN; // Changed from MAGENTA to CYAN for visibility on red background
+    private static final Color SPIKE_COLOR = SPIKY_BALL_COLOR.darker();
+    private static final BasicStroke ARROW_STROKE = new BasicStroke(3);
+    private static final BasicStroke DEFAULT_STROKE = new BasicStroke(1);
+
+    // By virus type and damage (undamaged, hit once, dying), made once so drawing doesn't create colors
+    private static final Color[][] VIRUS_COLORS = new Color[Virus.VirusType.values().length][];
+    private static final Color[][] VIRUS_DARKER = new Color[VIRUS_COLORS.length][Virus.DAMAGE_LEVELS];
+    private static final Color[][] VIRUS_BRIGHTER = new Color[VIRUS_COLORS.length][Virus.DAMAGE_LEVELS];
+
+    // Spike and star outlines around a virus's center, for the standard size; drawn with a translate
+    private static final int SIZE = Virus.SIZE;
+    private static final int SPIKE_LENGTH = SIZE / 4;
+    private static final int[] TOP_SPIKE_X = {0, -SPIKE_LENGTH / 2, SPIKE_LENGTH / 2};
+    private static final int[] TOP_SPIKE_Y = {-SIZE / 2, -SIZE / 2 - SPIKE_LENGTH, -SIZE / 2 - SPIKE_LENGTH};
+    private static final int[] BOTTOM_SPIKE_Y = {SIZE / 2, SIZE / 2 + SPIKE_LENGTH, SIZE / 2 + SPIKE_LENGTH};
+    private static final int[] LEFT_SPIKE_X = {-SIZE / 2, -SIZE / 2 - SPIKE_LENGTH, -SIZE / 2 - SPIKE_LENGTH};
+    private static final int[] SIDE_SPIKE_Y = {0, -SPIKE_LENGTH / 2, SPIKE_LENGTH / 2};
+    private static final int[] RIGHT_SPIKE_X = {SIZE / 2, SIZE / 2 + SPIKE_LENGTH, SIZE / 2 + SPIKE_LENGTH};
+    private static final int[] ARROW_HEAD_X = {-SIZE / 2, 0, SIZE / 2};
+    private static final int[] ARROW_HEAD_Y = {0, SIZE / 2, 0};
+    private static final int[] ARROW_TAIL_X = {-(SIZE / 4) / 2, 0, (SIZE / 4) / 2};
+    private static final int[] ARROW_TAIL_Y = {-SIZE / 2, -SIZE / 2 - SIZE / 6, -SIZE / 2};
+    private static final int[] STAR_X = new int[12];
+    private static final int[] STAR_Y = new int[12];
+
+    // Projectile star and arrow head outlines around the projectile's center
+    private static final int STAR_SIZE = Weapons.ProjectileBall.STAR_SIZE;
+    private static final int ARROW_SIZE = Weapons.ProjectileBall.ARROW_SIZE;
+    private static final int[] SHOT_STAR_X = new int[10];
+    private static final int[] SHOT_STAR_Y = new int[10];
+    private static final int[] SHOT_ARROW_HEAD_X = {0, -ARROW_SIZE / 4, ARROW_SIZE / 4};
+    private static final int[] SHOT_ARROW_HEAD_Y = {-ARROW_SIZE / 2, -ARROW_SIZE / 4, -ARROW_SIZE / 4};
+
+    static {
+        for (Virus.VirusType type : Virus.VirusType.values()) {
+            Color base = new Color(type.getBaseRgb());
+            // First hit is 60% lighter, dead or nearly dead 80% lighter
+            Color[] colors = {base, lightenColor(base, 0.6f), lightenColor(base, 0.8f)};
+            VIRUS_COLORS[type.ordinal()] = colors;
+            for (int i = 0; i < colors.length; i++) {
+                VIRUS_DARKER[type.ordinal()][i] = colors[i].darker();
+                VIRUS_BRIGHTER[type.ordinal()][i] = colors[i].brighter();
+            }
+        }
+
+        // Star shape with 6 points
+        int radius = SIZE / 2;
+        for (int i = 0; i < 12; i++) {
+            double angle = Math.PI * i / 6.0;
+            int r = (i % 2 == 0) ? radius : radius / 2;
+            STAR_X[i] = (int)(r * Math.cos(angle - Math.PI / 2));
+            STAR_Y[i] = (int)(r * Math.sin(angle - Math.PI / 2));
+        }
+
+        // Star shape with 5 points
+        radius = STAR_SIZE / 2;
+        for (int i = 0; i < 10; i++) {
+            double angle = Math.PI * i / 5.0;
+            int r = (i % 2 == 0) ? radius : radius / 2;
+            SHOT_STAR_X[i] = (int)(r * Math.cos(angle - Math.PI / 2));
+            SHOT_STAR_Y[i] = (int)(r * Math.sin(angle - Math.PI / 2));
+        }
+    }
+
+    private EntityPainter() {}
+
+    static Color getBaseColor(Virus.VirusType type) {
+        return VIRUS_COLORS[type.ordinal()][0];
+    }
+
+    static Color getColor(Virus virus) {
+        return VIRUS_COLORS[virus.getVirusType().ordinal()][virus.getDamageLevel()];
+    }
+
+    static Color getColor(Weapons.ProjectileBall projectile) {
+        switch (projectile.getWeaponType()) {
+            case STAR:
+                return Color.CYAN;
+            case SPIKY_BALL:
+                return SPIKY_BALL_COLOR;
+            case ARROW:
+                return Color.WHITE;
+            default:
+                return Color.YELLOW;
+        }
+    }
+
+    static void draw(Graphics2D g2d, Player player) {
+        int x = player.getX();
+        int y = player.getY();
+        int size = player.getSize();
+        // Draw immune cell as a circle
+        g2d.setColor(Color.CYAN);
+        g2d.fillOval(x - size / 2, y - size / 2, size, size);
+
+        // Draw inner circle for detail
+        g2d.setColor(Color.WHITE);
+        g2d.fillOval(x - size / 4, y - size / 4, size / 2, size / 2);
+    }
+
+    static void draw(Graphics2D g2d, Virus virus) {
+        switch (virus.getVirusType()) {
+            case SPIKY_VIRUS:
+                drawSpikyVirus(g2d, virus);
+                break;
+            case ROUND_VIRUS:
+                drawRoundVirus(g2d, virus);
+                break;
+            case STAR_VIRUS:
+                drawStarVirus(g2d, virus);
+                break;
+            case ARROW_VIRUS:
+                drawArrowVirus(g2d, virus);
+                break;
+        }
+    }
+
+    /**
+     * Cheap version for crowded or zoomed-out screens: a plain square in the virus's current color
+     */
+    static void drawSimple(Graphics2D g2d, Virus virus) {
+        int size = virus.getSize();
+        g2d.setColor(getColor(virus));
+        g2d.fillRect(virus.getX() - size / 2, (int) virus.getY() - size / 2, size, size);
+    }
+
+    static void draw(Graphics2D g2d, Weapons.ProjectileBall projectile) {
+        switch (projectile.getWeaponType()) {
+            case BALL:
+                drawBall(g2d, projectile);
+                break;
+            case STAR:
+                drawStar(g2d, projectile);
+                break;
+            case SPIKY_BALL:
+                drawSpikyBall(g2d, projectile);
+                break;
+            case ARROW:
+                drawArrow(g2d, projectile);
+                break;
+        }
+    }
+
+    /**
+     * Cheap version for crowded or zoomed-out screens: a plain square in the projectile's color
+     */
+    static void drawSimple(Graphics2D g2d, Weapons.ProjectileBall projectile) {
+        int size = projectile.getSize();
+        g2d.setColor(getColor(projectile));
+        g2d.fillRect((int) projectile.getX() - size / 2, (int) projectile.getY() - size / 2, size, size);
+    }
+
+    private static void drawSpikyVirus(Graphics2D g2d, Virus virus) {
+        int x = virus.getX();
+        int y = (int) virus.getY();
+        int size = virus.getSize();
+        // Draw virus as a circle with spikes
+        g2d.setColor(getColor(virus));
+        g2d.fillOval(x - size / 2, y - size / 2, size, size);
+
+        // Draw spikes (simple triangles): top, bottom, left and right
+        g2d.setColor(VIRUS_DARKER[virus.getVirusType().ordinal()][virus.getDamageLevel()]);
+        g2d.translate(x, y);
+        g2d.fillPolygon(TOP_SPIKE_X, TOP_SPIKE_Y, 3);
+        g2d.fillPolygon(TOP_SPIKE_X, BOTTOM_SPIKE_Y, 3);
+        g2d.fillPolygon(LEFT_SPIKE_X, SIDE_SPIKE_Y, 3);
+        g2d.fillPolygon(RIGHT_SPIKE_X, SIDE_SPIKE_Y, 3);
+        g2d.translate(-x, -y);
+    }
+
+    private static void drawRoundVirus(Graphics2D g2d, Virus virus) {
+        int x = virus.getX();
+        int y = (int) virus.getY();
+        int size = virus.getSize();
+        int type = virus.getVirusType().ordinal();
+        int damage = virus.getDamageLevel();
+        // Simple round virus
+        g2d.setColor(getColor(virus));
+        g2d.fillOval(x - size / 2, y - size / 2, size, size);
+
+        // Add concentric circles for texture
+        g2d.setColor(VIRUS_BRIGHTER[type][damage]);
+        g2d.fillOval(x - size / 3, y - size / 3, size * 2 / 3, size * 2 / 3);
+        g2d.setColor(VIRUS_DARKER[type][damage]);
+        g2d.drawOval(x - size / 2, y - size / 2, size, size);
+        g2d.drawOval(x - size / 3, y - size / 3, size * 2 / 3, size * 2 / 3);
+    }
+
+    private static void drawStarVirus(Graphics2D g2d, Virus virus) {
+        int x = virus.getX();
+        int y = (int) virus.getY();
+        g2d.setColor(getColor(virus));
+        g2d.translate(x, y);
+        g2d.fillPolygon(STAR_X, STAR_Y, 12);
+
+        // Add outline
+        g2d.setColor(VIRUS_DARKER[virus.getVirusType().ordinal()][virus.getDamageLevel()]);
+        g2d.drawPolygon(STAR_X, STAR_Y, 12);
+        g2d.translate(-x, -y);
+    }
+
+    private static void drawArrowVirus(Graphics2D g2d, Virus virus) {
+        int x = virus.getX();
+        int centerY = (int) virus.getY();
+        int halfSize = virus.getSize() / 2;
+        int bodyWidth = virus.getSize() / 4;
+        g2d.setColor(getColor(virus));
+        g2d.translate(x, centerY);
+
+        // Arrow pointing down
+        // Arrow head (triangle at bottom)
+        g2d.fillPolygon(ARROW_HEAD_X, ARROW_HEAD_Y, 3);
+
+        // Arrow body (rectangle)
+        g2d.fillRect(-bodyWidth / 2, -halfSize, bodyWidth, halfSize);
+
+        // Arrow tail (small triangle at top)
+        g2d.fillPolygon(ARROW_TAIL_X, ARROW_TAIL_Y, 3);
+
+        // Add outline
+        g2d.setColor(VIRUS_DARKER[virus.getVirusType().ordinal()][virus.getDamageLevel()]);
+        g2d.drawPolygon(ARROW_HEAD_X, ARROW_HEAD_Y, 3);
+        g2d.drawRect(-bodyWidth / 2, -halfSize, bodyWidth, halfSize);
+        g2d.drawPolygon(ARROW_TAIL_X, ARROW_TAIL_Y, 3);
+        g2d.translate(-x, -centerY);
+    }
+
+    private static void drawBall(Graphics2D g2d, Weapons.ProjectileBall projectile) {
+        double x = projectile.getX();
+        double y = projectile.getY();
+        int size = projectile.getSize();
+        g2d.setColor(Color.YELLOW);
+        g2d.fillOval((int)(x - size / 2), (int)(y - size / 2), size, size);
+
+        // Add glow effect
+        g2d.setColor(BALL_GLOW);
+        g2d.fillOval((int)(x - size / 2 - 2), (int)(y - size / 2 - 2), size + 4, size + 4);
+    }
+
+    private static void drawStar(Graphics2D g2d, Weapons.ProjectileBall projectile) {
+        int centerX = (int) projectile.getX();
+        int centerY = (int) projectile.getY();
+        g2d.setColor(Color.CYAN);
+        g2d.translate(centerX, centerY);
+        g2d.fillPolygon(SHOT_STAR_X, SHOT_STAR_Y, 10);
+
+        // Add glow effect
+        g2d.setColor(STAR_GLOW);
+        g2d.fillPolygon(SHOT_STAR_X, SHOT_STAR_Y, 10);
+        g2d.translate(-centerX, -centerY);
+    }
+
+    private static void drawSpikyBall(Graphics2D g2d, Weapons.ProjectileBall projectile) {
+        int centerX = (int) projectile.getX();
+        int centerY = (int) projectile.getY();
+        int size = projectile.getSize();
+        int radius = size / 2;
+
+        // Draw main ball
+        g2d.setColor(SPIKY_BALL_COLOR);
+        g2d.fillOval(centerX - radius, centerY - radius, size, size);
+
+        // Draw spikes around the ball
+        g2d.setColor(SPIKE_COLOR);
+        int spikeCount = 8;
+        int spikeLength = radius / 2;
+
+        for (int i = 0; i < spikeCount; i++) {
+            double angle = 2 * Math.PI * i / spikeCount;
+            int baseX = centerX + (int)(radius * Math.cos(angle));
+            int baseY = centerY + (int)(radius * Math.sin(angle));
+            int tipX = centerX + (int)((radius + spikeLength) * Math.cos(angle));
+            int tipY = centerY + (int)((radius + spikeLength) * Math.sin(angle));
+
+            g2d.drawLine(baseX, baseY, tipX, tipY);
+            g2d.fillOval(tipX - 2, tipY - 2, 4, 4);
+        }
+    }
+
+    private static void drawArrow(Graphics2D g2d, Weapons.ProjectileBall projectile) {
+        int centerX = (int) projectile.getX();
+        int centerY = (int) projectile.getY();
+        int length = projectile.getSize();
+        g2d.setColor(Color.WHITE);
+
+        // Arrow body (vertical line)
+        g2d.setStroke(ARROW_STROKE);
+        g2d.drawLine(centerX, centerY + length/3, centerX, centerY - length/3);
+
+        // Arrow head (triangle)
+        g2d.translate(centerX, centerY);
+        g2d.fillPolygon(SHOT_ARROW_HEAD_X, SHOT_ARROW_HEAD_Y, 3);
+        g2d.translate(-centerX, -centerY);
+
+        // Arrow tail (small line)
+        g2d.drawLine(centerX - length/6, centerY + length/4, centerX + length/6, centerY + length/4);
+
+        // Reset stroke
+        g2d.setStroke(DEFAULT_STROKE);
+    }
+
+    private static Color lightenColor(Color original, float factor) {
+        // Lighten by moving towards white (255)
+        int red = (int) (original.getRed() + (255 - original.getRed()) * factor);
+        int green = (int) (original.getGreen() + (255 - original.getGreen()) * factor);
+        int blue = (int) (original.getBlue() + (255 - original.getBlue()) * factor);
+        return new Color(Math.min(255, red), Math.min(255, green), Math.min(255, blue));
+    }
+}
@@ -0,0 +1,175 @@
+package com.maya_steph.virusdefense;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Entities drawn by EntityPainter once per look (kind, type, damage, size) and scale, then copied to the
+ * screen. Antialiased ovals and polygons go through Java2D's shape pipeline, which makes garbage on every
+ * call; copying an image to a whole device pixel makes none. Each drawing surface keeps its own sprites.
+ */
+final class EntitySprites {
+    private static final AffineTransform IDENTITY = new AffineTransform();
+    private static final int RECENT_SPRITE_BITS = 6;
+
+    private final Map<Long, Sprite> spriteCache = new HashMap<>();
+    private double spriteScale;
+    // Direct-mapped table in front of spriteCache, so looking up every entity's sprite every frame
+    // does not box the key
+    private final long[] recentSpriteKeys = new long[1 << RECENT_SPRITE_BITS];
+    private final Sprite[] recentSprites = new Sprite[1 << RECENT_SPRITE_BITS];
+
+    // Arena to device pixels for the frame being drawn
+    private double scale;
+    private double offsetX;
+    private double offsetY;
+
+    /**
+     * An entity drawn into an image, with its position at the anchor
+     */
+    private static final class Sprite {
+        final BufferedImage image;
+        final int anchor;
+
+        Sprite(BufferedImage image, int anchor) {
+            this.image = image;
+            this.anchor = anchor;
+        }
+    }
+
+    /**
+     * Draw the player, viruses and projectiles like EntityPainter.draw does.
+     * Falls back to EntityPainter when the transform rotates or shears, since sprites only scale.
+     * @param simple whether viruses and projectiles are drawn as EntityPainter.drawSimple's plain squares
+     */
+    void draw(Graphics2D g2d, RenderSnapshot world, boolean simple) {
+        AffineTransform transform = g2d.getTransform();
+        if ((transform.getType() & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_MASK_SCALE)) != 0
+                || transform.getScaleX() != transform.getScaleY()) {
+            EntityPainter.draw(g2d, world.getPlayer());
+            if (simple) {
+                drawSimple(g2d, world);
+                return;
+            }
+            for (Virus virus : world.getViruses()) {
+                EntityPainter.draw(g2d, virus);
+            }
+            for (Weapons.ProjectileBall projectile : world.getProjectiles()) {
+                EntityPainter.draw(g2d, projectile);
+            }
+            return;
+        }
+
+        scale = transform.getScaleX();
+        offsetX = transform.getTranslateX();
+        offsetY = transform.getTranslateY();
+        if (scale != spriteScale) {
+            clearSprites();
+            spriteScale = scale;
+        }
+        g2d.setTransform(IDENTITY);
+
+        Player player = world.getPlayer();
+        long playerKey = spriteKey(0, 0, 0, player.getSize());
+        Sprite playerSprite = cachedSprite(playerKey);
+        if (playerSprite == null) {
+            playerSprite = rasterize(playerKey, player.getSize(), player.getX(), player.getY(), g -> EntityPainter.draw(g, player));
+        }
+        drawSprite(g2d, playerSprite, player.getX(), player.getY());
+        if (simple) {
+            g2d.setTransform(transform);
+            drawSimple(g2d, world);
+            return;
+        }
+
+        for (Virus virus : world.getViruses()) {
+            int y = (int) virus.getY();
+            long key = spriteKey(1, virus.getVirusType().ordinal(), virus.getDamageLevel(), virus.getSize());
+            Sprite sprite = cachedSprite(key);
+            if (sprite == null) {
+                sprite = rasterize(key, virus.getSize(), virus.getX(), y, g -> EntityPainter.draw(g, virus));
+            }
+            drawSprite(g2d, sprite, virus.getX(), y);
+        }
+        for (Weapons.ProjectileBall projectile : world.getProjectiles()) {
+            int x = (int) projectile.getX();
+            int y = (int) projectile.getY();
+            long key = spriteKey(2, projectile.getWeaponType().ordinal(), 0, projectile.getSize());
+            Sprite sprite = cachedSprite(key);
+            if (sprite == null) {
+                sprite = rasterize(key, projectile.getSize(), x, y, g -> EntityPainter.draw(g, projectile));
+            }
+            drawSprite(g2d, sprite, x, y);
+        }
+
+        g2d.setTransform(transform);
+    }
+
+    /**
+     * Plain squares without antialiasing are already cheap to fill, in any scale
+     */
+    private static void drawSimple(Graphics2D g2d, RenderSnapshot world) {
+        Object antialiasing = g2d.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        for (Virus virus : world.getViruses()) {
+            EntityPainter.drawSimple(g2d, virus);
+        }
+        for (Weapons.ProjectileBall projectile : world.getProjectiles()) {
+            EntityPainter.drawSimple(g2d, projectile);
+        }
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing);
+    }
+
+    private void drawSprite(Graphics2D g2d, Sprite sprite, int x, int y) {
+        g2d.drawImage(sprite.image, (int) Math.floor(x * scale + offsetX) - sprite.anchor,
+            (int) Math.floor(y * scale + offsetY) - sprite.anchor, null);
+    }
+
+    private static long spriteKey(int kind, int type, int variant, int size) {
+        return (long) kind << 40 | (long) type << 32 | (long) variant << 24 | size;
+    }
+
+    private Sprite cachedSprite(long key) {
+        int slot = (Long.hashCode(key) * 0x9E3779B9) >>> (32 - RECENT_SPRITE_BITS);
+        Sprite sprite = recentSprites[slot];
+        if (sprite != null && recentSpriteKeys[slot] == key) {
+            return sprite;
+        }
+        sprite = spriteCache.get(key);
+        if (sprite != null) {
+            recentSpriteKeys[slot] = key;
+            recentSprites[slot] = sprite;
+        }
+        return sprite;
+    }
+
+    private void clearSprites() {
+        spriteCache.clear();
+        Arrays.fill(recentSprites, null);
+    }
+
+    /**
+     * Draw an entity at the current scale into a new sprite and cache it
+     */
+    private Sprite rasterize(long key, int size, int x, int y, Consumer<Graphics2D> draw) {
+        int reach = (int) Math.ceil((size + 8) * scale); // Spikes and glows reach past the entity's size
+        int extent = 2 * reach + 1;
+        BufferedImage image = new BufferedImage(extent, extent, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.translate(reach, reach);
+        g2d.scale(scale, scale);
+        g2d.translate(-x, -y);
+        draw.accept(g2d);
+        g2d.dispose();
+        Sprite sprite = new Sprite(image, reach);
+        spriteCache.put(key, sprite);
+        return sprite;
+    }
+}
@@ -0,0 +1,141 @@
+package com.maya_steph.virusdefense;
+
+import java.awt.Window;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * Keeps idle screens from repainting more than they need to. During play every tick repaints, but
+ * the home screen only changes when its prompt blinks, twice a second, so the game timer is stopped
+ * there and this wakes up once per blink instead. Quiz and game-over screens only change on a key.
+ *
+ * While the window is minimized or in the background nothing is repainted on a timer at all, and
+ * frames of a running game are not painted while it is minimized.
+ */
+public class FrameScheduler {
+    public static final int BLINK_MILLIS = 500;
+
+    private final GameClock clock;
+    private final Runnable blink;
+    private GameClock.Timer blinkTimer; // One-shot, made for each blink; null before the first
+    private final WindowAdapter windowListener = new WindowAdapter() {
+        @Override
+        public void windowActivated(WindowEvent e) {
+            setWindowActive(true);
+        }
+
+        @Override
+        public void windowDeactivated(WindowEvent e) {
+            setWindowActive(false);
+        }
+
+        @Override
+        public void windowIconified(WindowEvent e) {
+            setWindowIconified(true);
+        }
+
+        @Override
+        public void windowDeiconified(WindowEvent e) {
+            setWindowIconified(false);
+        }
+    };
+    private Window window;
+    private boolean homeScreen;
+    private boolean windowActive = true;
+    private volatile boolean windowIconified; // Also read by the simulation thread
+
+    /**
+     * @param clock times the blinks; the same clock the home screen reads the blink phase from
+     * @param blink repaints whatever blinks; called on the clock's timer thread, the event dispatch thread for the game
+     */
+    public FrameScheduler(GameClock clock, Runnable blink) {
+        this.clock = clock;
+        this.blink = blink;
+    }
+
+    /**
+     * Follow the window's focus and minimized state; replaces any window followed before
+     */
+    public void attach(Window window) {
+        detach();
+        this.window = window;
+        if (window != null) {
+            window.addWindowListener(windowListener);
+            windowActive = window.isActive() || !window.isShowing();
+            windowIconified = false;
+            update();
+        }
+    }
+
+    public void detach() {
+        if (window != null) {
+            window.removeWindowListener(windowListener);
+            window = null;
+        }
+    }
+
+    public void setHomeScreen(boolean homeScreen) {
+        this.homeScreen = homeScreen;
+        update();
+    }
+
+    void setWindowActive(boolean active) {
+        windowActive = active;
+        update();
+    }
+
+    void setWindowIconified(boolean iconified) {
+        windowIconified = iconified;
+        update();
+    }
+
+    /**
+     * False while the window is minimized, when painting game frames would be wasted
+     */
+    public boolean isPaintingFrames() {
+        return !windowIconified;
+    }
+
+    boolean isBlinkScheduled() {
+        return blinkTimer != null && blinkTimer.isRunning();
+    }
+
+    /**
+     * Whether the home screen prompt is showing at this time
+     */
+    public static boolean isBlinkOn(long nowMillis) {
+        return (nowMillis / BLINK_MILLIS) % 2 == 0;
+    }
+
+    /**
+     * Milliseconds until the prompt next appears or disappears
+     */
+    static int millisToNextBlink(long nowMillis) {
+        return (int) (BLINK_MILLIS - nowMillis % BLINK_MILLIS);
+    }
+
+    private void update() {
+        if (homeScreen && windowActive && !windowIconified) {
+            if (!isBlinkScheduled()) {
+                blink.run(); // The prompt may have been left in the wrong phase while idle
+                scheduleBlink();
+            }
+        } else if (blinkTimer != null) {
+            blinkTimer.stop();
+        }
+    }
+
+    private void scheduleBlink() {
+        if (!homeScreen || !windowActive || windowIconified) {
+            return;
+        }
+        // Wake up right after the phase flips rather than drifting against it
+        blinkTimer = clock.createTimer(millisToNextBlink(clock.currentTimeMillis()) + 1, false, this::onBlink);
+        blinkTimer.start();
+    }
+
+    private void onBlink() {
+        blink.run();
+        scheduleBlink();
+    }
+}
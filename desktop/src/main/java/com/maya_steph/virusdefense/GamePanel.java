@@ -0,0 +1,1726 @@
+package com.maya_steph.virusdefense;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.geom.AffineTransform;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Main game panel handling rendering, game loop, and input.
+ *
+ * The game timer on the event dispatch thread only paces the game: each tick runs on the simulation
+ * thread, which publishes a render snapshot afterwards, and painting draws the newest snapshot.
+ * Everything else that changes the simulation goes through simulationThread.run().
+ * Timers and times outside the simulation come from a GameClock, which tests replace with a VirtualClock.
+ */
+public class GamePanel extends JPanel implements KeyListener, GameSimulation.Listener {
+    private static final int WIDTH = GameSimulation.WIDTH;
+    private static final int HEIGHT = GameSimulation.HEIGHT;
+    private static final int CHECKPOINT_INTERVAL_TICKS = 300; // Crash-recovery checkpoint every ~5 seconds
+    private static final int REWIND_WINDOW_SECONDS = 5;
+    private static final int PRACTICE_REWIND_TICKS = 3 * RewindBuffer.TICKS_PER_SECOND; // How far back a lost life rewinds
+    private static final int REPLAY_SEEK_TICKS = 10 * RewindBuffer.TICKS_PER_SECOND; // Arrow keys skip 10 seconds
+    private static final int SIMPLE_DRAWING_ENTITIES = 1000; // Above this many entities, draw plain shapes
+    private static final String STRESS_REPORT_FILE_NAME = "stress-report.txt";
+    private static final String LATENCY_REPORT_FILE_NAME = "latency-report.txt";
+    private static final String START_TEXT = "Press ENTER to Start";
+    private static final Rectangle START_PROMPT_BOUNDS = new Rectangle(0, HEIGHT - 110, WIDTH, 40); // Blinking start prompt
+    private static final int QUIZ_BOX_WIDTH = 400;
+    private static final int QUIZ_BOX_HEIGHT = 50;
+    private static final int QUIZ_BOX_X = (WIDTH - QUIZ_BOX_WIDTH) / 2;
+    private static final int QUIZ_BOX_Y = HEIGHT / 2 + 10;
+    private static final Rectangle QUIZ_INPUT_BOUNDS = new Rectangle(0, QUIZ_BOX_Y - 2, WIDTH, QUIZ_BOX_HEIGHT + 4); // Answer box, border included
+    
+    // Fonts for the home, quiz and game over screens
+    private static final Font HEADLINE_FONT = new Font("Arial", Font.BOLD, 48);
+    private static final Font QUIZ_TITLE_FONT = new Font("Arial", Font.BOLD, 32);
+    private static final Font LARGE_BOLD_FONT = new Font("Arial", Font.BOLD, 24);
+    private static final Font LARGE_FONT = new Font("Arial", Font.PLAIN, 24);
+    private static final Font QUESTION_FONT = new Font("Arial", Font.PLAIN, 22);
+    private static final Font HEADING_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Font MEDIUM_BOLD_FONT = new Font("Arial", Font.BOLD, 18);
+    private static final Font MEDIUM_FONT = new Font("Arial", Font.PLAIN, 18);
+    private static final Font SMALL_FONT = new Font("Arial", Font.PLAIN, 16);
+    private static final Font INPUT_FONT = new Font("Courier New", Font.BOLD, 24);
+    // Fonts, colors and strokes for the HUD, made once because it is painted every frame
+    private static final Font HUD_TITLE_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font HUD_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final Font HUD_SMALL_FONT = new Font("Arial", Font.PLAIN, 11);
+    private static final Font KEY_FONT = new Font("Courier New", Font.BOLD, 12);
+    private static final Font KEY_HINT_FONT = new Font("Courier New", Font.BOLD, 14); // 12 + 2 = 14, same font as weapon mappings
+    private static final Color HUD_BACKGROUND = new Color(0, 0, 0, 150);
+    private static final Color REPLAY_BAR_BACKGROUND = new Color(0, 0, 0, 170);
+    private static final BasicStroke THIN_STROKE = new BasicStroke(1);
+    private static final BasicStroke HEART_OUTLINE_STROKE = new BasicStroke(2); // Thicker outline
+    private static final int WEAPON_MAP_X = WIDTH - 200 - 10; // Right side, same offset as game stats (10 from left = 10 from right)
+    private static final int WEAPON_MAP_Y = 20; // Top of page, same Y as game stats box
+    private static final int WEAPON_MAP_HEIGHT = 190; // Height to fit all content including "Press 'i' to hide" at bottom
+    private static final int INFO_BOX_HEIGHT = 240; // Game stats, lives, weapon and controls
+    private static final int SWARM_BOX_WIDTH = 260;
+    private static final int HEART_SIZE = 15;
+    private static final int HEART_SPACING = 20;
+    private static final int HEART_MARGIN = 10; // Room around a heart's center for its shape and outline
+    
+    private final GameSimulation simulation;
+    private final GameClock clock;
+    private final SimulationThread simulationThread;
+    private final RenderSnapshotBuffer snapshots = new RenderSnapshotBuffer();
+    private final InputQueue inputQueue = new InputQueue(); // Game keys, taken by the simulation once per tick
+    private final LatencyTracker latencyTracker = LatencyTracker.fromSystemProperties(); // null unless measuring
+    private final InputQueue.PressListener pressListener;
+    
+    // Runtime telemetry, exported by MetricsExporter
+    private final Metrics.Histogram tickTime = Metrics.getDefault().histogram("heartattack_tick_seconds", "Time to simulate one tick");
+    private final Metrics.Histogram paintTime = Metrics.getDefault().histogram("heartattack_paint_seconds", "Time to paint one frame");
+    private final Metrics.Counter droppedTicks = Metrics.getDefault().counter("heartattack_ticks_dropped_total", "Ticks skipped because the previous tick was still running");
+    private final Metrics.Gauge virusCount = Metrics.getDefault().gauge("heartattack_viruses", "Viruses in the arena");
+    private final Metrics.Gauge projectileCount = Metrics.getDefault().gauge("heartattack_projectiles", "Projectiles in the arena");
+    private final Metrics.Gauge particleCount = Metrics.getDefault().gauge("heartattack_particles", "Live particles");
+    private final Metrics.Histogram quizAnswerTime = Metrics.getDefault().histogram("heartattack_quiz_answer_seconds", "Time from a quiz question appearing to its answer");
+    private long quizShownNanos;
+    private GameEvents.QuizAnswered quizEvent; // Flight Recorder event timing the current question, or null
+    private final Runnable tickTask = this::tick;
+    private final Random random;
+    private SoundManager soundManager;
+    private final SaveGameStore saveStore;
+    private boolean saveAvailable;
+    private long lastCheckpointTick;
+    
+    // Practice mode: losing a life to a virus rewinds the last few seconds instead
+    private final RewindBuffer rewindBuffer;
+    private boolean practiceMode;
+    private boolean rewindPending;
+    
+    // Replays: the current run is recorded (except in practice mode) and the last one can be watched
+    private ReplayRecorder replayRecorder;
+    private ReplayPlayer replayPlayer;
+    private boolean replayAvailable;
+    
+    // Endless swarm mode: no quizzes, saves or replays; measures the frame rate as the swarm grows
+    private SwarmMode swarmMode;
+    private StressMonitor stressMonitor;
+    
+    // Draws the arena; the HUD is always drawn with Graphics2D on top
+    private final WorldRenderer worldRenderer = WorldRenderer.fromSystemProperties();
+    
+    // Idle screens repaint only what changes, and nothing while the window is in the background
+    private final FrameScheduler frameScheduler;
+    
+    // Prerendered static parts of the menu screens, and question texts laid out once per question
+    private final CachedLayer homeLayer = new CachedLayer(WIDTH, HEIGHT, true);
+    private final CachedLayer quizLayer = new CachedLayer(WIDTH, HEIGHT, false);
+    private final CachedLayer gameOverLayer = new CachedLayer(WIDTH, HEIGHT, false);
+    private final CachedLayer weaponMapLayer = new CachedLayer(201, WEAPON_MAP_HEIGHT + 1, false); // Box plus its outline
+    private final Consumer<Graphics2D> weaponMapPainter = this::paintWeaponMap;
+    private Weapons.WeaponType weaponMapWeapon;
+    private final CachedLayer infoBoxLayer = new CachedLayer(201, INFO_BOX_HEIGHT + 1, false); // Box plus its outline
+    private final Consumer<Graphics2D> infoBoxPainter = this::paintInfoBox;
+    private Weapons.WeaponType infoBoxWeapon;
+    private final CachedLayer swarmBoxLayer = new CachedLayer(SWARM_BOX_WIDTH, 150, false);
+    private final Consumer<Graphics2D> swarmBoxPainter = this::paintSwarmBox;
+    private boolean swarmBoxDropped;
+    private final CachedLayer heartsLayer = new CachedLayer(2 * HEART_MARGIN + 2 * HEART_SPACING, 2 * HEART_MARGIN, false);
+    private final Consumer<Graphics2D> heartsPainter = this::paintHearts;
+    private int heartsLives;
+    private final WrappedText questionText = new WrappedText(QUESTION_FONT, WIDTH - 80);
+    // HUD state: game stats lines are rebuilt only when their numbers change, and the heart outline
+    // is filled into the same arrays each time, so painting the HUD creates no garbage
+    private int shownRound = -1;
+    private int shownVirusesRemaining = -1;
+    private int shownVirusesPerRound = -1;
+    private double shownSpeed = Double.NaN;
+    private String roundText;
+    private String virusesText;
+    private String speedText;
+    private final int[] heartX = new int[13];
+    private final int[] heartY = new int[13];
+    // Swarm HUD lines, rebuilt the same way
+    private Arena shownArena;
+    private int shownSwarmRound = -1;
+    private int shownSwarmViruses = -1;
+    private int shownSwarmProjectiles = -1;
+    private int shownDestroyed = -1;
+    private int shownLeaked = -1;
+    private double shownFps = Double.NaN;
+    private int shownDropEntities = -1;
+    private String arenaText;
+    private String spawnRateText;
+    private String swarmCountsText;
+    private String swarmScoreText;
+    private String fpsText;
+    private String dropText;
+    
+    private GameClock.Timer gameTimer;
+    private GameClock.Timer quizTimer;
+    private boolean gameRunning;
+    private volatile boolean gameOver; // Set on the simulation thread when the last life is lost
+    private boolean showingHomeScreen;
+    
+    // UI visibility
+    private boolean weaponKeyVisible = true; // Show weapon key by default
+    
+    // Quiz system
+    private QuizManager quizManager;
+    private QuizManager.Question currentQuestion;
+    private boolean showingQuiz;
+    private String userInput;
+    private boolean waitingForAnswer;
+    private boolean showingResult;
+    private boolean answerWasCorrect;
+    private GameClock.Timer resultDisplayTimer;
+    
+    private Runnable firstFrameListener; // Run once after the first paint, for startup timing
+    
+    public GamePanel() {
+        this(new SwingClock(), SimulationThread.fromSystemProperties(), new Random());
+    }
+    
+    /**
+     * @param clock runs the game, quiz and result timers and times shots and sounds
+     * @param simulationThread where ticks run; a test with a VirtualClock runs them on its own thread
+     * @param random seeds each game and picks the quiz delays; a seeded one makes every run of a test the same
+     */
+    GamePanel(GameClock clock, SimulationThread simulationThread, Random random) {
+        this.clock = clock;
+        this.simulationThread = simulationThread;
+        frameScheduler = new FrameScheduler(clock, () -> repaint(START_PROMPT_BOUNDS));
+        setPreferredSize(new Dimension(WIDTH, HEIGHT));
+        setBackground(Color.RED); // Red background for game
+        setFocusable(true);
+        addKeyListener(this);
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                inputQueue.releaseAll(); // Releases of keys held now would never arrive
+            }
+        });
+        
+        simulation = new GameSimulation();
+        simulation.setListener(this);
+        this.random = random;
+        quizManager = new QuizManager();
+        soundManager = new SoundManager(AudioBackend.fromSystemProperties(), clock);
+        soundManager.setLatencyTracker(latencyTracker);
+        pressListener = latencyTracker == null ? null : (input, arrivalNanos) -> latencyTracker.pressApplied(arrivalNanos, simulation.getTick());
+        saveStore = new SaveGameStore();
+        saveAvailable = saveStore.hasSave();
+        replayAvailable = saveStore.hasFile(SaveGameStore.LAST_REPLAY_FILE_NAME);
+        rewindBuffer = new RewindBuffer(REWIND_WINDOW_SECONDS);
+        System.out.println("QuizManager initialized with " + quizManager.getQuestionCount() + " questions");
+        prepareQuestionTexts();
+        userInput = "";
+        showingQuiz = false;
+        waitingForAnswer = false;
+        showingResult = false;
+        answerWasCorrect = false;
+        showingHomeScreen = true;
+        gameRunning = false;
+        
+        gameTimer = clock.createTimer(16, true, this::onGameTimer); // ~60 FPS; started with a game, the home screen does not need it
+        frameScheduler.setHomeScreen(true); // Repaints the blinking start prompt
+        
+        // Quiz timer will be started when game begins
+    }
+    
+    /**
+     * Lay out every question in the background so the first quiz pops up without waiting for fonts
+     */
+    private void prepareQuestionTexts() {
+        List<QuizManager.Question> questions = quizManager.getQuestions();
+        Thread thread = new Thread(() -> {
+            for (QuizManager.Question question : questions) {
+                questionText.getLines(question.getId(), question.getText());
+            }
+        }, "quiz-text-layout");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        frameScheduler.attach(SwingUtilities.getWindowAncestor(this));
+    }
+    
+    @Override
+    public void removeNotify() {
+        frameScheduler.detach();
+        super.removeNotify();
+    }
+    
+    public void startGame() {
+        swarmMode = null;
+        long seed = random.nextLong(); // The seed is recorded in the replay's first keyframe
+        onSimulationThread(() -> {
+            useStandardRules();
+            simulation.setWaves(WaveDefinitions.reload()); // Pick up wave file edits without restarting the game
+            simulation.startNewGame(seed);
+        });
+        beginPlaying();
+    }
+    
+    /**
+     * Start the endless swarm stress mode, configured by the heartattack.swarm.* system properties
+     */
+    public void startSwarm() {
+        try {
+            swarmMode = SwarmMode.fromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Could not start swarm mode: " + e.getMessage());
+            return;
+        }
+        SwarmMode swarm = swarmMode;
+        long seed = random.nextLong();
+        onSimulationThread(() -> {
+            simulation.setLogging(false); // Thousands of spawn and hit messages would dominate the frame time
+            swarm.start(simulation, seed);
+        });
+        stressMonitor = new StressMonitor();
+        shownSwarmRound = -1; // This swarm may spawn at a different rate
+        System.out.println("Swarm mode: " + swarmMode.describe());
+        beginPlaying();
+    }
+    
+    /**
+     * Normal arena, lives and waves; swarm mode changes all three. Runs on the simulation thread.
+     */
+    private void useStandardRules() {
+        simulation.setArena(Arena.STANDARD);
+        simulation.setEndless(false);
+        simulation.setWaves(WaveDefinitions.current());
+        simulation.setLogging(true);
+    }
+    
+    /**
+     * Resume the saved game (or the last crash-recovery checkpoint) from the home screen
+     */
+    public boolean continueSavedGame() {
+        byte[] data = saveStore.load();
+        if (data == null) {
+            saveAvailable = false;
+            return false;
+        }
+        swarmMode = null;
+        boolean restored = simulationThread.call(() -> {
+            useStandardRules();
+            try {
+                GameSnapshot.fromBytes(data, simulation);
+            } catch (IOException e) {
+                System.err.println("Could not restore saved game: " + e.getMessage());
+                simulation.reset();
+                return false;
+            }
+            if (simulation.isGameOver()) {
+                simulation.reset();
+                return false;
+            }
+            System.out.println("Continuing saved game at round " + simulation.getRoundManager().getCurrentRound());
+            return true;
+        });
+        if (!restored) {
+            saveAvailable = false;
+            return false;
+        }
+        beginPlaying();
+        return true;
+    }
+    
+    private void beginPlaying() {
+        showingHomeScreen = false;
+        frameScheduler.setHomeScreen(false);
+        gameRunning = true;
+        gameOver = false;
+        showingQuiz = false;
+        waitingForAnswer = false;
+        showingResult = false;
+        answerWasCorrect = false;
+        userInput = "";
+        inputQueue.clear();
+        boolean recordReplay = !practiceMode && swarmMode == null; // A practice run rewinds time, so it has no single timeline to record
+        onSimulationThread(() -> {
+            lastCheckpointTick = simulation.getTick();
+            rewindBuffer.clear();
+            rewindPending = false;
+            replayRecorder = recordReplay ? new ReplayRecorder(simulation) : null;
+            soundManager.setMusicRound(simulation.getRoundManager().getCurrentRound());
+        });
+        gameTimer.start();
+        if (swarmMode == null) {
+            scheduleNextQuiz(true); // First question with longer delay
+        }
+        soundManager.startBackgroundMusic(); // Synthesized as it plays, so it starts at once
+        requestFocus();
+    }
+    
+    private void returnToHomeScreen() {
+        gameTimer.stop(); // No more ticks for this game
+        inputQueue.clear();
+        reportLatency();
+        boolean leavingSwarm = swarmMode != null;
+        boolean keepGame = !leavingSwarm && gameRunning && !gameOver;
+        if (leavingSwarm) {
+            reportStress();
+            swarmMode = null;
+        }
+        onSimulationThread(() -> {
+            if (leavingSwarm) {
+                useStandardRules();
+            } else if (keepGame) {
+                // Keep an unfinished game so it can be continued from the home screen
+                saveStore.saveAsync(GameSnapshot.toBytes(simulation));
+                saveReplay();
+            }
+            simulation.reset();
+        });
+        if (keepGame) {
+            saveAvailable = true;
+        }
+        
+        showingHomeScreen = true;
+        gameRunning = false;
+        gameOver = false;
+        showingQuiz = false;
+        waitingForAnswer = false;
+        showingResult = false;
+        answerWasCorrect = false;
+        userInput = "";
+        currentQuestion = null;
+        
+        // Stop the other timers
+        if (quizTimer != null) {
+            quizTimer.stop();
+        }
+        if (resultDisplayTimer != null) {
+            resultDisplayTimer.stop();
+        }
+        if (soundManager != null) {
+            soundManager.setSoundEnabled(true);
+            soundManager.stopBackgroundMusic();
+        }
+        
+        frameScheduler.setHomeScreen(true); // The game timer stays stopped until the next game
+        requestFocus();
+        repaint();
+    }
+    
+    /**
+     * Apply a player action to the game and record it in the replay
+     */
+    private void applyInput(GameInput input) {
+        onSimulationThread(() -> recordAndApply(input));
+    }
+    
+    /**
+     * Record the input in the replay and apply it; runs on the simulation thread
+     */
+    private void recordAndApply(GameInput input) {
+        // Record first: the input may end the game, which finishes the recording
+        if (replayRecorder != null) {
+            replayRecorder.recordInput(simulation, input);
+        }
+        simulation.applyInput(input);
+        if (gameOver) {
+            saveReplay();
+        }
+    }
+    
+    /**
+     * Change the simulation on its own thread and publish the result, so it shows without waiting for a tick
+     */
+    private void onSimulationThread(Runnable change) {
+        simulationThread.run(() -> {
+            change.run();
+            snapshots.publish(displayedSimulation());
+        });
+    }
+    
+    /**
+     * Runs on the simulation thread
+     */
+    private void saveReplay() {
+        if (replayRecorder == null) return;
+        saveStore.writeAsync(SaveGameStore.LAST_REPLAY_FILE_NAME, replayRecorder.finish(simulation).toBytes());
+        replayRecorder = null;
+        replayAvailable = true;
+    }
+    
+    /**
+     * Watch the last recorded run from the home screen
+     */
+    public boolean watchLastReplay() {
+        saveStore.flush(); // The replay may still be on its way to the disk
+        byte[] data = saveStore.read(SaveGameStore.LAST_REPLAY_FILE_NAME);
+        if (data == null) {
+            replayAvailable = false;
+            return false;
+        }
+        replayPlayer = simulationThread.call(() -> {
+            try {
+                ReplayPlayer player = new ReplayPlayer(Replay.fromBytes(data));
+                snapshots.publish(player.getSimulation());
+                return player;
+            } catch (IOException e) {
+                System.err.println("Could not load replay: " + e.getMessage());
+                return null;
+            }
+        });
+        if (replayPlayer == null) {
+            replayAvailable = false;
+            return false;
+        }
+        showingHomeScreen = false;
+        frameScheduler.setHomeScreen(false);
+        gameTimer.start();
+        System.out.println("Watching replay of " + (replayPlayer.getReplay().getDurationTicks() / RewindBuffer.TICKS_PER_SECOND) + " seconds");
+        requestFocus();
+        return true;
+    }
+    
+    private void stopWatchingReplay() {
+        gameTimer.stop();
+        replayPlayer = null;
+        showingHomeScreen = true;
+        frameScheduler.setHomeScreen(true);
+        repaint();
+    }
+    
+    private void handleReplayKey(int key) {
+        if (key == KeyEvent.VK_ESCAPE) {
+            stopWatchingReplay();
+            return;
+        }
+        onSimulationThread(() -> {
+            try {
+                controlReplay(key);
+            } catch (IOException e) {
+                System.err.println("Could not seek in replay: " + e.getMessage());
+            }
+        });
+        repaint();
+    }
+    
+    /**
+     * Runs on the simulation thread, which also plays the replay
+     */
+    private void controlReplay(int key) throws IOException {
+        long tick = replayPlayer.getSimulation().getTick();
+        switch (key) {
+            case KeyEvent.VK_SPACE:
+                replayPlayer.togglePaused();
+                break;
+            case KeyEvent.VK_UP:
+            case KeyEvent.VK_EQUALS:
+            case KeyEvent.VK_PLUS:
+                replayPlayer.faster();
+                break;
+            case KeyEvent.VK_DOWN:
+            case KeyEvent.VK_MINUS:
+                replayPlayer.slower();
+                break;
+            case KeyEvent.VK_RIGHT:
+                replayPlayer.seek(tick + REPLAY_SEEK_TICKS);
+                break;
+            case KeyEvent.VK_LEFT:
+                replayPlayer.seek(tick - REPLAY_SEEK_TICKS);
+                break;
+            case KeyEvent.VK_HOME:
+                replayPlayer.seek(replayPlayer.getReplay().getStartTick());
+                break;
+            case KeyEvent.VK_END:
+                replayPlayer.seek(replayPlayer.getReplay().getEndTick());
+                break;
+        }
+    }
+    
+    private void scheduleNextQuiz() {
+        scheduleNextQuiz(false);
+    }
+    
+    private void scheduleNextQuiz(boolean isFirstQuestion) {
+        if (quizTimer != null) {
+            quizTimer.stop();
+        }
+        
+        int interval;
+        if (isFirstQuestion) {
+            // First question same timing as others (35-60 seconds)
+            interval = 35000 + random.nextInt(25000);
+            System.out.println("Scheduling FIRST quiz in " + (interval/1000) + " seconds");
+        } else {
+            // Regular interval between 35-60 seconds (35000-60000 milliseconds)
+            interval = 35000 + random.nextInt(25000);
+            System.out.println("Scheduling next quiz in " + (interval/1000) + " seconds");
+        }
+        
+        quizTimer = clock.createTimer(interval, false, this::showQuiz); // Only trigger once
+        quizTimer.start();
+    }
+    
+    private void showQuiz() {
+        System.out.println("showQuiz() called - gameRunning: " + gameRunning + ", gameOver: " + gameOver + ", showingQuiz: " + showingQuiz);
+        if (!gameRunning || gameOver || showingQuiz) {
+            System.out.println("Quiz not shown - conditions not met");
+            return;
+        }
+        
+        currentQuestion = quizManager.getRandomQuestion();
+        quizShownNanos = clock.nanoTime();
+        quizEvent = GameEvents.quizShown(currentQuestion.getId());
+        showingQuiz = true;
+        waitingForAnswer = true;
+        userInput = "";
+        
+        System.out.println("Showing quiz: " + currentQuestion.getText());
+        
+        // Pause the game while quiz is showing
+        gameTimer.stop();
+        
+        // Disable sounds and pause the music during quiz
+        if (soundManager != null) {
+            soundManager.setSoundEnabled(false);
+            soundManager.pauseBackgroundMusic();
+        }
+        
+        // Force a repaint to show the quiz immediately
+        repaint();
+    }
+    
+    private void submitQuizAnswer() {
+        System.out.println("submitQuizAnswer() called - waitingForAnswer: " + waitingForAnswer + ", userInput: '" + userInput + "'");
+        if (!waitingForAnswer || currentQuestion == null) {
+            System.out.println("Answer submission blocked - not waiting or no question");
+            return;
+        }
+        
+        boolean correct = currentQuestion.checkAnswer(userInput);
+        quizAnswerTime.record(clock.nanoTime() - quizShownNanos);
+        GameEvents.quizAnswered(quizEvent, correct);
+        quizEvent = null;
+        System.out.println("Answer '" + userInput + "' is " + (correct ? "CORRECT" : "WRONG") + ". Expected: '" + currentQuestion.getAnswer() + "'");
+        
+        // Stop waiting for answer but keep showing quiz
+        waitingForAnswer = false;
+        answerWasCorrect = correct;
+        showingResult = true;
+        
+        if (!correct) {
+            // Wrong answer - lose a life (from quiz, so no shake/red overlay)
+            System.out.println("Wrong answer - losing a life");
+            applyInput(GameInput.QUIZ_WRONG_ANSWER); // Loses a life without shake/red overlay
+        } else {
+            System.out.println("Correct answer - continuing");
+        }
+        
+        // Show result for 2 seconds, then hide quiz and resume game
+        if (resultDisplayTimer != null) {
+            resultDisplayTimer.stop();
+        }
+        resultDisplayTimer = clock.createTimer(2000, false, this::hideQuizAndResume);
+        resultDisplayTimer.start();
+        
+        // Force immediate repaint to show the result
+        repaint();
+    }
+    
+    private void hideQuizAndResume() {
+        // Hide quiz and resume game
+        showingQuiz = false;
+        showingResult = false;
+        userInput = "";
+        currentQuestion = null;
+        
+        // Resume game
+        if (gameRunning && !gameOver) {
+            System.out.println("Resuming game and scheduling next quiz");
+            gameTimer.start();
+            
+            // Re-enable sounds and resume the music
+            if (soundManager != null) {
+                soundManager.setSoundEnabled(true);
+                soundManager.resumeBackgroundMusic();
+            }
+            
+            scheduleNextQuiz(); // Schedule next quiz
+        } else {
+            System.out.println("Not resuming - gameRunning: " + gameRunning + ", gameOver: " + gameOver);
+        }
+    }
+    
+    /**
+     * The game timer fired: run a tick, or a frame of the replay being watched
+     */
+    private void onGameTimer() {
+        ReplayPlayer player = replayPlayer;
+        if (player != null) {
+            // Fast-forward simulates every tick of the frame but only draws the last one
+            // A paused or finished replay does not change, so it is not redrawn
+            simulationThread.tick(() -> {
+                if (player.advanceFrame() > 0) {
+                    snapshots.publish(player.getSimulation());
+                    paintFrame();
+                }
+            });
+            return;
+        }
+        if (showingHomeScreen || !gameRunning || gameOver) return;
+        
+        if (!simulationThread.tick(tickTask)) {
+            droppedTicks.increment();
+        }
+    }
+    
+    /**
+     * One game tick; runs on the simulation thread
+     */
+    private void tick() {
+        long start = System.nanoTime();
+        try {
+            inputQueue.sample(this::recordAndApply, pressListener); // Keys pressed or held since the last tick
+            SwarmMode swarm = swarmMode;
+            if (swarm != null) {
+                swarm.beforeTick(simulation);
+            }
+            simulation.update();
+            if (rewindPending) {
+                rewindAfterLifeLost();
+            } else if (practiceMode) {
+                rewindBuffer.record(simulation);
+            }
+            if (gameOver) {
+                saveReplay(); // Only once the tick is complete, so playback ends in the same state
+            } else if (replayRecorder != null) {
+                replayRecorder.afterTick(simulation);
+            }
+            checkpointIfDue();
+            snapshots.publish(simulation);
+            paintFrame();
+            virusCount.set(simulation.getViruses().size());
+            projectileCount.set(simulation.getWeapons().getProjectiles().size());
+            particleCount.set(simulation.getParticles().getCount());
+            tickTime.recordSince(start);
+        } catch (Exception ex) {
+            // Catch any exceptions to prevent game from crashing
+            System.err.println("Error in game loop: " + ex.getMessage());
+            ex.printStackTrace();
+        }
+    }
+    
+    /**
+     * Repaint for a new tick, unless the window is minimized
+     */
+    private void paintFrame() {
+        if (frameScheduler.isPaintingFrames()) {
+            repaint();
+        }
+    }
+    
+    private void checkpointIfDue() {
+        if (gameOver || swarmMode != null || simulation.getTick() - lastCheckpointTick < CHECKPOINT_INTERVAL_TICKS) return;
+        lastCheckpointTick = simulation.getTick();
+        // Encoding takes microseconds on the simulation thread; the file write happens on the save thread
+        saveStore.saveAsync(GameSnapshot.toBytes(simulation));
+    }
+    
+    private void rewindAfterLifeLost() {
+        rewindPending = false;
+        long target = Math.max(rewindBuffer.getOldestTick(), simulation.getTick() - PRACTICE_REWIND_TICKS);
+        try {
+            long restoredTick = rewindBuffer.restore(target, simulation);
+            System.out.println("Practice mode: rewound " + (simulation.getTick() - restoredTick) + " ticks to tick " + restoredTick);
+        } catch (IOException e) {
+            System.err.println("Could not rewind: " + e.getMessage());
+            rewindBuffer.clear();
+            if (simulation.isGameOver()) {
+                onGameOver();
+            }
+            return;
+        }
+        simulation.getOverlay().triggerLifeLossFlash();
+    }
+    
+    @Override
+    public void onRoundAdvanced(int round) {
+        soundManager.setMusicRound(round); // Faster and more intense each round
+    }
+    
+    @Override
+    public void onLifeLost(boolean fromQuiz) {
+        if (practiceMode && !fromQuiz && !rewindBuffer.isEmpty()) {
+            rewindPending = true; // Handled once the current tick has finished
+        }
+    }
+    
+    /**
+     * Runs on the simulation thread: only the volatile gameOver is set here, so no quiz can open and no
+     * further tick runs; the timers and screen state belong to the event dispatch thread and change there
+     */
+    @Override
+    public void onGameOver() {
+        if (rewindPending) return; // Practice mode will rewind to before this life was lost
+        gameOver = true;
+        playSound("game_over"); // Play game over sound, stamped with this tick
+        saveStore.deleteAsync(); // A finished game cannot be continued
+        SwingUtilities.invokeLater(this::showGameOver);
+    }
+    
+    /**
+     * Stop the game's timers and close any quiz; on the event dispatch thread, after onGameOver
+     */
+    private void showGameOver() {
+        if (!gameOver) return; // A new game was started before this ran
+        gameTimer.stop();
+        if (quizTimer != null) {
+            quizTimer.stop();
+        }
+        if (resultDisplayTimer != null) {
+            resultDisplayTimer.stop();
+        }
+        showingQuiz = false;
+        waitingForAnswer = false;
+        showingResult = false;
+        soundManager.stopBackgroundMusic(); // Stop music on game over
+        saveAvailable = false;
+        repaint();
+    }
+    
+    @Override
+    public void onSound(String soundName) {
+        playSound(soundName);
+    }
+    
+    int getLives() {
+        return simulation.getLives();
+    }
+    
+    GameSimulation getSimulation() {
+        return simulation;
+    }
+    
+    /**
+     * The simulation being shown: the replay's while one is playing, otherwise the live game
+     */
+    private GameSimulation displayedSimulation() {
+        return replayPlayer != null ? replayPlayer.getSimulation() : simulation;
+    }
+    
+    /**
+     * Called from the simulation, so the sound is stamped with the tick that triggered it
+     */
+    private void playSound(String soundName) {
+        // Play sound immediately - no exception handling overhead
+        if (soundManager != null) {
+            soundManager.playSound(soundName, simulation.getTick());
+        }
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        paintScreen(g);
+        paintTime.recordSince(start);
+        if (firstFrameListener != null) {
+            Runnable listener = firstFrameListener;
+            firstFrameListener = null;
+            listener.run();
+        }
+    }
+    
+    /**
+     * Run once the next frame has been painted; call on the event dispatch thread
+     */
+    void setFirstFrameListener(Runnable listener) {
+        firstFrameListener = listener;
+    }
+    
+    private void paintScreen(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        
+        // Draw home screen first - if showing, don't draw game elements
+        if (showingHomeScreen) {
+            GameEvents.PaintPhase homeEvent = GameEvents.beginPaint("home");
+            drawHomeScreen(g2d);
+            GameEvents.endPaint(homeEvent, null);
+            return;
+        }
+        
+        // The newest state the simulation thread has published; the simulation itself is not touched here
+        RenderSnapshot frame = snapshots.latest();
+        GameEvents.PaintPhase worldEvent = GameEvents.beginPaint("world");
+        worldRenderer.render(g2d, frame, WIDTH, HEIGHT);
+        GameEvents.endPaint(worldEvent, frame);
+        
+        if (latencyTracker != null) {
+            framePainted(frame.getTick());
+        }
+        
+        if (swarmMode != null) {
+            drawSwarmInfo(g2d, frame, swarmMode, stressMonitor);
+            if (stressMonitor.frameFinished(System.nanoTime(), frame.getEntityCount(), frame.getRound())) {
+                reportStress();
+            }
+            return;
+        }
+        
+        // Draw UI
+        GameEvents.PaintPhase uiEvent = GameEvents.beginPaint("ui");
+        drawUI(g2d, frame);
+        GameEvents.endPaint(uiEvent, frame);
+        
+        // Draw quiz screen
+        if (showingQuiz) {
+            GameEvents.PaintPhase quizPaintEvent = GameEvents.beginPaint("quiz");
+            drawQuiz(g2d);
+            GameEvents.endPaint(quizPaintEvent, frame);
+        }
+        
+        // Draw game over screen
+        if (gameOver) {
+            GameEvents.PaintPhase gameOverEvent = GameEvents.beginPaint("game over");
+            drawGameOver(g2d, frame);
+            GameEvents.endPaint(gameOverEvent, frame);
+        }
+        
+        ReplayPlayer player = replayPlayer;
+        if (player != null) {
+            drawReplayBar(g2d, player, frame);
+        }
+    }
+    
+    /**
+     * Time the frame once Swing has copied it to the screen, which happens after painting returns
+     */
+    private void framePainted(long tick) {
+        SwingUtilities.invokeLater(() -> {
+            Toolkit.getDefaultToolkit().sync();
+            latencyTracker.framePresented(tick);
+        });
+    }
+    
+    LatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+    
+    /**
+     * The renderer and audio backend, for reports
+     */
+    String describeOutput() {
+        return worldRenderer.getName() + " renderer, " + soundManager.getBackend().getName() + " audio";
+    }
+    
+    /**
+     * Whether game keys are taken now: a game is on and no quiz is showing
+     */
+    boolean isTakingGameKeys() {
+        return gameRunning && !gameOver && !showingQuiz;
+    }
+    
+    /**
+     * Draw the arena scaled to fit the given area. Larger arenas are scaled down, and crowded or
+     * zoomed-out screens use plain shapes, which keeps thousands of entities cheap to draw.
+     * @param overlayPainter the caller's painter, which caches the background for its surface
+     * @param entitySprites the caller's sprites, drawn once per look and scale for its surface
+     */
+    static void drawWorld(Graphics2D g2d, RenderSnapshot world, int width, int height, OverlayPainter overlayPainter,
+                          EntitySprites entitySprites) {
+        Arena arena = world.getArena();
+        OverlayEffect overlay = world.getOverlay();
+        AffineTransform savedTransform = g2d.getTransform();
+        
+        double scale = Math.min(width / (double) arena.getWidth(), height / (double) arena.getHeight());
+        if (scale != 1.0) {
+            g2d.translate((width - arena.getWidth() * scale) / 2, (height - arena.getHeight() * scale) / 2);
+            g2d.scale(scale, scale);
+        }
+        
+        // Apply shake effect to entire screen if active
+        if (overlay.isShaking()) {
+            g2d.translate(overlay.getShakeOffsetX(), overlay.getShakeOffsetY());
+        }
+        
+        // Red background (with the moving background's lines), then all overlays in one fill - drawn before game elements
+        overlayPainter.drawBackground(g2d, overlay, arena.getWidth(), arena.getHeight());
+        overlayPainter.drawOverlays(g2d, overlay, arena.getWidth(), arena.getHeight());
+        
+        // Lane dividers removed - no lines separating lanes
+        
+        // Draw player, viruses and weapons/projectiles
+        entitySprites.draw(g2d, world, useSimpleDrawing(world, scale));
+        
+        // Particles are already plain squares, batched by color
+        ParticlePainter.draw(g2d, world.getParticles());
+        
+        g2d.setTransform(savedTransform);
+    }
+    
+    /**
+     * Whether entities are drawn as plain squares at this scale and crowd size
+     */
+    static boolean useSimpleDrawing(RenderSnapshot world, double scale) {
+        return scale < 0.5 || world.getEntityCount() > SIMPLE_DRAWING_ENTITIES;
+    }
+    
+    void drawSwarmInfo(Graphics2D g2d, RenderSnapshot world, SwarmMode swarm, StressMonitor monitor) {
+        // The box and title only grow when the frame rate drops, so they are painted once per size and copied
+        swarmBoxDropped = monitor.hasDropped();
+        swarmBoxLayer.draw(g2d, 0, 15, swarmBoxDropped, swarmBoxPainter);
+        updateSwarmText(world, swarm, monitor);
+        g2d.setFont(HUD_FONT);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(arenaText, 10, 55);
+        g2d.drawString(spawnRateText, 10, 75);
+        g2d.drawString(swarmCountsText, 10, 95);
+        g2d.drawString(swarmScoreText, 10, 115);
+        g2d.drawString(fpsText, 10, 135);
+        if (monitor.hasDropped()) {
+            g2d.setColor(Color.ORANGE);
+            g2d.drawString(dropText, 10, 155);
+        }
+    }
+    
+    private void paintSwarmBox(Graphics2D g2d) {
+        g2d.translate(0, -15); // Paint in screen coordinates
+        g2d.setColor(HUD_BACKGROUND);
+        g2d.fillRoundRect(0, 15, SWARM_BOX_WIDTH, swarmBoxDropped ? 150 : 130, 10, 10);
+        g2d.setFont(HUD_TITLE_FONT);
+        g2d.setColor(Color.YELLOW);
+        g2d.drawString("ENDLESS SWARM", 10, 35);
+    }
+    
+    private void updateSwarmText(RenderSnapshot world, SwarmMode swarm, StressMonitor monitor) {
+        if (world.getArena() != shownArena) {
+            shownArena = world.getArena();
+            arenaText = "Arena: " + shownArena;
+        }
+        if (world.getRound() != shownSwarmRound) {
+            shownSwarmRound = world.getRound();
+            spawnRateText = String.format("Round %d: %.0f viruses/s", shownSwarmRound, swarm.spawnRateInRound(shownSwarmRound));
+        }
+        if (world.getViruses().size() != shownSwarmViruses || world.getProjectiles().size() != shownSwarmProjectiles) {
+            shownSwarmViruses = world.getViruses().size();
+            shownSwarmProjectiles = world.getProjectiles().size();
+            swarmCountsText = "Viruses: " + shownSwarmViruses + "  Projectiles: " + shownSwarmProjectiles;
+        }
+        if (world.getVirusesDestroyed() != shownDestroyed || world.getVirusesLeaked() != shownLeaked) {
+            shownDestroyed = world.getVirusesDestroyed();
+            shownLeaked = world.getVirusesLeaked();
+            swarmScoreText = "Destroyed: " + shownDestroyed + "  Leaked: " + shownLeaked;
+        }
+        if (monitor.getLastFps() != shownFps) {
+            shownFps = monitor.getLastFps();
+            fpsText = String.format("FPS: %.1f", shownFps);
+        }
+        if (monitor.getDropEntities() != shownDropEntities) {
+            shownDropEntities = monitor.getDropEntities();
+            dropText = "Below 60 FPS from " + shownDropEntities + " entities";
+        }
+    }
+    
+    /**
+     * Print how long key presses took to reach a tick, a sound and a frame in this game, when measuring
+     * latency, and keep the report next to the saves
+     */
+    private void reportLatency() {
+        if (latencyTracker == null || latencyTracker.getArrivalToTick().getCount() == 0) return;
+        String report = latencyTracker.report("keyboard, " + describeOutput());
+        System.out.print(report);
+        saveStore.writeAsync(LATENCY_REPORT_FILE_NAME, report.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Print the stress report and keep it next to the saves, so it can be collected from each kiosk
+     */
+    private void reportStress() {
+        if (stressMonitor == null || stressMonitor.getPeakEntities() == 0) return;
+        String report = stressMonitor.report("swarm mode on screen, " + worldRenderer.getName() + " renderer, " + swarmMode.describe());
+        System.out.print(report);
+        saveStore.writeAsync(STRESS_REPORT_FILE_NAME, report.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    void drawUI(Graphics2D g2d, RenderSnapshot world) {
+        // Draw combined player info box (Game Stats, Lives, Weapon, Controls) on the right
+        drawPlayerInfoBox(g2d, world);
+        
+        // Draw weapon selection map in top right (if visible)
+        if (weaponKeyVisible) {
+            drawWeaponMap(g2d, world);
+        }
+    }
+    
+    private void drawPlayerInfoBox(Graphics2D g2d, RenderSnapshot world) {
+        // Position in top left
+        int boxX = 10;
+        int boxY = 20;
+        
+        // The box, section titles, weapon and controls only change with the weapon, so they are painted once per weapon and copied
+        infoBoxWeapon = world.getCurrentWeapon();
+        infoBoxLayer.draw(g2d, boxX - 10, boxY - 5, infoBoxWeapon, infoBoxPainter);
+        
+        // Game stats
+        g2d.setFont(HUD_FONT);
+        g2d.setColor(Color.WHITE);
+        updateStatsText(world);
+        g2d.drawString(roundText, boxX, boxY + 35);
+        g2d.drawString(virusesText, boxX, boxY + 55);
+        g2d.drawString(speedText, boxX, boxY + 75);
+        
+        // Draw hearts for lives; they only change when a life is lost, so they are painted once per count and copied
+        int lives = world.getLives();
+        int heartStartX = boxX;
+        int heartStartY = boxY + 115;
+        heartsLives = lives;
+        heartsLayer.draw(g2d, heartStartX - HEART_MARGIN, heartStartY - HEART_MARGIN, lives, heartsPainter);
+    }
+    
+    private void paintInfoBox(Graphics2D g2d) {
+        int boxX = 10;
+        int boxY = 20;
+        int boxWidth = 200;
+        g2d.translate(-(boxX - 10), -(boxY - 5)); // Paint in screen coordinates
+        
+        // Background box
+        g2d.setColor(HUD_BACKGROUND);
+        g2d.fillRoundRect(boxX - 10, boxY - 5, boxWidth, INFO_BOX_HEIGHT, 10, 10);
+        g2d.setColor(Color.WHITE);
+        g2d.setStroke(THIN_STROKE);
+        g2d.drawRoundRect(boxX - 10, boxY - 5, boxWidth, INFO_BOX_HEIGHT, 10, 10);
+        
+        // Section titles; the stats and hearts are drawn over the layer
+        g2d.setFont(HUD_TITLE_FONT);
+        g2d.setColor(Color.YELLOW);
+        g2d.drawString("GAME STATS", boxX, boxY + 15);
+        g2d.drawString("LIVES", boxX, boxY + 95);
+        
+        // Draw current weapon info
+        int weaponInfoY = boxY + 145;
+        g2d.drawString("CURRENT WEAPON", boxX, weaponInfoY);
+        g2d.setFont(HUD_FONT);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(infoBoxWeapon.getDisplayName(), boxX, weaponInfoY + 18);
+        
+        // Draw Controls section
+        int controlsY = boxY + 185;
+        g2d.setFont(HUD_TITLE_FONT);
+        g2d.setColor(Color.YELLOW);
+        g2d.drawString("CONTROLS", boxX, controlsY);
+        g2d.setFont(HUD_SMALL_FONT);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString("Space = shoot", boxX, controlsY + 18);
+        g2d.drawString("Arrows = move", boxX, controlsY + 33);
+    }
+    
+    private void updateStatsText(RenderSnapshot world) {
+        if (world.getRound() != shownRound) {
+            shownRound = world.getRound();
+            roundText = "Round: " + shownRound;
+        }
+        if (world.getVirusesRemaining() != shownVirusesRemaining || world.getVirusesPerRound() != shownVirusesPerRound) {
+            shownVirusesRemaining = world.getVirusesRemaining();
+            shownVirusesPerRound = world.getVirusesPerRound();
+            virusesText = "Viruses: " + shownVirusesRemaining + "/" + shownVirusesPerRound;
+        }
+        if (world.getRoundSpeed() != shownSpeed) {
+            shownSpeed = world.getRoundSpeed();
+            speedText = "Speed: " + String.format("%.1f", shownSpeed);
+        }
+    }
+    
+    private void paintHearts(Graphics2D g2d) {
+        g2d.setColor(Color.RED);
+        for (int i = 0; i < heartsLives; i++) {
+            drawHeart(g2d, HEART_MARGIN + i * HEART_SPACING, HEART_MARGIN, HEART_SIZE, true);
+        }
+        g2d.setColor(Color.DARK_GRAY);
+        for (int i = heartsLives; i < 3; i++) {
+            drawHeart(g2d, HEART_MARGIN + i * HEART_SPACING, HEART_MARGIN, HEART_SIZE, false);
+        }
+    }
+    
+    private void drawHeart(Graphics2D g2d, int centerX, int centerY, int size, boolean filled) {
+        // Better heart shape using smooth curves
+        int width = size;
+        int height = (int)(size * 0.8);
+        
+        // Calculate heart coordinates for a more accurate shape
+        int[] heartX = this.heartX;
+        int[] heartY = this.heartY;
+        
+        // Start from bottom point and work clockwise
+        heartX[0] = centerX;                           // Bottom point
+        heartY[0] = centerY + height/2;
+        
+        heartX[1] = centerX - width/6;                 // Bottom left curve
+        heartY[1] = centerY + height/4;
+        
+        heartX[2] = centerX - width/3;                 // Left side
+        heartY[2] = centerY;
+        
+        heartX[3] = centerX - width/3;                 // Left top curve start
+        heartY[3] = centerY - height/6;
+        
+        heartX[4] = centerX - width/4;                 // Left top
+        heartY[4] = centerY - height/3;
+        
+        heartX[5] = centerX - width/6;                 // Left top curve end
+        heartY[5] = centerY - height/3;
+        
+        heartX[6] = centerX;                           // Center top
+        heartY[6] = centerY - height/6;
+        
+        heartX[7] = centerX + width/6;                 // Right top curve start
+        heartY[7] = centerY - height/3;
+        
+        heartX[8] = centerX + width/4;                 // Right top
+        heartY[8] = centerY - height/3;
+        
+        heartX[9] = centerX + width/3;                 // Right top curve end
+        heartY[9] = centerY - height/6;
+        
+        heartX[10] = centerX + width/3;                // Right side
+        heartY[10] = centerY;
+        
+        heartX[11] = centerX + width/6;                // Bottom right curve
+        heartY[11] = centerY + height/4;
+        
+        heartX[12] = centerX;                          // Back to bottom point
+        heartY[12] = centerY + height/2;
+        
+        if (filled) {
+            g2d.fillPolygon(heartX, heartY, heartX.length);
+        } else {
+            g2d.setStroke(HEART_OUTLINE_STROKE);
+            g2d.drawPolygon(heartX, heartY, heartX.length);
+            g2d.setStroke(THIN_STROKE); // Reset stroke
+        }
+    }
+    
+    private void drawWeaponMap(Graphics2D g2d, RenderSnapshot world) {
+        // Only changes with the current weapon, so it is painted once per weapon and then copied
+        weaponMapWeapon = world.getCurrentWeapon();
+        weaponMapLayer.draw(g2d, WEAPON_MAP_X - 10, WEAPON_MAP_Y - 5, weaponMapWeapon, weaponMapPainter);
+    }
+    
+    private void paintWeaponMap(Graphics2D g2d) {
+        g2d.translate(-(WEAPON_MAP_X - 10), -(WEAPON_MAP_Y - 5)); // Paint in screen coordinates
+        
+        // Position in top right (opposite of game stats on left)
+        int mapX = WEAPON_MAP_X;
+        int mapY = WEAPON_MAP_Y;
+        int lineHeight = 25;
+        
+        // Background box
+        int boxHeight = WEAPON_MAP_HEIGHT;
+        g2d.setColor(HUD_BACKGROUND);
+        g2d.fillRoundRect(mapX - 10, mapY - 5, 200, boxHeight, 10, 10);
+        g2d.setColor(Color.WHITE);
+        g2d.setStroke(THIN_STROKE);
+        g2d.drawRoundRect(mapX - 10, mapY - 5, 200, boxHeight, 10, 10);
+        
+        // Title
+        g2d.setFont(HUD_TITLE_FONT);
+        g2d.setColor(Color.YELLOW);
+        g2d.drawString("WEAPONS KEY", mapX, mapY + 15);
+        
+        // Weapon mappings with visual indicators
+        g2d.setFont(KEY_FONT);
+        Weapons.WeaponType currentWeapon = weaponMapWeapon;
+        
+        // 1 - Spiky Ball -> Spiky Virus
+        int weaponStartY = mapY + 40;
+        g2d.setColor(currentWeapon == Weapons.WeaponType.SPIKY_BALL ? Color.CYAN : Color.LIGHT_GRAY);
+        g2d.drawString("[1]", mapX, weaponStartY);
+        g2d.setColor(Color.CYAN); // Changed from MAGENTA to CYAN to match projectile color
+        drawMiniSpikyBall(g2d, mapX + 32, weaponStartY - 4);
+        g2d.setColor(currentWeapon == Weapons.WeaponType.SPIKY_BALL ? Color.WHITE : Color.LIGHT_GRAY);
+        g2d.drawString("vs", mapX + 44, weaponStartY);
+        g2d.setColor(EntityPainter.getBaseColor(Virus.VirusType.SPIKY_VIRUS)); // Brown color to match Spiky virus
+        drawMiniVirusSpiky(g2d, mapX + 72, weaponStartY - 4);
+        g2d.setColor(currentWeapon == Weapons.WeaponType.SPIKY_BALL ? Color.WHITE : Color.LIGHT_GRAY);
+        g2d.drawString("Spiky", mapX + 92, weaponStartY);
+        
+        // 2 - Ball -> Round Virus
+        g2d.setColor(currentWeapon == Weapons.WeaponType.BALL ? Color.CYAN : Color.LIGHT_GRAY);
+        g2d.drawString("[2]", mapX, weaponStartY + lineHeight);
+        g2d.setColor(Color.YELLOW);
+        drawMiniBall(g2d, mapX + 32, weaponStartY + lineHeight - 4);
+        g2d.setColor(currentWeapon == Weapons.WeaponType.BALL ? Color.WHITE : Color.LIGHT_GRAY);
+        g2d.drawString("vs", mapX + 44, weaponStartY + lineHeight);
+        g2d.setColor(Color.GREEN);
+        drawMiniVirusRound(g2d, mapX + 72, weaponStartY + lineHeight - 4);
+        g2d.setColor(currentWeapon == Weapons.WeaponType.BALL ? Color.WHITE : Color.LIGHT_GRAY);
+        g2d.drawString("Round", mapX + 92, weaponStartY + lineHeight);
+        
+        // 3 - Star -> Star Virus
+        g2d.setColor(currentWeapon == Weapons.WeaponType.STAR ? Color.CYAN : Color.LIGHT_GRAY);
+        g2d.drawString("[3]", mapX, weaponStartY + lineHeight * 2);
+        g2d.setColor(Color.CYAN);
+        drawMiniStar(g2d, mapX + 32, weaponStartY + lineHeight * 2 - 4);
+        g2d.setColor(currentWeapon == Weapons.WeaponType.STAR ? Color.WHITE : Color.LIGHT_GRAY);
+        g2d.drawString("vs", mapX + 44, weaponStartY + lineHeight * 2);
+        g2d.setColor(Color.BLUE);
+        drawMiniVirusStar(g2d, mapX + 72, weaponStartY + lineHeight * 2 - 4);
+        g2d.setColor(currentWeapon == Weapons.WeaponType.STAR ? Color.WHITE : Color.LIGHT_GRAY);
+        g2d.drawString("Star", mapX + 92, weaponStartY + lineHeight * 2);
+        
+        // 4 - Arrow -> Arrow Virus
+        g2d.setColor(currentWeapon == Weapons.WeaponType.ARROW ? Color.CYAN : Color.LIGHT_GRAY);
+        g2d.drawString("[4]", mapX, weaponStartY + lineHeight * 3);
+        g2d.setColor(Color.WHITE);
+        drawMiniArrow(g2d, mapX + 32, weaponStartY + lineHeight * 3 - 4);
+        g2d.setColor(currentWeapon == Weapons.WeaponType.ARROW ? Color.WHITE : Color.LIGHT_GRAY);
+        g2d.drawString("vs", mapX + 44, weaponStartY + lineHeight * 3);
+        g2d.setColor(Color.ORANGE);
+        drawMiniVirusArrow(g2d, mapX + 72, weaponStartY + lineHeight * 3 - 4);
+        g2d.setColor(currentWeapon == Weapons.WeaponType.ARROW ? Color.WHITE : Color.LIGHT_GRAY);
+        g2d.drawString("Arrow", mapX + 92, weaponStartY + lineHeight * 3);
+        
+        // Legend
+        g2d.setFont(HUD_SMALL_FONT);
+        g2d.setColor(Color.LIGHT_GRAY);
+        g2d.drawString("Only effective against", mapX, weaponStartY + lineHeight * 4 + 5);
+        g2d.drawString("matching virus!", mapX, weaponStartY + lineHeight * 4 + 18);
+        
+        // Press 'i' to hide instruction (same font as weapon mappings, bolded, 2 points bigger)
+        g2d.setFont(KEY_HINT_FONT);
+        g2d.setColor(Color.LIGHT_GRAY);
+        g2d.drawString("Press 'i' to hide", mapX, weaponStartY + lineHeight * 4 + 35);
+    }
+    
+    private void drawMiniBall(Graphics2D g2d, int x, int y) {
+        g2d.fillOval(x - 4, y - 4, 8, 8);
+    }
+    
+    private void drawMiniStar(Graphics2D g2d, int x, int y) {
+        int[] starX = new int[5];
+        int[] starY = new int[5];
+        int radius = 5;
+        
+        for (int i = 0; i < 5; i++) {
+            double angle = Math.PI * 2 * i / 5.0 - Math.PI / 2;
+            starX[i] = x + (int)(radius * Math.cos(angle));
+            starY[i] = y + (int)(radius * Math.sin(angle));
+        }
+        g2d.fillPolygon(starX, starY, 5);
+    }
+    
+    private void drawMiniSpikyBall(Graphics2D g2d, int x, int y) {
+        // Main ball
+        g2d.fillOval(x - 3, y - 3, 6, 6);
+        // Mini spikes
+        g2d.drawLine(x - 5, y, x - 3, y);
+        g2d.drawLine(x + 3, y, x + 5, y);
+        g2d.drawLine(x, y - 5, x, y - 3);
+        g2d.drawLine(x, y + 3, x, y + 5);
+    }
+    
+    private void drawMiniArrow(Graphics2D g2d, int x, int y) {
+        // Arrow body
+        g2d.drawLine(x, y + 3, x, y - 3);
+        // Arrow head
+        g2d.drawLine(x, y - 3, x - 2, y - 1);
+        g2d.drawLine(x, y - 3, x + 2, y - 1);
+    }
+    
+    // Mini virus drawing methods
+    private void drawMiniVirusSpiky(Graphics2D g2d, int x, int y) {
+        // Mini spiky virus
+        g2d.fillOval(x - 4, y - 4, 8, 8);
+        // Mini spikes
+        g2d.drawLine(x - 5, y, x - 4, y);
+        g2d.drawLine(x + 4, y, x + 5, y);
+        g2d.drawLine(x, y - 5, x, y - 4);
+        g2d.drawLine(x, y + 4, x, y + 5);
+    }
+    
+    private void drawMiniVirusRound(Graphics2D g2d, int x, int y) {
+        // Simple round virus
+        g2d.fillOval(x - 4, y - 4, 8, 8);
+        g2d.drawOval(x - 3, y - 3, 6, 6);
+    }
+    
+    private void drawMiniVirusStar(Graphics2D g2d, int x, int y) {
+        // Mini 6-pointed star virus
+        int[] starX = {x, x - 2, x - 3, x - 2, x, x + 2, x + 3, x + 2};
+        int[] starY = {y - 3, y - 1, y, y + 1, y + 3, y + 1, y, y - 1};
+        g2d.fillPolygon(starX, starY, 8);
+    }
+    
+    private void drawMiniVirusArrow(Graphics2D g2d, int x, int y) {
+        // Mini arrow virus pointing down
+        int[] headX = {x - 3, x, x + 3};
+        int[] headY = {y, y + 3, y};
+        g2d.fillPolygon(headX, headY, 3);
+        g2d.fillRect(x - 1, y - 3, 2, 3);
+    }
+    
+    private void drawHomeScreen(Graphics2D g2d) {
+        // Everything but the blinking prompt comes from the cached layer, repainted when an option changes
+        int options = (practiceMode ? 1 : 0) | (saveAvailable ? 2 : 0) | (replayAvailable ? 4 : 0);
+        homeLayer.draw(g2d, options, this::paintHomeLayer);
+        
+        // Start instruction with blinking effect
+        if (FrameScheduler.isBlinkOn(clock.currentTimeMillis())) {
+            g2d.setColor(Color.GREEN);
+            g2d.setFont(LARGE_BOLD_FONT);
+            drawCentered(g2d, START_TEXT, HEIGHT - 80);
+        }
+    }
+    
+    private void paintHomeLayer(Graphics2D g2d) {
+        // Background - black
+        g2d.setColor(Color.BLACK);
+        g2d.fillRect(0, 0, WIDTH, HEIGHT);
+        
+        // Title
+        g2d.setColor(Color.RED);
+        g2d.setFont(HEADLINE_FONT);
+        drawCentered(g2d, "HEARTATTACK", 80);
+        
+        // Subtitle
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(LARGE_BOLD_FONT);
+        drawCentered(g2d, "Defend the Heart!", 130);
+        
+        // Premise
+        g2d.setColor(Color.YELLOW);
+        g2d.setFont(HEADING_FONT);
+        drawCentered(g2d, "Game Premise:", 200);
+        
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(SMALL_FONT);
+        drawCentered(g2d, "You are defending the heart organ from", 240);
+        drawCentered(g2d, "different viruses. Answer heart biology", 265);
+        drawCentered(g2d, "questions correctly to survive!", 290);
+        
+        // Controls section
+        g2d.setColor(Color.CYAN);
+        g2d.setFont(HEADING_FONT);
+        drawCentered(g2d, "Controls:", 350);
+        
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(SMALL_FONT);
+        int startY = 385;
+        int lineHeight = 25;
+        String[] controls = {
+            "Arrow Keys or A/D - Move left/right",
+            "Spacebar - Shoot current weapon",
+            "1-4 Keys - Switch weapons directly",
+            "P - Cycle through weapons",
+            "I - Toggle weapon key visibility"
+        };
+        
+        for (int i = 0; i < controls.length; i++) {
+            drawCentered(g2d, controls[i], startY + i * lineHeight);
+        }
+        
+        // Weapon info
+        g2d.setColor(Color.MAGENTA);
+        g2d.setFont(MEDIUM_BOLD_FONT);
+        int y = startY + controls.length * lineHeight + 20;
+        drawCentered(g2d, "Match weapons to virus types to destroy them!", y);
+        
+        // Practice mode toggle
+        g2d.setColor(practiceMode ? Color.ORANGE : Color.GRAY);
+        g2d.setFont(SMALL_FONT);
+        y = startY + controls.length * lineHeight + 60;
+        drawCentered(g2d, "T - Practice mode (rewind on life lost): " + (practiceMode ? "ON" : "OFF"), y);
+        
+        g2d.setColor(Color.GRAY);
+        drawCentered(g2d, "E - Endless swarm (stress test)", y + 25);
+        
+        // Continue option when there is a saved game or crash-recovery checkpoint
+        if (saveAvailable) {
+            g2d.setColor(Color.LIGHT_GRAY);
+            g2d.setFont(MEDIUM_BOLD_FONT);
+            drawCentered(g2d, "Press C to Continue saved game", HEIGHT - 45);
+        }
+        
+        // Watch the last recorded run
+        if (replayAvailable) {
+            g2d.setColor(Color.LIGHT_GRAY);
+            g2d.setFont(SMALL_FONT);
+            drawCentered(g2d, "Press V to watch the last replay", HEIGHT - 20);
+        }
+    }
+    
+    /**
+     * Draw text centred across the screen in the current font
+     */
+    private static void drawCentered(Graphics2D g2d, String text, int y) {
+        FontMetrics fm = g2d.getFontMetrics();
+        g2d.drawString(text, (WIDTH - fm.stringWidth(text)) / 2, y);
+    }
+    
+    private void drawReplayBar(Graphics2D g2d, ReplayPlayer replayPlayer, RenderSnapshot frame) {
+        Replay replay = replayPlayer.getReplay();
+        long elapsed = frame.getTick() - replay.getStartTick();
+        int barY = HEIGHT - 50;
+        
+        g2d.setColor(REPLAY_BAR_BACKGROUND);
+        g2d.fillRect(0, barY, WIDTH, 50);
+        
+        // Progress through the recording
+        int progressWidth = WIDTH - 20;
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.fillRect(10, barY + 6, progressWidth, 6);
+        g2d.setColor(Color.GREEN);
+        int filled = replay.getDurationTicks() == 0 ? progressWidth : (int) (progressWidth * elapsed / replay.getDurationTicks());
+        g2d.fillRect(10, barY + 6, filled, 6);
+        
+        String status;
+        if (replayPlayer.isFinished()) {
+            status = frame.isGameOver() ? "REPLAY - GAME OVER" : "REPLAY - END";
+        } else if (replayPlayer.isPaused()) {
+            status = "REPLAY - PAUSED";
+        } else {
+            double speed = replayPlayer.getSpeed();
+            status = "REPLAY " + (speed >= 1 ? String.valueOf((int) speed) : String.valueOf(speed)) + "x";
+        }
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(HUD_TITLE_FONT);
+        g2d.drawString(status + "   " + formatTicks(elapsed) + " / " + formatTicks(replay.getDurationTicks()), 10, barY + 30);
+        g2d.setFont(HUD_FONT);
+        g2d.drawString("SPACE pause   UP/DOWN speed   LEFT/RIGHT seek 10s   ESC exit", 10, barY + 45);
+    }
+    
+    private static String formatTicks(long ticks) {
+        long seconds = ticks / RewindBuffer.TICKS_PER_SECOND;
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+    
+    private void drawGameOver(Graphics2D g2d, RenderSnapshot world) {
+        // The card only depends on the final round, so it is drawn once per game
+        gameOverLayer.draw(g2d, world.getRound(), layer -> paintGameOverLayer(layer, world.getRound()));
+    }
+    
+    private static void paintGameOverLayer(Graphics2D g2d, int finalRound) {
+        // Pure bright red semi-transparent overlay background covering entire screen from top to bottom
+        g2d.setColor(new Color(255, 0, 0, 120)); // Pure bright red: R=255, G=0, B=0
+        g2d.fillRect(0, 0, WIDTH, HEIGHT);
+        
+        // Game Over text in white for contrast
+        g2d.setColor(Color.WHITE); // White text stands out against red background
+        g2d.setFont(HEADLINE_FONT);
+        drawCentered(g2d, "GAME OVER", HEIGHT / 2 - 50);
+        
+        // Final round info
+        g2d.setFont(LARGE_FONT);
+        drawCentered(g2d, "Final Round: " + finalRound, HEIGHT / 2 + 20);
+        
+        // Restart instruction
+        g2d.setFont(MEDIUM_FONT);
+        drawCentered(g2d, "Press R to restart", HEIGHT / 2 + 60);
+        
+        // Exit to main menu instruction
+        drawCentered(g2d, "Press ESC to return to main menu", HEIGHT / 2 + 100);
+    }
+    
+    private void drawQuiz(Graphics2D g2d) {
+        QuizManager.Question question = currentQuestion;
+        if (question == null) return;
+        
+        // The card, question and result are cached per question; only the typed answer changes per frame
+        List<Object> key = List.of(question.getId(), showingResult, answerWasCorrect);
+        boolean showResult = showingResult;
+        boolean correct = answerWasCorrect;
+        quizLayer.draw(g2d, key, layer -> paintQuizLayer(layer, question, showResult, correct));
+        
+        if (!showResult) {
+            // Input text with cursor
+            g2d.setFont(INPUT_FONT);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString(userInput + "|", QUIZ_BOX_X + 15, QUIZ_BOX_Y + 32);
+        }
+    }
+    
+    private void paintQuizLayer(Graphics2D g2d, QuizManager.Question question, boolean showResult, boolean correct) {
+        // Semi-transparent overlay
+        g2d.setColor(new Color(0, 0, 0, 180));
+        g2d.fillRect(0, 0, WIDTH, HEIGHT);
+        
+        // Quiz title
+        g2d.setColor(Color.YELLOW);
+        g2d.setFont(QUIZ_TITLE_FONT);
+        drawCentered(g2d, "QUIZ TIME!", HEIGHT / 2 - 100);
+        
+        // Question text - display the actual question, not the ID, wrapped to leave margins
+        g2d.setColor(Color.WHITE);
+        questionText.drawCentered(g2d, question.getId(), question.getText(), WIDTH, HEIGHT / 2 - 60, 30);
+        
+        if (showResult) {
+            // Show result instead of input box
+            g2d.setFont(HEADLINE_FONT);
+            if (correct) {
+                g2d.setColor(Color.GREEN);
+                drawCentered(g2d, "CORRECT!", HEIGHT / 2 + 40);
+            } else {
+                g2d.setColor(Color.RED);
+                drawCentered(g2d, "WRONG!", HEIGHT / 2 + 40);
+                
+                // Show correct answer
+                g2d.setFont(LARGE_FONT);
+                g2d.setColor(Color.YELLOW);
+                drawCentered(g2d, "Correct answer: " + question.getAnswer(), HEIGHT / 2 + 80);
+            }
+        } else {
+            // Show input box for answering
+            // Input box background
+            g2d.setColor(new Color(50, 50, 50, 200));
+            g2d.fillRoundRect(QUIZ_BOX_X, QUIZ_BOX_Y, QUIZ_BOX_WIDTH, QUIZ_BOX_HEIGHT, 10, 10);
+            
+            // Input box border
+            g2d.setColor(Color.WHITE);
+            g2d.setStroke(new BasicStroke(2));
+            g2d.drawRoundRect(QUIZ_BOX_X, QUIZ_BOX_Y, QUIZ_BOX_WIDTH, QUIZ_BOX_HEIGHT, 10, 10);
+            
+            // Input text label
+            g2d.setFont(MEDIUM_BOLD_FONT);
+            g2d.setColor(Color.CYAN);
+            g2d.drawString("Your Answer:", QUIZ_BOX_X + 10, QUIZ_BOX_Y - 10);
+            
+            // Instructions
+            g2d.setFont(SMALL_FONT);
+            g2d.setColor(Color.LIGHT_GRAY);
+            drawCentered(g2d, "Type your answer and press ENTER", HEIGHT / 2 + 100);
+            
+            // Warning
+            g2d.setColor(Color.RED);
+            g2d.setFont(MEDIUM_BOLD_FONT);
+            drawCentered(g2d, "Wrong answer will cost you a life!", HEIGHT / 2 + 130);
+        }
+    }
+    
+    @Override
+    public void keyPressed(KeyEvent e) {
+        long arrivalNanos = System.nanoTime();
+        try {
+            int key = e.getKeyCode();
+            
+            if (replayPlayer != null) {
+                handleReplayKey(key);
+                return;
+            }
+            
+            // Handle ESC key - return to home screen from anywhere
+            if (key == KeyEvent.VK_ESCAPE) {
+                if (gameOver || gameRunning) {
+                    returnToHomeScreen();
+                }
+                return;
+            }
+            
+            // Handle home screen - Enter key starts the game, C continues a saved one
+            if (showingHomeScreen) {
+                if (key == KeyEvent.VK_ENTER) {
+                    startGame();
+                } else if (key == KeyEvent.VK_C) {
+                    continueSavedGame();
+                } else if (key == KeyEvent.VK_V) {
+                    watchLastReplay();
+                } else if (key == KeyEvent.VK_E) {
+                    startSwarm();
+                } else if (key == KeyEvent.VK_T) {
+                    practiceMode = !practiceMode;
+                    repaint();
+                }
+                return;
+            }
+            
+            if (gameOver && key == KeyEvent.VK_R) {
+                startGame();
+                return;
+            }
+            
+            // Handle quiz input
+            if (showingQuiz && waitingForAnswer) {
+                if (key == KeyEvent.VK_ENTER) {
+                    submitQuizAnswer();
+                    return;
+                } else if (key == KeyEvent.VK_BACK_SPACE) {
+                    if (userInput.length() > 0) {
+                        userInput = userInput.substring(0, userInput.length() - 1);
+                        repaint(QUIZ_INPUT_BOUNDS); // Show the deleted character immediately
+                    }
+                    return;
+                }
+                // Let keyTyped handle character input for quiz
+                return;
+            }
+            
+            if (!gameRunning || gameOver) return;
+        
+        if (key == KeyEvent.VK_I) {
+            weaponKeyVisible = !weaponKeyVisible;
+            return;
+        }
+        GameInput input = inputForKey(key);
+        if (input != null && inputQueue.press(input, arrivalNanos) && latencyTracker != null) { // Applied at the start of the next tick
+            latencyTracker.keyArrived(e.getWhen());
+        }
+        } catch (Exception ex) {
+            // Catch any exceptions to prevent glitches
+            System.err.println("Error handling key press: " + ex.getMessage());
+        }
+    }
+    
+    @Override
+    public void keyReleased(KeyEvent e) {
+        // Whatever the screen, so a key released during a quiz is not still held afterwards
+        GameInput input = inputForKey(e.getKeyCode());
+        if (input != null) {
+            inputQueue.release(input);
+        }
+    }
+    
+    /**
+     * The game action bound to a key, or null
+     */
+    static GameInput inputForKey(int key) {
+        switch (key) {
+            case KeyEvent.VK_LEFT:
+            case KeyEvent.VK_A:
+                return GameInput.MOVE_LEFT;
+            case KeyEvent.VK_RIGHT:
+            case KeyEvent.VK_D:
+                return GameInput.MOVE_RIGHT;
+            case KeyEvent.VK_SPACE:
+                return GameInput.SHOOT;
+            case KeyEvent.VK_P:
+                return GameInput.SWITCH_WEAPON;
+            case KeyEvent.VK_1:
+                return GameInput.SELECT_SPIKY_BALL;
+            case KeyEvent.VK_2:
+                return GameInput.SELECT_BALL;
+            case KeyEvent.VK_3:
+                return GameInput.SELECT_STAR;
+            case KeyEvent.VK_4:
+                return GameInput.SELECT_ARROW;
+            default:
+                return null;
+        }
+    }
+    
+    @Override
+    public void keyTyped(KeyEvent e) {
+        try {
+            // Handle quiz text input
+            if (showingQuiz && waitingForAnswer) {
+                char c = e.getKeyChar();
+                if (Character.isLetterOrDigit(c) || Character.isWhitespace(c)) {
+                    userInput += c;
+                    repaint(QUIZ_INPUT_BOUNDS); // Immediately show the typed character
+                }
+            }
+        } catch (Exception ex) {
+            // Catch any exceptions to prevent glitches
+            System.err.println("Error handling key typed: " + ex.getMessage());
+        }
+    }
+}
+
@@ -0,0 +1,21 @@
+package com.maya_steph.virusdefense;
+
+import java.awt.Graphics2D;
+
+/**
+ * Draws the arena with ordinary Graphics2D calls on the calling thread
+ */
+public class Java2DRenderer implements WorldRenderer {
+    private final OverlayPainter overlayPainter = new OverlayPainter();
+    private final EntitySprites entitySprites = new EntitySprites();
+
+    @Override
+    public void render(Graphics2D g2d, RenderSnapshot world, int width, int height) {
+        GamePanel.drawWorld(g2d, world, width, height, overlayPainter, entitySprites);
+    }
+
+    @Override
+    public String getName() {
+        return "java2d";
+    }
+}
@@ -0,0 +1,139 @@
+package com.maya_steph.virusdefense;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws an OverlayEffect with Java2D in two full-screen passes at most: the background (solid red,
+ * or the scrolling lines drawn from a cached tile) and one fill of the composited overlay color.
+ * Each renderer keeps its own painter, since the cached tile belongs to one drawing surface.
+ */
+public class OverlayPainter {
+    private static final int VERTICAL_LINE_SPACING = 60;
+    private static final AffineTransform IDENTITY = new AffineTransform();
+
+    // Moving background: one tile per arena width, blitted down the screen at the scroll offset
+    private Image backgroundTile;
+    private int backgroundTileWidth;
+    // The tile scaled once to device pixels, for arenas drawn scaled
+    private BufferedImage scaledTile;
+    private double scaledTileScale;
+
+    // The composited overlay color of the last frame, reused while it does not change
+    private int overlayArgb;
+    private Color overlayColor;
+
+    /**
+     * Draw the scrolling lines and the overlays; the caller has already filled the background
+     */
+    public void draw(Graphics2D g2d, OverlayEffect overlay, int width, int height) {
+        // Draw moving background effect (forward movement illusion) - drawn first so it's behind everything
+        if (overlay.isMovingBackgroundActive()) {
+            drawMovingBackground(g2d, overlay, width, height);
+        }
+        drawOverlays(g2d, overlay, width, height);
+    }
+
+    /**
+     * Fill the background: solid red, or the red scrolling lines when the moving background runs.
+     * Either way one opaque pass, so the caller does not need to fill it first.
+     */
+    public void drawBackground(Graphics2D g2d, OverlayEffect overlay, int width, int height) {
+        if (overlay.isMovingBackgroundActive()) {
+            drawMovingBackground(g2d, overlay, width, height);
+        } else {
+            g2d.setColor(Color.RED);
+            g2d.fillRect(0, 0, width, height);
+        }
+    }
+
+    /**
+     * Darkness, red overlay and flash blended into one color and drawn in a single fill
+     */
+    public void drawOverlays(Graphics2D g2d, OverlayEffect overlay, int width, int height) {
+        int argb = overlay.overlayArgb();
+        if ((argb >>> 24) == 0) {
+            return;
+        }
+        if (overlayColor == null || argb != overlayArgb) {
+            overlayColor = new Color(argb, true);
+            overlayArgb = argb;
+        }
+        g2d.setColor(overlayColor);
+        g2d.fillRect(0, 0, width, height);
+    }
+
+    private void drawMovingBackground(Graphics2D g2d, OverlayEffect overlay, int width, int height) {
+        if (backgroundTile == null || backgroundTileWidth != width) {
+            backgroundTile = createBackgroundTile(g2d.getDeviceConfiguration(), width);
+            backgroundTileWidth = width;
+        }
+        // Horizontal speed lines scroll by moving the whole tile column
+        int tileHeight = OverlayEffect.BACKGROUND_TILE_HEIGHT;
+        AffineTransform transform = g2d.getTransform();
+        double scale = transform.getScaleX();
+        if (scale != 1.0 && scale == transform.getScaleY() && transform.getShearX() == 0 && transform.getShearY() == 0) {
+            // A scaled blit goes through Java2D's transformed-image pipeline, which makes garbage on every call,
+            // so a scaled arena copies a tile already scaled to device pixels instead
+            if (scaledTile == null || scaledTileScale != scale || scaledTile.getWidth() != (int) Math.ceil(width * scale)) {
+                scaledTile = scaleTile(backgroundTile, width, scale);
+                scaledTileScale = scale;
+            }
+            int left = (int) Math.floor(transform.getTranslateX());
+            g2d.setTransform(IDENTITY);
+            for (int y = overlay.getBackgroundBandOffset() - tileHeight; y < height; y += tileHeight) {
+                g2d.drawImage(scaledTile, left, (int) Math.floor(y * scale + transform.getTranslateY()), null);
+            }
+            g2d.setTransform(transform);
+            return;
+        }
+        for (int y = overlay.getBackgroundBandOffset() - tileHeight; y < height; y += tileHeight) {
+            g2d.drawImage(backgroundTile, 0, y, null);
+        }
+    }
+
+    /**
+     * The tile at the given scale, rounded up so bands placed at whole device pixels leave no gaps
+     */
+    private static BufferedImage scaleTile(Image tile, int width, double scale) {
+        int deviceWidth = (int) Math.ceil(width * scale);
+        int deviceHeight = (int) Math.ceil(OverlayEffect.BACKGROUND_TILE_HEIGHT * scale);
+        BufferedImage scaled = new BufferedImage(deviceWidth, deviceHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = scaled.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.drawImage(tile, 0, 0, deviceWidth, deviceHeight, null);
+        g2d.dispose();
+        return scaled;
+    }
+
+    /**
+     * One band of the background: red with a horizontal speed line along the top and slightly
+     * wavy vertical lines for depth, all composited onto the red so the tile is opaque
+     */
+    static Image createBackgroundTile(GraphicsConfiguration configuration, int width) {
+        int height = OverlayEffect.BACKGROUND_TILE_HEIGHT;
+        Image tile = configuration != null
+            ? configuration.createCompatibleImage(width, height, Transparency.OPAQUE)
+            : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = (Graphics2D) tile.getGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(Color.RED);
+        g2d.fillRect(0, 0, width, height);
+
+        g2d.setStroke(new BasicStroke(2.0f));
+        g2d.setColor(new Color(200, 0, 0, 100)); // Dark red semi-transparent lines
+        // The line straddles the tile edge, so draw both halves
+        g2d.drawLine(0, 0, width, 0);
+        g2d.drawLine(0, height, width, height);
+
+        g2d.setColor(new Color(180, 0, 0, 80)); // Slightly darker red
+        for (int x = 0; x < width; x += VERTICAL_LINE_SPACING) {
+            // Slightly offset lines for perspective; the same in every band so they stay continuous
+            int offset = (int) (Math.sin(x * 0.1) * 5);
+            g2d.drawLine(x + offset, 0, x + offset, height);
+        }
+        g2d.dispose();
+        return tile;
+    }
+}
@@ -0,0 +1,71 @@
+package com.maya_steph.virusdefense;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+
+/**
+ * Draws a particle system with Java2D, one color batch at a time
+ */
+final class ParticlePainter {
+    private static final Color[] BATCH_COLORS = new Color[ParticleSystem.getBatchCount()];
+    private static final AffineTransform IDENTITY = new AffineTransform();
+
+    static {
+        for (int b = 0; b < BATCH_COLORS.length; b++) {
+            BATCH_COLORS[b] = new Color(ParticleSystem.getBatchRgb(b));
+        }
+    }
+
+    private ParticlePainter() {}
+
+    /**
+     * Draw all particles, grouped so each color is set once
+     * @return the number of color batches drawn
+     */
+    static int draw(Graphics2D g2d, ParticleSystem particles) {
+        if (particles.getCount() == 0) return 0;
+        particles.sortByBatch();
+
+        // Draw in device pixels: whole-pixel, untransformed, unantialiased rectangles are Java2D's fastest path,
+        // while a scaled arena would otherwise send every square through the general shape pipeline
+        AffineTransform transform = g2d.getTransform();
+        Object antialiasing = g2d.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+        double scaleX = transform.getScaleX();
+        double scaleY = transform.getScaleY();
+        double offsetX = transform.getTranslateX();
+        double offsetY = transform.getTranslateY();
+        boolean deviceSpace = (transform.getType() & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_MASK_SCALE)) == 0;
+        if (deviceSpace) {
+            g2d.setTransform(IDENTITY);
+        }
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+
+        int batches = 0;
+        int next = 0;
+        for (int b = 0; b < BATCH_COLORS.length; b++) {
+            int batchSize = particles.getBatchSize(b);
+            if (batchSize == 0) continue;
+            g2d.setColor(BATCH_COLORS[b]);
+            for (int n = 0; n < batchSize; n++) {
+                int i = particles.getSorted(next++);
+                int s = particles.getSize(i);
+                double x = particles.getX(i);
+                double y = particles.getY(i);
+                if (deviceSpace) {
+                    int pixels = Math.max(1, (int) (s * scaleX + 0.5));
+                    g2d.fillRect((int) ((x - s / 2) * scaleX + offsetX), (int) ((y - s / 2) * scaleY + offsetY), pixels, pixels);
+                } else {
+                    g2d.fillRect((int) x - s / 2, (int) y - s / 2, s, s);
+                }
+            }
+            batches++;
+        }
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing);
+        if (deviceSpace) {
+            g2d.setTransform(transform);
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,49 @@
+package com.maya_steph.virusdefense;
+
+/**
+ * The real time, with Swing timers that run their actions on the event dispatch thread, where
+ * the game panel expects them
+ */
+public class SwingClock implements GameClock {
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public Timer createTimer(int delayMillis, boolean repeats, Runnable action) {
+        javax.swing.Timer timer = new javax.swing.Timer(delayMillis, e -> action.run());
+        timer.setRepeats(repeats);
+        return new Timer() {
+            @Override
+            public void start() {
+                timer.start();
+            }
+
+            @Override
+            public void stop() {
+                timer.stop();
+            }
+
+            @Override
+            public boolean isRunning() {
+                return timer.isRunning();
+            }
+
+            @Override
+            public boolean isRepeats() {
+                return timer.isRepeats();
+            }
+
+            @Override
+            public int getDelay() {
+                return timer.getDelay();
+            }
+        };
+    }
+}
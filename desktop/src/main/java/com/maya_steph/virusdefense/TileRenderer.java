@@ -0,0 +1,594 @@
+package com.maya_steph.virusdefense;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Software renderer for machines where Java2D falls back to its single-threaded software pipeline.
+ *
+ * Each frame is drawn in three steps:
+ * 1. On the calling thread, the world is turned into a display list of sprites and plain rectangles in
+ *    device pixels. Each distinct look of an entity (type, damage, scale) is drawn once with its own
+ *    draw method into a sprite, so the result looks the same as the Java2D renderer.
+ * 2. The framebuffer is split into TILE_SIZE x TILE_SIZE tiles; every tile lists the commands that
+ *    touch it, in drawing order. Tiles are rasterized in parallel on a fork/join pool: background,
+ *    overlay blend, then the tile's commands, clipped to the tile. No two tasks write the same pixels.
+ * 3. The finished int[] framebuffer is blitted with a single drawImage.
+ */
+public class TileRenderer implements WorldRenderer {
+    static final int TILE_SIZE = 64;
+
+    private static final int BLACK = 0x000000;
+    private static final int RED = 0xFF0000;
+    private static final byte RECT = 0;
+    private static final byte SPRITE = 1;
+    private static final int TILES_PER_TASK = 2;
+    private static final int SPRITE_VERSION = 2; // Bump when any entity's draw method changes
+    private static final int RECENT_SPRITE_BITS = 6;
+    private static final long ATLAS_SAVE_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final int threads;
+    private final ForkJoinPool pool; // null when a single thread draws on the caller's thread
+
+    private BufferedImage frame;
+    private int[] pixels;
+    private int width;
+    private int height;
+    private int tilesX;
+    private int tileCount;
+
+    // Where the arena lands in the framebuffer this frame
+    private double scale;
+    private double offsetX;
+    private double offsetY;
+    private int arenaLeft;
+    private int arenaTop;
+    private int arenaRight;
+    private int arenaBottom;
+    private int overlayArgb;
+    private boolean movingBackground;
+    private int bandOffset;
+
+    // The background band scaled to device pixels
+    private int[] band;
+    private int bandWidth;
+    private int bandHeight;
+
+    // Display list in drawing order
+    private int commandCount;
+    private byte[] kinds = new byte[256];
+    private int[] xs = new int[256];
+    private int[] ys = new int[256];
+    private int[] widths = new int[256];
+    private int[] heights = new int[256];
+    private int[] colors = new int[256];
+    private Sprite[] sprites = new Sprite[256];
+
+    // Per tile, the indices of the commands touching it
+    private int[][] bins = new int[0][];
+    private int[] binCounts = new int[0];
+
+    private final Map<Long, Sprite> spriteCache = new HashMap<>();
+    private double spriteScale;
+    // Direct-mapped table in front of spriteCache, so looking up every entity's sprite every frame
+    // does not box the key
+    private final long[] recentSpriteKeys = new long[1 << RECENT_SPRITE_BITS];
+    private final Sprite[] recentSprites = new Sprite[1 << RECENT_SPRITE_BITS];
+
+    // Sprites of the current scale are kept in the asset cache as one atlas, saved when new ones appear
+    private final AssetCache assets;
+    private boolean atlasDirty;
+    private long lastAtlasSave;
+
+    public TileRenderer(int threads) {
+        this(threads, AssetCache.getDefault());
+    }
+
+    public TileRenderer(int threads, AssetCache assets) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Renderer needs at least one thread");
+        }
+        this.threads = threads;
+        this.assets = assets;
+        this.pool = threads == 1 ? null : new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("tile-renderer-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * An entity drawn once into ARGB pixels, cropped to what was drawn
+     */
+    static final class Sprite {
+        final int width;
+        final int height;
+        final int anchorX; // The entity's position within the sprite
+        final int anchorY;
+        final int[] argb;
+        final boolean opaque;
+
+        Sprite(int width, int height, int anchorX, int anchorY, int[] argb, boolean opaque) {
+            this.width = width;
+            this.height = height;
+            this.anchorX = anchorX;
+            this.anchorY = anchorY;
+            this.argb = argb;
+            this.opaque = opaque;
+        }
+    }
+
+    @Override
+    public void render(Graphics2D g2d, RenderSnapshot world, int width, int height) {
+        ensureFramebuffer(width, height);
+        Arena arena = world.getArena();
+        OverlayEffect overlay = world.getOverlay();
+
+        scale = Math.min(width / (double) arena.getWidth(), height / (double) arena.getHeight());
+        offsetX = (width - arena.getWidth() * scale) / 2;
+        offsetY = (height - arena.getHeight() * scale) / 2;
+        if (overlay.isShaking()) {
+            offsetX += overlay.getShakeOffsetX() * scale;
+            offsetY += overlay.getShakeOffsetY() * scale;
+        }
+        arenaLeft = (int) Math.round(offsetX);
+        arenaTop = (int) Math.round(offsetY);
+        arenaRight = (int) Math.round(offsetX + arena.getWidth() * scale);
+        arenaBottom = (int) Math.round(offsetY + arena.getHeight() * scale);
+        if (scale != spriteScale) {
+            saveAtlas();
+            clearSprites();
+            spriteScale = scale;
+            loadAtlas();
+        }
+
+        movingBackground = overlay.isMovingBackgroundActive();
+        if (movingBackground) {
+            ensureBand(arena.getWidth());
+            bandOffset = (int) Math.round(overlay.getBackgroundBandOffset() * scale);
+        }
+        overlayArgb = overlay.overlayArgb();
+
+        buildDisplayList(world);
+        if (pool == null) {
+            for (int tile = 0; tile < tileCount; tile++) {
+                renderTile(tile);
+            }
+        } else {
+            pool.invoke(new TileRange(0, tileCount));
+        }
+        g2d.drawImage(frame, 0, 0, null);
+
+        if (atlasDirty && System.nanoTime() - lastAtlasSave > ATLAS_SAVE_INTERVAL_NANOS) {
+            saveAtlas();
+        }
+    }
+
+    private void ensureFramebuffer(int width, int height) {
+        if (frame != null && this.width == width && this.height == height) return;
+        this.width = width;
+        this.height = height;
+        frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+        tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        tileCount = tilesX * ((height + TILE_SIZE - 1) / TILE_SIZE);
+        bins = new int[tileCount][16];
+        binCounts = new int[tileCount];
+    }
+
+    /**
+     * Scale OverlayEffect's background band to device pixels, once per arena width and scale
+     */
+    private void ensureBand(int arenaWidth) {
+        int deviceWidth = Math.max(1, arenaRight - arenaLeft);
+        int deviceHeight = Math.max(1, (int) Math.round(OverlayEffect.BACKGROUND_TILE_HEIGHT * scale));
+        if (band != null && bandWidth == deviceWidth && bandHeight == deviceHeight) return;
+
+        Image tile = OverlayPainter.createBackgroundTile(null, arenaWidth);
+        BufferedImage scaled = new BufferedImage(deviceWidth, deviceHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = scaled.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.drawImage(tile, 0, 0, deviceWidth, deviceHeight, null);
+        g2d.dispose();
+        band = scaled.getRGB(0, 0, deviceWidth, deviceHeight, null, 0, deviceWidth);
+        bandWidth = deviceWidth;
+        bandHeight = deviceHeight;
+    }
+
+    private void buildDisplayList(RenderSnapshot world) {
+        commandCount = 0;
+        Arrays.fill(binCounts, 0);
+
+        Player player = world.getPlayer();
+        long playerKey = spriteKey(0, 0, 0, player.getSize(), false);
+        Sprite playerSprite = cachedSprite(playerKey);
+        if (playerSprite == null) {
+            playerSprite = rasterize(player.getSize(), player.getX(), player.getY(), g -> EntityPainter.draw(g, player), false);
+            cacheSprite(playerKey, playerSprite);
+        }
+        addSprite(playerSprite, player.getX(), player.getY());
+
+        boolean simple = GamePanel.useSimpleDrawing(world, scale);
+        for (Virus virus : world.getViruses()) {
+            int y = (int) virus.getY();
+            long key = spriteKey(1, virus.getVirusType().ordinal(), Math.min(virus.getHitCount(), 2), virus.getSize(), simple);
+            Sprite sprite = cachedSprite(key);
+            if (sprite == null) {
+                sprite = rasterize(virus.getSize(), virus.getX(), y, simple ? g -> EntityPainter.drawSimple(g, virus) : g -> EntityPainter.draw(g, virus), simple);
+                cacheSprite(key, sprite);
+            }
+            addSprite(sprite, virus.getX(), y);
+        }
+        for (Weapons.ProjectileBall projectile : world.getProjectiles()) {
+            int x = (int) projectile.getX();
+            int y = (int) projectile.getY();
+            long key = spriteKey(2, projectile.getWeaponType().ordinal(), 0, projectile.getSize(), simple);
+            Sprite sprite = cachedSprite(key);
+            if (sprite == null) {
+                sprite = rasterize(projectile.getSize(), x, y, simple ? g -> EntityPainter.drawSimple(g, projectile) : g -> EntityPainter.draw(g, projectile), simple);
+                cacheSprite(key, sprite);
+            }
+            addSprite(sprite, x, y);
+        }
+
+        addParticles(world.getParticles());
+    }
+
+    /**
+     * The particles as the same device-pixel squares ParticlePainter fills
+     */
+    private void addParticles(ParticleSystem particles) {
+        for (int i = 0; i < particles.getCount(); i++) {
+            int s = particles.getSize(i);
+            int pixels = Math.max(1, (int) (s * scale + 0.5));
+            fillRect((int) ((particles.getX(i) - s / 2) * scale + offsetX), (int) ((particles.getY(i) - s / 2) * scale + offsetY),
+                pixels, pixels, 0xFF000000 | ParticleSystem.getBatchRgb(particles.getBatch(i)));
+        }
+    }
+
+    private static long spriteKey(int kind, int type, int variant, int size, boolean simple) {
+        return (long) kind << 40 | (long) type << 32 | (long) variant << 24 | (long) size << 1 | (simple ? 1 : 0);
+    }
+
+    private Sprite cachedSprite(long key) {
+        int slot = (Long.hashCode(key) * 0x9E3779B9) >>> (32 - RECENT_SPRITE_BITS);
+        Sprite sprite = recentSprites[slot];
+        if (sprite != null && recentSpriteKeys[slot] == key) {
+            return sprite;
+        }
+        sprite = spriteCache.get(key);
+        if (sprite != null) {
+            recentSpriteKeys[slot] = key;
+            recentSprites[slot] = sprite;
+        }
+        return sprite;
+    }
+
+    private void cacheSprite(long key, Sprite sprite) {
+        spriteCache.put(key, sprite);
+        atlasDirty = true;
+    }
+
+    private void clearSprites() {
+        spriteCache.clear();
+        Arrays.fill(recentSprites, null);
+    }
+
+    /**
+     * Draw an entity at the current scale into a sprite, with its position at the anchor
+     */
+    private Sprite rasterize(int size, int x, int y, Consumer<Graphics2D> draw, boolean simple) {
+        int reach = (int) Math.ceil((size + 8) * scale); // Spikes and glows reach past the entity's size
+        int extent = 2 * reach + 1;
+        BufferedImage image = new BufferedImage(extent, extent, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+            simple ? RenderingHints.VALUE_ANTIALIAS_OFF : RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.translate(reach, reach);
+        g2d.scale(scale, scale);
+        g2d.translate(-x, -y);
+        draw.accept(g2d);
+        g2d.dispose();
+        int[] argb = image.getRGB(0, 0, extent, extent, null, 0, extent);
+
+        int minX = extent;
+        int minY = extent;
+        int maxX = -1;
+        int maxY = -1;
+        for (int py = 0; py < extent; py++) {
+            for (int px = 0; px < extent; px++) {
+                if ((argb[py * extent + px] >>> 24) != 0) {
+                    minX = Math.min(minX, px);
+                    maxX = Math.max(maxX, px);
+                    minY = Math.min(minY, py);
+                    maxY = Math.max(maxY, py);
+                }
+            }
+        }
+        if (maxX < 0) {
+            return new Sprite(0, 0, 0, 0, new int[0], true);
+        }
+
+        int croppedWidth = maxX - minX + 1;
+        int croppedHeight = maxY - minY + 1;
+        int[] cropped = new int[croppedWidth * croppedHeight];
+        boolean opaque = true;
+        for (int py = 0; py < croppedHeight; py++) {
+            System.arraycopy(argb, (minY + py) * extent + minX, cropped, py * croppedWidth, croppedWidth);
+        }
+        for (int pixel : cropped) {
+            opaque &= (pixel >>> 24) == 255;
+        }
+        return new Sprite(croppedWidth, croppedHeight, reach - minX, reach - minY, cropped, opaque);
+    }
+
+    private void addSprite(Sprite sprite, int x, int y) {
+        if (sprite.width == 0) return;
+        int deviceX = (int) Math.floor(x * scale + offsetX) - sprite.anchorX;
+        int deviceY = (int) Math.floor(y * scale + offsetY) - sprite.anchorY;
+        add(SPRITE, deviceX, deviceY, sprite.width, sprite.height, 0, sprite);
+    }
+
+    /**
+     * Add a filled rectangle in device pixels
+     * @param argb color; translucent colors are blended
+     */
+    void fillRect(int x, int y, int w, int h, int argb) {
+        add(RECT, x, y, w, h, argb, null);
+    }
+
+    private void add(byte kind, int x, int y, int w, int h, int color, Sprite sprite) {
+        int right = Math.min(width, x + w);
+        int bottom = Math.min(height, y + h);
+        int left = Math.max(0, x);
+        int top = Math.max(0, y);
+        if (left >= right || top >= bottom) return;
+
+        if (commandCount == kinds.length) {
+            int capacity = commandCount * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            widths = Arrays.copyOf(widths, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+            sprites = Arrays.copyOf(sprites, capacity);
+        }
+        int command = commandCount++;
+        kinds[command] = kind;
+        xs[command] = x;
+        ys[command] = y;
+        widths[command] = w;
+        heights[command] = h;
+        colors[command] = color;
+        sprites[command] = sprite;
+
+        for (int ty = top / TILE_SIZE; ty <= (bottom - 1) / TILE_SIZE; ty++) {
+            for (int tx = left / TILE_SIZE; tx <= (right - 1) / TILE_SIZE; tx++) {
+                int tile = ty * tilesX + tx;
+                if (binCounts[tile] == bins[tile].length) {
+                    bins[tile] = Arrays.copyOf(bins[tile], binCounts[tile] * 2);
+                }
+                bins[tile][binCounts[tile]++] = command;
+            }
+        }
+    }
+
+    /**
+     * Tiles split in halves until each task has a couple of them
+     */
+    private final class TileRange extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        TileRange(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TILES_PER_TASK) {
+                for (int tile = from; tile < to; tile++) {
+                    renderTile(tile);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TileRange(from, middle), new TileRange(middle, to));
+            }
+        }
+    }
+
+    private void renderTile(int tile) {
+        int x0 = (tile % tilesX) * TILE_SIZE;
+        int y0 = (tile / tilesX) * TILE_SIZE;
+        int x1 = Math.min(width, x0 + TILE_SIZE);
+        int y1 = Math.min(height, y0 + TILE_SIZE);
+
+        drawBackground(x0, y0, x1, y1);
+        if ((overlayArgb >>> 24) != 0) {
+            blendRect(Math.max(x0, arenaLeft), Math.max(y0, arenaTop), Math.min(x1, arenaRight), Math.min(y1, arenaBottom), overlayArgb);
+        }
+
+        int[] bin = bins[tile];
+        for (int n = 0; n < binCounts[tile]; n++) {
+            int command = bin[n];
+            int left = Math.max(x0, xs[command]);
+            int top = Math.max(y0, ys[command]);
+            int right = Math.min(x1, xs[command] + widths[command]);
+            int bottom = Math.min(y1, ys[command] + heights[command]);
+            if (kinds[command] == SPRITE) {
+                drawSprite(sprites[command], xs[command], ys[command], left, top, right, bottom);
+            } else if ((colors[command] >>> 24) == 255) {
+                for (int y = top; y < bottom; y++) {
+                    Arrays.fill(pixels, y * width + left, y * width + right, colors[command]);
+                }
+            } else {
+                blendRect(left, top, right, bottom, colors[command]);
+            }
+        }
+    }
+
+    /**
+     * Black outside the arena; red or the scrolling band inside it
+     */
+    private void drawBackground(int x0, int y0, int x1, int y1) {
+        int left = Math.min(x1, Math.max(x0, arenaLeft));
+        int right = Math.max(left, Math.min(x1, arenaRight));
+        for (int y = y0; y < y1; y++) {
+            int row = y * width;
+            if (y < arenaTop || y >= arenaBottom) {
+                Arrays.fill(pixels, row + x0, row + x1, BLACK);
+                continue;
+            }
+            Arrays.fill(pixels, row + x0, row + left, BLACK);
+            Arrays.fill(pixels, row + right, row + x1, BLACK);
+            if (movingBackground) {
+                int bandRow = Math.floorMod(y - arenaTop - bandOffset, bandHeight);
+                int length = Math.min(right, arenaLeft + bandWidth) - left;
+                if (length > 0) {
+                    System.arraycopy(band, bandRow * bandWidth + left - arenaLeft, pixels, row + left, length);
+                }
+            } else {
+                Arrays.fill(pixels, row + left, row + right, RED);
+            }
+        }
+    }
+
+    private void drawSprite(Sprite sprite, int x, int y, int left, int top, int right, int bottom) {
+        int[] argb = sprite.argb;
+        for (int py = top; py < bottom; py++) {
+            int source = (py - y) * sprite.width + left - x;
+            int target = py * width + left;
+            if (sprite.opaque) {
+                System.arraycopy(argb, source, pixels, target, right - left);
+                continue;
+            }
+            for (int px = left; px < right; px++, source++, target++) {
+                int pixel = argb[source];
+                int alpha = pixel >>> 24;
+                if (alpha == 255) {
+                    pixels[target] = pixel;
+                } else if (alpha != 0) {
+                    pixels[target] = blend(pixels[target], pixel, alpha);
+                }
+            }
+        }
+    }
+
+    private void blendRect(int left, int top, int right, int bottom, int argb) {
+        int alpha = argb >>> 24;
+        for (int y = top; y < bottom; y++) {
+            for (int i = y * width + left, end = y * width + right; i < end; i++) {
+                pixels[i] = blend(pixels[i], argb, alpha);
+            }
+        }
+    }
+
+    /**
+     * Source-over of a non-premultiplied ARGB color onto an opaque pixel
+     */
+    static int blend(int destination, int source, int alpha) {
+        int inverse = 255 - alpha;
+        int red = divide255(((source >> 16) & 0xFF) * alpha + ((destination >> 16) & 0xFF) * inverse);
+        int green = divide255(((source >> 8) & 0xFF) * alpha + ((destination >> 8) & 0xFF) * inverse);
+        int blue = divide255((source & 0xFF) * alpha + (destination & 0xFF) * inverse);
+        return red << 16 | green << 8 | blue;
+    }
+
+    private static int divide255(int value) {
+        value += 128;
+        return (value + (value >> 8)) >> 8; // Rounded value / 255 without a division
+    }
+
+    /**
+     * The last frame, for tests
+     */
+    BufferedImage getFrame() {
+        return frame;
+    }
+
+    @Override
+    public String getName() {
+        return "tiles (" + threads + (threads == 1 ? " thread)" : " threads)");
+    }
+
+    /**
+     * Sprites drawn at this scale in an earlier run; the key includes the Java version, since font and
+     * antialiasing output may differ between runtimes
+     */
+    private String atlasKey() {
+        return AssetCache.key("sprites", SPRITE_VERSION, spriteScale, System.getProperty("java.version"));
+    }
+
+    private void loadAtlas() {
+        ByteBuffer atlas = assets.read(atlasKey());
+        if (atlas == null) {
+            return;
+        }
+        try {
+            int count = atlas.getInt();
+            for (int i = 0; i < count; i++) {
+                long key = atlas.getLong();
+                int spriteWidth = atlas.getInt();
+                int spriteHeight = atlas.getInt();
+                int anchorX = atlas.getInt();
+                int anchorY = atlas.getInt();
+                boolean opaque = atlas.get() != 0;
+                int[] argb = new int[spriteWidth * spriteHeight];
+                atlas.asIntBuffer().get(argb);
+                atlas.position(atlas.position() + argb.length * 4);
+                spriteCache.put(key, new Sprite(spriteWidth, spriteHeight, anchorX, anchorY, argb, opaque));
+            }
+        } catch (Exception e) {
+            System.err.println("Ignoring damaged sprite atlas: " + e);
+            clearSprites();
+        }
+    }
+
+    private void saveAtlas() {
+        if (!atlasDirty) {
+            return;
+        }
+        atlasDirty = false;
+        lastAtlasSave = System.nanoTime();
+        int size = 4;
+        for (Sprite sprite : spriteCache.values()) {
+            size += 25 + sprite.argb.length * 4;
+        }
+        ByteBuffer atlas = ByteBuffer.allocate(size);
+        atlas.putInt(spriteCache.size());
+        for (Map.Entry<Long, Sprite> entry : spriteCache.entrySet()) {
+            Sprite sprite = entry.getValue();
+            atlas.putLong(entry.getKey());
+            atlas.putInt(sprite.width).putInt(sprite.height).putInt(sprite.anchorX).putInt(sprite.anchorY);
+            atlas.put((byte) (sprite.opaque ? 1 : 0));
+            atlas.asIntBuffer().put(sprite.argb);
+            atlas.position(atlas.position() + sprite.argb.length * 4);
+        }
+        assets.writeAsync(atlasKey(), atlas.array());
+    }
+
+    int getCachedSpriteCount() {
+        return spriteCache.size();
+    }
+
+    @Override
+    public void close() {
+        saveAtlas();
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.maya_steph.virusdefense;
+
+import java.awt.Graphics2D;
+
+/**
+ * Draws the arena (background, overlays, player, viruses, projectiles and particles) into the
+ * top-left width x height area of a graphics context. The HUD and menus are text and stay on Java2D.
+ *
+ * Chosen with the heartattack.renderer property: "java2d" (default) draws straight through Graphics2D,
+ * "tiles" rasterizes into a framebuffer on several threads (see TileRenderer).
+ */
+public interface WorldRenderer extends AutoCloseable {
+    String PROPERTY = "heartattack.renderer";
+    String THREADS_PROPERTY = "heartattack.renderer.threads";
+
+    void render(Graphics2D g2d, RenderSnapshot world, int width, int height);
+
+    /**
+     * Short description for reports, e.g. "tiles (8 threads)"
+     */
+    String getName();
+
+    /**
+     * Release worker threads; the renderer is not used afterwards
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * The renderer selected by the heartattack.renderer and heartattack.renderer.threads properties
+     */
+    static WorldRenderer fromSystemProperties() {
+        String name = System.getProperty(PROPERTY, "java2d");
+        switch (name) {
+            case "java2d":
+                return new Java2DRenderer();
+            case "tiles":
+                int threads = Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+                return new TileRenderer(Math.max(1, threads));
+            default:
+                System.err.println("Unknown renderer '" + name + "', using java2d");
+                return new Java2DRenderer();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.maya_steph.virusdefense;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Text wrapped at word boundaries to fit a width, with each line laid out once as a glyph vector
+ * and kept under a key (the quiz uses question ids), so long texts are not measured and shaped
+ * again every time they are shown. Layouts can be prepared ahead on another thread.
+ */
+public class WrappedText {
+    // Matches the game's graphics: antialiased, whole-pixel metrics
+    private static final FontRenderContext FONT_RENDER_CONTEXT = new FontRenderContext(null, true, false);
+
+    private final Font font;
+    private final int maxWidth;
+    private final Map<String, List<GlyphVector>> layouts = new ConcurrentHashMap<>();
+
+    public WrappedText(Font font, int maxWidth) {
+        this.font = font;
+        this.maxWidth = maxWidth;
+    }
+
+    /**
+     * The wrapped lines of text, laid out the first time the key is seen
+     */
+    public List<GlyphVector> getLines(String key, String text) {
+        return layouts.computeIfAbsent(key, k -> wrap(text));
+    }
+
+    /**
+     * Draw the lines centred across areaWidth, the first baseline at y
+     */
+    public void drawCentered(Graphics2D g2d, String key, String text, int areaWidth, int y, int lineHeight) {
+        for (GlyphVector line : getLines(key, text)) {
+            int x = (areaWidth - width(line)) / 2;
+            g2d.drawGlyphVector(line, x, y);
+            y += lineHeight;
+        }
+    }
+
+    int getCachedCount() {
+        return layouts.size();
+    }
+
+    private List<GlyphVector> wrap(String text) {
+        List<GlyphVector> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" ")) {
+            String testLine = line.length() == 0 ? word : line + " " + word;
+            if (width(testLine) > maxWidth && line.length() > 0) {
+                lines.add(font.createGlyphVector(FONT_RENDER_CONTEXT, line.toString()));
+                line = new StringBuilder(word);
+            } else {
+                line.append(line.length() == 0 ? word : " " + word);
+            }
+        }
+        if (line.length() > 0) {
+            lines.add(font.createGlyphVector(FONT_RENDER_CONTEXT, line.toString()));
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    private int width(String text) {
+        return (int) (0.5 + font.getStringBounds(text, FONT_RENDER_CONTEXT).getWidth());
+    }
+
+    private static int width(GlyphVector line) {
+        return (int) (0.5 + line.getLogicalBounds().getWidth());
+    }
+}
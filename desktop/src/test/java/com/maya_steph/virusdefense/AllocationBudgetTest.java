@@ -0,0 +1,202 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.function.BiConsumer;
+
+/**
+ * Allocation budgets for steady play: the headless simulation runs for thousands of ticks at several
+ * entity counts while the JVM's per-thread allocation counter is read around each phase. After a
+ * warm-up, the average bytes allocated per tick must stay within the phase's budget. Averages leave
+ * room for rare events such as a new round; anything allocated per entity or per tick goes far over.
+ * Every scenario is drawn with both renderers: Java2D, the default, and the tile renderer.
+ */
+public class AllocationBudgetTest {
+    private static final int WARM_UP_TICKS = 2000;
+    private static final int MEASURED_TICKS = 3000;
+
+    // Average bytes per tick
+    private static final long UPDATE_BUDGET = 32;
+    private static final long COLLISION_BUDGET = 8;
+    // Render snapshot and the renderer drawing offscreen. Java2D's image blits allocate a little until
+    // the JIT has compiled them, and the Java2D painters each copy the transform (72 bytes) to switch to device
+    // pixels, so this is a fixed allowance; garbage per entity still fails the swarm tests.
+    private static final long RENDER_BUDGET = 384;
+    // The HUD's boxes and titles are cached layers, so Java2D allocates nothing for them; what remains are
+    // the stat lines rebuilt when their numbers change, which in a swarm is most ticks.
+    private static final long HUD_BUDGET = 192;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private GamePanel gamePanel;
+    private TileRenderer tileRenderer;
+
+    /**
+     * Bytes allocated in each phase over the measured ticks
+     */
+    private static final class Allocations {
+        final String renderer;
+        long update;
+        long collision;
+        long render;
+        long hud;
+        int peakEntities;
+
+        Allocations(String renderer) {
+            this.renderer = renderer;
+        }
+    }
+
+    /**
+     * Reads the allocation counter around the collision pass inside update()
+     */
+    private final class CollisionMeter implements GameSimulation.CollisionProbe {
+        long bytes;
+        private long start;
+
+        @Override
+        public void beforeCollisions() {
+            start = allocatedBytes();
+        }
+
+        @Override
+        public void afterCollisions() {
+            bytes += allocatedBytes() - start;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        gamePanel = new GamePanel();
+        tileRenderer = new TileRenderer(1); // Draws on this thread, so its allocations are counted
+    }
+
+    @AfterEach
+    void tearDown() {
+        tileRenderer.close();
+    }
+
+    private WorldRenderer[] renderers() {
+        return new WorldRenderer[] {new Java2DRenderer(), tileRenderer};
+    }
+
+    @Test
+    void testStandardGameStaysWithinBudgets() {
+        for (WorldRenderer renderer : renderers()) {
+            GameSimulation simulation = new GameSimulation(47L);
+            simulation.setLogging(false);
+            simulation.startNewGame(47L);
+
+            Allocations allocations = run(simulation, renderer, () -> {
+                if (simulation.isGameOver()) {
+                    simulation.startNewGame(simulation.getSeed() + 1);
+                }
+                for (GameInput input : TestBot.inputs(simulation)) {
+                    simulation.applyInput(input);
+                }
+            }, gamePanel::drawUI);
+
+            assertWithinBudgets(allocations);
+        }
+    }
+
+    @Test
+    void testHundredsOfEntitiesStayWithinBudgets() {
+        for (WorldRenderer renderer : renderers()) {
+            SwarmMode swarmMode = new SwarmMode(new Arena(600, 800, 3), 60, 0, 2.0, 8);
+            Allocations allocations = runSwarm(swarmMode, renderer);
+
+            assertTrue(allocations.peakEntities > 300, allocations.peakEntities + " entities");
+            assertWithinBudgets(allocations);
+        }
+    }
+
+    @Test
+    void testThousandsOfEntitiesStayWithinBudgets() {
+        // Zoomed out and crowded, so entities are drawn as plain squares
+        for (WorldRenderer renderer : renderers()) {
+            SwarmMode swarmMode = new SwarmMode(new Arena(1920, 1200, 32), 600, 0, 2.0, 4);
+            Allocations allocations = runSwarm(swarmMode, renderer);
+
+            assertTrue(allocations.peakEntities > 3000, allocations.peakEntities + " entities");
+            assertWithinBudgets(allocations);
+        }
+    }
+
+    /**
+     * Swarm mode draws its own HUD, with the frame rate measured as the panel does
+     */
+    private Allocations runSwarm(SwarmMode swarmMode, WorldRenderer renderer) {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLogging(false);
+        swarmMode.start(simulation, 47L);
+        StressMonitor stressMonitor = new StressMonitor();
+        return run(simulation, renderer, () -> swarmMode.beforeTick(simulation), (g2d, snapshot) -> {
+            gamePanel.drawSwarmInfo(g2d, snapshot, swarmMode, stressMonitor);
+            stressMonitor.frameFinished(System.nanoTime(), snapshot.getEntityCount(), snapshot.getRound());
+        });
+    }
+
+    /**
+     * Play the simulation, drawing every tick into an offscreen image like GamePanel does.
+     * The collision pass is measured inside update() and left out of the update's own figure.
+     * @param beforeTick player or turret input; not measured
+     * @param hud draws the HUD over the world
+     */
+    private Allocations run(GameSimulation simulation, WorldRenderer renderer, Runnable beforeTick,
+                            BiConsumer<Graphics2D, RenderSnapshot> hud) {
+        RenderSnapshot snapshot = new RenderSnapshot();
+        BufferedImage image = new BufferedImage(GameSimulation.WIDTH, GameSimulation.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Allocations allocations = new Allocations(renderer.getName());
+        CollisionMeter collisions = new CollisionMeter();
+        simulation.setCollisionProbe(collisions);
+        try {
+            for (int i = 0; i < WARM_UP_TICKS + MEASURED_TICKS; i++) {
+                beforeTick.run();
+                long collidedBefore = collisions.bytes;
+                long start = allocatedBytes();
+                simulation.update();
+                long updated = allocatedBytes();
+                snapshot.capture(simulation);
+                renderer.render(g2d, snapshot, GameSimulation.WIDTH, GameSimulation.HEIGHT);
+                long rendered = allocatedBytes();
+                hud.accept(g2d, snapshot);
+                long hudDrawn = allocatedBytes();
+
+                if (i >= WARM_UP_TICKS) {
+                    long collided = collisions.bytes - collidedBefore;
+                    allocations.collision += collided;
+                    allocations.update += updated - start - collided;
+                    allocations.render += rendered - updated;
+                    allocations.hud += hudDrawn - rendered;
+                    allocations.peakEntities = Math.max(allocations.peakEntities, snapshot.getEntityCount());
+                }
+            }
+        } finally {
+            g2d.dispose();
+            simulation.setCollisionProbe(null);
+        }
+        return allocations;
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void assertWithinBudgets(Allocations allocations) {
+        String entities = " bytes per tick with up to " + allocations.peakEntities + " entities, "
+            + allocations.renderer + " renderer";
+        assertTrue(allocations.update / MEASURED_TICKS <= UPDATE_BUDGET, "update allocated " + allocations.update / MEASURED_TICKS + entities);
+        assertTrue(allocations.collision / MEASURED_TICKS <= COLLISION_BUDGET, "collisions allocated " + allocations.collision / MEASURED_TICKS + entities);
+        assertTrue(allocations.render / MEASURED_TICKS <= RENDER_BUDGET, "rendering allocated " + allocations.render / MEASURED_TICKS + entities);
+        assertTrue(allocations.hud / MEASURED_TICKS <= HUD_BUDGET, "HUD allocated " + allocations.hud / MEASURED_TICKS + entities);
+    }
+}
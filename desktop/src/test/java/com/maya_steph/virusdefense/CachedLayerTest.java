@@ -0,0 +1,91 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+/**
+ * Tests for CachedLayer
+ */
+public class CachedLayerTest {
+    private static final Consumer<Graphics2D> CARD = g2d -> {
+        g2d.setColor(new Color(0, 0, 255, 128));
+        g2d.fillRect(10, 10, 20, 20);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString("Hi", 12, 24);
+    };
+
+    private static BufferedImage background() {
+        BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(Color.RED);
+        g2d.fillRect(0, 0, 40, 40);
+        g2d.dispose();
+        return image;
+    }
+
+    @Test
+    void testPaintsOnlyWhenTheKeyChanges() {
+        CachedLayer layer = new CachedLayer(40, 40, false);
+        BufferedImage screen = background();
+        Graphics2D g2d = screen.createGraphics();
+        layer.draw(g2d, "a", CARD);
+        layer.draw(g2d, "a", CARD);
+        assertEquals(1, layer.getRenders());
+        layer.draw(g2d, "b", CARD);
+        assertEquals(2, layer.getRenders());
+        layer.invalidate();
+        layer.draw(g2d, "b", CARD);
+        assertEquals(3, layer.getRenders());
+        g2d.dispose();
+    }
+
+    @Test
+    void testTranslucentLayerLooksLikeDrawingDirectly() {
+        BufferedImage expected = background();
+        Graphics2D direct = expected.createGraphics();
+        CARD.accept(direct);
+        direct.dispose();
+
+        BufferedImage actual = background();
+        Graphics2D g2d = actual.createGraphics();
+        new CachedLayer(40, 40, false).draw(g2d, 1, CARD);
+        g2d.dispose();
+
+        // Only premultiplied rounding may differ
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                int e = expected.getRGB(x, y);
+                int a = actual.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    assertTrue(Math.abs(((e >> shift) & 0xFF) - ((a >> shift) & 0xFF)) <= 2, "Pixel " + x + "," + y);
+                }
+            }
+        }
+        assertEquals(Color.RED.getRGB(), actual.getRGB(0, 0), "Outside the card the screen shows through");
+    }
+
+    @Test
+    void testRendersAtTheScreenScale() {
+        CachedLayer layer = new CachedLayer(40, 40, true);
+        BufferedImage screen = new BufferedImage(80, 80, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = screen.createGraphics();
+        layer.draw(g2d, 1, g -> {
+            g.setColor(Color.GREEN);
+            g.fillRect(0, 0, 1, 1);
+        });
+        g2d.scale(2, 2);
+        layer.draw(g2d, 1, g -> {
+            g.setColor(Color.GREEN);
+            g.fillRect(0, 0, 1, 1);
+        });
+        g2d.dispose();
+        assertEquals(2, layer.getRenders(), "A new scale repaints the layer");
+        assertEquals(Color.GREEN.getRGB(), screen.getRGB(1, 1));
+        assertEquals(Color.BLACK.getRGB(), screen.getRGB(2, 2));
+    }
+}
@@ -0,0 +1,80 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for FrameScheduler
+ */
+public class FrameSchedulerTest {
+    @Test
+    void testBlinkPhase() {
+        assertTrue(FrameScheduler.isBlinkOn(0));
+        assertTrue(FrameScheduler.isBlinkOn(499));
+        assertFalse(FrameScheduler.isBlinkOn(500));
+        assertTrue(FrameScheduler.isBlinkOn(1000));
+        assertEquals(500, FrameScheduler.millisToNextBlink(1000));
+        assertEquals(1, FrameScheduler.millisToNextBlink(1499));
+    }
+
+    @Test
+    void testBlinksOnlyOnTheHomeScreen() {
+        AtomicInteger blinks = new AtomicInteger();
+        FrameScheduler scheduler = new FrameScheduler(new VirtualClock(), blinks::incrementAndGet);
+        assertFalse(scheduler.isBlinkScheduled());
+
+        scheduler.setHomeScreen(true);
+        assertTrue(scheduler.isBlinkScheduled());
+        assertEquals(1, blinks.get(), "The prompt is drawn in the current phase straight away");
+
+        scheduler.setHomeScreen(false);
+        assertFalse(scheduler.isBlinkScheduled());
+    }
+
+    @Test
+    void testStopsWhileTheWindowIsInTheBackground() {
+        AtomicInteger blinks = new AtomicInteger();
+        FrameScheduler scheduler = new FrameScheduler(new VirtualClock(), blinks::incrementAndGet);
+        scheduler.setHomeScreen(true);
+
+        scheduler.setWindowActive(false);
+        assertFalse(scheduler.isBlinkScheduled());
+        assertTrue(scheduler.isPaintingFrames(), "An unfocused game is still visible");
+
+        scheduler.setWindowActive(true);
+        assertTrue(scheduler.isBlinkScheduled());
+        assertEquals(2, blinks.get());
+
+        scheduler.setWindowIconified(true);
+        assertFalse(scheduler.isBlinkScheduled());
+        assertFalse(scheduler.isPaintingFrames());
+
+        scheduler.setWindowIconified(false);
+        assertTrue(scheduler.isPaintingFrames());
+        assertTrue(scheduler.isBlinkScheduled());
+        scheduler.setHomeScreen(false);
+    }
+
+    @Test
+    void testBlinksRightAfterEachPhaseFlipOnTheGivenClock() {
+        VirtualClock clock = new VirtualClock();
+        AtomicInteger blinks = new AtomicInteger();
+        FrameScheduler scheduler = new FrameScheduler(clock, blinks::incrementAndGet);
+        clock.advance(200);
+        scheduler.setHomeScreen(true);
+        assertEquals(1, blinks.get());
+
+        clock.advance(300);
+        assertEquals(1, blinks.get(), "Not before the phase flips at 500 ms");
+        clock.advance(1);
+        assertEquals(2, blinks.get());
+        clock.advance(500);
+        assertEquals(3, blinks.get());
+
+        scheduler.setHomeScreen(false);
+        clock.advance(2000);
+        assertEquals(3, blinks.get());
+    }
+}
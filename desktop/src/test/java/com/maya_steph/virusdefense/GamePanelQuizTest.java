@@ -10,7 +10,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import javax.swing.Timer;
+import java.util.Random;
 
 /**
  * Test class for GamePanel quiz integration functionality
@@ -23,7 +23,7 @@ public class GamePanelQuizTest {
     void setUp() {
         // Create test questions file
         createTestQuestionFile();
-        gamePanel = new GamePanel();
+        gamePanel = new GamePanel(new VirtualClock(), new SimulationThread(false), new Random(1L)); // No timer fires unless a test advances the clock
     }
     
     @AfterEach
@@ -191,9 +191,7 @@ public class GamePanelQuizTest {
             String correctAnswer = currentQuestion.getAnswer();
             
             // Get initial lives count
-            Field livesField = GamePanel.class.getDeclaredField("lives");
-            livesField.setAccessible(true);
-            int initialLives = (Integer) livesField.get(gamePanel);
+            int initialLives = gamePanel.getLives();
             
             // Set correct answer
             Field userInputField = GamePanel.class.getDeclaredField("userInput");
@@ -205,7 +203,7 @@ public class GamePanelQuizTest {
             gamePanel.keyPressed(enterEvent);
             
             // Check that lives didn't decrease
-            int currentLives = (Integer) livesField.get(gamePanel);
+            int currentLives = gamePanel.getLives();
             assertEquals(initialLives, currentLives, "Lives should not decrease for correct answer");
             
             // Check that result is showing (quiz stays visible for 2 seconds to show result)
@@ -235,9 +233,7 @@ public class GamePanelQuizTest {
             showQuizMethod.invoke(gamePanel);
             
             // Get initial lives count
-            Field livesField = GamePanel.class.getDeclaredField("lives");
-            livesField.setAccessible(true);
-            int initialLives = (Integer) livesField.get(gamePanel);
+            int initialLives = gamePanel.getLives();
             
             // Set incorrect answer
             Field userInputField = GamePanel.class.getDeclaredField("userInput");
@@ -249,7 +245,7 @@ public class GamePanelQuizTest {
             gamePanel.keyPressed(enterEvent);
             
             // Check that lives decreased by 1
-            int currentLives = (Integer) livesField.get(gamePanel);
+            int currentLives = gamePanel.getLives();
             assertEquals(initialLives - 1, currentLives, "Lives should decrease by 1 for incorrect answer");
             
             // Check that result is showing (quiz stays visible for 2 seconds to show result)
@@ -0,0 +1,97 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Tests for OverlayPainter
+ */
+public class OverlayPainterTest {
+    private OverlayEffect overlay;
+    private OverlayPainter painter;
+    
+    @BeforeEach
+    void setUp() {
+        overlay = new OverlayEffect();
+        painter = new OverlayPainter();
+    }
+    
+    private static BufferedImage redImage() {
+        BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(Color.RED);
+        g2d.fillRect(0, 0, 40, 40);
+        g2d.dispose();
+        return image;
+    }
+    
+    @Test
+    void testOverlaysCompositeLikeSeparateFills() {
+        overlay.triggerDarken();
+        overlay.triggerLifeLossShakeAndRedOverlay();
+        overlay.triggerNewRoundFlash();
+        int frames = 5;
+        for (int i = 0; i < frames; i++) {
+            overlay.update();
+        }
+        
+        // The three fills the overlays used to be drawn with
+        BufferedImage separate = redImage();
+        Graphics2D g2d = separate.createGraphics();
+        g2d.setColor(new Color(0, 0, 0, overlay.getDarknessLevel()));
+        g2d.fillRect(0, 0, 40, 40);
+        g2d.setColor(new Color(255, 0, 0, (int) ((60 - frames) / 60f * 180)));
+        g2d.fillRect(0, 0, 40, 40);
+        g2d.setColor(new Color(0, 255, 0, (int) ((20 - frames) / 20f * 0.6f * 255)));
+        g2d.fillRect(0, 0, 40, 40);
+        g2d.dispose();
+        
+        BufferedImage composited = redImage();
+        g2d = composited.createGraphics();
+        painter.drawOverlays(g2d, overlay, 40, 40);
+        g2d.dispose();
+        
+        Color expected = new Color(separate.getRGB(20, 20));
+        Color actual = new Color(composited.getRGB(20, 20));
+        assertEquals(expected.getRed(), actual.getRed(), 3);
+        assertEquals(expected.getGreen(), actual.getGreen(), 3);
+        assertEquals(expected.getBlue(), actual.getBlue(), 3);
+    }
+    
+    @Test
+    void testNoOverlayDrawsNothing() {
+        assertEquals(0, overlay.overlayArgb());
+        BufferedImage image = redImage();
+        Graphics2D g2d = image.createGraphics();
+        painter.drawOverlays(g2d, overlay, 40, 40);
+        g2d.dispose();
+        assertEquals(Color.RED.getRGB(), image.getRGB(10, 10));
+    }
+    
+    @Test
+    void testMovingBackgroundCoversAndScrolls() {
+        overlay.startMovingBackground();
+        BufferedImage first = new BufferedImage(200, 300, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = first.createGraphics();
+        painter.drawBackground(g2d, overlay, 200, 300);
+        g2d.dispose();
+        for (int y = 0; y < 300; y++) {
+            assertNotEquals(0, first.getRGB(199, y) & 0xFF0000, "row " + y + " should be painted");
+        }
+        
+        overlay.update();
+        BufferedImage second = new BufferedImage(200, 300, BufferedImage.TYPE_INT_RGB);
+        g2d = second.createGraphics();
+        painter.drawBackground(g2d, overlay, 200, 300);
+        g2d.dispose();
+        // Scrolled by 3 pixels
+        for (int y = 0; y < 290; y++) {
+            assertEquals(first.getRGB(150, y), second.getRGB(150, y + 3), "row " + y);
+        }
+    }
+}
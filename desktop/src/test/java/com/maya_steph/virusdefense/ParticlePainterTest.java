@@ -0,0 +1,29 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Tests for ParticlePainter
+ */
+public class ParticlePainterTest {
+
+    @Test
+    void testDrawingIsBatchedByColor() {
+        ParticleSystem particles = new ParticleSystem();
+        for (int i = 0; i < 50; i++) {
+            particles.virusDestroyed(new Virus(10 * i, 100, 1.0, Virus.VirusType.ROUND_VIRUS));
+        }
+        BufferedImage image = new BufferedImage(600, 800, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        // 600 fragments of one color, all at full strength: a single batch
+        assertEquals(1, ParticlePainter.draw(g2d, particles));
+
+        particles.effectiveHit(300, 300);
+        assertEquals(3, ParticlePainter.draw(g2d, particles), "Fragments, yellow sparks and white sparks");
+        g2d.dispose();
+    }
+}
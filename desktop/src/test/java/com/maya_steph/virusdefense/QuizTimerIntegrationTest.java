@@ -4,29 +4,31 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.*;
+import javax.swing.SwingUtilities;
 import java.awt.event.KeyEvent;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import javax.swing.Timer;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.Random;
 
 /**
- * Integration test for quiz timer functionality and life system
+ * Integration test for quiz timer functionality and life system.
+ * The panel runs on a virtual clock with ticks on the test thread, so a minute of game time passes
+ * in a moment and every timer fires exactly when it is due.
  */
 public class QuizTimerIntegrationTest {
     
     private GamePanel gamePanel;
-    private CountDownLatch quizLatch;
+    private VirtualClock clock;
     
     @BeforeEach
     void setUp() {
         createTestQuestionFile();
-        gamePanel = new GamePanel();
-        quizLatch = new CountDownLatch(1);
+        clock = new VirtualClock();
+        // A fixed seed makes every game, and so when lives are lost and practice mode rewinds, the same on each run
+        gamePanel = new GamePanel(clock, new SimulationThread(false), new Random(48L));
     }
     
     @AfterEach
@@ -64,7 +66,7 @@ public class QuizTimerIntegrationTest {
             // Check that quiz timer is created and started
             Field quizTimerField = GamePanel.class.getDeclaredField("quizTimer");
             quizTimerField.setAccessible(true);
-            Timer quizTimer = (Timer) quizTimerField.get(gamePanel);
+            GameClock.Timer quizTimer = (GameClock.Timer) quizTimerField.get(gamePanel);
             
             assertNotNull(quizTimer, "Quiz timer should be created");
             assertTrue(quizTimer.isRunning(), "Quiz timer should be running after game starts");
@@ -102,7 +104,7 @@ public class QuizTimerIntegrationTest {
             // Check that a new timer is scheduled
             Field quizTimerField = GamePanel.class.getDeclaredField("quizTimer");
             quizTimerField.setAccessible(true);
-            Timer newQuizTimer = (Timer) quizTimerField.get(gamePanel);
+            GameClock.Timer newQuizTimer = (GameClock.Timer) quizTimerField.get(gamePanel);
             
             assertNotNull(newQuizTimer, "New quiz timer should be scheduled after answering");
             assertTrue(newQuizTimer.isRunning(), "New quiz timer should be running");
@@ -118,9 +120,7 @@ public class QuizTimerIntegrationTest {
             gamePanel.startGame();
             
             // Get initial lives
-            Field livesField = GamePanel.class.getDeclaredField("lives");
-            livesField.setAccessible(true);
-            int initialLives = (Integer) livesField.get(gamePanel);
+            int initialLives = gamePanel.getLives();
             assertEquals(3, initialLives, "Game should start with 3 lives");
             
             // Show quiz manually
@@ -139,7 +139,7 @@ public class QuizTimerIntegrationTest {
             gamePanel.keyPressed(enterEvent);
             
             // Check lives decreased
-            int currentLives = (Integer) livesField.get(gamePanel);
+            int currentLives = gamePanel.getLives();
             assertEquals(2, currentLives, "Lives should decrease by 1 for wrong answer");
             
         } catch (Exception e) {
@@ -152,8 +152,6 @@ public class QuizTimerIntegrationTest {
         try {
             gamePanel.startGame();
             
-            Field livesField = GamePanel.class.getDeclaredField("lives");
-            livesField.setAccessible(true);
             Field gameOverField = GamePanel.class.getDeclaredField("gameOver");
             gameOverField.setAccessible(true);
             
@@ -176,7 +174,7 @@ public class QuizTimerIntegrationTest {
                 hideQuizAndResumeMethod.setAccessible(true);
                 hideQuizAndResumeMethod.invoke(gamePanel);
                 
-                int currentLives = (Integer) livesField.get(gamePanel);
+                int currentLives = gamePanel.getLives();
                 assertEquals(2 - i, currentLives, "Lives should decrease after wrong answer " + (i + 1));
             }
             
@@ -194,9 +192,7 @@ public class QuizTimerIntegrationTest {
         try {
             gamePanel.startGame();
             
-            Field livesField = GamePanel.class.getDeclaredField("lives");
-            livesField.setAccessible(true);
-            int initialLives = (Integer) livesField.get(gamePanel);
+            int initialLives = gamePanel.getLives();
             
             // Show quiz and answer correctly multiple times
             Method showQuizMethod = GamePanel.class.getDeclaredMethod("showQuiz");
@@ -220,7 +216,7 @@ public class QuizTimerIntegrationTest {
                     System.currentTimeMillis(), 0, KeyEvent.VK_ENTER, KeyEvent.CHAR_UNDEFINED);
                 gamePanel.keyPressed(enterEvent);
                 
-                int currentLives = (Integer) livesField.get(gamePanel);
+                int currentLives = gamePanel.getLives();
                 assertEquals(initialLives, currentLives, "Lives should not change for correct answers");
             }
             
@@ -236,14 +232,14 @@ public class QuizTimerIntegrationTest {
             
             Field gameTimerField = GamePanel.class.getDeclaredField("gameTimer");
             gameTimerField.setAccessible(true);
-            Timer gameTimer = (Timer) gameTimerField.get(gamePanel);
+            GameClock.Timer gameTimer = (GameClock.Timer) gameTimerField.get(gamePanel);
             
-            Field virusSpawnTimerField = GamePanel.class.getDeclaredField("virusSpawnTimer");
-            virusSpawnTimerField.setAccessible(true);
-            Timer virusSpawnTimer = (Timer) virusSpawnTimerField.get(gamePanel);
+            // Virus spawning counts down in game ticks, so it is paused whenever the game timer is
+            GameSimulation simulation = gamePanel.getSimulation();
+            int spawnCountdown = simulation.getSpawnCountdownTicks();
             
             assertTrue(gameTimer.isRunning(), "Game timer should be running initially");
-            assertTrue(virusSpawnTimer.isRunning(), "Virus spawn timer should be running initially");
+            assertTrue(spawnCountdown > 0, "Virus spawning should be scheduled initially");
             
             // Show quiz
             Method showQuizMethod = GamePanel.class.getDeclaredMethod("showQuiz");
@@ -252,7 +248,7 @@ public class QuizTimerIntegrationTest {
             
             // Timers should be stopped
             assertFalse(gameTimer.isRunning(), "Game timer should be stopped during quiz");
-            assertFalse(virusSpawnTimer.isRunning(), "Virus spawn timer should be stopped during quiz");
+            assertEquals(spawnCountdown, simulation.getSpawnCountdownTicks(), "Virus spawning should not advance during quiz");
             
             // Answer quiz
             Field userInputField = GamePanel.class.getDeclaredField("userInput");
@@ -270,7 +266,7 @@ public class QuizTimerIntegrationTest {
             
             // Timers should resume after quiz is hidden
             assertTrue(gameTimer.isRunning(), "Game timer should resume after quiz");
-            assertTrue(virusSpawnTimer.isRunning(), "Virus spawn timer should resume after quiz");
+            assertTrue(simulation.getSpawnCountdownTicks() > 0, "Virus spawning should still be scheduled after quiz");
             
         } catch (Exception e) {
             fail("Failed to test game pause/resume: " + e.getMessage());
@@ -320,7 +316,7 @@ public class QuizTimerIntegrationTest {
             int[] delays = new int[10];
             for (int i = 0; i < 10; i++) {
                 scheduleNextQuizMethod.invoke(gamePanel);
-                Timer timer = (Timer) quizTimerField.get(gamePanel);
+                GameClock.Timer timer = (GameClock.Timer) quizTimerField.get(gamePanel);
                 delays[i] = timer.getDelay();
                 timer.stop(); // Stop to allow next scheduling
             }
@@ -345,4 +341,110 @@ public class QuizTimerIntegrationTest {
             fail("Failed to test random timer intervals: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testGameTimerTicksEverySixteenMilliseconds() {
+        gamePanel.startGame();
+        long startTick = gamePanel.getSimulation().getTick();
+        
+        clock.advance(1600);
+        
+        assertEquals(startTick + 100, gamePanel.getSimulation().getTick(), "One tick per 16 ms of game time");
+    }
+    
+    @Test
+    void testQuizAppearsWhenItsTimerIsDue() throws Exception {
+        startPracticeGame(); // Losing a life rewinds, so the game lasts until the quiz without a player
+        int delay = quizTimer().getDelay();
+        
+        clock.advance(delay - 1);
+        assertFalse(getBoolean("showingQuiz"), "Quiz should not show before its delay has passed");
+        
+        clock.advance(1);
+        assertTrue(getBoolean("showingQuiz"), "Quiz should show once its delay has passed");
+        assertTrue(getBoolean("waitingForAnswer"), "Quiz should wait for an answer");
+        
+        // The game is paused while the question is up
+        long pausedTick = gamePanel.getSimulation().getTick();
+        clock.advance(10_000);
+        assertEquals(pausedTick, gamePanel.getSimulation().getTick(), "Game should not tick during the quiz");
+    }
+    
+    @Test
+    void testResultShowsForTwoSecondsThenGameResumes() throws Exception {
+        startPracticeGame();
+        clock.advance(quizTimer().getDelay());
+        assertTrue(getBoolean("showingQuiz"), "Quiz should be showing");
+        
+        answer("abc123");
+        clock.advance(1999);
+        assertTrue(getBoolean("showingResult"), "Result should still show just before two seconds");
+        long pausedTick = gamePanel.getSimulation().getTick();
+        
+        clock.advance(1);
+        assertFalse(getBoolean("showingQuiz"), "Quiz should be hidden after two seconds");
+        GameClock.Timer nextQuiz = quizTimer();
+        assertTrue(nextQuiz.isRunning(), "Next quiz should be scheduled");
+        assertTrue(nextQuiz.getDelay() >= 35000 && nextQuiz.getDelay() <= 60000, "Next quiz in 35-60 seconds, was " + nextQuiz.getDelay() + "ms");
+        
+        clock.advance(160);
+        assertEquals(pausedTick + 10, gamePanel.getSimulation().getTick(), "Game should tick again after the quiz");
+    }
+    
+    @Test
+    void testGameOverCancelsPendingQuiz() throws Exception {
+        gamePanel.startGame();
+        GameClock.Timer quizTimer = quizTimer();
+        
+        // Nobody is playing, so the viruses end the game well before the first quiz
+        clock.advance(60_000);
+        SwingUtilities.invokeAndWait(() -> {}); // Game over finishes on the event dispatch thread
+        
+        assertTrue(getBoolean("gameOver"), "Game should be over");
+        assertFalse(quizTimer.isRunning(), "Quiz timer should be stopped by game over");
+        assertFalse(getBoolean("showingQuiz"), "No quiz should show after game over");
+        assertEquals(0, clock.getRunningTimerCount(), "No timer should be left running");
+    }
+    
+    @Test
+    void testGameOverFromSimulationThreadClosesQuizOnEventThread() throws Exception {
+        startPracticeGame();
+        clock.advance(quizTimer().getDelay());
+        assertTrue(getBoolean("showingQuiz"), "Quiz should be showing");
+        
+        // The simulation thread only marks the game over; the quiz is closed by the event dispatch thread
+        Thread simulationThread = new Thread(gamePanel::onGameOver, "simulation");
+        simulationThread.start();
+        simulationThread.join();
+        assertTrue(getBoolean("gameOver"), "Game over should be visible at once");
+        SwingUtilities.invokeAndWait(() -> {});
+        
+        assertFalse(getBoolean("showingQuiz"), "Quiz should close after game over");
+        assertFalse(getBoolean("waitingForAnswer"), "No answer should be expected after game over");
+        assertEquals(0, clock.getRunningTimerCount(), "No timer should be left running");
+    }
+    
+    private void startPracticeGame() {
+        gamePanel.keyPressed(new KeyEvent(gamePanel, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_T, 't'));
+        gamePanel.startGame();
+    }
+    
+    private void answer(String text) throws Exception {
+        Field userInputField = GamePanel.class.getDeclaredField("userInput");
+        userInputField.setAccessible(true);
+        userInputField.set(gamePanel, text);
+        gamePanel.keyPressed(new KeyEvent(gamePanel, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_ENTER, KeyEvent.CHAR_UNDEFINED));
+    }
+    
+    private GameClock.Timer quizTimer() throws Exception {
+        Field quizTimerField = GamePanel.class.getDeclaredField("quizTimer");
+        quizTimerField.setAccessible(true);
+        return (GameClock.Timer) quizTimerField.get(gamePanel);
+    }
+    
+    private boolean getBoolean(String fieldName) throws Exception {
+        Field field = GamePanel.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field.getBoolean(gamePanel);
+    }
+}
@@ -0,0 +1,33 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for the first-frame signal StartupProbe and StartupBenchmark time launches with
+ */
+public class StartupProbeTest {
+
+    @Test
+    void testFirstFrameListenerRunsOnceAfterPaint() {
+        GamePanel gamePanel = new GamePanel(new VirtualClock(), new SimulationThread(false), new Random(1L));
+        gamePanel.setSize(GameSimulation.WIDTH, GameSimulation.HEIGHT);
+        AtomicInteger frames = new AtomicInteger();
+        gamePanel.setFirstFrameListener(frames::incrementAndGet);
+        assertEquals(0, frames.get());
+
+        BufferedImage image = new BufferedImage(GameSimulation.WIDTH, GameSimulation.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        gamePanel.paint(g2d);
+        gamePanel.paint(g2d);
+        g2d.dispose();
+
+        assertEquals(1, frames.get());
+        assertNotEquals(0, image.getRGB(GameSimulation.WIDTH / 2, 10), "The home screen was painted");
+    }
+}
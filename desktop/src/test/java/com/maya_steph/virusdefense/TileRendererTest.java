@@ -0,0 +1,144 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+
+/**
+ * Tests for TileRenderer
+ */
+public class TileRendererTest {
+    private static GameSimulation busyWorld() {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setLogging(false);
+        simulation.startNewGame(5L);
+        // Play on until viruses and projectiles are both on screen
+        while ((simulation.getTick() < 600 || simulation.getViruses().size() < 2
+                || simulation.getWeapons().getProjectiles().isEmpty()) && !simulation.isGameOver()) {
+            for (GameInput input : TestBot.inputs(simulation)) {
+                simulation.applyInput(input);
+            }
+            simulation.update();
+        }
+        return simulation;
+    }
+
+    private static BufferedImage render(WorldRenderer renderer, GameSimulation world, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        renderer.render(g2d, RenderSnapshot.of(world), width, height);
+        g2d.dispose();
+        return image;
+    }
+
+    @Test
+    void testThreadCountDoesNotChangeThePicture() {
+        GameSimulation world = busyWorld();
+        try (TileRenderer single = new TileRenderer(1); TileRenderer parallel = new TileRenderer(4)) {
+            BufferedImage expected = render(single, world, GameSimulation.WIDTH, GameSimulation.HEIGHT);
+            BufferedImage actual = render(parallel, world, GameSimulation.WIDTH, GameSimulation.HEIGHT);
+            for (int y = 0; y < expected.getHeight(); y++) {
+                for (int x = 0; x < expected.getWidth(); x++) {
+                    assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMatchesJava2DRenderer() {
+        GameSimulation world = busyWorld();
+        assertFalse(world.getViruses().isEmpty());
+        BufferedImage expected = render(new Java2DRenderer(), world, GameSimulation.WIDTH, GameSimulation.HEIGHT);
+        try (TileRenderer renderer = new TileRenderer(2)) {
+            BufferedImage actual = render(renderer, world, GameSimulation.WIDTH, GameSimulation.HEIGHT);
+
+            // Sprites are placed to the whole pixel, so only edges may differ
+            int different = 0;
+            for (int y = 0; y < expected.getHeight(); y++) {
+                for (int x = 0; x < expected.getWidth(); x++) {
+                    if (distance(expected.getRGB(x, y), actual.getRGB(x, y)) > 48) {
+                        different++;
+                    }
+                }
+            }
+            assertTrue(different < expected.getWidth() * expected.getHeight() / 100, different + " pixels differ");
+        }
+    }
+
+    @Test
+    void testLetterboxAndScaledArena() {
+        GameSimulation world = busyWorld();
+        world.getOverlay().reset(); // Plain red background, no shake
+        try (TileRenderer renderer = new TileRenderer(3)) {
+            // Twice as wide as the arena's shape: black bars left and right
+            BufferedImage image = render(renderer, world, 400, 200);
+            assertEquals(0x000000, image.getRGB(10, 100) & 0xFFFFFF);
+            assertEquals(0x000000, image.getRGB(390, 100) & 0xFFFFFF);
+            assertEquals(0xFF0000, image.getRGB(200, 2) & 0xFFFFFF);
+        }
+    }
+
+    @Test
+    void testOverlayIsBlended() {
+        GameSimulation world = new GameSimulation();
+        world.setLogging(false);
+        world.startNewGame(1L);
+        world.getOverlay().reset();
+
+        try (TileRenderer renderer = new TileRenderer(2)) {
+            int background = render(renderer, world, GameSimulation.WIDTH, GameSimulation.HEIGHT).getRGB(5, 5);
+            world.getOverlay().triggerNewRoundFlash();
+            int argb = world.getOverlay().overlayArgb();
+            assertNotEquals(0, argb >>> 24);
+
+            BufferedImage image = render(renderer, world, GameSimulation.WIDTH, GameSimulation.HEIGHT);
+            assertEquals(TileRenderer.blend(background, argb, argb >>> 24), image.getRGB(5, 5) & 0xFFFFFF);
+        }
+    }
+
+    @Test
+    void testBlend() {
+        assertEquals(0x00FF00, TileRenderer.blend(0xFF0000, 0xFF00FF00, 255));
+        assertEquals(0xFF0000, TileRenderer.blend(0xFF0000, 0x0000FF00, 0));
+        assertEquals(0x7F8000, TileRenderer.blend(0xFF0000, 0x8000FF00, 128));
+    }
+
+    private static int distance(int a, int b) {
+        return Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF))
+            + Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF))
+            + Math.abs((a & 0xFF) - (b & 0xFF));
+    }
+
+    @Test
+    void testSpritesAreReloadedFromTheAssetCache(@TempDir Path directory) {
+        GameSimulation world = busyWorld();
+        BufferedImage expected;
+        AssetCache first = new AssetCache(directory);
+        try (TileRenderer renderer = new TileRenderer(1, first)) {
+            expected = render(renderer, world, GameSimulation.WIDTH, GameSimulation.HEIGHT);
+        }
+        first.flush();
+
+        AssetCache second = new AssetCache(directory);
+        try (TileRenderer renderer = new TileRenderer(1, second)) {
+            renderer.render(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics(),
+                    RenderSnapshot.of(new GameSimulation()), GameSimulation.WIDTH, GameSimulation.HEIGHT);
+            assertEquals(1, second.getHits());
+            assertTrue(renderer.getCachedSpriteCount() > 0);
+
+            BufferedImage actual = render(renderer, world, GameSimulation.WIDTH, GameSimulation.HEIGHT);
+            for (int y = 0; y < expected.getHeight(); y++) {
+                for (int x = 0; x < expected.getWidth(); x++) {
+                    assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel " + x + "," + y);
+                }
+            }
+        }
+    }
+}
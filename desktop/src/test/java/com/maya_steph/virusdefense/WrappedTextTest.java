@@ -0,0 +1,47 @@
+package com.maya_steph.virusdefense;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Font;
+import java.awt.font.GlyphVector;
+import java.util.List;
+
+/**
+ * Tests for WrappedText
+ */
+public class WrappedTextTest {
+    private static final Font FONT = new Font("Arial", Font.PLAIN, 22);
+
+    @Test
+    void testWrapsAtWordsWithinTheWidth() {
+        WrappedText text = new WrappedText(FONT, 200);
+        String question = "Which chamber of the heart pumps oxygenated blood out to the rest of the body?";
+        List<GlyphVector> lines = text.getLines("Q1", question);
+
+        assertTrue(lines.size() > 1);
+        int glyphs = 0;
+        for (GlyphVector line : lines) {
+            assertTrue(line.getLogicalBounds().getWidth() <= 200.5, "Line fits");
+            glyphs += line.getNumGlyphs();
+        }
+        // Wrapping only drops the spaces between lines
+        assertEquals(question.length() - (lines.size() - 1), glyphs);
+    }
+
+    @Test
+    void testShortTextStaysOnOneLineAndLongWordsAreNotSplit() {
+        WrappedText text = new WrappedText(FONT, 100);
+        assertEquals(1, text.getLines("short", "Hi").size());
+        assertEquals(2, text.getLines("long", "Supercalifragilistic Expialidocious").size());
+    }
+
+    @Test
+    void testLayoutIsCachedByKey() {
+        WrappedText text = new WrappedText(FONT, 300);
+        List<GlyphVector> first = text.getLines("Q7", "What carries blood back to the heart?");
+        assertSame(first, text.getLines("Q7", "What carries blood back to the heart?"));
+        text.getLines("Q8", "Another question");
+        assertEquals(2, text.getCachedCount());
+    }
+}